@@ -43,8 +43,13 @@ public class SecurityConfig {
                         .requestMatchers("/v3/api-docs/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/fulcrum/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/floor/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/shaft/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/navigation/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/navigation/path").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/navigation/path/alternatives").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/navigation/path/from-point").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/navigation/paths").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/navigation/nearest").permitAll()
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
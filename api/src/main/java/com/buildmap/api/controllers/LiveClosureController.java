@@ -0,0 +1,50 @@
+package com.buildmap.api.controllers;
+
+import com.buildmap.api.dto.live_closure.LiveClosureDto;
+import com.buildmap.api.dto.live_closure.LiveClosureSaveDto;
+import com.buildmap.api.dto.live_closure.mappers.LiveClosureMapper;
+import com.buildmap.api.entities.user.User;
+import com.buildmap.api.services.AuthorizationService;
+import com.buildmap.api.services.navigation.live_closures.LiveClosure;
+import com.buildmap.api.services.navigation.live_closures.LiveClosureService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/closure")
+@RequiredArgsConstructor
+public class LiveClosureController {
+
+    private final LiveClosureService liveClosureService;
+    private final LiveClosureMapper liveClosureMapper;
+    private final AuthorizationService authorizationService;
+
+    @PostMapping
+    public ResponseEntity<LiveClosureDto> create(@Valid @RequestBody LiveClosureSaveDto closureDto) {
+        User currentUser = authorizationService.getCurrentUser();
+        authorizationService.requireFulcrumOwnerOrAdmin(currentUser, closureDto.getFulcrumId());
+        LiveClosure created = liveClosureService.create(closureDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(liveClosureMapper.toDto(created));
+    }
+
+    @GetMapping("/area/{areaId}")
+    public ResponseEntity<List<LiveClosureDto>> getByAreaId(@PathVariable Long areaId) {
+        User currentUser = authorizationService.getCurrentUser();
+        authorizationService.requireAreaOwnerOrAdmin(currentUser, areaId);
+        return ResponseEntity.ok(liveClosureMapper.toDtoList(liveClosureService.getActiveByMappingAreaId(areaId)));
+    }
+
+    @DeleteMapping("/{closureId}")
+    public ResponseEntity<Void> delete(@PathVariable Long closureId) {
+        User currentUser = authorizationService.getCurrentUser();
+        LiveClosure closure = liveClosureService.getById(closureId);
+        authorizationService.requireAreaOwnerOrAdmin(currentUser, closure.mappingAreaId());
+        liveClosureService.delete(closureId);
+        return ResponseEntity.noContent().build();
+    }
+}
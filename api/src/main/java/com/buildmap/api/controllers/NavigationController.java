@@ -1,13 +1,24 @@
 package com.buildmap.api.controllers;
 
+import com.buildmap.api.dto.fulcrum.FulcrumDto;
+import com.buildmap.api.dto.route.AlternativeRouteRequestDto;
+import com.buildmap.api.dto.route.BatchRouteRequestDto;
+import com.buildmap.api.dto.route.BatchRouteResultDto;
+import com.buildmap.api.dto.route.GraphCacheStatsDto;
+import com.buildmap.api.dto.route.NearestRouteRequestDto;
+import com.buildmap.api.dto.route.PointRouteRequestDto;
+import com.buildmap.api.dto.route.RouteCacheStatsDto;
 import com.buildmap.api.dto.route.RouteDto;
 import com.buildmap.api.dto.route.RouteRequestDto;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
 import com.buildmap.api.services.navigation.NavigationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/navigation") // Упрощаем путь
 @RequiredArgsConstructor
@@ -21,10 +32,51 @@ public class NavigationController {
         return ResponseEntity.ok(routeDto);
     }
 
+    @PostMapping("/path/alternatives")
+    public ResponseEntity<List<RouteDto>> findAlternatives(@Valid @RequestBody AlternativeRouteRequestDto request) {
+        return ResponseEntity.ok(navigationService.findAlternatives(request));
+    }
+
+    @PostMapping("/path/from-point")
+    public ResponseEntity<RouteDto> findShortestPathFromPoint(@Valid @RequestBody PointRouteRequestDto request) {
+        RouteDto routeDto = navigationService.findShortestPathFromPoint(request);
+        return ResponseEntity.ok(routeDto);
+    }
+
+    @PostMapping("/paths")
+    public ResponseEntity<List<BatchRouteResultDto>> findShortestPaths(@Valid @RequestBody BatchRouteRequestDto request) {
+        return ResponseEntity.ok(navigationService.findShortestPaths(request));
+    }
+
+    @PostMapping("/nearest")
+    public ResponseEntity<RouteDto> findNearest(@Valid @RequestBody NearestRouteRequestDto request) {
+        RouteDto routeDto = navigationService.findNearest(request);
+        return ResponseEntity.ok(routeDto);
+    }
+
+    @GetMapping("/floor/{floorId}/nearest-fulcrums")
+    public ResponseEntity<List<FulcrumDto>> findNearestToPoint(@PathVariable Long floorId,
+                                                               @RequestParam double x,
+                                                               @RequestParam double y,
+                                                               @RequestParam(defaultValue = "1") int k,
+                                                               @RequestParam(required = false) FulcrumType type) {
+        return ResponseEntity.ok(navigationService.findNearestToPoint(floorId, x, y, k, type));
+    }
+
     // Endpoint для отладки
     @GetMapping("/debug/graph/{areaId}")
     public ResponseEntity<String> debugGraph(@PathVariable Long areaId) {
         navigationService.testGraphBuilding(areaId);
-        return ResponseEntity.ok("Graph debug completed. Check console logs.");
+        return ResponseEntity.ok("Graph debug completed. Check application logs.");
+    }
+
+    @GetMapping("/debug/route-cache")
+    public ResponseEntity<RouteCacheStatsDto> routeCacheStats() {
+        return ResponseEntity.ok(navigationService.getRouteCacheStats());
+    }
+
+    @GetMapping("/debug/graph-cache")
+    public ResponseEntity<GraphCacheStatsDto> graphCacheStats() {
+        return ResponseEntity.ok(navigationService.getGraphCacheStats());
     }
 }
\ No newline at end of file
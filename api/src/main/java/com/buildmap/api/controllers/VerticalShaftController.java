@@ -0,0 +1,85 @@
+package com.buildmap.api.controllers;
+
+import com.buildmap.api.dto.vertical_shaft.VerticalShaftDto;
+import com.buildmap.api.dto.vertical_shaft.VerticalShaftSaveDto;
+import com.buildmap.api.dto.vertical_shaft.mappers.VerticalShaftMapper;
+import com.buildmap.api.entities.mapping_area.VerticalShaft;
+import com.buildmap.api.entities.user.User;
+import com.buildmap.api.services.AuthorizationService;
+import com.buildmap.api.services.VerticalShaftService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/shaft")
+@RequiredArgsConstructor
+public class VerticalShaftController {
+
+    private final VerticalShaftService verticalShaftService;
+    private final VerticalShaftMapper verticalShaftMapper;
+    private final AuthorizationService authorizationService;
+
+    @PostMapping
+    public ResponseEntity<VerticalShaftDto> create(@Valid @RequestBody VerticalShaftSaveDto shaftDto) {
+        User currentUser = authorizationService.getCurrentUser();
+        authorizationService.requireAreaOwnerOrAdmin(currentUser, shaftDto.getMappingAreaId());
+        VerticalShaft created = verticalShaftService.create(shaftDto);
+        return ResponseEntity.status(HttpStatus.CREATED).body(toDto(created));
+    }
+
+    @GetMapping("/area/{areaId}")
+    public ResponseEntity<List<VerticalShaftDto>> getByAreaId(@PathVariable Long areaId) {
+        List<VerticalShaft> shafts = verticalShaftService.getAllByMappingAreaId(areaId);
+        return ResponseEntity.ok(shafts.stream().map(this::toDto).toList());
+    }
+
+    @GetMapping("/{shaftId}")
+    public ResponseEntity<VerticalShaftDto> getById(@PathVariable Long shaftId) {
+        return ResponseEntity.ok(toDto(verticalShaftService.getById(shaftId)));
+    }
+
+    @PutMapping("/{shaftId}")
+    public ResponseEntity<VerticalShaftDto> update(
+            @PathVariable Long shaftId,
+            @Valid @RequestBody VerticalShaftSaveDto shaftDto) {
+        requireShaftOwnerOrAdmin(shaftId);
+        VerticalShaft updated = verticalShaftService.update(shaftId, shaftDto);
+        return ResponseEntity.ok(toDto(updated));
+    }
+
+    @DeleteMapping("/{shaftId}")
+    public ResponseEntity<Void> safeDelete(@PathVariable Long shaftId) {
+        requireShaftOwnerOrAdmin(shaftId);
+        verticalShaftService.safeDelete(shaftId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/{shaftId}/fulcrum/{fulcrumId}")
+    public ResponseEntity<Void> addFulcrum(@PathVariable Long shaftId, @PathVariable Long fulcrumId) {
+        requireShaftOwnerOrAdmin(shaftId);
+        verticalShaftService.addFulcrum(shaftId, fulcrumId);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/{shaftId}/fulcrum/{fulcrumId}")
+    public ResponseEntity<Void> removeFulcrum(@PathVariable Long shaftId, @PathVariable Long fulcrumId) {
+        requireShaftOwnerOrAdmin(shaftId);
+        verticalShaftService.removeFulcrum(shaftId, fulcrumId);
+        return ResponseEntity.noContent().build();
+    }
+
+    private void requireShaftOwnerOrAdmin(Long shaftId) {
+        User currentUser = authorizationService.getCurrentUser();
+        VerticalShaft shaft = verticalShaftService.getById(shaftId);
+        authorizationService.requireAreaOwnerOrAdmin(currentUser, shaft.getMappingArea().getId());
+    }
+
+    private VerticalShaftDto toDto(VerticalShaft shaft) {
+        return verticalShaftMapper.toDto(shaft, verticalShaftService.getFulcrumIds(shaft.getId()));
+    }
+}
@@ -20,6 +20,7 @@ public class FulcrumDto {
     private String qrCodeId;
     private Long mappingAreaId;
     private Long floorId;
+    private Long shaftId;
     private boolean deleted;
     private List<FulcrumConnectionDto> connections;
 }
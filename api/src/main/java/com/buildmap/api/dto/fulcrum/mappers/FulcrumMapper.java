@@ -19,6 +19,7 @@ public interface FulcrumMapper {
 
     @Mapping(target = "mappingAreaId", expression = "java(entity.getMappingArea() != null ? entity.getMappingArea().getId() : null)")
     @Mapping(target = "floorId", source = "floor.id")
+    @Mapping(target = "shaftId", source = "shaft.id")
     @Mapping(target = "connections", source = "connections", qualifiedByName = "connectionsToDtos")
     @Mapping(target = "qrCodeId", expression = "java(generateQrCodeUrl(entity))")
     FulcrumDto toDto(Fulcrum entity);
@@ -30,6 +31,7 @@ public interface FulcrumMapper {
     @Mapping(target = "qrCodeId", ignore = true)
     @Mapping(target = "floor", source = "floorId", qualifiedByName = "floorIdToFloor")
     @Mapping(target = "connections", ignore = true)
+    @Mapping(target = "shaft", ignore = true)
     Fulcrum toEntity(FulcrumSaveDto dto);
 
     @Mapping(target = "id", ignore = true)
@@ -37,6 +39,7 @@ public interface FulcrumMapper {
     @Mapping(target = "qrCodeId", ignore = true)
     @Mapping(target = "floor", ignore = true)
     @Mapping(target = "connections", ignore = true)
+    @Mapping(target = "shaft", ignore = true)
     void updateEntity(FulcrumSaveDto dto, @MappingTarget Fulcrum entity);
 
     @Named("floorIdToFloor")
@@ -0,0 +1,17 @@
+package com.buildmap.api.dto.live_closure;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class LiveClosureDto {
+    private Long id;
+    private Long mappingAreaId;
+    private Long fulcrumId;
+    private Long connectedFulcrumId;
+    private Double penalty;
+    private boolean closed;
+    private String reason;
+    private Instant expiresAt;
+}
@@ -0,0 +1,25 @@
+package com.buildmap.api.dto.live_closure;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class LiveClosureSaveDto {
+    @NotNull
+    private Long fulcrumId;
+
+    private Long connectedFulcrumId;
+
+    @DecimalMin(value = "1.0", inclusive = true)
+    private Double penalty;
+
+    @Size(max = 200)
+    private String reason;
+
+    @NotNull
+    private Instant expiresAt;
+}
@@ -0,0 +1,17 @@
+package com.buildmap.api.dto.live_closure.mappers;
+
+import com.buildmap.api.dto.live_closure.LiveClosureDto;
+import com.buildmap.api.services.navigation.live_closures.LiveClosure;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface LiveClosureMapper {
+
+    @Mapping(target = "closed", expression = "java(closure.isClosed())")
+    LiveClosureDto toDto(LiveClosure closure);
+
+    List<LiveClosureDto> toDtoList(List<LiveClosure> closures);
+}
@@ -0,0 +1,28 @@
+package com.buildmap.api.dto.route;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class AlternativeRouteRequestDto {
+    @NotNull
+    private Long startFulcrumId;
+
+    @NotNull
+    private Long endFulcrumId;
+
+    @Min(1)
+    @Max(5)
+    private int k = 3;
+
+    // Largest share of its cost an alternative may have in common with any route returned before it.
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double maxSimilarity = 0.6;
+
+    private RoutingProfile profile;
+}
@@ -0,0 +1,23 @@
+package com.buildmap.api.dto.route;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Estimated memory of one cached area graph. Derived structures are listed by type name once an
+ * engine has computed them; one not built yet takes no memory and is absent.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AreaGraphMemoryDto {
+    private Long areaId;
+    private long revision;
+    private boolean stale;
+    private long graphBytes;
+    private long retainedBytes;
+    private Map<String, Long> derivedBytes;
+}
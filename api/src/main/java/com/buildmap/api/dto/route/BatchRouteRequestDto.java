@@ -0,0 +1,16 @@
+package com.buildmap.api.dto.route;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchRouteRequestDto {
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<RoutePairDto> pairs;
+}
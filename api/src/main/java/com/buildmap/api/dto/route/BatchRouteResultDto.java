@@ -0,0 +1,18 @@
+package com.buildmap.api.dto.route;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one pair of a batch request: either the route or the reason it could not be built.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRouteResultDto {
+    private Long startFulcrumId;
+    private Long endFulcrumId;
+    private RouteDto route;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.buildmap.api.dto.route;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphCacheStatsDto {
+    private int cachedAreas;
+    private long usedBytes;
+    private long maxBytes;
+    private long builds;
+    private long coalescedWaiters;
+    private long buildTimeouts;
+    private List<AreaGraphMemoryDto> areas;
+}
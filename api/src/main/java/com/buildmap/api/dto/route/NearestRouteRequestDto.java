@@ -0,0 +1,14 @@
+package com.buildmap.api.dto.route;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class NearestRouteRequestDto {
+    @NotNull
+    private Long startFulcrumId;
+
+    @NotNull
+    private FulcrumType type;
+}
@@ -0,0 +1,19 @@
+package com.buildmap.api.dto.route;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class PointRouteRequestDto {
+    @NotNull
+    private Long floorId;
+
+    @NotNull
+    private Double x;
+
+    @NotNull
+    private Double y;
+
+    @NotNull
+    private Long endFulcrumId;
+}
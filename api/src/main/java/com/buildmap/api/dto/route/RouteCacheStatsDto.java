@@ -0,0 +1,17 @@
+package com.buildmap.api.dto.route;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteCacheStatsDto {
+    private int size;
+    private int maxEntries;
+    private long hits;
+    private long misses;
+    private long rejections;
+    private double hitRate;
+}
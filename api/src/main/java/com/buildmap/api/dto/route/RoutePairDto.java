@@ -0,0 +1,13 @@
+package com.buildmap.api.dto.route;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class RoutePairDto {
+    @NotNull
+    private Long startFulcrumId;
+
+    @NotNull
+    private Long endFulcrumId;
+}
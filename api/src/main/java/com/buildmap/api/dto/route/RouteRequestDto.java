@@ -10,4 +10,8 @@ public class RouteRequestDto {
 
     @NotNull
     private Long endFulcrumId;
+
+    private RoutingAlgorithm algorithm;
+
+    private RoutingProfile profile;
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.buildmap.api.dto.route;
+
+public enum RoutingAlgorithm {
+    DIJKSTRA,
+    A_STAR,
+    BIDIRECTIONAL,
+    CONTRACTION_HIERARCHIES,
+    ALT,
+    FLOOR_OVERLAY
+}
@@ -0,0 +1,7 @@
+package com.buildmap.api.dto.route;
+
+public enum RoutingProfile {
+    DEFAULT,
+    STEP_FREE,
+    LOW_EFFORT
+}
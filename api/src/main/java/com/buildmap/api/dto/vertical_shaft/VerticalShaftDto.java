@@ -0,0 +1,19 @@
+package com.buildmap.api.dto.vertical_shaft;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class VerticalShaftDto {
+    private Long id;
+    private String name;
+    private FulcrumType type;
+    private Long mappingAreaId;
+    private Double metersPerLevel;
+    private Double upDifficultyFactor;
+    private Double downDifficultyFactor;
+    private List<Long> fulcrumIds;
+    private boolean deleted;
+}
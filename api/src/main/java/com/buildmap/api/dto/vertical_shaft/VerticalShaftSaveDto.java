@@ -0,0 +1,33 @@
+package com.buildmap.api.dto.vertical_shaft;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class VerticalShaftSaveDto {
+    @NotBlank
+    @Size(max = 50)
+    private String name;
+
+    @NotNull
+    private FulcrumType type;
+
+    @NotNull
+    private Long mappingAreaId;
+
+    @NotNull
+    @DecimalMin(value = "0.1", inclusive = true)
+    private Double metersPerLevel = 4.0;
+
+    @NotNull
+    @DecimalMin(value = "1.0", inclusive = true)
+    private Double upDifficultyFactor = 1.0;
+
+    @NotNull
+    @DecimalMin(value = "1.0", inclusive = true)
+    private Double downDifficultyFactor = 1.0;
+}
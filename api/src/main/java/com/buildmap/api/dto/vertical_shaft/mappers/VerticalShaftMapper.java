@@ -0,0 +1,29 @@
+package com.buildmap.api.dto.vertical_shaft.mappers;
+
+import com.buildmap.api.dto.vertical_shaft.VerticalShaftDto;
+import com.buildmap.api.dto.vertical_shaft.VerticalShaftSaveDto;
+import com.buildmap.api.entities.mapping_area.VerticalShaft;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface VerticalShaftMapper {
+
+    @Mapping(target = "mappingAreaId", source = "entity.mappingArea.id")
+    @Mapping(target = "fulcrumIds", source = "fulcrumIds")
+    VerticalShaftDto toDto(VerticalShaft entity, List<Long> fulcrumIds);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "deleted", ignore = true)
+    @Mapping(target = "mappingArea", ignore = true)
+    VerticalShaft toEntity(VerticalShaftSaveDto dto);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "deleted", ignore = true)
+    @Mapping(target = "mappingArea", ignore = true)
+    @Mapping(target = "type", ignore = true)
+    void updateEntity(VerticalShaftSaveDto dto, @MappingTarget VerticalShaft entity);
+}
@@ -0,0 +1,47 @@
+package com.buildmap.api.entities.mapping_area;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumTypeConverter;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * An elevator or a stairwell running through several floors of an area. Its fulcrums, one per
+ * floor, are linked by the shaft itself instead of by stored connections: a ride between two of
+ * them is {@code metersPerLevel} per level crossed, weighted by the difficulty of going up or down.
+ */
+@Data
+@Entity
+@Table(name = "vertical_shafts")
+public class VerticalShaft {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Shaft name cannot be empty")
+    @Size(max = 50, message = "Shaft name must be less than 50 characters")
+    @Column(nullable = false)
+    private String name;
+
+    @Convert(converter = FulcrumTypeConverter.class)
+    @Column(nullable = false)
+    private FulcrumType type;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mapping_area_id", nullable = false)
+    private MappingArea mappingArea;
+
+    @Column(name = "meters_per_level", nullable = false)
+    private Double metersPerLevel = 4.0;
+
+    @Column(name = "up_difficulty_factor", nullable = false)
+    private Double upDifficultyFactor = 1.0;
+
+    @Column(name = "down_difficulty_factor", nullable = false)
+    private Double downDifficultyFactor = 1.0;
+
+    @Column(name = "is_deleted", nullable = false)
+    private boolean deleted = false;
+}
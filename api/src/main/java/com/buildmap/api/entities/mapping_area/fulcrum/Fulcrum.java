@@ -2,6 +2,7 @@ package com.buildmap.api.entities.mapping_area.fulcrum;
 
 import com.buildmap.api.entities.mapping_area.Floor;
 import com.buildmap.api.entities.mapping_area.MappingArea;
+import com.buildmap.api.entities.mapping_area.VerticalShaft;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -49,6 +50,10 @@ public class Fulcrum {
     @JoinColumn(name = "floor_id", nullable = false)
     private Floor floor;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "shaft_id")
+    private VerticalShaft shaft;
+
     @ElementCollection
     @CollectionTable(
             name = "fulcrum_connections",
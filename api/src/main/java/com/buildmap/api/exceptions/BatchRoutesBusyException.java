@@ -0,0 +1,7 @@
+package com.buildmap.api.exceptions;
+
+public class BatchRoutesBusyException extends RuntimeException {
+    public BatchRoutesBusyException() {
+        super("Too many route batches are running, try again shortly");
+    }
+}
@@ -0,0 +1,7 @@
+package com.buildmap.api.exceptions;
+
+public class GraphBuildTimeoutException extends RuntimeException {
+    public GraphBuildTimeoutException(Long areaId) {
+        super("Routing graph of mapping area " + areaId + " is still being built, try again shortly");
+    }
+}
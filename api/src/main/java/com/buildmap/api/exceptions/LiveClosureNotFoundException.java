@@ -0,0 +1,7 @@
+package com.buildmap.api.exceptions;
+
+public class LiveClosureNotFoundException extends RuntimeException {
+    public LiveClosureNotFoundException(Long id) {
+        super("Live closure not found with id: " + id);
+    }
+}
@@ -0,0 +1,7 @@
+package com.buildmap.api.exceptions;
+
+public class VerticalShaftNotFoundException extends RuntimeException {
+    public VerticalShaftNotFoundException(Long id) {
+        super("Vertical shaft not found with id: " + id);
+    }
+}
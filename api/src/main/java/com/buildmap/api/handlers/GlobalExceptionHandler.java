@@ -30,6 +30,8 @@ public class GlobalExceptionHandler {
     private static final String MAPPING_AREA_NOT_FOUND = "Mapping area not found";
     private static final String FLOOR_NOT_FOUND = "Floor not found";
     private static final String FULCRUM_NOT_FOUND = "Fulcrum not found";
+    private static final String VERTICAL_SHAFT_NOT_FOUND = "Vertical shaft not found";
+    private static final String LIVE_CLOSURE_NOT_FOUND = "Live closure not found";
     private static final String CONFLICT = "Conflict";
     private static final String DATABASE_ERROR = "Database error";
     private static final String INTERNAL_ERROR = "Internal error";
@@ -37,6 +39,7 @@ public class GlobalExceptionHandler {
     private static final String BUSINESS_RULE_VIOLATION = "Business rule violation";
     private static final String INVALID_TELEGRAM_DATA = "Invalid Telegram data";
     private static final String ACCESS_DENIED = "Access denied";
+    private static final String SERVICE_UNAVAILABLE = "Service unavailable";
 
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiError> handleHttpMessageNotReadableException(
@@ -109,7 +112,9 @@ public class GlobalExceptionHandler {
             UserNotFoundException.class,
             MappingAreaNotFoundException.class,
             FloorNotFoundException.class,
-            FulcrumNotFoundException.class
+            FulcrumNotFoundException.class,
+            VerticalShaftNotFoundException.class,
+            LiveClosureNotFoundException.class
     })
     public ResponseEntity<ApiError> handleNotFoundException(RuntimeException ex) {
         String errorType = getNotFoundErrorType(ex);
@@ -121,6 +126,8 @@ public class GlobalExceptionHandler {
         if (ex instanceof MappingAreaNotFoundException) return MAPPING_AREA_NOT_FOUND;
         if (ex instanceof FloorNotFoundException) return FLOOR_NOT_FOUND;
         if (ex instanceof FulcrumNotFoundException) return FULCRUM_NOT_FOUND;
+        if (ex instanceof VerticalShaftNotFoundException) return VERTICAL_SHAFT_NOT_FOUND;
+        if (ex instanceof LiveClosureNotFoundException) return LIVE_CLOSURE_NOT_FOUND;
         return "Not Found";
     }
 
@@ -149,6 +156,15 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.FORBIDDEN, ACCESS_DENIED, ex.getMessage());
     }
 
+    // Temporarily overloaded - 503 Service Unavailable
+    @ExceptionHandler({
+            GraphBuildTimeoutException.class,
+            BatchRoutesBusyException.class
+    })
+    public ResponseEntity<ApiError> handleServiceUnavailable(RuntimeException ex) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
     // Generic exception handler
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGeneralException(Exception ex) {
@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FulcrumRepository extends JpaRepository<Fulcrum, Long> {
@@ -22,6 +23,9 @@ public interface FulcrumRepository extends JpaRepository<Fulcrum, Long> {
 
     boolean existsByIdAndFloorMappingAreaUsersId(Long id, Long userId);
 
+    List<Fulcrum> findByShaftIdAndDeletedFalse(Long shaftId);
+    boolean existsByShaftIdAndFloorIdAndDeletedFalse(Long shaftId, Long floorId);
+
     @Query("""
             SELECT COUNT(f) FROM Fulcrum f
             WHERE f.deleted = false
@@ -54,4 +58,164 @@ public interface FulcrumRepository extends JpaRepository<Fulcrum, Long> {
               AND f.hasQr = true
             """)
     List<Long> findAreaIdsWithActiveQrFulcrums(@Param("areaIds") List<Long> areaIds);
+
+    // Flat reads of an area's navigation graph: one row per active fulcrum and one per connection
+    // leaving it, without hydrating entities or touching the lazy associations.
+    @Query("""
+            SELECT f.id as id,
+                   f.name as name,
+                   f.description as description,
+                   f.x as x,
+                   f.y as y,
+                   f.type as type,
+                   f.facingDirection as facingDirection,
+                   f.hasQr as hasQr,
+                   f.qrCodeId as qrCodeId,
+                   fl.id as floorId,
+                   fl.name as floorName,
+                   fl.level as floorLevel,
+                   s.id as shaftId,
+                   s.metersPerLevel as shaftMetersPerLevel,
+                   s.upDifficultyFactor as shaftUpDifficultyFactor,
+                   s.downDifficultyFactor as shaftDownDifficultyFactor
+            FROM Fulcrum f
+            JOIN f.floor fl
+            LEFT JOIN f.shaft s ON s.deleted = false
+            WHERE fl.mappingArea.id = :areaId
+              AND fl.deleted = false
+              AND f.deleted = false
+            """)
+    List<NavigationNodeProjection> findNavigationNodesByAreaId(@Param("areaId") Long areaId);
+
+    @Query("""
+            SELECT f.id as fromId,
+                   c.connectedFulcrum.id as toId,
+                   c.distanceMeters as distanceMeters,
+                   c.difficultyFactor as difficultyFactor
+            FROM Fulcrum f
+            JOIN f.floor fl
+            JOIN f.connections c
+            WHERE fl.mappingArea.id = :areaId
+              AND fl.deleted = false
+              AND f.deleted = false
+            """)
+    List<NavigationEdgeProjection> findNavigationEdgesByAreaId(@Param("areaId") Long areaId);
+
+    // The same reads scoped to one floor, for routes that load floors on demand. Connection rows
+    // carry the floor of their target so the search knows which floor a connector leads to.
+    @Query("""
+            SELECT f.id as id,
+                   f.name as name,
+                   f.description as description,
+                   f.x as x,
+                   f.y as y,
+                   f.type as type,
+                   f.facingDirection as facingDirection,
+                   f.hasQr as hasQr,
+                   f.qrCodeId as qrCodeId,
+                   fl.id as floorId,
+                   fl.name as floorName,
+                   fl.level as floorLevel,
+                   s.id as shaftId,
+                   s.metersPerLevel as shaftMetersPerLevel,
+                   s.upDifficultyFactor as shaftUpDifficultyFactor,
+                   s.downDifficultyFactor as shaftDownDifficultyFactor
+            FROM Fulcrum f
+            JOIN f.floor fl
+            LEFT JOIN f.shaft s ON s.deleted = false
+            WHERE fl.id = :floorId
+              AND fl.mappingArea.id = :areaId
+              AND fl.deleted = false
+              AND f.deleted = false
+            """)
+    List<NavigationNodeProjection> findNavigationNodesByFloorId(@Param("areaId") Long areaId,
+                                                                @Param("floorId") Long floorId);
+
+    @Query("""
+            SELECT f.id as fromId,
+                   target.id as toId,
+                   target.floor.id as toFloorId,
+                   c.distanceMeters as distanceMeters,
+                   c.difficultyFactor as difficultyFactor
+            FROM Fulcrum f
+            JOIN f.floor fl
+            JOIN f.connections c
+            JOIN c.connectedFulcrum target
+            WHERE fl.id = :floorId
+              AND fl.mappingArea.id = :areaId
+              AND fl.deleted = false
+              AND f.deleted = false
+            """)
+    List<NavigationFloorEdgeProjection> findNavigationEdgesByFloorId(@Param("areaId") Long areaId,
+                                                                     @Param("floorId") Long floorId);
+
+    // Every active member of the shafts that stop on the floor, wherever they are, so the links
+    // of a shaft can be derived from a single floor.
+    @Query("""
+            SELECT m.id as id,
+                   mf.id as floorId,
+                   mf.level as floorLevel,
+                   s.id as shaftId,
+                   s.metersPerLevel as shaftMetersPerLevel,
+                   s.upDifficultyFactor as shaftUpDifficultyFactor,
+                   s.downDifficultyFactor as shaftDownDifficultyFactor
+            FROM Fulcrum m
+            JOIN m.floor mf
+            JOIN m.shaft s
+            WHERE s.deleted = false
+              AND mf.deleted = false
+              AND m.deleted = false
+              AND s.id IN (SELECT f.shaft.id FROM Fulcrum f WHERE f.floor.id = :floorId AND f.deleted = false)
+            """)
+    List<ShaftMemberProjection> findShaftMembersByFloorId(@Param("floorId") Long floorId);
+
+    // The same reads scoped to one fulcrum, for patching a compiled graph after a single edit.
+    // Only connections to active fulcrums are returned, as those are the ones a graph holds.
+    @Query("""
+            SELECT f.id as id,
+                   f.name as name,
+                   f.description as description,
+                   f.x as x,
+                   f.y as y,
+                   f.type as type,
+                   f.facingDirection as facingDirection,
+                   f.hasQr as hasQr,
+                   f.qrCodeId as qrCodeId,
+                   fl.id as floorId,
+                   fl.name as floorName,
+                   fl.level as floorLevel,
+                   s.id as shaftId,
+                   s.metersPerLevel as shaftMetersPerLevel,
+                   s.upDifficultyFactor as shaftUpDifficultyFactor,
+                   s.downDifficultyFactor as shaftDownDifficultyFactor
+            FROM Fulcrum f
+            JOIN f.floor fl
+            LEFT JOIN f.shaft s ON s.deleted = false
+            WHERE f.id = :fulcrumId
+              AND fl.mappingArea.id = :areaId
+              AND fl.deleted = false
+              AND f.deleted = false
+            """)
+    Optional<NavigationNodeProjection> findNavigationNodeById(@Param("areaId") Long areaId,
+                                                              @Param("fulcrumId") Long fulcrumId);
+
+    @Query("""
+            SELECT f.id as fromId,
+                   target.id as toId,
+                   c.distanceMeters as distanceMeters,
+                   c.difficultyFactor as difficultyFactor
+            FROM Fulcrum f
+            JOIN f.connections c
+            JOIN c.connectedFulcrum target
+            JOIN target.floor tfl
+            WHERE f.id = :fulcrumId
+              AND tfl.mappingArea.id = :areaId
+              AND tfl.deleted = false
+              AND target.deleted = false
+            """)
+    List<NavigationEdgeProjection> findNavigationEdgesByFulcrumId(@Param("areaId") Long areaId,
+                                                                  @Param("fulcrumId") Long fulcrumId);
+
+    @Query("SELECT f.floor.id FROM Fulcrum f WHERE f.id = :fulcrumId AND f.deleted = false")
+    Optional<Long> findFloorIdById(@Param("fulcrumId") Long fulcrumId);
 }
@@ -0,0 +1,8 @@
+package com.buildmap.api.repos;
+
+public interface NavigationEdgeProjection {
+    Long getFromId();
+    Long getToId();
+    Double getDistanceMeters();
+    Double getDifficultyFactor();
+}
@@ -0,0 +1,5 @@
+package com.buildmap.api.repos;
+
+public interface NavigationFloorEdgeProjection extends NavigationEdgeProjection {
+    Long getToFloorId();
+}
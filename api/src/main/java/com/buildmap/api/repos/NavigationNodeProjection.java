@@ -0,0 +1,23 @@
+package com.buildmap.api.repos;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.FacingDirection;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+
+public interface NavigationNodeProjection {
+    Long getId();
+    String getName();
+    String getDescription();
+    Double getX();
+    Double getY();
+    FulcrumType getType();
+    FacingDirection getFacingDirection();
+    boolean isHasQr();
+    String getQrCodeId();
+    Long getFloorId();
+    String getFloorName();
+    Integer getFloorLevel();
+    Long getShaftId();
+    Double getShaftMetersPerLevel();
+    Double getShaftUpDifficultyFactor();
+    Double getShaftDownDifficultyFactor();
+}
@@ -0,0 +1,11 @@
+package com.buildmap.api.repos;
+
+public interface ShaftMemberProjection {
+    Long getId();
+    Long getFloorId();
+    Integer getFloorLevel();
+    Long getShaftId();
+    Double getShaftMetersPerLevel();
+    Double getShaftUpDifficultyFactor();
+    Double getShaftDownDifficultyFactor();
+}
@@ -0,0 +1,14 @@
+package com.buildmap.api.repos;
+
+import com.buildmap.api.entities.mapping_area.VerticalShaft;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VerticalShaftRepository extends JpaRepository<VerticalShaft, Long> {
+
+    List<VerticalShaft> findByMappingAreaId(Long mappingAreaId);
+    List<VerticalShaft> findByMappingAreaIdAndDeletedFalse(Long mappingAreaId);
+}
@@ -8,7 +8,9 @@ import com.buildmap.api.entities.mapping_area.MappingArea;
 import com.buildmap.api.exceptions.FloorAlreadyExistsException;
 import com.buildmap.api.exceptions.FloorNotFoundException;
 import com.buildmap.api.repos.FloorRepository;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +23,7 @@ public class FloorService {
     private final FloorRepository floorRepository;
     private final FloorMapper floorMapper;
     private final MappingAreaService mappingAreaService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Floor create(FloorSaveDto floorDto) {
@@ -34,7 +37,9 @@ public class FloorService {
         Floor floor = floorMapper.toEntity(floorDto);
         floor.setMappingArea(mappingArea);
 
-        return floorRepository.save(floor);
+        Floor saved = floorRepository.save(floor);
+        publishAreaChanged(mappingArea);
+        return saved;
     }
 
     public List<Floor> getAllByMappingAreaId(Long mappingAreaId, Boolean deleted) {
@@ -67,7 +72,9 @@ public class FloorService {
         }
 
         floorMapper.updateEntityFromUpdateDto(floorUpdateDto, existingFloor);
-        return floorRepository.save(existingFloor);
+        Floor saved = floorRepository.save(existingFloor);
+        publishAreaChanged(saved.getMappingArea());
+        return saved;
     }
 
     @Transactional
@@ -78,10 +85,18 @@ public class FloorService {
             floor.getFulcrums().forEach(fulcrum -> fulcrum.setDeleted(true));
         }
         floorRepository.save(floor);
+        publishAreaChanged(floor.getMappingArea());
     }
 
     @Transactional
     public void delete(Long id) {
+        floorRepository.findById(id).ifPresent(floor -> publishAreaChanged(floor.getMappingArea()));
         floorRepository.deleteById(id);
     }
+
+    private void publishAreaChanged(MappingArea area) {
+        if (area != null) {
+            eventPublisher.publishEvent(new AreaGraphChangedEvent(area.getId()));
+        }
+    }
 }
@@ -11,7 +11,11 @@ import com.buildmap.api.exceptions.ConnectionAlreadyExistsException;
 import com.buildmap.api.exceptions.FulcrumNotFoundException;
 import com.buildmap.api.exceptions.ValidationException;
 import com.buildmap.api.repos.FulcrumRepository;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphChangedEvent;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphEdit;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphEdit.Kind;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,14 +29,17 @@ public class FulcrumService {
     private final FulcrumRepository fulcrumRepository;
     private final FulcrumMapper fulcrumMapper;
     private final FloorService floorService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Fulcrum create(FulcrumSaveDto fulcrumDto) {
         validateQrSettings(fulcrumDto);
-        floorService.getById(fulcrumDto.getFloorId());
+        Floor floor = floorService.getById(fulcrumDto.getFloorId());
 
         Fulcrum fulcrum = fulcrumMapper.toEntity(fulcrumDto);
-        return fulcrumRepository.save(fulcrum);
+        Fulcrum saved = fulcrumRepository.save(fulcrum);
+        publishAreaChanged(floor.getMappingArea(), AreaGraphEdit.fulcrum(Kind.FULCRUM_ADDED, saved.getId()));
+        return saved;
     }
 
     public List<Fulcrum> getAllByAreaId(Long areaId, Boolean deleted) {
@@ -67,7 +74,9 @@ public class FulcrumService {
         floorService.getById(fulcrumDto.getFloorId());
         Fulcrum existingFulcrum = getById(id);
         fulcrumMapper.updateEntity(fulcrumDto, existingFulcrum);
-        return fulcrumRepository.save(existingFulcrum);
+        Fulcrum saved = fulcrumRepository.save(existingFulcrum);
+        publishAreaChanged(saved.getMappingArea(), AreaGraphEdit.fulcrum(Kind.FULCRUM_UPDATED, id));
+        return saved;
     }
 
     @Transactional
@@ -75,10 +84,13 @@ public class FulcrumService {
         Fulcrum fulcrum = getById(id);
         fulcrum.setDeleted(true);
         fulcrumRepository.save(fulcrum);
+        publishAreaChanged(fulcrum.getMappingArea(), AreaGraphEdit.fulcrum(Kind.FULCRUM_DELETED, id));
     }
 
     @Transactional
     public void delete(Long id) {
+        fulcrumRepository.findById(id).ifPresent(fulcrum -> publishAreaChanged(
+                fulcrum.getMappingArea(), AreaGraphEdit.fulcrum(Kind.FULCRUM_DELETED, id)));
         fulcrumRepository.deleteById(id);
     }
 
@@ -102,6 +114,8 @@ public class FulcrumService {
                 connectionDto.getDifficultyFactor()
         );
         fulcrumRepository.save(fulcrum);
+        publishAreaChanged(fulcrum.getMappingArea(),
+                AreaGraphEdit.connection(Kind.CONNECTION_ADDED, fulcrumId, connectedFulcrum.getId()));
     }
 
     @Transactional
@@ -112,6 +126,8 @@ public class FulcrumService {
 
         fulcrum.removeConnection(connectedFulcrum);
         fulcrumRepository.save(fulcrum);
+        publishAreaChanged(fulcrum.getMappingArea(),
+                AreaGraphEdit.connection(Kind.CONNECTION_REMOVED, fulcrumId, connectedFulcrumId));
     }
 
     @Transactional
@@ -119,6 +135,14 @@ public class FulcrumService {
         Fulcrum fulcrum = getById(fulcrumId);
         fulcrum.getConnections().clear();
         fulcrumRepository.save(fulcrum);
+        publishAreaChanged(fulcrum.getMappingArea(),
+                AreaGraphEdit.connection(Kind.CONNECTION_REMOVED, fulcrumId, null));
+    }
+
+    private void publishAreaChanged(MappingArea area, AreaGraphEdit edit) {
+        if (area != null) {
+            eventPublisher.publishEvent(new AreaGraphChangedEvent(area.getId(), edit));
+        }
     }
 
     private void validateQrSettings(FulcrumSaveDto fulcrumDto) {
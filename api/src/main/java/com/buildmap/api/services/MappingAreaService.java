@@ -7,7 +7,9 @@ import com.buildmap.api.entities.mapping_area.Floor;
 import com.buildmap.api.entities.mapping_area.MappingArea;
 import com.buildmap.api.exceptions.MappingAreaNotFoundException;
 import com.buildmap.api.repos.MappingAreaRepository;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,14 +21,19 @@ public class MappingAreaService {
 
     private final MappingAreaRepository mappingAreaRepository;
     private final MappingAreaMapper mappingAreaMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public MappingArea create(MappingArea mappingArea) {
-        return mappingAreaRepository.save(mappingArea);
+        MappingArea saved = mappingAreaRepository.save(mappingArea);
+        publishAreaChanged(saved.getId());
+        return saved;
     }
 
     public MappingArea create(MappingAreaSaveDto mappingAreaDto) {
         MappingArea mappingArea = mappingAreaMapper.toEntity(mappingAreaDto);
-        return mappingAreaRepository.save(mappingArea);
+        MappingArea saved = mappingAreaRepository.save(mappingArea);
+        publishAreaChanged(saved.getId());
+        return saved;
     }
 
     public List<MappingArea> getAll(Boolean deleted) {
@@ -67,9 +74,15 @@ public class MappingAreaService {
             }
         }
         mappingAreaRepository.save(area);
+        publishAreaChanged(id);
     }
 
     public void delete(Long id) {
         mappingAreaRepository.deleteById(id);
+        publishAreaChanged(id);
+    }
+
+    private void publishAreaChanged(Long areaId) {
+        eventPublisher.publishEvent(new AreaGraphChangedEvent(areaId));
     }
 }
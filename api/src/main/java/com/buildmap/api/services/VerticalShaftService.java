@@ -0,0 +1,133 @@
+package com.buildmap.api.services;
+
+import com.buildmap.api.dto.vertical_shaft.VerticalShaftSaveDto;
+import com.buildmap.api.dto.vertical_shaft.mappers.VerticalShaftMapper;
+import com.buildmap.api.entities.mapping_area.MappingArea;
+import com.buildmap.api.entities.mapping_area.VerticalShaft;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.exceptions.ValidationException;
+import com.buildmap.api.exceptions.VerticalShaftNotFoundException;
+import com.buildmap.api.repos.FulcrumRepository;
+import com.buildmap.api.repos.VerticalShaftRepository;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class VerticalShaftService {
+
+    private final VerticalShaftRepository verticalShaftRepository;
+    private final VerticalShaftMapper verticalShaftMapper;
+    private final FulcrumRepository fulcrumRepository;
+    private final FulcrumService fulcrumService;
+    private final MappingAreaService mappingAreaService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public VerticalShaft create(VerticalShaftSaveDto shaftDto) {
+        validateType(shaftDto.getType());
+        MappingArea mappingArea = mappingAreaService.getById(shaftDto.getMappingAreaId());
+
+        VerticalShaft shaft = verticalShaftMapper.toEntity(shaftDto);
+        shaft.setMappingArea(mappingArea);
+        return verticalShaftRepository.save(shaft);
+    }
+
+    public List<VerticalShaft> getAllByMappingAreaId(Long mappingAreaId) {
+        return verticalShaftRepository.findByMappingAreaIdAndDeletedFalse(mappingAreaId);
+    }
+
+    public VerticalShaft getById(Long id) {
+        return verticalShaftRepository.findById(id)
+                .orElseThrow(() -> new VerticalShaftNotFoundException(id));
+    }
+
+    public List<Long> getFulcrumIds(Long id) {
+        return fulcrumRepository.findByShaftIdAndDeletedFalse(id).stream()
+                .map(Fulcrum::getId)
+                .toList();
+    }
+
+    @Transactional
+    public VerticalShaft update(Long id, VerticalShaftSaveDto shaftDto) {
+        VerticalShaft existingShaft = getById(id);
+        if (shaftDto.getType() != existingShaft.getType()) {
+            throw new ValidationException("Shaft type cannot be changed");
+        }
+        verticalShaftMapper.updateEntity(shaftDto, existingShaft);
+        VerticalShaft saved = verticalShaftRepository.save(existingShaft);
+        publishAreaChanged(saved.getMappingArea());
+        return saved;
+    }
+
+    @Transactional
+    public void safeDelete(Long id) {
+        VerticalShaft shaft = getById(id);
+        shaft.setDeleted(true);
+        verticalShaftRepository.save(shaft);
+        publishAreaChanged(shaft.getMappingArea());
+    }
+
+    /**
+     * Adds a fulcrum to the shaft. The fulcrum must be of the shaft's type, belong to its area,
+     * not be part of another shaft and be the only member of the shaft on its floor.
+     */
+    @Transactional
+    public void addFulcrum(Long id, Long fulcrumId) {
+        VerticalShaft shaft = getById(id);
+        if (shaft.isDeleted()) {
+            throw new ValidationException("Shaft is deleted: " + id);
+        }
+        Fulcrum fulcrum = fulcrumService.getById(fulcrumId);
+        if (fulcrum.getType() != shaft.getType()) {
+            throw new ValidationException("Fulcrum type must match shaft type " + shaft.getType());
+        }
+        MappingArea area = fulcrum.getMappingArea();
+        if (area == null || !area.getId().equals(shaft.getMappingArea().getId())) {
+            throw new ValidationException("Fulcrum and shaft must belong to the same mapping area");
+        }
+        if (fulcrum.getShaft() != null) {
+            if (fulcrum.getShaft().getId().equals(id)) {
+                return;
+            }
+            throw new ValidationException("Fulcrum already belongs to shaft " + fulcrum.getShaft().getId());
+        }
+        if (fulcrumRepository.existsByShaftIdAndFloorIdAndDeletedFalse(id, fulcrum.getFloor().getId())) {
+            throw new ValidationException("Shaft already has a fulcrum on floor " + fulcrum.getFloor().getId());
+        }
+
+        fulcrum.setShaft(shaft);
+        fulcrumRepository.save(fulcrum);
+        publishAreaChanged(area);
+    }
+
+    @Transactional
+    public void removeFulcrum(Long id, Long fulcrumId) {
+        Fulcrum fulcrum = fulcrumService.getById(fulcrumId);
+        if (fulcrum.getShaft() == null || !fulcrum.getShaft().getId().equals(id)) {
+            throw new ValidationException("Fulcrum " + fulcrumId + " does not belong to shaft " + id);
+        }
+
+        fulcrum.setShaft(null);
+        fulcrumRepository.save(fulcrum);
+        publishAreaChanged(fulcrum.getMappingArea());
+    }
+
+    private void validateType(FulcrumType type) {
+        if (type != FulcrumType.ELEVATOR && type != FulcrumType.STAIRS) {
+            throw new ValidationException("Shaft type must be ELEVATOR or STAIRS");
+        }
+    }
+
+    private void publishAreaChanged(MappingArea area) {
+        if (area != null) {
+            eventPublisher.publishEvent(new AreaGraphChangedEvent(area.getId()));
+        }
+    }
+}
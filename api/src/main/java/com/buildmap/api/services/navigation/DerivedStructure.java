@@ -0,0 +1,26 @@
+package com.buildmap.api.services.navigation;
+
+/**
+ * Preprocessing result memoized with {@link Graph#derive} that can report its memory footprint,
+ * so the cost of each engine's tables is visible per mapping area.
+ */
+public interface DerivedStructure {
+
+    long estimateBytes();
+
+    /**
+     * Whether the structure stays correct for a {@link Graph#reweighted} copy of its graph, whose
+     * edges only got more expensive or were removed; lower bounds do, exact costs do not.
+     */
+    default boolean survivesCostIncrease() {
+        return false;
+    }
+
+    /**
+     * Whether the structure stays correct for a {@link Graph#patched} copy in which fulcrums moved to
+     * other coordinates or floors; tables over edge costs alone do, geometric bounds do not.
+     */
+    default boolean survivesMove() {
+        return false;
+    }
+}
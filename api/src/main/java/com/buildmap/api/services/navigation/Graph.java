@@ -2,23 +2,142 @@ package com.buildmap.api.services.navigation;
 
 import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
 import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumConnection;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Immutable routing graph of one mapping area. Once built it is never modified, so a single
+ * instance can be cached and shared by concurrent route requests.
+ */
 @Getter
 public class Graph {
+    // Rough per-element heap cost used for the graph cache memory budget: a node holds the
+    // fulcrum entity with its strings and map entries, an edge holds the boxed record.
+    private static final long NODE_BYTES = 512;
+    private static final long EDGE_BYTES = 64;
+
     private final Map<Long, Fulcrum> nodes;
     private final Map<Long, List<Edge>> adjacencyList;
+    private final int edgeCount;
+    private final GraphIndex index;
+    private final GraphComponents components;
+    // Null for graphs that belong to no area, whose tables must not seed another graph.
+    private final GraphLineage lineage;
+    @Getter(AccessLevel.NONE)
+    private final Map<Class<?>, Object> derived = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final DoubleUnaryOperator difficultyWeight;
 
     public Graph(List<Fulcrum> fulcrums) {
+        this(fulcrums, DoubleUnaryOperator.identity(), null);
+    }
+
+    public Graph(List<Fulcrum> fulcrums, GraphLineage lineage) {
+        this(fulcrums, DoubleUnaryOperator.identity(), lineage);
+    }
+
+    /**
+     * Builds a graph whose edge cost is the distance times {@code difficultyWeight} applied to the
+     * difficulty factor of the connection, for variants that weigh effort differently.
+     */
+    public Graph(List<Fulcrum> fulcrums, DoubleUnaryOperator difficultyWeight, GraphLineage lineage) {
+        this.difficultyWeight = difficultyWeight;
+        this.lineage = lineage;
         if (fulcrums == null) {
             throw new IllegalArgumentException("Fulcrums list cannot be null");
         }
-        this.nodes = fulcrums.stream()
-                .collect(Collectors.toMap(Fulcrum::getId, f -> f));
-        this.adjacencyList = buildAdjacencyList(fulcrums);
+        this.nodes = Collections.unmodifiableMap(fulcrums.stream()
+                .collect(Collectors.toMap(Fulcrum::getId, f -> f)));
+        this.adjacencyList = Collections.unmodifiableMap(buildAdjacencyList(fulcrums));
+        this.edgeCount = adjacencyList.values().stream().mapToInt(List::size).sum();
+        this.index = new GraphIndex(nodes, adjacencyList);
+        this.components = new GraphComponents(index);
+    }
+
+    private Graph(Graph base, Reweighting reweighting) {
+        this.difficultyWeight = base.difficultyWeight;
+        this.lineage = null;
+        this.nodes = base.nodes;
+        Map<Long, List<Edge>> list = new HashMap<>();
+        base.adjacencyList.forEach((sourceId, edges) -> {
+            List<Edge> kept = new ArrayList<>(edges.size());
+            for (Edge edge : edges) {
+                double cost = reweighting.cost(sourceId, edge);
+                if (cost < edge.cost()) {
+                    throw new IllegalArgumentException(
+                            "Reweighting cannot lower the cost of " + sourceId + " -> " + edge.targetId());
+                }
+                if (cost != Double.POSITIVE_INFINITY) {
+                    kept.add(new Edge(edge.targetId(), cost, edge.distanceMeters(), edge.difficultyFactor()));
+                }
+            }
+            list.put(sourceId, List.copyOf(kept));
+        });
+        this.adjacencyList = Collections.unmodifiableMap(list);
+        this.edgeCount = adjacencyList.values().stream().mapToInt(List::size).sum();
+        // The same node map gives the same dense indices, so carried over tables still line up.
+        this.index = new GraphIndex(nodes, adjacencyList);
+        this.components = new GraphComponents(index);
+        base.derived.forEach((type, value) -> {
+            if (value instanceof DerivedStructure structure && structure.survivesCostIncrease()) {
+                derived.put(type, value);
+            }
+        });
+    }
+
+    private Graph(Graph base, Collection<Fulcrum> upserted, Collection<Long> removedIds) {
+        this.difficultyWeight = base.difficultyWeight;
+        this.lineage = base.lineage;
+        // Replaced fulcrums keep their place in the copied order, so unchanged ids keep their indices.
+        Map<Long, Fulcrum> patchedNodes = new LinkedHashMap<>(base.nodes);
+        removedIds.forEach(patchedNodes::remove);
+        upserted.forEach(fulcrum -> patchedNodes.put(fulcrum.getId(), fulcrum));
+        this.nodes = Collections.unmodifiableMap(patchedNodes);
+
+        Map<Long, List<Edge>> list = new HashMap<>(base.adjacencyList);
+        int[] reverseOffsets = base.index.reverseOffsets();
+        int[] reverseTargets = base.index.reverseTargets();
+        for (Long removedId : removedIds) {
+            list.remove(removedId);
+            int removed = base.index.indexOf(removedId);
+            if (removed < 0) continue;
+            for (int edge = reverseOffsets[removed]; edge < reverseOffsets[removed + 1]; edge += 1) {
+                Long sourceId = base.index.nodeId(reverseTargets[edge]);
+                List<Edge> edges = list.get(sourceId);
+                if (edges != null) {
+                    list.put(sourceId, edges.stream().filter(e -> !e.targetId().equals(removedId)).toList());
+                }
+            }
+        }
+        boolean costsOnlyIncreased = true;
+        boolean moved = false;
+        for (Fulcrum fulcrum : upserted) {
+            List<Edge> edges = fulcrum.isDeleted() ? List.of() : edgesOf(fulcrum);
+            list.put(fulcrum.getId(), edges);
+            Fulcrum previous = base.nodes.get(fulcrum.getId());
+            costsOnlyIncreased &= previous != null && noCheaperEdge(edges, base.getEdges(fulcrum.getId()));
+            moved |= previous != null && !samePlace(previous, fulcrum);
+        }
+        this.adjacencyList = Collections.unmodifiableMap(list);
+        this.edgeCount = adjacencyList.values().stream().mapToInt(List::size).sum();
+        this.index = new GraphIndex(nodes, adjacencyList);
+        this.components = new GraphComponents(index);
+
+        if (removedIds.isEmpty() && costsOnlyIncreased) {
+            boolean anyMoved = moved;
+            base.derived.forEach((type, value) -> {
+                if (value instanceof DerivedStructure structure && structure.survivesCostIncrease()
+                        && (!anyMoved || structure.survivesMove())) {
+                    derived.put(type, value);
+                }
+            });
+        }
     }
 
     private Map<Long, List<Edge>> buildAdjacencyList(List<Fulcrum> fulcrums) {
@@ -26,21 +145,39 @@ public class Graph {
 
         for (Fulcrum fulcrum : fulcrums) {
             if (fulcrum.isDeleted()) continue;
+            list.put(fulcrum.getId(), edgesOf(fulcrum));
+        }
 
-            List<Edge> edges = fulcrum.getConnections().stream()
-                    .filter(conn -> {
-                        Fulcrum connected = conn.getConnectedFulcrum();
-                        return connected != null &&
-                                !connected.isDeleted() &&
-                                nodes.containsKey(connected.getId());
-                    })
-                    .map(conn -> toEdge(fulcrum.getId(), conn))
-                    .collect(Collectors.toList());
+        return list;
+    }
 
-            list.put(fulcrum.getId(), edges);
+    private List<Edge> edgesOf(Fulcrum fulcrum) {
+        return fulcrum.getConnections().stream()
+                .filter(conn -> {
+                    Fulcrum connected = conn.getConnectedFulcrum();
+                    return connected != null &&
+                            !connected.isDeleted() &&
+                            nodes.containsKey(connected.getId());
+                })
+                .map(conn -> toEdge(fulcrum.getId(), conn))
+                .toList();
+    }
+
+    // Whether every edge in edges is at least as dear as an old edge to the same target.
+    private static boolean noCheaperEdge(List<Edge> edges, List<Edge> oldEdges) {
+        for (Edge edge : edges) {
+            boolean covered = oldEdges.stream()
+                    .anyMatch(old -> old.targetId().equals(edge.targetId()) && old.cost() <= edge.cost());
+            if (!covered) return false;
         }
+        return true;
+    }
 
-        return list;
+    private static boolean samePlace(Fulcrum left, Fulcrum right) {
+        Long leftFloor = left.getFloor() != null ? left.getFloor().getId() : null;
+        Long rightFloor = right.getFloor() != null ? right.getFloor().getId() : null;
+        return Objects.equals(left.getX(), right.getX()) && Objects.equals(left.getY(), right.getY())
+                && Objects.equals(leftFloor, rightFloor);
     }
 
     public boolean containsNode(Long nodeId) {
@@ -55,6 +192,81 @@ public class Graph {
         return adjacencyList.getOrDefault(nodeId, Collections.emptyList());
     }
 
+    /**
+     * Whether a route between the fulcrums may exist, answered from the connected components
+     * without searching. A {@code false} is definite.
+     */
+    public boolean mayReach(Long fromId, Long toId) {
+        int from = index.indexOf(fromId);
+        int to = index.indexOf(toId);
+        return from >= 0 && to >= 0 && components.mayReach(from, to);
+    }
+
+    /**
+     * Returns a copy of this graph over the same fulcrums with every edge cost passed through
+     * {@code reweighting}; an edge given an infinite cost is left out. Costs may only grow, so the
+     * derived structures that {@link DerivedStructure#survivesCostIncrease survive} that are carried
+     * over and only the others are computed again on the copy.
+     */
+    public Graph reweighted(Reweighting reweighting) {
+        return new Graph(this, reweighting);
+    }
+
+    /**
+     * Returns a copy of this graph with the given fulcrums added or replaced, each with the edges of
+     * its own connections, and the given ones removed together with every edge leading to them.
+     * The other fulcrums keep their edge lists and their indices, so an editor's single change
+     * costs a pass over the index rather than a reload of the area. When the change only removed
+     * or raised edges, derived structures that {@link DerivedStructure#survivesCostIncrease
+     * survive} it are carried over, provided they also {@link DerivedStructure#survivesMove survive}
+     * a replaced fulcrum changing its place.
+     */
+    public Graph patched(Collection<Fulcrum> upserted, Collection<Long> removedIds) {
+        return new Graph(this, upserted, removedIds);
+    }
+
+    /**
+     * Returns the structure of the given type derived from this graph, computing it on first use.
+     * Since the graph never changes, search engines memoize their preprocessing here and it is
+     * dropped together with the graph when the area is edited.
+     */
+    public <T> T derive(Class<T> type, Function<Graph, T> factory) {
+        Object value = derived.get(type);
+        if (value == null) {
+            value = factory.apply(this);
+            Object existing = derived.putIfAbsent(type, value);
+            if (existing != null) {
+                value = existing;
+            }
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Estimated sizes of the derived structures computed so far, keyed by their type name.
+     */
+    public Map<String, Long> derivedBytes() {
+        Map<String, Long> sizes = new TreeMap<>();
+        derived.forEach((type, value) -> {
+            if (value instanceof DerivedStructure structure) {
+                sizes.put(type.getSimpleName(), structure.estimateBytes());
+            }
+        });
+        return sizes;
+    }
+
+    public long estimateBytes() {
+        return nodes.size() * NODE_BYTES + (long) edgeCount * EDGE_BYTES + index.estimateBytes()
+                + components.estimateBytes();
+    }
+
+    /**
+     * Estimated size of the graph together with the derived structures computed on it so far.
+     */
+    public long retainedBytes() {
+        return estimateBytes() + derivedBytes().values().stream().mapToLong(Long::longValue).sum();
+    }
+
     private Edge toEdge(Long sourceId, FulcrumConnection connection) {
         Double distanceMeters = connection.getDistanceMeters();
         Double difficultyFactor = connection.getDifficultyFactor();
@@ -72,11 +284,16 @@ public class Graph {
         }
         return new Edge(
                 connection.getConnectedFulcrum().getId(),
-                distanceMeters * difficultyFactor,
+                distanceMeters * difficultyWeight.applyAsDouble(difficultyFactor),
                 distanceMeters,
                 difficultyFactor
         );
     }
 
     public record Edge(Long targetId, Double cost, Double distanceMeters, Double difficultyFactor) {}
+
+    @FunctionalInterface
+    public interface Reweighting {
+        double cost(Long sourceId, Edge edge);
+    }
 }
@@ -0,0 +1,165 @@
+package com.buildmap.api.services.navigation;
+
+import java.util.Arrays;
+
+/**
+ * Strongly and weakly connected components of a {@link GraphIndex}, computed once when the graph
+ * is compiled. They give an O(1) answer to "can this route exist at all": fulcrums in different
+ * weak components are never connected, and strong components are numbered in the order Tarjan's
+ * algorithm completes them, which is a reverse topological order of the condensation, so a route
+ * can only lead from a component to one with a lower or equal number.
+ */
+public final class GraphComponents {
+
+    private final int[] strong;
+    private final int[] weak;
+    private final int strongCount;
+    private final int weakCount;
+    private final int largestStrong;
+
+    GraphComponents(GraphIndex index) {
+        int size = index.size();
+        this.strong = new int[size];
+        this.strongCount = tarjan(index, strong);
+        this.weak = new int[size];
+        this.weakCount = weakComponents(index, weak);
+
+        int[] sizes = new int[strongCount];
+        int largest = 0;
+        for (int component : strong) {
+            sizes[component] += 1;
+            largest = Math.max(largest, sizes[component]);
+        }
+        this.largestStrong = largest;
+    }
+
+    /**
+     * Whether a route from {@code from} to {@code to} may exist. {@code false} is definite; {@code true}
+     * is definite within one strong component and otherwise leaves the answer to the search.
+     */
+    public boolean mayReach(int from, int to) {
+        return weak[from] == weak[to] && strong[from] >= strong[to];
+    }
+
+    public boolean sameStrongComponent(int first, int second) {
+        return strong[first] == strong[second];
+    }
+
+    public int strongCount() {
+        return strongCount;
+    }
+
+    public int weakCount() {
+        return weakCount;
+    }
+
+    public int largestStrongSize() {
+        return largestStrong;
+    }
+
+    public long estimateBytes() {
+        return strong.length * 8L;
+    }
+
+    // Iterative Tarjan, so a long corridor cannot overflow the call stack.
+    private static int tarjan(GraphIndex index, int[] component) {
+        int size = index.size();
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+
+        int[] order = new int[size];
+        int[] low = new int[size];
+        int[] nextEdge = new int[size];
+        boolean[] onStack = new boolean[size];
+        int[] stack = new int[size];
+        int[] callStack = new int[size];
+        Arrays.fill(order, -1);
+
+        int counter = 0;
+        int stackSize = 0;
+        int components = 0;
+        for (int root = 0; root < size; root += 1) {
+            if (order[root] >= 0) continue;
+
+            int depth = 0;
+            callStack[depth++] = root;
+            order[root] = low[root] = counter++;
+            nextEdge[root] = offsets[root];
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int node = callStack[depth - 1];
+                if (nextEdge[node] < offsets[node + 1]) {
+                    int target = targets[nextEdge[node]++];
+                    if (order[target] < 0) {
+                        order[target] = low[target] = counter++;
+                        nextEdge[target] = offsets[target];
+                        stack[stackSize++] = target;
+                        onStack[target] = true;
+                        callStack[depth++] = target;
+                    } else if (onStack[target]) {
+                        low[node] = Math.min(low[node], order[target]);
+                    }
+                    continue;
+                }
+
+                depth -= 1;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[node]);
+                }
+                if (low[node] == order[node]) {
+                    int member;
+                    do {
+                        member = stack[--stackSize];
+                        onStack[member] = false;
+                        component[member] = components;
+                    } while (member != node);
+                    components += 1;
+                }
+            }
+        }
+        return components;
+    }
+
+    private static int weakComponents(GraphIndex index, int[] component) {
+        int size = index.size();
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+
+        int[] parent = new int[size];
+        for (int v = 0; v < size; v += 1) {
+            parent[v] = v;
+        }
+        for (int v = 0; v < size; v += 1) {
+            for (int edge = offsets[v]; edge < offsets[v + 1]; edge += 1) {
+                int a = find(parent, v);
+                int b = find(parent, targets[edge]);
+                if (a != b) {
+                    parent[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        }
+
+        int[] numbers = new int[size];
+        Arrays.fill(numbers, -1);
+        int components = 0;
+        for (int v = 0; v < size; v += 1) {
+            int root = find(parent, v);
+            if (numbers[root] < 0) {
+                numbers[root] = components++;
+            }
+            component[v] = numbers[root];
+        }
+        return components;
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+}
@@ -0,0 +1,132 @@
+package com.buildmap.api.services.navigation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compressed sparse row view of a {@link Graph}: fulcrums get dense {@code int} indices and the
+ * outgoing edges of node {@code v} occupy {@code [offsets[v], offsets[v + 1])} in the parallel
+ * {@code targets}/{@code costs} arrays. The same layout is kept for incoming edges, built from the
+ * {@code FulcrumConnection}s in reverse, for engines that search backward from the destination.
+ * Search engines work on these arrays so a query allocates nothing per relaxation. The arrays are
+ * shared and must not be modified.
+ */
+public final class GraphIndex {
+
+    private final long[] nodeIds;
+    private final Map<Long, Integer> positions;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] costs;
+    private final int[] reverseOffsets;
+    private final int[] reverseTargets;
+    private final double[] reverseCosts;
+
+    GraphIndex(Map<Long, ?> nodes, Map<Long, List<Graph.Edge>> adjacencyList) {
+        int size = nodes.size();
+        this.nodeIds = new long[size];
+        this.positions = new HashMap<>(size * 2);
+
+        int position = 0;
+        for (Long id : nodes.keySet()) {
+            nodeIds[position] = id;
+            positions.put(id, position);
+            position += 1;
+        }
+
+        this.offsets = new int[size + 1];
+        for (int v = 0; v < size; v += 1) {
+            offsets[v + 1] = offsets[v] + countEdges(adjacencyList.get(nodeIds[v]));
+        }
+
+        this.targets = new int[offsets[size]];
+        this.costs = new double[offsets[size]];
+        for (int v = 0; v < size; v += 1) {
+            List<Graph.Edge> edges = adjacencyList.get(nodeIds[v]);
+            if (edges == null) continue;
+            int edge = offsets[v];
+            for (Graph.Edge e : edges) {
+                targets[edge] = positions.get(e.targetId());
+                costs[edge] = e.cost();
+                edge += 1;
+            }
+        }
+
+        this.reverseOffsets = new int[size + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1] += 1;
+        }
+        for (int v = 0; v < size; v += 1) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        this.reverseTargets = new int[targets.length];
+        this.reverseCosts = new double[targets.length];
+        int[] fill = Arrays.copyOf(reverseOffsets, size);
+        for (int v = 0; v < size; v += 1) {
+            for (int edge = offsets[v]; edge < offsets[v + 1]; edge += 1) {
+                int slot = fill[targets[edge]]++;
+                reverseTargets[slot] = v;
+                reverseCosts[slot] = costs[edge];
+            }
+        }
+    }
+
+    private static int countEdges(List<Graph.Edge> edges) {
+        return edges != null ? edges.size() : 0;
+    }
+
+    public int size() {
+        return nodeIds.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Dense index of the fulcrum, or {@code -1} when it is not part of the graph.
+     */
+    public int indexOf(Long nodeId) {
+        Integer position = nodeId != null ? positions.get(nodeId) : null;
+        return position != null ? position : -1;
+    }
+
+    public long nodeId(int index) {
+        return nodeIds[index];
+    }
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    public int[] targets() {
+        return targets;
+    }
+
+    public double[] costs() {
+        return costs;
+    }
+
+    /**
+     * Incoming edges of node {@code v} occupy {@code [reverseOffsets[v], reverseOffsets[v + 1])};
+     * {@link #reverseTargets()} holds their source nodes.
+     */
+    public int[] reverseOffsets() {
+        return reverseOffsets;
+    }
+
+    public int[] reverseTargets() {
+        return reverseTargets;
+    }
+
+    public double[] reverseCosts() {
+        return reverseCosts;
+    }
+
+    public long estimateBytes() {
+        // Boxed key, boxed value and entry per position plus the forward and reverse arrays.
+        return nodeIds.length * (8L + 64L) + offsets.length * 8L + targets.length * 24L;
+    }
+}
@@ -0,0 +1,18 @@
+package com.buildmap.api.services.navigation;
+
+import com.buildmap.api.dto.route.RoutingProfile;
+
+/**
+ * Identity shared by the successive compiled graphs of one area and profile, so tables built on
+ * one version can seed the next. Graphs of no area, such as reweighted copies, carry none.
+ */
+public record GraphLineage(Long areaId, RoutingProfile profile) {
+
+    public static GraphLineage of(Long areaId) {
+        return new GraphLineage(areaId, RoutingProfile.DEFAULT);
+    }
+
+    public GraphLineage withProfile(RoutingProfile profile) {
+        return new GraphLineage(areaId, profile);
+    }
+}
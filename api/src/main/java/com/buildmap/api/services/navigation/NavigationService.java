@@ -1,81 +1,426 @@
 package com.buildmap.api.services.navigation;
 
+import com.buildmap.api.dto.fulcrum.FulcrumDto;
+import com.buildmap.api.dto.fulcrum.mappers.FulcrumMapper;
+import com.buildmap.api.dto.route.AlternativeRouteRequestDto;
+import com.buildmap.api.dto.route.BatchRouteRequestDto;
+import com.buildmap.api.dto.route.BatchRouteResultDto;
+import com.buildmap.api.dto.route.GraphCacheStatsDto;
+import com.buildmap.api.dto.route.NearestRouteRequestDto;
+import com.buildmap.api.dto.route.PointRouteRequestDto;
+import com.buildmap.api.dto.route.RouteCacheStatsDto;
 import com.buildmap.api.dto.route.RouteDto;
+import com.buildmap.api.dto.route.RoutePairDto;
 import com.buildmap.api.dto.route.RouteRequestDto;
 import com.buildmap.api.dto.route.RouteStepDto;
 import com.buildmap.api.dto.route.RouteStepType;
+import com.buildmap.api.dto.route.RoutingAlgorithm;
+import com.buildmap.api.dto.route.RoutingProfile;
 import com.buildmap.api.dto.route.mappers.RouteMapper;
 import com.buildmap.api.entities.mapping_area.fulcrum.FacingDirection;
 import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
 import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
-import com.buildmap.api.services.FloorService;
-import com.buildmap.api.services.FulcrumService;
+import com.buildmap.api.exceptions.FulcrumNotFoundException;
+import com.buildmap.api.services.navigation.alternative_routes.AlternativeRouteFinder;
+import com.buildmap.api.services.navigation.batch_routes.BatchRouteExecutor;
+import com.buildmap.api.services.navigation.chain_contraction.ChainContraction;
 import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import com.buildmap.api.services.navigation.edge_snapping.EdgeSnapIndex;
+import com.buildmap.api.services.navigation.floor_scoped.FloorScopedRouter;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import com.buildmap.api.services.navigation.landmark_hints.LandmarkHintTable;
+import com.buildmap.api.services.navigation.live_closures.ClosureSnapshot;
+import com.buildmap.api.services.navigation.live_closures.LiveClosureService;
+import com.buildmap.api.services.navigation.nearest_fulcrum.NearestFulcrumTable;
+import com.buildmap.api.services.navigation.nearest_fulcrum.NearestFulcrumTables;
+import com.buildmap.api.services.navigation.qr_route_trees.QrRouteTreeService;
+import com.buildmap.api.services.navigation.qr_route_trees.QrRouteTrees;
+import com.buildmap.api.services.navigation.route_cache.RouteCache;
+import com.buildmap.api.services.navigation.route_cache.RouteCacheKey;
+import com.buildmap.api.services.navigation.routing_profile.ProfileGraphs;
+import com.buildmap.api.services.navigation.search.SearchResults;
+import com.buildmap.api.services.navigation.spatial_index.FloorSpatialIndex;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class NavigationService {
 
-    private final FloorService floorService;
-    private final FulcrumService fulcrumService;
+    private final AreaGraphCache areaGraphCache;
     private final RouteMapper routeMapper;
-    private final DijkstraAlgorithm dijkstraAlgorithm;
+    private final FulcrumMapper fulcrumMapper;
+    private final QrRouteTreeService qrRouteTreeService;
+    private final IndexedDijkstraAlgorithm indexedDijkstraAlgorithm;
+    private final RouteCache routeCache;
+    private final FloorScopedRouter floorScopedRouter;
+    private final AlternativeRouteFinder alternativeRouteFinder;
+    private final LiveClosureService liveClosureService;
+    private final BatchRouteExecutor batchRouteExecutor;
+    private final List<ShortestPathAlgorithm> algorithms;
 
     private static final double LANDMARK_RADIUS = 0.1;
+    private static final int MAX_NEAREST_POINTS = 50;
 
-    @Transactional(readOnly = true)
     public RouteDto findShortestPath(RouteRequestDto request) {
-        Fulcrum startFulcrum = fulcrumService.getById(request.getStartFulcrumId());
-        Fulcrum endFulcrum = fulcrumService.getById(request.getEndFulcrumId());
-
-        Long startAreaId = startFulcrum.getFloor().getMappingArea().getId();
-        Long endAreaId = endFulcrum.getFloor().getMappingArea().getId();
+        Long startAreaId = areaGraphCache.resolveAreaId(request.getStartFulcrumId());
+        Long endAreaId = areaGraphCache.resolveAreaId(request.getEndFulcrumId());
         if (!startAreaId.equals(endAreaId)) {
             throw new IllegalArgumentException("Start and end fulcrums must be in the same mapping area");
         }
 
-        List<com.buildmap.api.entities.mapping_area.Floor> floors =
-                floorService.getAllByMappingAreaId(startAreaId, false);
+        // A plain search on an area that is not compiled yet reads only the floors it reaches.
+        ClosureSnapshot closures = liveClosureService.snapshot(startAreaId);
+        boolean defaultProfile = request.getProfile() == null || request.getProfile() == RoutingProfile.DEFAULT;
+        if (floorScopedRouter.isEnabled() && defaultProfile && closures.isEmpty()
+                && (request.getAlgorithm() == null || request.getAlgorithm() == RoutingAlgorithm.DIJKSTRA)
+                && areaGraphCache.getCachedGraph(startAreaId) == null) {
+            return findShortestPathOnFloors(startAreaId, closures.version(), request);
+        }
 
-        List<Fulcrum> allFulcrums = floors.stream()
-                .flatMap(floor -> floor.getFulcrums().stream())
-                .filter(fulcrum -> !fulcrum.isDeleted())
-                .collect(Collectors.toList());
+        AreaGraphCache.VersionedGraph versioned = areaGraphCache.getVersionedGraph(startAreaId);
+        RouteCacheKey cacheKey = new RouteCacheKey(startAreaId, versioned.revision(), closures.version(),
+                request.getStartFulcrumId(), request.getEndFulcrumId(), request.getAlgorithm(), request.getProfile());
+        RouteDto cached = routeCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
 
-        Graph graph = new Graph(allFulcrums);
+        Graph graph = profileGraph(versioned.graph(), request.getProfile(),
+                request.getStartFulcrumId(), request.getEndFulcrumId());
         NavigationValidator.validateRequest(graph, request.getStartFulcrumId(), request.getEndFulcrumId());
 
-        DijkstraAlgorithm.DijkstraResult result = dijkstraAlgorithm.findShortestPath(
-                graph,
-                request.getStartFulcrumId(),
-                request.getEndFulcrumId()
-        );
+        // Without an explicit engine, routes from a QR fulcrum are read off its precomputed tree,
+        // which only exists for the area graph as compiled.
+        DijkstraAlgorithm.DijkstraResult result = request.getAlgorithm() == null && graph == versioned.graph()
+                ? qrRouteTreeService.findRoute(startAreaId, graph, request.getStartFulcrumId(), request.getEndFulcrumId())
+                : null;
+        if (result == null) {
+            result = resolveAlgorithm(request.getAlgorithm()).findShortestPath(
+                    graph,
+                    request.getStartFulcrumId(),
+                    request.getEndFulcrumId()
+            );
+        }
+        // The trees and tables of the graph stay in use under closures: only a route that crosses
+        // one is searched again, on the closed copy.
+        if (closures.crosses(result.previous(), request.getEndFulcrumId())) {
+            Graph closed = closures.applyTo(graph);
+            NavigationValidator.validateRequest(closed, request.getStartFulcrumId(), request.getEndFulcrumId());
+            result = closedGraphAlgorithm(request.getAlgorithm()).findShortestPath(
+                    closed, request.getStartFulcrumId(), request.getEndFulcrumId());
+        }
+
+        RouteDto routeDto = buildRoute(graph, result, request.getStartFulcrumId(), request.getEndFulcrumId());
+        routeCache.put(cacheKey, routeDto);
+        return routeDto;
+    }
+
+    /**
+     * Returns the compiled variant of the area graph for the requested profile. A fulcrum the
+     * profile leaves out, such as stairs for a step-free route, cannot start or end the route.
+     */
+    private Graph profileGraph(Graph graph, RoutingProfile profile, Long startId, Long endId) {
+        Graph variant = graph.derive(ProfileGraphs.class, ProfileGraphs::new).forProfile(profile);
+        for (Long fulcrumId : List.of(startId, endId)) {
+            if (graph.containsNode(fulcrumId) && !variant.containsNode(fulcrumId)) {
+                throw new IllegalArgumentException(
+                        "Fulcrum " + fulcrumId + " is not accessible with profile " + profile);
+            }
+        }
+        return variant;
+    }
+
+    /**
+     * Returns the shortest route followed by up to {@code k - 1} alternatives that differ from it
+     * and from each other, all read off the same pair of pruned search trees.
+     */
+    public List<RouteDto> findAlternatives(AlternativeRouteRequestDto request) {
+        Long startId = request.getStartFulcrumId();
+        Long endId = request.getEndFulcrumId();
+        Long areaId = areaGraphCache.resolveAreaId(startId);
+        if (!areaId.equals(areaGraphCache.resolveAreaId(endId))) {
+            throw new IllegalArgumentException("Start and end fulcrums must be in the same mapping area");
+        }
+
+        Graph graph = profileGraph(areaGraphCache.getGraph(areaId), request.getProfile(), startId, endId);
+        Graph closed = liveClosureService.snapshot(areaId).applyTo(graph);
+        NavigationValidator.validateRequest(closed, startId, endId);
+
+        GraphIndex index = closed.getIndex();
+        List<int[]> paths = alternativeRouteFinder.findRoutes(closed, index.indexOf(startId), index.indexOf(endId),
+                request.getK(), request.getMaxSimilarity());
+        if (paths.isEmpty()) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+        // Steps are described on the graph itself, which has the same fulcrums and connection lengths.
+        return paths.stream()
+                .map(nodes -> buildRoute(graph, SearchResults.toDijkstraResult(index, nodes), startId, endId))
+                .toList();
+    }
+
+    private RouteDto findShortestPathOnFloors(Long areaId, long closureVersion, RouteRequestDto request) {
+        RouteCacheKey cacheKey = new RouteCacheKey(areaId, areaGraphCache.currentRevision(areaId), closureVersion,
+                request.getStartFulcrumId(), request.getEndFulcrumId(), request.getAlgorithm(), request.getProfile());
+        RouteDto cached = routeCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        FloorScopedRouter.FloorScopedRoute route = floorScopedRouter.findShortestPath(
+                areaId, request.getStartFulcrumId(), request.getEndFulcrumId());
+        RouteDto routeDto = buildRoute(route.graph(), route.result(),
+                request.getStartFulcrumId(), request.getEndFulcrumId());
+        routeCache.put(cacheKey, routeDto);
+        // The floors read are dropped with the query; later ones should find the area compiled.
+        floorScopedRouter.compileInBackground(areaId);
+        return routeDto;
+    }
 
-        List<Fulcrum> path = PathBuilder.buildPath(result.previous(), graph, request.getEndFulcrumId());
-        if (!PathBuilder.isPathFound(path, request.getStartFulcrumId(), request.getEndFulcrumId())) {
+    public RouteCacheStatsDto getRouteCacheStats() {
+        return routeCache.stats();
+    }
+
+    public GraphCacheStatsDto getGraphCacheStats() {
+        return areaGraphCache.stats();
+    }
+
+    /**
+     * Builds the routes of a batch. Pairs are grouped by start fulcrum and each group is served by
+     * a single one-to-many search, or by the QR tree of the start when it is ready; groups run in
+     * parallel on the {@link BatchRouteExecutor}. A pair that cannot be routed gets an error entry
+     * instead of failing the batch.
+     */
+    public List<BatchRouteResultDto> findShortestPaths(BatchRouteRequestDto request) {
+        List<RoutePairDto> pairs = request.getPairs();
+        Map<Long, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i += 1) {
+            groups.computeIfAbsent(pairs.get(i).getStartFulcrumId(), id -> new ArrayList<>()).add(i);
+        }
+
+        BatchRouteResultDto[] results = new BatchRouteResultDto[pairs.size()];
+        batchRouteExecutor.runAll(groups.entrySet().stream()
+                .<Runnable>map(group -> () -> routeGroup(group.getKey(), group.getValue(), pairs, results))
+                .toList());
+        return Arrays.asList(results);
+    }
+
+    private void routeGroup(Long startId, List<Integer> members, List<RoutePairDto> pairs,
+                            BatchRouteResultDto[] results) {
+        Graph graph;
+        ClosureSnapshot closures;
+        Long areaId;
+        try {
+            areaId = areaGraphCache.resolveAreaId(startId);
+            closures = liveClosureService.snapshot(areaId);
+            graph = areaGraphCache.getGraph(areaId);
+        } catch (IllegalArgumentException | FulcrumNotFoundException ex) {
+            members.forEach(i -> results[i] = failedPair(pairs.get(i), ex.getMessage()));
+            return;
+        }
+        // A deleted fulcrum still resolves to its area but is not in the compiled graph.
+        if (!graph.containsNode(startId)) {
+            members.forEach(i -> results[i] = failedPair(pairs.get(i), "Start fulcrum not found: " + startId));
+            return;
+        }
+
+        QrRouteTrees trees = qrRouteTreeService.readyTrees(areaId, graph);
+        List<Long> endIds = members.stream().map(i -> pairs.get(i).getEndFulcrumId()).distinct().toList();
+        Map<Long, DijkstraAlgorithm.DijkstraResult> found = trees != null && trees.hasTree(startId)
+                ? treeRoutes(trees, startId, endIds)
+                : indexedDijkstraAlgorithm.findShortestPaths(graph, startId, endIds);
+
+        // Only the routes that cross a closure are searched again, together, on the closed copy.
+        List<Long> crossing = found.entrySet().stream()
+                .filter(entry -> closures.crosses(entry.getValue().previous(), entry.getKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!crossing.isEmpty()) {
+            Map<Long, DijkstraAlgorithm.DijkstraResult> rerouted = indexedDijkstraAlgorithm.findShortestPaths(
+                    closures.applyTo(graph), startId, crossing);
+            crossing.forEach(endId -> found.put(endId, rerouted.get(endId)));
+        }
+
+        for (int i : members) {
+            RoutePairDto pair = pairs.get(i);
+            try {
+                NavigationValidator.validateRequest(graph, startId, pair.getEndFulcrumId());
+                DijkstraAlgorithm.DijkstraResult result = found.get(pair.getEndFulcrumId());
+                if (result == null) {
+                    throw new IllegalArgumentException("No path found between the specified fulcrums");
+                }
+                RouteDto route = buildRoute(graph, result, startId, pair.getEndFulcrumId());
+                results[i] = new BatchRouteResultDto(startId, pair.getEndFulcrumId(), route, null);
+            } catch (IllegalArgumentException ex) {
+                results[i] = failedPair(pair, ex.getMessage());
+            }
+        }
+    }
+
+    private Map<Long, DijkstraAlgorithm.DijkstraResult> treeRoutes(QrRouteTrees trees, Long startId,
+                                                                   List<Long> endIds) {
+        Map<Long, DijkstraAlgorithm.DijkstraResult> routes = new HashMap<>();
+        for (Long endId : endIds) {
+            try {
+                routes.put(endId, trees.route(startId, endId));
+            } catch (IllegalArgumentException ex) {
+                // Unreachable or unknown; the pair gets its error below.
+            }
+        }
+        return routes;
+    }
+
+    private BatchRouteResultDto failedPair(RoutePairDto pair, String error) {
+        return new BatchRouteResultDto(pair.getStartFulcrumId(), pair.getEndFulcrumId(), null, error);
+    }
+
+    /**
+     * Routes to the closest fulcrum of the requested type, read off the per-type table of the
+     * area instead of searching once per candidate.
+     */
+    public RouteDto findNearest(NearestRouteRequestDto request) {
+        Long startId = request.getStartFulcrumId();
+        Long areaId = areaGraphCache.resolveAreaId(startId);
+        Graph graph = areaGraphCache.getGraph(areaId);
+        if (!graph.containsNode(startId)) {
+            throw new IllegalArgumentException("Start fulcrum not found: " + startId);
+        }
+        if (graph.getNode(startId).getType() == request.getType()) {
+            throw new IllegalArgumentException("Start fulcrum is already of type " + request.getType());
+        }
+
+        // The closest fulcrum of the graph stays the closest under closures unless its route crosses one.
+        ClosureSnapshot closures = liveClosureService.snapshot(areaId);
+        NearestRoute nearest = nearestRoute(graph, startId, request.getType());
+        if (nearest != null && closures.crosses(nearest.result().previous(), nearest.endId())) {
+            nearest = nearestRoute(closures.applyTo(graph), startId, request.getType());
+        }
+        if (nearest == null) {
+            throw new IllegalArgumentException("No reachable fulcrum of type " + request.getType());
+        }
+        return buildRoute(graph, nearest.result(), startId, nearest.endId());
+    }
+
+    private NearestRoute nearestRoute(Graph graph, Long startId, FulcrumType type) {
+        GraphIndex index = graph.getIndex();
+        NearestFulcrumTable table = graph.derive(NearestFulcrumTables.class, NearestFulcrumTables::new)
+                .forType(type);
+        int start = index.indexOf(startId);
+        int[] nodes = table.route(start);
+        if (nodes == null) {
+            return null;
+        }
+
+        double[] distances = new double[nodes.length];
+        for (int i = 0; i < nodes.length; i += 1) {
+            distances[i] = table.distance(start) - table.distance(nodes[i]);
+        }
+        return new NearestRoute(index.nodeId(nodes[nodes.length - 1]),
+                SearchResults.toDijkstraResult(index, nodes, distances));
+    }
+
+    /**
+     * Routes from a free point of a floor: the point is projected onto the closest connection and
+     * the search starts from both of its ends at once, each with the part of the connection still
+     * to walk, so the route never detours through a fulcrum behind the walker.
+     */
+    public RouteDto findShortestPathFromPoint(PointRouteRequestDto request) {
+        Long floorId = request.getFloorId();
+        Long endId = request.getEndFulcrumId();
+        Long areaId = areaGraphCache.resolveAreaIdByFloor(floorId);
+        Graph graph = liveClosureService.snapshot(areaId).applyTo(areaGraphCache.getGraph(areaId));
+        if (!graph.containsNode(endId)) {
+            throw new IllegalArgumentException("End fulcrum not found in the mapping area of the floor: " + endId);
+        }
+
+        EdgeSnapIndex.Snap snap = graph.derive(EdgeSnapIndex.class, EdgeSnapIndex::new)
+                .snap(floorId, request.getX(), request.getY());
+        if (snap == null) {
+            throw new IllegalArgumentException("Floor has no connections to start from: " + floorId);
+        }
+
+        DijkstraAlgorithm.DijkstraResult result = indexedDijkstraAlgorithm.findShortestPath(
+                graph, snap.entryCosts(), endId);
+        Long entryId = PathBuilder.buildPath(result.previous(), graph, endId).get(0).getId();
+        RouteDto routeDto = buildRoute(graph, result, entryId, endId);
+
+        double approachMeters = roundMeters(snap.metersTo(entryId));
+        routeDto.setTotalDistanceMeters(roundMeters(routeDto.getTotalDistanceMeters() + approachMeters));
+        List<RouteStepDto> steps = routeDto.getSteps();
+        if (steps.isEmpty()) {
+            // The destination is an end of the snapped connection itself.
+            steps.add(buildArrivalStep(graph.getNode(endId)));
+        }
+        if (approachMeters > 0) {
+            RouteStepDto approach = new RouteStepDto();
+            approach.setType(RouteStepType.GO_FORWARD);
+            approach.setText(buildMovementText(null, approachMeters, null));
+            approach.setDistanceMeters(approachMeters);
+            approach.setToFulcrumId(entryId);
+            approach.setFloorId(floorId);
+            steps.add(0, approach);
+        }
+        return routeDto;
+    }
+
+    /**
+     * Returns the fulcrums of a floor closest to a point, nearest first, read off the spatial
+     * index of the area graph instead of scanning the floor.
+     */
+    public List<FulcrumDto> findNearestToPoint(Long floorId, double x, double y, int k, FulcrumType type) {
+        if (k < 1 || k > MAX_NEAREST_POINTS) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_NEAREST_POINTS);
+        }
+        Graph graph = areaGraphCache.getGraph(areaGraphCache.resolveAreaIdByFloor(floorId));
+        FloorSpatialIndex index = graph.derive(FloorSpatialIndex.class, FloorSpatialIndex::new);
+        return fulcrumMapper.toDtoList(index.nearest(floorId, x, y, k, type));
+    }
+
+    private RouteDto buildRoute(Graph graph, DijkstraAlgorithm.DijkstraResult result, Long startId, Long endId) {
+        List<Fulcrum> path = PathBuilder.buildPath(result.previous(), graph, endId);
+        if (!PathBuilder.isPathFound(path, startId, endId)) {
             throw new IllegalArgumentException("No path found between the specified fulcrums");
         }
 
-        RouteDto routeDto = routeMapper.toRouteDto(
-                path,
-                request.getStartFulcrumId(),
-                request.getEndFulcrumId()
-        );
-        routeDto.setTotalCost(result.distances().get(request.getEndFulcrumId()));
+        RouteDto routeDto = routeMapper.toRouteDto(path, startId, endId);
+        routeDto.setTotalCost(result.distances().get(endId));
         routeDto.setTotalDistanceMeters(calculateTotalDistanceMeters(graph, path));
         routeDto.setSteps(buildSteps(graph, path));
 
         return routeDto;
     }
 
+    /**
+     * Engine for a search on the closed copy of a graph. The copy carries over the lower-bound
+     * tables of A* and ALT, and bidirectional Dijkstra needs none; the other engines would
+     * preprocess the copy from scratch, so their requests are answered by bidirectional Dijkstra.
+     */
+    private ShortestPathAlgorithm closedGraphAlgorithm(RoutingAlgorithm requested) {
+        return resolveAlgorithm(requested == RoutingAlgorithm.A_STAR || requested == RoutingAlgorithm.ALT
+                ? requested
+                : RoutingAlgorithm.BIDIRECTIONAL);
+    }
+
+    private ShortestPathAlgorithm resolveAlgorithm(RoutingAlgorithm requested) {
+        RoutingAlgorithm algorithm = requested != null ? requested : RoutingAlgorithm.DIJKSTRA;
+        return algorithms.stream()
+                .filter(candidate -> candidate.getAlgorithm() == algorithm)
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported routing algorithm: " + algorithm));
+    }
+
     private List<RouteStepDto> buildSteps(Graph graph, List<Fulcrum> path) {
         List<RouteStepDto> steps = new ArrayList<>();
         if (path == null || path.size() < 2) {
@@ -102,6 +447,12 @@ public class NavigationService {
                     && !from.getFloor().getId().equals(to.getFloor().getId());
 
             if (floorChanged) {
+                // A ride through a shaft stops at its member on every floor in between; it is
+                // announced once, up to the floor where the route leaves the shaft.
+                while (i + 2 < path.size() && sameShaft(from, to) && sameShaft(to, path.get(i + 2))) {
+                    i += 1;
+                    to = path.get(i + 1);
+                }
                 steps.add(buildFloorChangeStep(from, to, graph, destinationId));
                 previousVector = null;
                 previousWasFloorChange = true;
@@ -205,6 +556,11 @@ public class NavigationService {
         return base;
     }
 
+    private boolean sameShaft(Fulcrum left, Fulcrum right) {
+        return left.getShaft() != null && right.getShaft() != null
+                && left.getShaft().getId().equals(right.getShaft().getId());
+    }
+
     private RouteStepDto buildFloorChangeStep(Fulcrum from, Fulcrum to, Graph graph, Long destinationId) {
         Integer fromLevel = from.getFloor() != null ? from.getFloor().getLevel() : null;
         Integer toLevel = to.getFloor() != null ? to.getFloor().getLevel() : null;
@@ -315,37 +671,16 @@ public class NavigationService {
             return null;
         }
 
+        // Candidates are ordered by distance, so the first one ahead is the closest.
+        LandmarkHintTable hints = graph.derive(LandmarkHintTable.class,
+                compiled -> new LandmarkHintTable(compiled, LANDMARK_RADIUS));
         Fulcrum best = null;
-        double bestDist = Double.MAX_VALUE;
-
-        for (Fulcrum candidate : graph.getNodes().values()) {
-            if (candidate == null || candidate.getId() == null) continue;
-            if (candidate.getId().equals(pivot.getId())) continue;
-            if (destinationId != null && candidate.getId().equals(destinationId)) continue;
-            if (candidate.getFloor() == null || pivot.getFloor() == null) continue;
-            if (!candidate.getFloor().getId().equals(pivot.getFloor().getId())) continue;
-            if (candidate.getType() == null || candidate.getType() == FulcrumType.WAYPOINT) continue;
-            if (excludeVerticals
-                    && (candidate.getType() == FulcrumType.STAIRS || candidate.getType() == FulcrumType.ELEVATOR)) {
-                continue;
-            }
-            String name = candidate.getName();
-            if (name == null || name.isBlank()) continue;
-            if (candidate.getX() == null || candidate.getY() == null || pivot.getX() == null || pivot.getY() == null) {
-                continue;
-            }
-
-            double dx = candidate.getX() - pivot.getX();
-            double dy = candidate.getY() - pivot.getY();
-            double dist = Math.hypot(dx, dy);
-            if (dist > LANDMARK_RADIUS) continue;
-            double dot = facing.x * dx + facing.y * dy;
-            if (dot <= 0) continue;
-
-            if (dist < bestDist) {
-                bestDist = dist;
-                best = candidate;
-            }
+        for (LandmarkHintTable.Candidate candidate : hints.candidates(pivot.getId())) {
+            if (destinationId != null && candidate.landmark().getId().equals(destinationId)) continue;
+            if (excludeVerticals && candidate.isVertical()) continue;
+            if (facing.x * candidate.dx() + facing.y * candidate.dy() <= 0) continue;
+            best = candidate.landmark();
+            break;
         }
 
         if (best == null) {
@@ -448,6 +783,8 @@ public class NavigationService {
         }
     }
 
+    private record NearestRoute(Long endId, DijkstraAlgorithm.DijkstraResult result) {}
+
     private static class Movement {
         private final RouteStepDto step = new RouteStepDto();
         private final String turnPhrase;
@@ -462,27 +799,31 @@ public class NavigationService {
     }
 
     public void testGraphBuilding(Long areaId) {
-        List<com.buildmap.api.entities.mapping_area.Floor> floors =
-                floorService.getAllByMappingAreaId(areaId, false);
-
-        List<Fulcrum> allFulcrums = floors.stream()
-                .flatMap(floor -> floor.getFulcrums().stream())
-                .filter(fulcrum -> !fulcrum.isDeleted())
-                .collect(Collectors.toList());
-
-        Graph graph = new Graph(allFulcrums);
-
-        System.out.println("=== GRAPH DEBUG ===");
-        System.out.println("Floors: " + floors.size());
-        System.out.println("Fulcrums: " + allFulcrums.size());
-        System.out.println("Nodes in graph: " + graph.getNodes().size());
-
-        graph.getNodes().values().forEach(fulcrum -> {
-            List<Graph.Edge> edges = graph.getEdges(fulcrum.getId());
-            if (!edges.isEmpty()) {
-                System.out.println(fulcrum.getName() + " (" + fulcrum.getFloor().getName() + ") -> "
-                        + edges.size() + " connections");
-            }
-        });
+        Graph graph = areaGraphCache.getGraph(areaId);
+
+        long floorCount = graph.getNodes().values().stream()
+                .map(fulcrum -> fulcrum.getFloor().getId())
+                .filter(Objects::nonNull)
+                .distinct()
+                .count();
+
+        // Memory of the graph and its derived structures is reported by GET /debug/graph-cache.
+        ChainContraction contraction = graph.derive(ChainContraction.class, ChainContraction::new);
+        log.info("Graph of area {}: {} floors, {} nodes, {} edges", areaId, floorCount,
+                graph.getNodes().size(), graph.getEdgeCount());
+        log.info("Strongly connected components: {} (largest: {} nodes), weakly connected components: {}",
+                graph.getComponents().strongCount(), graph.getComponents().largestStrongSize(),
+                graph.getComponents().weakCount());
+        log.info("Nodes after chain contraction: {} ({} waypoint chains)",
+                contraction.keptCount(), contraction.chainCount());
+
+        if (log.isDebugEnabled()) {
+            graph.getNodes().values().forEach(fulcrum -> {
+                List<Graph.Edge> edges = graph.getEdges(fulcrum.getId());
+                if (!edges.isEmpty()) {
+                    log.debug("{} ({}) -> {} connections", fulcrum.getName(), fulcrum.getFloor().getName(), edges.size());
+                }
+            });
+        }
     }
 }
@@ -12,5 +12,9 @@ public class NavigationValidator {
         if (startId.equals(endId)) {
             throw new IllegalArgumentException("Start and end fulcrums are the same");
         }
+        // Rejected from the precomputed components instead of exhausting a search first.
+        if (!graph.mayReach(startId, endId)) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.buildmap.api.services.navigation;
+
+import com.buildmap.api.dto.route.RoutingAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+
+/**
+ * A route search engine selectable through {@link RoutingAlgorithm}. Every engine returns the
+ * predecessor chain and cost of the path in the {@link DijkstraAlgorithm.DijkstraResult} shape,
+ * so {@link PathBuilder} and step generation do not depend on the engine used.
+ */
+public interface ShortestPathAlgorithm {
+
+    RoutingAlgorithm getAlgorithm();
+
+    DijkstraAlgorithm.DijkstraResult findShortestPath(Graph graph, Long startId, Long endId);
+}
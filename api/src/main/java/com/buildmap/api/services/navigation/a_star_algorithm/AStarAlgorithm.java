@@ -0,0 +1,88 @@
+package com.buildmap.api.services.navigation.a_star_algorithm;
+
+import com.buildmap.api.dto.route.RoutingAlgorithm;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.ShortestPathAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchResults;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+import java.util.function.Function;
+
+/**
+ * A* over the {@link GraphIndex} arrays, guided by the {@link GeometricHeuristic} of the graph.
+ * The heuristic is computed once per compiled graph and reused by every query on it. Subclasses
+ * run the same search with a different heuristic.
+ */
+public class AStarAlgorithm implements ShortestPathAlgorithm {
+
+    private final ThreadLocal<SearchScratch> scratchPool = SearchScratch.perThread();
+    private final RoutingAlgorithm algorithm;
+    private final Function<Graph, ? extends AStarHeuristic> heuristics;
+
+    public AStarAlgorithm() {
+        this(RoutingAlgorithm.A_STAR, graph -> graph.derive(GeometricHeuristic.class, GeometricHeuristic::new));
+    }
+
+    protected AStarAlgorithm(RoutingAlgorithm algorithm, Function<Graph, ? extends AStarHeuristic> heuristics) {
+        this.algorithm = algorithm;
+        this.heuristics = heuristics;
+    }
+
+    @Override
+    public RoutingAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public DijkstraAlgorithm.DijkstraResult findShortestPath(Graph graph, Long startId, Long endId) {
+        GraphIndex index = graph.getIndex();
+        int start = index.indexOf(startId);
+        int end = index.indexOf(endId);
+        if (start < 0 || end < 0) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+
+        AStarHeuristic heuristic = heuristics.apply(graph);
+        SearchScratch scratch = scratchPool.get();
+        scratch.reset(index.size());
+        if (!search(index, heuristic, scratch, start, end)) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+
+        return SearchResults.toDijkstraResult(index, scratch, end);
+    }
+
+    private boolean search(GraphIndex index, AStarHeuristic heuristic, SearchScratch scratch,
+                           int start, int end) {
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+        double[] costs = index.costs();
+        IndexedMinHeap queue = scratch.queue();
+
+        scratch.update(start, 0, SearchScratch.NO_NODE);
+        queue.offer(start, heuristic.estimate(start, end));
+
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            if (current == end) {
+                return true;
+            }
+
+            double base = scratch.distance(current);
+            for (int edge = offsets[current]; edge < offsets[current + 1]; edge += 1) {
+                int target = targets[edge];
+                double candidate = base + costs[edge];
+                // No settled check: the heuristic is consistent, so an improvement after a node
+                // was expanded cannot happen, and if a caller breaks that it is merely reopened.
+                if (candidate < scratch.distance(target)) {
+                    scratch.update(target, candidate, current);
+                    queue.offer(target, candidate + heuristic.estimate(target, end));
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package com.buildmap.api.services.navigation.a_star_algorithm;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AStarConfig {
+
+    @Bean
+    public AStarAlgorithm aStarAlgorithm() {
+        return new AStarAlgorithm();
+    }
+}
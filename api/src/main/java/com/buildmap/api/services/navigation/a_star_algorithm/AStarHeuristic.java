@@ -0,0 +1,11 @@
+package com.buildmap.api.services.navigation.a_star_algorithm;
+
+/**
+ * Lower bound on the cost from one {@code GraphIndex} node to another. Implementations used by
+ * {@link AStarAlgorithm} must be consistent: across an edge the bound may drop by at most the
+ * edge cost. {@link Double#POSITIVE_INFINITY} means the target is known to be unreachable.
+ */
+public interface AStarHeuristic {
+
+    double estimate(int node, int target);
+}
@@ -0,0 +1,149 @@
+package com.buildmap.api.services.navigation.a_star_algorithm;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lower bound on the remaining route cost derived from fulcrum coordinates.
+ *
+ * <p>Coordinates are fractions of each floor plan, so every floor gets its own scale: the
+ * smallest cost per coordinate unit over the floor's edges. Any walk on one floor therefore
+ * costs at least {@code scale * straight-line distance}. Floor plans do not share a coordinate
+ * frame, so a route that changes floors is bounded by the distance to the nearest portal
+ * (a fulcrum with a connection to another floor) on each end plus the cheapest vertical
+ * connection. A route between two points of one floor is bounded by the smaller of the direct
+ * estimate and a detour through other floors. Across any edge each bound drops by at most the
+ * edge cost, which keeps the heuristic consistent. Raising edge costs or removing edges only
+ * makes the true costs larger, so the bounds also hold for a reweighted copy of the graph.
+ */
+public final class GeometricHeuristic implements AStarHeuristic, DerivedStructure {
+
+    private static final int NO_FLOOR = -1;
+
+    private final double[] x;
+    private final double[] y;
+    private final int[] floors;
+    private final double[] floorScales;
+    // Scaled distance from a node to the closest portal of its floor.
+    private final double[] portalBounds;
+    private final double minVerticalCost;
+
+    public GeometricHeuristic(Graph graph) {
+        GraphIndex index = graph.getIndex();
+        int size = index.size();
+        this.x = new double[size];
+        this.y = new double[size];
+        this.floors = new int[size];
+
+        Map<Long, Integer> floorPositions = new HashMap<>();
+        for (int v = 0; v < size; v += 1) {
+            Fulcrum fulcrum = graph.getNode(index.nodeId(v));
+            if (fulcrum.getX() == null || fulcrum.getY() == null || fulcrum.getFloor() == null
+                    || fulcrum.getFloor().getId() == null) {
+                floors[v] = NO_FLOOR;
+                continue;
+            }
+            x[v] = fulcrum.getX();
+            y[v] = fulcrum.getY();
+            floors[v] = floorPositions.computeIfAbsent(fulcrum.getFloor().getId(), id -> floorPositions.size());
+        }
+
+        int floorCount = floorPositions.size();
+        this.floorScales = new double[floorCount];
+        Arrays.fill(floorScales, Double.POSITIVE_INFINITY);
+        boolean[] portal = new boolean[size];
+        double cheapestVertical = Double.POSITIVE_INFINITY;
+
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+        double[] costs = index.costs();
+        for (int v = 0; v < size; v += 1) {
+            for (int edge = offsets[v]; edge < offsets[v + 1]; edge += 1) {
+                int w = targets[edge];
+                if (floors[v] == NO_FLOOR || floors[w] == NO_FLOOR) continue;
+                if (floors[v] != floors[w]) {
+                    portal[v] = true;
+                    portal[w] = true;
+                    cheapestVertical = Math.min(cheapestVertical, costs[edge]);
+                    continue;
+                }
+                double length = Math.hypot(x[w] - x[v], y[w] - y[v]);
+                if (length > 0) {
+                    floorScales[floors[v]] = Math.min(floorScales[floors[v]], costs[edge] / length);
+                }
+            }
+        }
+        for (int f = 0; f < floorCount; f += 1) {
+            if (floorScales[f] == Double.POSITIVE_INFINITY) {
+                floorScales[f] = 0;
+            }
+        }
+        this.minVerticalCost = cheapestVertical;
+        this.portalBounds = computePortalBounds(size, floorCount, portal);
+    }
+
+    private double[] computePortalBounds(int size, int floorCount, boolean[] portal) {
+        List<List<Integer>> portalsByFloor = new ArrayList<>();
+        for (int f = 0; f < floorCount; f += 1) {
+            portalsByFloor.add(new ArrayList<>());
+        }
+        for (int v = 0; v < size; v += 1) {
+            if (portal[v]) {
+                portalsByFloor.get(floors[v]).add(v);
+            }
+        }
+
+        double[] bounds = new double[size];
+        for (int v = 0; v < size; v += 1) {
+            if (floors[v] == NO_FLOOR) continue;
+            double scale = floorScales[floors[v]];
+            double nearest = Double.POSITIVE_INFINITY;
+            for (int p : portalsByFloor.get(floors[v])) {
+                nearest = Math.min(nearest, Math.hypot(x[p] - x[v], y[p] - y[v]));
+            }
+            if (nearest == Double.POSITIVE_INFINITY) {
+                bounds[v] = Double.POSITIVE_INFINITY;
+            } else {
+                bounds[v] = scale > 0 ? scale * nearest : 0;
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Lower bound on the cost of any path from node {@code v} to node {@code target}.
+     */
+    @Override
+    public double estimate(int v, int target) {
+        int floor = floors[v];
+        int targetFloor = floors[target];
+        if (floor == NO_FLOOR || targetFloor == NO_FLOOR) {
+            return 0;
+        }
+        if (floor == targetFloor) {
+            double scale = floorScales[floor];
+            double direct = scale > 0 ? scale * Math.hypot(x[target] - x[v], y[target] - y[v]) : 0;
+            double detour = portalBounds[v] + portalBounds[target] + 2 * minVerticalCost;
+            return Math.min(direct, detour);
+        }
+        return portalBounds[v] + minVerticalCost + portalBounds[target];
+    }
+
+    @Override
+    public long estimateBytes() {
+        return x.length * 28L + floorScales.length * 8L;
+    }
+
+    @Override
+    public boolean survivesCostIncrease() {
+        return true;
+    }
+}
@@ -0,0 +1,16 @@
+package com.buildmap.api.services.navigation.alt_algorithm;
+
+import com.buildmap.api.dto.route.RoutingAlgorithm;
+import com.buildmap.api.services.navigation.a_star_algorithm.AStarAlgorithm;
+
+/**
+ * A* guided by a {@link LandmarkTable} instead of fulcrum coordinates. The table is built on the
+ * first query against a compiled graph and reused until the area changes.
+ */
+public class AltAlgorithm extends AStarAlgorithm {
+
+    public AltAlgorithm(int maxLandmarks) {
+        super(RoutingAlgorithm.ALT,
+                graph -> graph.derive(LandmarkTable.class, compiled -> LandmarkTable.build(compiled, maxLandmarks)));
+    }
+}
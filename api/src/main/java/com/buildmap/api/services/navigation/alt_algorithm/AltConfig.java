@@ -0,0 +1,14 @@
+package com.buildmap.api.services.navigation.alt_algorithm;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AltConfig {
+
+    @Bean
+    public AltAlgorithm altAlgorithm(@Value("${navigation.alt.landmarks:8}") int maxLandmarks) {
+        return new AltAlgorithm(maxLandmarks);
+    }
+}
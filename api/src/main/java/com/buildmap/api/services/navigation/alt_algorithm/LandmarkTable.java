@@ -0,0 +1,185 @@
+package com.buildmap.api.services.navigation.alt_algorithm;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.a_star_algorithm.AStarHeuristic;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Exact route costs between a few landmark fulcrums and every other fulcrum of a graph, used
+ * as an A* lower bound through the triangle inequality: for a landmark {@code L},
+ * {@code d(v, t) >= d(L, t) - d(L, v)} and {@code d(v, t) >= d(v, L) - d(t, L)}.
+ *
+ * <p>Landmarks are picked by farthest-point selection, so they spread to the edges of the
+ * building. Entrances, stairs and elevators are preferred whenever one of them is nearly as
+ * far away as the best candidate: routes usually pass them, which keeps the bounds tight across
+ * floors where coordinates tell nothing about the detour to the next staircase.
+ */
+public final class LandmarkTable implements AStarHeuristic, DerivedStructure {
+
+    // A preferred fulcrum wins the next landmark slot if it is at least this share as far
+    // from the chosen landmarks as the farthest fulcrum overall.
+    private static final double PREFERRED_SHARE = 0.75;
+    private static final Set<FulcrumType> PREFERRED_TYPES =
+            EnumSet.of(FulcrumType.ENTRANCE, FulcrumType.STAIRS, FulcrumType.ELEVATOR);
+
+    private final int[] landmarks;
+    // Row-major per node: fromLandmark[v * count + i] = d(landmark i, v).
+    private final double[] fromLandmark;
+    // Row-major per node: toLandmark[v * count + i] = d(v, landmark i).
+    private final double[] toLandmark;
+
+    private LandmarkTable(int[] landmarks, double[] fromLandmark, double[] toLandmark) {
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Selects up to {@code maxLandmarks} landmarks of the graph and computes their distance
+     * tables. Fewer landmarks are used when the graph has fewer distinct candidates.
+     */
+    public static LandmarkTable build(Graph graph, int maxLandmarks) {
+        if (maxLandmarks < 1) {
+            throw new IllegalArgumentException("At least one landmark is required");
+        }
+        GraphIndex index = graph.getIndex();
+        int size = index.size();
+        boolean[] preferred = new boolean[size];
+        for (int v = 0; v < size; v += 1) {
+            Fulcrum fulcrum = graph.getNode(index.nodeId(v));
+            preferred[v] = fulcrum != null && PREFERRED_TYPES.contains(fulcrum.getType());
+        }
+
+        int limit = Math.min(maxLandmarks, size);
+        int[] chosen = new int[limit];
+        double[][] forward = new double[limit][];
+        double[][] backward = new double[limit][];
+        // Distance from each node to the closest landmark chosen so far, in either direction.
+        double[] spread = new double[size];
+        Arrays.fill(spread, Double.POSITIVE_INFINITY);
+
+        IndexedMinHeap queue = new IndexedMinHeap();
+        int count = 0;
+        while (count < limit) {
+            int next = farthest(spread, preferred);
+            if (next < 0) break;
+
+            chosen[count] = next;
+            forward[count] = distances(queue, next, index.offsets(), index.targets(), index.costs());
+            backward[count] = distances(queue, next,
+                    index.reverseOffsets(), index.reverseTargets(), index.reverseCosts());
+            for (int v = 0; v < size; v += 1) {
+                spread[v] = Math.min(spread[v], Math.min(forward[count][v], backward[count][v]));
+            }
+            count += 1;
+        }
+
+        double[] fromLandmark = new double[size * count];
+        double[] toLandmark = new double[size * count];
+        for (int i = 0; i < count; i += 1) {
+            for (int v = 0; v < size; v += 1) {
+                fromLandmark[v * count + i] = forward[i][v];
+                toLandmark[v * count + i] = backward[i][v];
+            }
+        }
+        return new LandmarkTable(Arrays.copyOf(chosen, count), fromLandmark, toLandmark);
+    }
+
+    public int landmarkCount() {
+        return landmarks.length;
+    }
+
+    public int landmark(int i) {
+        return landmarks[i];
+    }
+
+    @Override
+    public double estimate(int node, int target) {
+        int count = landmarks.length;
+        int nodeRow = node * count;
+        int targetRow = target * count;
+        double best = 0;
+        for (int i = 0; i < count; i += 1) {
+            double fromToNode = fromLandmark[nodeRow + i];
+            double fromToTarget = fromLandmark[targetRow + i];
+            if (fromToNode != Double.POSITIVE_INFINITY) {
+                // The landmark reaches the node but not the target, so the node cannot either.
+                if (fromToTarget == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+                best = Math.max(best, fromToTarget - fromToNode);
+            }
+
+            double nodeToLandmark = toLandmark[nodeRow + i];
+            double targetToLandmark = toLandmark[targetRow + i];
+            if (targetToLandmark != Double.POSITIVE_INFINITY) {
+                // The target reaches the landmark but the node does not, so it cannot reach the target.
+                if (nodeToLandmark == Double.POSITIVE_INFINITY) return Double.POSITIVE_INFINITY;
+                best = Math.max(best, nodeToLandmark - targetToLandmark);
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public long estimateBytes() {
+        return ((long) fromLandmark.length + toLandmark.length) * Double.BYTES + (long) landmarks.length * Integer.BYTES;
+    }
+
+    // Distances in a graph whose edges only got dearer are no shorter, so the bounds still hold.
+    @Override
+    public boolean survivesCostIncrease() {
+        return true;
+    }
+
+    // Landmark distances never read coordinates.
+    @Override
+    public boolean survivesMove() {
+        return true;
+    }
+
+    private static int farthest(double[] spread, boolean[] preferred) {
+        int best = -1;
+        int bestPreferred = -1;
+        for (int v = 0; v < spread.length; v += 1) {
+            if (best < 0 || spread[v] > spread[best]) best = v;
+            if (preferred[v] && (bestPreferred < 0 || spread[v] > spread[bestPreferred])) bestPreferred = v;
+        }
+        if (best < 0 || spread[best] == 0) {
+            return -1;
+        }
+        if (bestPreferred >= 0 && spread[bestPreferred] > 0
+                && spread[bestPreferred] >= PREFERRED_SHARE * spread[best]) {
+            return bestPreferred;
+        }
+        return best;
+    }
+
+    private static double[] distances(IndexedMinHeap queue, int source, int[] offsets, int[] targets, double[] costs) {
+        int size = offsets.length - 1;
+        double[] distances = new double[size];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        queue.reset(size);
+        distances[source] = 0;
+        queue.offer(source, 0);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            double base = distances[current];
+            for (int edge = offsets[current]; edge < offsets[current + 1]; edge += 1) {
+                int target = targets[edge];
+                double candidate = base + costs[edge];
+                if (candidate < distances[target]) {
+                    distances[target] = candidate;
+                    queue.offer(target, candidate);
+                }
+            }
+        }
+        return distances;
+    }
+}
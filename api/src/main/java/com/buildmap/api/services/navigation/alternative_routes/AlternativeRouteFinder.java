@@ -0,0 +1,182 @@
+package com.buildmap.api.services.navigation.alternative_routes;
+
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the shortest route and up to k - 1 loopless alternatives with the via-node method. One
+ * search grows a shortest path tree from the start and one grows a reverse tree from the end,
+ * both stopped once their keys exceed the longest allowed alternative. Every fulcrum reached by
+ * both trees then names a candidate: its path from the start in the first tree joined with its
+ * path to the end in the second. The primary route is the first tree's path to the end, so k = 3
+ * costs two searches plus walking the candidates instead of three full queries.
+ *
+ * <p>Candidates are taken cheapest first and kept when they revisit no fulcrum and share at most
+ * {@code maxSimilarity} of their cost with every route already kept.
+ */
+@Component
+public class AlternativeRouteFinder {
+
+    private final ThreadLocal<SearchScratch> forwardPool = SearchScratch.perThread();
+    private final ThreadLocal<SearchScratch> backwardPool = SearchScratch.perThread();
+
+    @Value("${navigation.alternatives.max-stretch:1.5}")
+    private double maxStretch;
+
+    /**
+     * Returns the routes as fulcrum index paths, the shortest first, or an empty list when the end
+     * cannot be reached.
+     */
+    public List<int[]> findRoutes(Graph graph, int start, int end, int k, double maxSimilarity) {
+        GraphIndex index = graph.getIndex();
+        SearchScratch forward = forwardPool.get();
+        forward.reset(index.size());
+        SearchScratch backward = backwardPool.get();
+        backward.reset(index.size());
+
+        grow(forward, start, index.offsets(), index.targets(), index.costs(), end, Double.POSITIVE_INFINITY);
+        double best = forward.distance(end);
+        if (best == Double.POSITIVE_INFINITY) {
+            return List.of();
+        }
+        double limit = best * maxStretch;
+        grow(forward, SearchScratch.NO_NODE, index.offsets(), index.targets(), index.costs(),
+                SearchScratch.NO_NODE, limit);
+        grow(backward, end, index.reverseOffsets(), index.reverseTargets(), index.reverseCosts(),
+                SearchScratch.NO_NODE, limit);
+
+        List<int[]> routes = new ArrayList<>();
+        List<Map<Long, Double>> sharedCosts = new ArrayList<>();
+        int[] primary = treePath(forward, end);
+        keep(index, primary, routes, sharedCosts);
+
+        int[] candidates = IntStream.range(0, index.size())
+                .filter(v -> forward.isSettled(v) && backward.isSettled(v)
+                        && forward.distance(v) + backward.distance(v) <= limit)
+                .boxed()
+                .sorted(Comparator.comparingDouble(v -> forward.distance(v) + backward.distance(v)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        boolean[] onRoute = new boolean[index.size()];
+        for (int node : primary) onRoute[node] = true;
+        int[] visited = new int[index.size()];
+
+        for (int i = 0; i < candidates.length && routes.size() < k; i += 1) {
+            int via = candidates[i];
+            // A fulcrum on a kept route names that route again, or a detour from it.
+            if (onRoute[via]) continue;
+            int[] path = viaPath(forward, backward, via, visited, i + 1);
+            if (path == null) continue;
+            double cost = forward.distance(via) + backward.distance(via);
+            if (maxShare(path, sharedCosts) > maxSimilarity * cost) continue;
+            keep(index, path, routes, sharedCosts);
+            for (int node : path) onRoute[node] = true;
+        }
+        return routes;
+    }
+
+    /**
+     * Continues the search in {@code scratch} until {@code stop} is settled or the queue holds
+     * nothing cheaper than {@code limit}; a {@code source} other than {@code NO_NODE} starts it.
+     */
+    private void grow(SearchScratch scratch, int source, int[] offsets, int[] targets, double[] costs,
+                      int stop, double limit) {
+        IndexedMinHeap queue = scratch.queue();
+        if (source != SearchScratch.NO_NODE) {
+            scratch.update(source, 0, SearchScratch.NO_NODE);
+            queue.offer(source, 0);
+        }
+        while (!queue.isEmpty() && queue.peekKey() <= limit) {
+            int current = queue.poll();
+            scratch.settle(current);
+            double base = scratch.distance(current);
+            for (int edge = offsets[current]; edge < offsets[current + 1]; edge += 1) {
+                int target = targets[edge];
+                if (scratch.isSettled(target)) continue;
+                double candidate = base + costs[edge];
+                if (candidate < scratch.distance(target)) {
+                    scratch.update(target, candidate, current);
+                    queue.offer(target, candidate);
+                }
+            }
+            if (current == stop) return;
+        }
+    }
+
+    private int[] treePath(SearchScratch tree, int node) {
+        List<Integer> reversed = new ArrayList<>();
+        for (int v = node; v != SearchScratch.NO_NODE; v = tree.previous(v)) {
+            reversed.add(v);
+        }
+        int[] path = new int[reversed.size()];
+        for (int i = 0; i < path.length; i += 1) {
+            path[i] = reversed.get(path.length - 1 - i);
+        }
+        return path;
+    }
+
+    // The forward tree path to the via fulcrum, then the reverse tree path on to the end, or null
+    // when the two halves meet at any other fulcrum. Fulcrums walked are tagged with the stamp.
+    private int[] viaPath(SearchScratch forward, SearchScratch backward, int via, int[] visited, int stamp) {
+        int[] head = treePath(forward, via);
+        List<Integer> path = new ArrayList<>(head.length * 2);
+        for (int node : head) {
+            visited[node] = stamp;
+            path.add(node);
+        }
+        for (int v = backward.previous(via); v != SearchScratch.NO_NODE; v = backward.previous(v)) {
+            if (visited[v] == stamp) return null;
+            visited[v] = stamp;
+            path.add(v);
+        }
+        return path.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void keep(GraphIndex index, int[] path, List<int[]> routes, List<Map<Long, Double>> sharedCosts) {
+        routes.add(path);
+        Map<Long, Double> steps = new HashMap<>();
+        for (int i = 0; i + 1 < path.length; i += 1) {
+            steps.put(step(path[i], path[i + 1]), cheapestCost(index, path[i], path[i + 1]));
+        }
+        sharedCosts.add(steps);
+    }
+
+    // Largest cost the path shares with any single kept route.
+    private double maxShare(int[] path, List<Map<Long, Double>> sharedCosts) {
+        double max = 0;
+        for (Map<Long, Double> steps : sharedCosts) {
+            double shared = 0;
+            for (int i = 0; i + 1 < path.length; i += 1) {
+                Double cost = steps.get(step(path[i], path[i + 1]));
+                if (cost != null) shared += cost;
+            }
+            max = Math.max(max, shared);
+        }
+        return max;
+    }
+
+    private static long step(int from, int to) {
+        return ((long) from << 32) | (to & 0xffffffffL);
+    }
+
+    private static double cheapestCost(GraphIndex index, int from, int to) {
+        double cost = Double.POSITIVE_INFINITY;
+        for (int edge = index.offsets()[from]; edge < index.offsets()[from + 1]; edge += 1) {
+            if (index.targets()[edge] == to) {
+                cost = Math.min(cost, index.costs()[edge]);
+            }
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,26 @@
+package com.buildmap.api.services.navigation.batch_routes;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class BatchRouteConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public BatchRouteExecutor batchRouteExecutor(
+            @Value("${navigation.batch.parallelism:0}") int parallelism,
+            @Value("${navigation.batch.max-concurrent:4}") int maxConcurrentBatches) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new BatchRouteExecutor(
+                Executors.newFixedThreadPool(threads, runnable -> {
+                    Thread thread = new Thread(runnable, "batch-routes");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                maxConcurrentBatches
+        );
+    }
+}
@@ -0,0 +1,59 @@
+package com.buildmap.api.services.navigation.batch_routes;
+
+import com.buildmap.api.exceptions.BatchRoutesBusyException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the start groups of route batches on a dedicated bounded pool. A group may wait for the
+ * graph of its area to be compiled, so groups must not occupy threads shared with the rest of the
+ * process. At most {@code maxConcurrentBatches} batches run at once; any batch beyond that is
+ * turned away instead of queueing behind them.
+ */
+public class BatchRouteExecutor {
+
+    private final ExecutorService pool;
+    private final Semaphore batches;
+
+    public BatchRouteExecutor(ExecutorService pool, int maxConcurrentBatches) {
+        this.pool = pool;
+        this.batches = new Semaphore(Math.max(1, maxConcurrentBatches));
+    }
+
+    /**
+     * Runs the tasks of one batch and returns once all of them have finished. The first exception
+     * a task throws is rethrown after the tasks not started yet are cancelled.
+     */
+    public void runAll(List<Runnable> tasks) {
+        if (!batches.tryAcquire()) {
+            throw new BatchRoutesBusyException();
+        }
+        List<Future<?>> futures = new ArrayList<>(tasks.size());
+        try {
+            tasks.forEach(task -> futures.add(pool.submit(task)));
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while routing a batch", ex);
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+            batches.release();
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,13 @@
+package com.buildmap.api.services.navigation.bidirectional_algorithm;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BidirectionalConfig {
+
+    @Bean
+    public BidirectionalDijkstraAlgorithm bidirectionalDijkstraAlgorithm() {
+        return new BidirectionalDijkstraAlgorithm();
+    }
+}
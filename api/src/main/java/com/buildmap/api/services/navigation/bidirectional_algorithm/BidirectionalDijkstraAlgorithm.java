@@ -0,0 +1,97 @@
+package com.buildmap.api.services.navigation.bidirectional_algorithm;
+
+import com.buildmap.api.dto.route.RoutingAlgorithm;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.ShortestPathAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchResults;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+/**
+ * Dijkstra run from both ends at once: forward from the start over outgoing edges and backward
+ * from the destination over the reverse adjacency of the {@link GraphIndex}. The side with the
+ * smaller queue key is expanded next, and the search stops once the two queue minima together
+ * reach the best connection found so far, which is then optimal.
+ */
+public class BidirectionalDijkstraAlgorithm implements ShortestPathAlgorithm {
+
+    private final ThreadLocal<SearchScratch> forwardPool = SearchScratch.perThread();
+    private final ThreadLocal<SearchScratch> backwardPool = SearchScratch.perThread();
+
+    @Override
+    public RoutingAlgorithm getAlgorithm() {
+        return RoutingAlgorithm.BIDIRECTIONAL;
+    }
+
+    @Override
+    public DijkstraAlgorithm.DijkstraResult findShortestPath(Graph graph, Long startId, Long endId) {
+        GraphIndex index = graph.getIndex();
+        int start = index.indexOf(startId);
+        int end = index.indexOf(endId);
+        if (start < 0 || end < 0) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+
+        SearchScratch forward = forwardPool.get();
+        SearchScratch backward = backwardPool.get();
+        forward.reset(index.size());
+        backward.reset(index.size());
+
+        int meeting = search(index, forward, backward, start, end);
+        if (meeting == SearchScratch.NO_NODE) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+
+        return SearchResults.toDijkstraResult(index, forward, backward, meeting);
+    }
+
+    private int search(GraphIndex index, SearchScratch forward, SearchScratch backward, int start, int end) {
+        IndexedMinHeap forwardQueue = forward.queue();
+        IndexedMinHeap backwardQueue = backward.queue();
+
+        forward.update(start, 0, SearchScratch.NO_NODE);
+        forwardQueue.offer(start, 0);
+        backward.update(end, 0, SearchScratch.NO_NODE);
+        backwardQueue.offer(end, 0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = SearchScratch.NO_NODE;
+
+        while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+            if (forwardQueue.peekKey() + backwardQueue.peekKey() >= best) {
+                break;
+            }
+
+            boolean expandForward = forwardQueue.peekKey() <= backwardQueue.peekKey();
+            SearchScratch side = expandForward ? forward : backward;
+            SearchScratch other = expandForward ? backward : forward;
+            int[] offsets = expandForward ? index.offsets() : index.reverseOffsets();
+            int[] targets = expandForward ? index.targets() : index.reverseTargets();
+            double[] costs = expandForward ? index.costs() : index.reverseCosts();
+
+            int current = side.queue().poll();
+            side.settle(current);
+            double base = side.distance(current);
+
+            for (int edge = offsets[current]; edge < offsets[current + 1]; edge += 1) {
+                int target = targets[edge];
+                if (side.isSettled(target)) continue;
+                double candidate = base + costs[edge];
+                if (candidate < side.distance(target)) {
+                    side.update(target, candidate, current);
+                    side.queue().offer(target, candidate);
+                }
+                if (other.isSeen(target)) {
+                    double total = side.distance(target) + other.distance(target);
+                    if (total < best) {
+                        best = total;
+                        meeting = target;
+                    }
+                }
+            }
+        }
+        return meeting;
+    }
+}
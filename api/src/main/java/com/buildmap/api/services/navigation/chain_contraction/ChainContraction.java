@@ -0,0 +1,418 @@
+package com.buildmap.api.services.navigation.chain_contraction;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The graph with its corridors collapsed. A waypoint whose only neighbours are two other fulcrums
+ * and that can be walked through, either both ways or one way, is interior to a chain; every
+ * maximal chain between two kept fulcrums becomes a single arc that remembers its interior nodes
+ * and the cost of each prefix. A search over the kept fulcrums and these arcs pays one heap
+ * operation per corridor instead of one per waypoint, and the path is expanded back into the
+ * original fulcrums afterwards.
+ *
+ * <p>A start or destination inside a chain is entered through the ends of its chains with the
+ * part of the chain still to walk, much like a point snapped onto a connection.
+ */
+public final class ChainContraction implements DerivedStructure {
+
+    private final GraphIndex index;
+    private final int[] keptOf;
+    private final int[] keptNodes;
+
+    // Contracted arcs between kept fulcrums; arcChains[arc] is the chain it stands for, or -1
+    // for an original connection.
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] costs;
+    private final int[] arcChains;
+
+    private final int[] chainFrom;
+    private final int[] chainTo;
+    private final int[][] chainInterior;
+    // chainPrefix[c][i]: cost from the start of the chain to its i-th interior node.
+    private final double[][] chainPrefix;
+    private final double[] chainCost;
+
+    // Per interior node, the chains it lies on (one per direction of travel) and its position.
+    private final int[] memberOffsets;
+    private final int[] memberChains;
+    private final int[] memberPositions;
+
+    public ChainContraction(Graph graph) {
+        this.index = graph.getIndex();
+        int size = index.size();
+        int[] edgeOffsets = index.offsets();
+        int[] edgeTargets = index.targets();
+        double[] edgeCosts = index.costs();
+
+        boolean[] kept = new boolean[size];
+        for (int v = 0; v < size; v += 1) {
+            kept[v] = graph.getNode(index.nodeId(v)).getType() != FulcrumType.WAYPOINT || !isPassThrough(v);
+        }
+
+        List<int[]> interiors = new ArrayList<>();
+        List<double[]> prefixes = new ArrayList<>();
+        List<int[]> ends = new ArrayList<>();
+        boolean[] covered = new boolean[size];
+        for (int v = 0; v < size; v += 1) {
+            if (kept[v]) walkChains(v, kept, covered, interiors, prefixes, ends);
+        }
+        // What is left are rings of waypoints with no way in or out; one fulcrum of each is kept.
+        for (int v = 0; v < size; v += 1) {
+            if (!kept[v] && !covered[v]) {
+                kept[v] = true;
+                walkChains(v, kept, covered, interiors, prefixes, ends);
+            }
+        }
+
+        int chains = interiors.size();
+        this.chainFrom = new int[chains];
+        this.chainTo = new int[chains];
+        this.chainInterior = interiors.toArray(new int[0][]);
+        this.chainPrefix = prefixes.toArray(new double[0][]);
+        this.chainCost = new double[chains];
+        for (int c = 0; c < chains; c += 1) {
+            chainFrom[c] = ends.get(c)[0];
+            chainTo[c] = ends.get(c)[1];
+            chainCost[c] = chainPrefix[c][chainPrefix[c].length - 1];
+        }
+
+        this.keptOf = new int[size];
+        Arrays.fill(keptOf, -1);
+        int keptCount = 0;
+        for (int v = 0; v < size; v += 1) {
+            if (kept[v]) keptOf[v] = keptCount++;
+        }
+        this.keptNodes = new int[keptCount];
+        for (int v = 0; v < size; v += 1) {
+            if (kept[v]) keptNodes[keptOf[v]] = v;
+        }
+
+        List<List<Integer>> chainsFrom = new ArrayList<>(keptCount);
+        for (int k = 0; k < keptCount; k += 1) {
+            chainsFrom.add(new ArrayList<>());
+        }
+        for (int c = 0; c < chains; c += 1) {
+            if (chainFrom[c] != chainTo[c]) chainsFrom.get(keptOf[chainFrom[c]]).add(c);
+        }
+        this.offsets = new int[keptCount + 1];
+        for (int k = 0; k < keptCount; k += 1) {
+            int v = keptNodes[k];
+            int arcs = chainsFrom.get(k).size();
+            for (int edge = edgeOffsets[v]; edge < edgeOffsets[v + 1]; edge += 1) {
+                if (kept[edgeTargets[edge]]) arcs += 1;
+            }
+            offsets[k + 1] = offsets[k] + arcs;
+        }
+        this.targets = new int[offsets[keptCount]];
+        this.costs = new double[offsets[keptCount]];
+        this.arcChains = new int[offsets[keptCount]];
+        for (int k = 0; k < keptCount; k += 1) {
+            int v = keptNodes[k];
+            int arc = offsets[k];
+            for (int edge = edgeOffsets[v]; edge < edgeOffsets[v + 1]; edge += 1) {
+                if (!kept[edgeTargets[edge]]) continue;
+                targets[arc] = keptOf[edgeTargets[edge]];
+                costs[arc] = edgeCosts[edge];
+                arcChains[arc] = -1;
+                arc += 1;
+            }
+            for (int c : chainsFrom.get(k)) {
+                targets[arc] = keptOf[chainTo[c]];
+                costs[arc] = chainCost[c];
+                arcChains[arc] = c;
+                arc += 1;
+            }
+        }
+
+        // The last entry of an interior list is the kept end of the chain, not a member.
+        this.memberOffsets = new int[size + 1];
+        for (int[] interior : chainInterior) {
+            for (int i = 0; i < interior.length - 1; i += 1) {
+                memberOffsets[interior[i] + 1] += 1;
+            }
+        }
+        for (int v = 0; v < size; v += 1) {
+            memberOffsets[v + 1] += memberOffsets[v];
+        }
+        this.memberChains = new int[memberOffsets[size]];
+        this.memberPositions = new int[memberOffsets[size]];
+        int[] fill = Arrays.copyOf(memberOffsets, size);
+        for (int c = 0; c < chains; c += 1) {
+            for (int i = 0; i < chainInterior[c].length - 1; i += 1) {
+                int slot = fill[chainInterior[c][i]]++;
+                memberChains[slot] = c;
+                memberPositions[slot] = i;
+            }
+        }
+    }
+
+    // Exactly two neighbours, and connections that lead from one to the other through v: both
+    // ways, or a single one-way passage.
+    private boolean isPassThrough(int v) {
+        int[] outs = distinct(v, index.offsets(), index.targets());
+        int[] ins = distinct(v, index.reverseOffsets(), index.reverseTargets());
+        if (outs == null || ins == null) {
+            return false;
+        }
+        if (outs.length == 2 && ins.length == 2) {
+            return (outs[0] == ins[0] && outs[1] == ins[1]) || (outs[0] == ins[1] && outs[1] == ins[0]);
+        }
+        return outs.length == 1 && ins.length == 1 && outs[0] != ins[0];
+    }
+
+    // The distinct neighbours of v on one side, or null when there are none, more than two or a loop.
+    private static int[] distinct(int v, int[] offsets, int[] targets) {
+        int first = -1;
+        int second = -1;
+        for (int edge = offsets[v]; edge < offsets[v + 1]; edge += 1) {
+            int target = targets[edge];
+            if (target == v) return null;
+            if (target == first || target == second) continue;
+            if (first < 0) {
+                first = target;
+            } else if (second < 0) {
+                second = target;
+            } else {
+                return null;
+            }
+        }
+        if (first < 0) return null;
+        return second < 0 ? new int[]{first} : new int[]{first, second};
+    }
+
+    // Follows every connection from a kept fulcrum into a chain through to the kept fulcrum at its
+    // other end. The interior list ends with that fulcrum, and the prefix list with the full cost.
+    private void walkChains(int from, boolean[] kept, boolean[] covered,
+                            List<int[]> interiors, List<double[]> prefixes, List<int[]> ends) {
+        int[] edgeOffsets = index.offsets();
+        int[] edgeTargets = index.targets();
+        for (int edge = edgeOffsets[from]; edge < edgeOffsets[from + 1]; edge += 1) {
+            int first = edgeTargets[edge];
+            if (kept[first] || !firstEdgeTo(from, edge, first)) continue;
+
+            List<Integer> nodes = new ArrayList<>();
+            List<Double> prefix = new ArrayList<>();
+            int previous = from;
+            int current = first;
+            double cost = minCost(from, first);
+            while (true) {
+                nodes.add(current);
+                prefix.add(cost);
+                if (kept[current]) break;
+                covered[current] = true;
+                int next = nextOf(current, previous);
+                cost += minCost(current, next);
+                previous = current;
+                current = next;
+            }
+            interiors.add(nodes.stream().mapToInt(Integer::intValue).toArray());
+            prefixes.add(prefix.stream().mapToDouble(Double::doubleValue).toArray());
+            ends.add(new int[]{from, current});
+        }
+    }
+
+    // True for the first of several parallel connections to the same target.
+    private boolean firstEdgeTo(int from, int edge, int target) {
+        for (int other = index.offsets()[from]; other < edge; other += 1) {
+            if (index.targets()[other] == target) return false;
+        }
+        return true;
+    }
+
+    private int nextOf(int current, int previous) {
+        for (int edge = index.offsets()[current]; edge < index.offsets()[current + 1]; edge += 1) {
+            if (index.targets()[edge] != previous) return index.targets()[edge];
+        }
+        throw new IllegalStateException("Waypoint chain ends at " + index.nodeId(current));
+    }
+
+    private double minCost(int from, int to) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int edge = index.offsets()[from]; edge < index.offsets()[from + 1]; edge += 1) {
+            if (index.targets()[edge] == to) best = Math.min(best, index.costs()[edge]);
+        }
+        return best;
+    }
+
+    /**
+     * Finds the cheapest path between two fulcrums, given as indices of the original graph, and
+     * returns it expanded into original indices, or null when the destination is unreachable.
+     * The scratch is reset here for the contracted graph.
+     */
+    public int[] route(SearchScratch scratch, int start, int end) {
+        scratch.reset(keptNodes.length);
+        IndexedMinHeap queue = scratch.queue();
+
+        // A start inside a chain is left through the end of each chain it lies on; which chain
+        // reached each kept fulcrum first is remembered for the expansion.
+        int[] seedNodes = new int[2];
+        int[] seedChains = new int[2];
+        int seeds = 0;
+        double best = Double.POSITIVE_INFINITY;
+        int bestChain = -1;
+        int bestPosition = -1;
+        // Set while the best route runs straight down the start's chain, from this membership.
+        int directSlot = -1;
+        if (keptOf[start] >= 0) {
+            scratch.update(keptOf[start], 0, SearchScratch.NO_NODE);
+            queue.offer(keptOf[start], 0);
+        } else {
+            for (int slot = memberOffsets[start]; slot < memberOffsets[start + 1]; slot += 1) {
+                int c = memberChains[slot];
+                int p = memberPositions[slot];
+                int node = keptOf[chainTo[c]];
+                double cost = chainCost[c] - chainPrefix[c][p];
+                if (cost < scratch.distance(node)) {
+                    scratch.update(node, cost, SearchScratch.NO_NODE);
+                    queue.offer(node, cost);
+                    seedNodes[seeds] = node;
+                    seedChains[seeds] = slot;
+                    seeds += 1;
+                }
+                // The destination further down the same chain.
+                for (int other = memberOffsets[end]; other < memberOffsets[end + 1]; other += 1) {
+                    if (memberChains[other] == c && memberPositions[other] > p) {
+                        double along = chainPrefix[c][memberPositions[other]] - chainPrefix[c][p];
+                        if (along < best) {
+                            best = along;
+                            bestPosition = memberPositions[other];
+                            directSlot = slot;
+                        }
+                    }
+                }
+            }
+        }
+
+        int keptEnd = keptOf[end];
+        int exitNode = SearchScratch.NO_NODE;
+        while (!queue.isEmpty() && queue.peekKey() < best) {
+            int current = queue.poll();
+            scratch.settle(current);
+            double base = scratch.distance(current);
+            if (current == keptEnd) {
+                best = base;
+                exitNode = current;
+                directSlot = -1;
+                break;
+            }
+            if (keptEnd < 0) {
+                // The destination inside a chain is entered from the start of that chain.
+                for (int slot = memberOffsets[end]; slot < memberOffsets[end + 1]; slot += 1) {
+                    int c = memberChains[slot];
+                    if (keptOf[chainFrom[c]] != current) continue;
+                    double candidate = base + chainPrefix[c][memberPositions[slot]];
+                    if (candidate < best) {
+                        best = candidate;
+                        bestChain = c;
+                        bestPosition = memberPositions[slot];
+                        exitNode = current;
+                        directSlot = -1;
+                    }
+                }
+            }
+
+            for (int arc = offsets[current]; arc < offsets[current + 1]; arc += 1) {
+                int target = targets[arc];
+                if (scratch.isSettled(target)) continue;
+                double candidate = base + costs[arc];
+                if (candidate < scratch.distance(target)) {
+                    scratch.update(target, candidate, current);
+                    queue.offer(target, candidate);
+                }
+            }
+        }
+
+        if (best == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        List<Integer> nodes = new ArrayList<>();
+        if (directSlot >= 0) {
+            int c = memberChains[directSlot];
+            for (int i = memberPositions[directSlot]; i <= bestPosition; i += 1) {
+                nodes.add(chainInterior[c][i]);
+            }
+            return toArray(nodes);
+        }
+
+        List<Integer> keptPath = new ArrayList<>();
+        for (int node = exitNode; node != SearchScratch.NO_NODE; node = scratch.previous(node)) {
+            keptPath.add(node);
+        }
+        Collections.reverse(keptPath);
+
+        int root = keptPath.get(0);
+        if (keptOf[start] < 0) {
+            nodes.add(start);
+            // The seed that reached the root last is the one that set its distance.
+            int slot = -1;
+            for (int s = 0; s < seeds; s += 1) {
+                if (seedNodes[s] == root) slot = seedChains[s];
+            }
+            int c = memberChains[slot];
+            for (int i = memberPositions[slot] + 1; i < chainInterior[c].length; i += 1) {
+                nodes.add(chainInterior[c][i]);
+            }
+        } else {
+            nodes.add(keptNodes[root]);
+        }
+
+        for (int k = 1; k < keptPath.size(); k += 1) {
+            int arc = cheapestArc(keptPath.get(k - 1), keptPath.get(k));
+            if (arcChains[arc] < 0) {
+                nodes.add(keptNodes[keptPath.get(k)]);
+            } else {
+                for (int node : chainInterior[arcChains[arc]]) {
+                    nodes.add(node);
+                }
+            }
+        }
+
+        if (keptEnd < 0) {
+            for (int i = 0; i <= bestPosition; i += 1) {
+                nodes.add(chainInterior[bestChain][i]);
+            }
+        }
+        return toArray(nodes);
+    }
+
+    private int cheapestArc(int from, int to) {
+        int best = -1;
+        for (int arc = offsets[from]; arc < offsets[from + 1]; arc += 1) {
+            if (targets[arc] == to && (best < 0 || costs[arc] < costs[best])) best = arc;
+        }
+        return best;
+    }
+
+    private static int[] toArray(List<Integer> nodes) {
+        return nodes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Number of fulcrums left after contraction. */
+    public int keptCount() {
+        return keptNodes.length;
+    }
+
+    public int chainCount() {
+        return chainInterior.length;
+    }
+
+    @Override
+    public long estimateBytes() {
+        long bytes = keptOf.length * 8L + keptNodes.length * 4L + targets.length * 16L + memberChains.length * 8L;
+        for (int c = 0; c < chainInterior.length; c += 1) {
+            bytes += chainInterior[c].length * 12L + 32;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,163 @@
+package com.buildmap.api.services.navigation.contraction_hierarchies;
+
+import com.buildmap.api.dto.route.RoutingAlgorithm;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.ShortestPathAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchResults;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Contraction Hierarchies query engine. The first request on a compiled graph schedules its
+ * contraction in the background; until the hierarchy is ready queries are answered by the
+ * fallback engine. A query runs two upward searches that meet at the highest ranked node of the
+ * shortest path, then unpacks the shortcuts into original fulcrums.
+ */
+public class ContractionHierarchiesAlgorithm implements ShortestPathAlgorithm {
+
+    private final ShortestPathAlgorithm fallback;
+    private final ExecutorService preprocessingExecutor;
+    // Scratch "previous" slots hold the arc used to reach a node rather than the node itself.
+    private final ThreadLocal<SearchScratch> forwardPool = SearchScratch.perThread();
+    private final ThreadLocal<SearchScratch> backwardPool = SearchScratch.perThread();
+
+    public ContractionHierarchiesAlgorithm(ShortestPathAlgorithm fallback, ExecutorService preprocessingExecutor) {
+        this.fallback = fallback;
+        this.preprocessingExecutor = preprocessingExecutor;
+    }
+
+    @Override
+    public RoutingAlgorithm getAlgorithm() {
+        return RoutingAlgorithm.CONTRACTION_HIERARCHIES;
+    }
+
+    @Override
+    public DijkstraAlgorithm.DijkstraResult findShortestPath(Graph graph, Long startId, Long endId) {
+        ContractionHierarchy hierarchy = task(graph).readyHierarchy();
+        if (hierarchy == null) {
+            return fallback.findShortestPath(graph, startId, endId);
+        }
+
+        GraphIndex index = graph.getIndex();
+        int start = index.indexOf(startId);
+        int end = index.indexOf(endId);
+        if (start < 0 || end < 0) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+
+        SearchScratch forward = forwardPool.get();
+        SearchScratch backward = backwardPool.get();
+        forward.reset(index.size());
+        backward.reset(index.size());
+
+        int meeting = search(hierarchy, forward, backward, start, end);
+        if (meeting == SearchScratch.NO_NODE) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+
+        return unpack(index, hierarchy, forward, backward, start, meeting);
+    }
+
+    /**
+     * Schedules the contraction of the graph unless it already ran, e.g. to warm a freshly
+     * compiled area before its first query.
+     */
+    public CompletableFuture<ContractionHierarchy> prepare(Graph graph) {
+        return task(graph).result();
+    }
+
+    private ContractionHierarchyTask task(Graph graph) {
+        ContractionHierarchyTask task = graph.derive(ContractionHierarchyTask.class, ContractionHierarchyTask::new);
+        task.startOn(preprocessingExecutor);
+        return task;
+    }
+
+    public void shutdown() {
+        preprocessingExecutor.shutdownNow();
+    }
+
+    private int search(ContractionHierarchy hierarchy, SearchScratch forward, SearchScratch backward,
+                       int start, int end) {
+        forward.update(start, 0, SearchScratch.NO_NODE);
+        forward.queue().offer(start, 0);
+        backward.update(end, 0, SearchScratch.NO_NODE);
+        backward.queue().offer(end, 0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = SearchScratch.NO_NODE;
+        boolean forwardTurn = true;
+
+        while (true) {
+            boolean forwardOpen = forward.queue().peekKey() < best;
+            boolean backwardOpen = backward.queue().peekKey() < best;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+            boolean expandForward = forwardOpen && (forwardTurn || !backwardOpen);
+            forwardTurn = !forwardTurn;
+
+            SearchScratch side = expandForward ? forward : backward;
+            SearchScratch other = expandForward ? backward : forward;
+            int current = side.queue().poll();
+            side.settle(current);
+            double base = side.distance(current);
+
+            double total = base + other.distance(current);
+            if (total < best) {
+                best = total;
+                meeting = current;
+            }
+
+            int[] offsets = expandForward ? hierarchy.forwardOffsets() : hierarchy.backwardOffsets();
+            int[] arcs = expandForward ? hierarchy.forwardArcs() : hierarchy.backwardArcs();
+            for (int i = offsets[current]; i < offsets[current + 1]; i += 1) {
+                int arc = arcs[i];
+                int target = expandForward ? hierarchy.arcTarget(arc) : hierarchy.arcSource(arc);
+                double candidate = base + hierarchy.arcCost(arc);
+                if (candidate < side.distance(target)) {
+                    side.update(target, candidate, arc);
+                    side.queue().offer(target, candidate);
+                }
+            }
+        }
+        return meeting;
+    }
+
+    private DijkstraAlgorithm.DijkstraResult unpack(GraphIndex index, ContractionHierarchy hierarchy,
+                                                    SearchScratch forward, SearchScratch backward,
+                                                    int start, int meeting) {
+        List<Integer> overlayArcs = new ArrayList<>();
+        for (int node = meeting; forward.previous(node) != SearchScratch.NO_NODE; ) {
+            int arc = forward.previous(node);
+            overlayArcs.add(arc);
+            node = hierarchy.arcSource(arc);
+        }
+        Collections.reverse(overlayArcs);
+        for (int node = meeting; backward.previous(node) != SearchScratch.NO_NODE; ) {
+            int arc = backward.previous(node);
+            overlayArcs.add(arc);
+            node = hierarchy.arcTarget(arc);
+        }
+
+        List<Integer> originalArcs = new ArrayList<>();
+        overlayArcs.forEach(arc -> originalArcs.addAll(hierarchy.unpack(arc)));
+
+        int[] nodes = new int[originalArcs.size() + 1];
+        double[] distances = new double[nodes.length];
+        nodes[0] = start;
+        for (int i = 0; i < originalArcs.size(); i += 1) {
+            int arc = originalArcs.get(i);
+            nodes[i + 1] = hierarchy.arcTarget(arc);
+            distances[i + 1] = distances[i] + hierarchy.arcCost(arc);
+        }
+        return SearchResults.toDijkstraResult(index, nodes, distances);
+    }
+}
@@ -0,0 +1,24 @@
+package com.buildmap.api.services.navigation.contraction_hierarchies;
+
+import com.buildmap.api.services.navigation.bidirectional_algorithm.BidirectionalDijkstraAlgorithm;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ContractionHierarchiesConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ContractionHierarchiesAlgorithm contractionHierarchiesAlgorithm(
+            BidirectionalDijkstraAlgorithm bidirectionalDijkstraAlgorithm) {
+        return new ContractionHierarchiesAlgorithm(
+                bidirectionalDijkstraAlgorithm,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "ch-preprocessing");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+        );
+    }
+}
@@ -0,0 +1,114 @@
+package com.buildmap.api.services.navigation.contraction_hierarchies;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of contracting a compiled graph: the node ranks and the upward search graphs.
+ *
+ * <p>Every arc, original or shortcut, lives in one arc table. A shortcut remembers the two arcs
+ * it replaces, so a path found on the overlay can be unpacked back into original fulcrums.
+ * The forward upward graph lists, per node, its outgoing arcs towards higher ranked nodes; the
+ * backward upward graph lists, per node, its incoming arcs from higher ranked nodes.
+ */
+public final class ContractionHierarchy {
+
+    public static final int ORIGINAL = -1;
+
+    private final int[] ranks;
+    private final int[] arcSources;
+    private final int[] arcTargets;
+    private final double[] arcCosts;
+    private final int[] arcFirstChild;
+    private final int[] arcSecondChild;
+    private final int[] forwardOffsets;
+    private final int[] forwardArcs;
+    private final int[] backwardOffsets;
+    private final int[] backwardArcs;
+    private final int shortcutCount;
+
+    ContractionHierarchy(int[] ranks, int[] arcSources, int[] arcTargets, double[] arcCosts,
+                         int[] arcFirstChild, int[] arcSecondChild,
+                         int[] forwardOffsets, int[] forwardArcs,
+                         int[] backwardOffsets, int[] backwardArcs) {
+        this.ranks = ranks;
+        this.arcSources = arcSources;
+        this.arcTargets = arcTargets;
+        this.arcCosts = arcCosts;
+        this.arcFirstChild = arcFirstChild;
+        this.arcSecondChild = arcSecondChild;
+        this.forwardOffsets = forwardOffsets;
+        this.forwardArcs = forwardArcs;
+        this.backwardOffsets = backwardOffsets;
+        this.backwardArcs = backwardArcs;
+
+        int shortcuts = 0;
+        for (int child : arcFirstChild) {
+            if (child != ORIGINAL) shortcuts += 1;
+        }
+        this.shortcutCount = shortcuts;
+    }
+
+    public int size() {
+        return ranks.length;
+    }
+
+    public int rank(int node) {
+        return ranks[node];
+    }
+
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    int[] forwardOffsets() {
+        return forwardOffsets;
+    }
+
+    int[] forwardArcs() {
+        return forwardArcs;
+    }
+
+    int[] backwardOffsets() {
+        return backwardOffsets;
+    }
+
+    int[] backwardArcs() {
+        return backwardArcs;
+    }
+
+    int arcSource(int arc) {
+        return arcSources[arc];
+    }
+
+    int arcTarget(int arc) {
+        return arcTargets[arc];
+    }
+
+    double arcCost(int arc) {
+        return arcCosts[arc];
+    }
+
+    /**
+     * Expands an arc into the original arcs it stands for, in path order.
+     */
+    List<Integer> unpack(int arc) {
+        List<Integer> originals = new ArrayList<>();
+        List<Integer> stack = new ArrayList<>();
+        stack.add(arc);
+        while (!stack.isEmpty()) {
+            int current = stack.remove(stack.size() - 1);
+            if (arcFirstChild[current] == ORIGINAL) {
+                originals.add(current);
+            } else {
+                stack.add(arcSecondChild[current]);
+                stack.add(arcFirstChild[current]);
+            }
+        }
+        return originals;
+    }
+
+    public long estimateBytes() {
+        return ranks.length * 12L + arcSources.length * 28L + forwardArcs.length * 4L + backwardArcs.length * 4L;
+    }
+}
@@ -0,0 +1,268 @@
+package com.buildmap.api.services.navigation.contraction_hierarchies;
+
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+import java.util.Arrays;
+
+/**
+ * Contracts the nodes of a {@link GraphIndex} one by one, least important first, and adds a
+ * shortcut {@code u -> w} whenever removing {@code v} would lose the shortest path
+ * {@code u -> v -> w}. Importance is the edge difference (shortcuts added minus arcs removed)
+ * plus the number of already contracted neighbours, re-evaluated lazily when a node reaches
+ * the top of the queue. Witness searches are bounded, which may add a few unnecessary shortcuts
+ * but never loses a shortest path; the searches that only estimate a priority use a tighter
+ * bound than the ones that decide which shortcuts are added.
+ */
+final class ContractionHierarchyBuilder {
+
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int SIMULATION_SETTLE_LIMIT = 60;
+
+    private final int size;
+    private final ArcTable arcs = new ArcTable();
+    private final ArcList[] outgoing;
+    private final ArcList[] incoming;
+    private final boolean[] contracted;
+    private final int[] contractedNeighbours;
+    private final SearchScratch witness = new SearchScratch();
+
+    ContractionHierarchyBuilder(GraphIndex index) {
+        this.size = index.size();
+        this.outgoing = new ArcList[size];
+        this.incoming = new ArcList[size];
+        for (int v = 0; v < size; v += 1) {
+            outgoing[v] = new ArcList();
+            incoming[v] = new ArcList();
+        }
+        this.contracted = new boolean[size];
+        this.contractedNeighbours = new int[size];
+
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+        double[] costs = index.costs();
+        for (int v = 0; v < size; v += 1) {
+            for (int edge = offsets[v]; edge < offsets[v + 1]; edge += 1) {
+                if (targets[edge] != v) {
+                    addOrImprove(v, targets[edge], costs[edge], ContractionHierarchy.ORIGINAL, ContractionHierarchy.ORIGINAL);
+                }
+            }
+        }
+    }
+
+    ContractionHierarchy build() {
+        IndexedMinHeap queue = new IndexedMinHeap();
+        queue.reset(size);
+        for (int v = 0; v < size; v += 1) {
+            queue.offer(v, priority(v));
+        }
+
+        int[] ranks = new int[size];
+        ArcList[] forwardUp = new ArcList[size];
+        ArcList[] backwardUp = new ArcList[size];
+        int order = 0;
+
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            double priority = priority(v);
+            if (!queue.isEmpty() && priority > queue.peekKey()) {
+                queue.offer(v, priority);
+                continue;
+            }
+
+            shortcuts(v, true);
+            forwardUp[v] = liveArcs(outgoing[v], true);
+            backwardUp[v] = liveArcs(incoming[v], false);
+            contracted[v] = true;
+            ranks[v] = order;
+            order += 1;
+
+            for (int i = 0; i < forwardUp[v].size; i += 1) {
+                contractedNeighbours[arcs.targets[forwardUp[v].items[i]]] += 1;
+            }
+            for (int i = 0; i < backwardUp[v].size; i += 1) {
+                contractedNeighbours[arcs.sources[backwardUp[v].items[i]]] += 1;
+            }
+        }
+
+        int[] forwardOffsets = new int[size + 1];
+        int[] backwardOffsets = new int[size + 1];
+        for (int v = 0; v < size; v += 1) {
+            forwardOffsets[v + 1] = forwardOffsets[v] + forwardUp[v].size;
+            backwardOffsets[v + 1] = backwardOffsets[v] + backwardUp[v].size;
+        }
+        int[] forwardArcs = new int[forwardOffsets[size]];
+        int[] backwardArcs = new int[backwardOffsets[size]];
+        for (int v = 0; v < size; v += 1) {
+            System.arraycopy(forwardUp[v].items, 0, forwardArcs, forwardOffsets[v], forwardUp[v].size);
+            System.arraycopy(backwardUp[v].items, 0, backwardArcs, backwardOffsets[v], backwardUp[v].size);
+        }
+
+        int count = arcs.size;
+        return new ContractionHierarchy(
+                ranks,
+                Arrays.copyOf(arcs.sources, count),
+                Arrays.copyOf(arcs.targets, count),
+                Arrays.copyOf(arcs.costs, count),
+                Arrays.copyOf(arcs.firstChildren, count),
+                Arrays.copyOf(arcs.secondChildren, count),
+                forwardOffsets, forwardArcs, backwardOffsets, backwardArcs
+        );
+    }
+
+    private double priority(int v) {
+        int removed = liveCount(outgoing[v], true) + liveCount(incoming[v], false);
+        return shortcuts(v, false) - removed + contractedNeighbours[v];
+    }
+
+    /**
+     * Counts, and with {@code apply} adds, the shortcuts needed to contract {@code v}.
+     */
+    private int shortcuts(int v, boolean apply) {
+        int count = 0;
+        ArcList in = incoming[v];
+        ArcList out = outgoing[v];
+        for (int i = 0; i < in.size; i += 1) {
+            int first = in.items[i];
+            int u = arcs.sources[first];
+            if (contracted[u]) continue;
+
+            double limit = -1;
+            for (int j = 0; j < out.size; j += 1) {
+                int w = arcs.targets[out.items[j]];
+                if (contracted[w] || w == u) continue;
+                limit = Math.max(limit, arcs.costs[first] + arcs.costs[out.items[j]]);
+            }
+            if (limit < 0) continue;
+
+            witnessSearch(u, v, limit, apply ? WITNESS_SETTLE_LIMIT : SIMULATION_SETTLE_LIMIT);
+            for (int j = 0; j < out.size; j += 1) {
+                int second = out.items[j];
+                int w = arcs.targets[second];
+                if (contracted[w] || w == u) continue;
+                double via = arcs.costs[first] + arcs.costs[second];
+                if (witness.distance(w) <= via) continue;
+                count += 1;
+                if (apply) {
+                    addOrImprove(u, w, via, first, second);
+                }
+            }
+        }
+        return count;
+    }
+
+    private void witnessSearch(int source, int skipped, double limit, int settleLimit) {
+        witness.reset(size);
+        IndexedMinHeap queue = witness.queue();
+        witness.update(source, 0, SearchScratch.NO_NODE);
+        queue.offer(source, 0);
+
+        int settled = 0;
+        while (!queue.isEmpty() && settled < settleLimit) {
+            int current = queue.poll();
+            double base = witness.distance(current);
+            if (base > limit) break;
+            settled += 1;
+
+            ArcList out = outgoing[current];
+            for (int i = 0; i < out.size; i += 1) {
+                int arc = out.items[i];
+                int target = arcs.targets[arc];
+                if (target == skipped || contracted[target]) continue;
+                double candidate = base + arcs.costs[arc];
+                if (candidate < witness.distance(target)) {
+                    witness.update(target, candidate, current);
+                    queue.offer(target, candidate);
+                }
+            }
+        }
+    }
+
+    private void addOrImprove(int from, int to, double cost, int first, int second) {
+        ArcList out = outgoing[from];
+        for (int i = 0; i < out.size; i += 1) {
+            int existing = out.items[i];
+            if (arcs.targets[existing] != to) continue;
+            if (arcs.costs[existing] <= cost) return;
+            int replacement = arcs.add(from, to, cost, first, second);
+            out.items[i] = replacement;
+            incoming[to].replace(existing, replacement);
+            return;
+        }
+        int arc = arcs.add(from, to, cost, first, second);
+        out.add(arc);
+        incoming[to].add(arc);
+    }
+
+    private ArcList liveArcs(ArcList list, boolean outgoingArcs) {
+        ArcList live = new ArcList();
+        for (int i = 0; i < list.size; i += 1) {
+            int arc = list.items[i];
+            int neighbour = outgoingArcs ? arcs.targets[arc] : arcs.sources[arc];
+            if (!contracted[neighbour]) {
+                live.add(arc);
+            }
+        }
+        return live;
+    }
+
+    private int liveCount(ArcList list, boolean outgoingArcs) {
+        int count = 0;
+        for (int i = 0; i < list.size; i += 1) {
+            int arc = list.items[i];
+            int neighbour = outgoingArcs ? arcs.targets[arc] : arcs.sources[arc];
+            if (!contracted[neighbour]) count += 1;
+        }
+        return count;
+    }
+
+    private static final class ArcList {
+        private int[] items = new int[4];
+        private int size;
+
+        private void add(int arc) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size] = arc;
+            size += 1;
+        }
+
+        private void replace(int arc, int replacement) {
+            for (int i = 0; i < size; i += 1) {
+                if (items[i] == arc) {
+                    items[i] = replacement;
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class ArcTable {
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private double[] costs = new double[16];
+        private int[] firstChildren = new int[16];
+        private int[] secondChildren = new int[16];
+        private int size;
+
+        private int add(int source, int target, double cost, int first, int second) {
+            if (size == sources.length) {
+                int capacity = size * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                costs = Arrays.copyOf(costs, capacity);
+                firstChildren = Arrays.copyOf(firstChildren, capacity);
+                secondChildren = Arrays.copyOf(secondChildren, capacity);
+            }
+            sources[size] = source;
+            targets[size] = target;
+            costs[size] = cost;
+            firstChildren[size] = first;
+            secondChildren[size] = second;
+            size += 1;
+            return size - 1;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.buildmap.api.services.navigation.contraction_hierarchies;
+
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background preprocessing of one compiled graph. Stored with {@link Graph#derive}, so it is
+ * started at most once per graph and discarded together with the graph when the area changes.
+ */
+final class ContractionHierarchyTask implements DerivedStructure {
+
+    private final Graph graph;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<ContractionHierarchy> result = new CompletableFuture<>();
+
+    ContractionHierarchyTask(Graph graph) {
+        this.graph = graph;
+    }
+
+    void startOn(Executor executor) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                result.complete(new ContractionHierarchyBuilder(graph.getIndex()).build());
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+    }
+
+    /**
+     * The finished hierarchy, or {@code null} while preprocessing is still running or failed.
+     */
+    ContractionHierarchy readyHierarchy() {
+        if (!result.isDone() || result.isCompletedExceptionally()) {
+            return null;
+        }
+        return result.join();
+    }
+
+    CompletableFuture<ContractionHierarchy> result() {
+        return result;
+    }
+
+    @Override
+    public long estimateBytes() {
+        ContractionHierarchy hierarchy = readyHierarchy();
+        return hierarchy != null ? hierarchy.estimateBytes() : 0;
+    }
+}
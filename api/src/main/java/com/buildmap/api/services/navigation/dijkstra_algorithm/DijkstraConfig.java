@@ -10,4 +10,9 @@ public class DijkstraConfig {
     public DijkstraAlgorithm dijkstraAlgorithm() {
         return new DijkstraAlgorithm();
     }
+
+    @Bean
+    public IndexedDijkstraAlgorithm indexedDijkstraAlgorithm() {
+        return new IndexedDijkstraAlgorithm();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+package com.buildmap.api.services.navigation.dijkstra_algorithm;
+
+import com.buildmap.api.dto.route.RoutingAlgorithm;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.ShortestPathAlgorithm;
+import com.buildmap.api.services.navigation.chain_contraction.ChainContraction;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchResults;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dijkstra over the {@link GraphIndex} arrays of a graph. Distances, predecessors and the
+ * decrease-key heap live in a per-thread {@link SearchScratch}, so a query allocates only the
+ * result maps of the found path. Produces the same result contract as {@link DijkstraAlgorithm}.
+ *
+ * <p>Single routes run over the {@link ChainContraction} of the graph, so a corridor of waypoints
+ * costs one heap operation; the searches from several sources or to several destinations below
+ * work on the full index.
+ */
+public class IndexedDijkstraAlgorithm implements ShortestPathAlgorithm {
+
+    private final ThreadLocal<SearchScratch> scratchPool = SearchScratch.perThread();
+
+    @Override
+    public RoutingAlgorithm getAlgorithm() {
+        return RoutingAlgorithm.DIJKSTRA;
+    }
+
+    @Override
+    public DijkstraAlgorithm.DijkstraResult findShortestPath(Graph graph, Long startId, Long endId) {
+        GraphIndex index = graph.getIndex();
+        int start = index.indexOf(startId);
+        int end = index.indexOf(endId);
+        if (start < 0 || end < 0) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+
+        ChainContraction contraction = graph.derive(ChainContraction.class, ChainContraction::new);
+        int[] path = contraction.route(scratchPool.get(), start, end);
+        if (path == null) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+
+        return SearchResults.toDijkstraResult(index, path);
+    }
+
+    /**
+     * Searches from several fulcrums at once, each entered with the cost already paid to reach it,
+     * e.g. both ends of the connection a free point was snapped to. The path of the result starts
+     * at the source the cheapest route leaves from and its distances include that source's cost.
+     */
+    public DijkstraAlgorithm.DijkstraResult findShortestPath(Graph graph, Map<Long, Double> sources, Long endId) {
+        GraphIndex index = graph.getIndex();
+        int end = index.indexOf(endId);
+        if (end < 0) {
+            throw new IllegalArgumentException("End fulcrum not found: " + endId);
+        }
+
+        SearchScratch scratch = scratchPool.get();
+        scratch.reset(index.size());
+        sources.forEach((sourceId, cost) -> {
+            int source = index.indexOf(sourceId);
+            if (source >= 0 && cost < scratch.distance(source)) {
+                seed(scratch, source, cost);
+            }
+        });
+        if (!search(index, scratch, end)) {
+            throw new IllegalArgumentException("No path exists to " + endId);
+        }
+
+        return SearchResults.toDijkstraResult(index, scratch, end);
+    }
+
+    /**
+     * One search from {@code startId} that stops once every reachable destination is settled.
+     * Unreachable destinations are absent from the returned map.
+     */
+    public Map<Long, DijkstraAlgorithm.DijkstraResult> findShortestPaths(Graph graph, Long startId,
+                                                                         Collection<Long> endIds) {
+        GraphIndex index = graph.getIndex();
+        int start = index.indexOf(startId);
+        if (start < 0) {
+            throw new IllegalArgumentException("Start fulcrum not found: " + startId);
+        }
+
+        BitSet pending = new BitSet(index.size());
+        for (Long endId : endIds) {
+            int end = index.indexOf(endId);
+            if (end >= 0) pending.set(end);
+        }
+        List<Integer> ends = pending.stream().boxed().toList();
+
+        SearchScratch scratch = scratchPool.get();
+        scratch.reset(index.size());
+        seed(scratch, start, 0);
+        searchAll(index, scratch, pending);
+
+        Map<Long, DijkstraAlgorithm.DijkstraResult> results = new HashMap<>();
+        for (int end : ends) {
+            if (scratch.isSettled(end)) {
+                results.put(index.nodeId(end), SearchResults.toDijkstraResult(index, scratch, end));
+            }
+        }
+        return results;
+    }
+
+    private void seed(SearchScratch scratch, int source, double cost) {
+        scratch.update(source, cost, SearchScratch.NO_NODE);
+        scratch.queue().offer(source, cost);
+    }
+
+    private void searchAll(GraphIndex index, SearchScratch scratch, BitSet pending) {
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+        double[] costs = index.costs();
+        IndexedMinHeap queue = scratch.queue();
+
+        int remaining = pending.cardinality();
+        while (!queue.isEmpty() && remaining > 0) {
+            int current = queue.poll();
+            scratch.settle(current);
+            if (pending.get(current)) {
+                remaining -= 1;
+            }
+
+            double base = scratch.distance(current);
+            for (int edge = offsets[current]; edge < offsets[current + 1]; edge += 1) {
+                int target = targets[edge];
+                if (scratch.isSettled(target)) continue;
+                double candidate = base + costs[edge];
+                if (candidate < scratch.distance(target)) {
+                    scratch.update(target, candidate, current);
+                    queue.offer(target, candidate);
+                }
+            }
+        }
+    }
+
+    private boolean search(GraphIndex index, SearchScratch scratch, int end) {
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+        double[] costs = index.costs();
+        IndexedMinHeap queue = scratch.queue();
+
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            scratch.settle(current);
+            if (current == end) {
+                return true;
+            }
+
+            double base = scratch.distance(current);
+            for (int edge = offsets[current]; edge < offsets[current + 1]; edge += 1) {
+                int target = targets[edge];
+                if (scratch.isSettled(target)) continue;
+                double candidate = base + costs[edge];
+                if (candidate < scratch.distance(target)) {
+                    scratch.update(target, candidate, current);
+                    queue.offer(target, candidate);
+                }
+            }
+        }
+        return false;
+    }
+}
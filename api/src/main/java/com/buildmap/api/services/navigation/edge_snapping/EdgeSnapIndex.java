@@ -0,0 +1,175 @@
+package com.buildmap.api.services.navigation.edge_snapping;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-floor R-trees over the walkable segments of a compiled graph. A segment joins two positioned
+ * fulcrums of the same floor that have a connection in at least one direction; connections between
+ * floors have no meaningful footprint on the plan and are left out. A point is snapped to the
+ * closest segment, and the search may then start from either end that the point can walk to along
+ * the connection, paying the share of the connection cost that is left.
+ */
+public final class EdgeSnapIndex implements DerivedStructure {
+
+    // Segment record, its R-tree row and the share of the tree boxes above it.
+    private static final long SEGMENT_BYTES = 96;
+
+    private final Map<Long, FloorSegments> floors = new HashMap<>();
+    private final long segmentCount;
+
+    public EdgeSnapIndex(Graph graph) {
+        Map<Long, Map<List<Long>, Segment>> byFloor = new HashMap<>();
+        for (Fulcrum from : graph.getNodes().values()) {
+            if (!hasPosition(from)) continue;
+            for (Graph.Edge edge : graph.getEdges(from.getId())) {
+                Fulcrum to = graph.getNode(edge.targetId());
+                if (to == null || !hasPosition(to) || to.getId().equals(from.getId())) continue;
+                if (!from.getFloor().getId().equals(to.getFloor().getId())) continue;
+
+                boolean forward = from.getId() < to.getId();
+                Fulcrum first = forward ? from : to;
+                Fulcrum second = forward ? to : from;
+                Segment segment = byFloor.computeIfAbsent(from.getFloor().getId(), id -> new LinkedHashMap<>())
+                        .computeIfAbsent(List.of(first.getId(), second.getId()), key -> new Segment(first, second));
+                segment.connect(forward, edge);
+            }
+        }
+
+        long total = 0;
+        for (Map.Entry<Long, Map<List<Long>, Segment>> floor : byFloor.entrySet()) {
+            Segment[] segments = floor.getValue().values().toArray(new Segment[0]);
+            floors.put(floor.getKey(), new FloorSegments(segments));
+            total += segments.length;
+        }
+        this.segmentCount = total;
+    }
+
+    /**
+     * Projects the point onto the closest segment of the floor, or returns null when the floor has
+     * no segments.
+     */
+    public Snap snap(Long floorId, double x, double y) {
+        FloorSegments floor = floors.get(floorId);
+        if (floor == null) {
+            return null;
+        }
+        int row = floor.tree().nearest(x, y);
+        if (row < 0) {
+            return null;
+        }
+        Segment segment = floor.segments()[row];
+        double fraction = SegmentRTree.projection(segment.first.getX(), segment.first.getY(),
+                segment.second.getX(), segment.second.getY(), x, y);
+        return new Snap(segment, fraction);
+    }
+
+    @Override
+    public long estimateBytes() {
+        return segmentCount * SEGMENT_BYTES;
+    }
+
+    private static boolean hasPosition(Fulcrum fulcrum) {
+        return fulcrum.getFloor() != null && fulcrum.getX() != null && fulcrum.getY() != null;
+    }
+
+    /**
+     * A point projected onto a segment, {@code fraction} of the way from its first to its second
+     * fulcrum.
+     */
+    public static final class Snap {
+
+        private final Segment segment;
+        private final double fraction;
+
+        private Snap(Segment segment, double fraction) {
+            this.segment = segment;
+            this.fraction = fraction;
+        }
+
+        public Long firstId() {
+            return segment.first.getId();
+        }
+
+        public Long secondId() {
+            return segment.second.getId();
+        }
+
+        public double fraction() {
+            return fraction;
+        }
+
+        /**
+         * Cost of walking from the snapped point to each end of the segment the connections allow,
+         * keyed by fulcrum id. An end is missing when there is no connection leading towards it.
+         */
+        public Map<Long, Double> entryCosts() {
+            Map<Long, Double> costs = new LinkedHashMap<>();
+            if (segment.backward != null) {
+                costs.put(firstId(), fraction * segment.backward.cost());
+            }
+            if (segment.forward != null) {
+                costs.put(secondId(), (1 - fraction) * segment.forward.cost());
+            }
+            return costs;
+        }
+
+        /** Metres from the snapped point to the given end along its connection. */
+        public double metersTo(Long fulcrumId) {
+            if (fulcrumId.equals(firstId()) && segment.backward != null) {
+                return fraction * segment.backward.distanceMeters();
+            }
+            if (fulcrumId.equals(secondId()) && segment.forward != null) {
+                return (1 - fraction) * segment.forward.distanceMeters();
+            }
+            throw new IllegalArgumentException("Fulcrum " + fulcrumId + " cannot be reached from the snapped point");
+        }
+    }
+
+    private static final class Segment {
+
+        private final Fulcrum first;
+        private final Fulcrum second;
+        // Connections first -> second and second -> first; either may be absent.
+        private Graph.Edge forward;
+        private Graph.Edge backward;
+
+        private Segment(Fulcrum first, Fulcrum second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        // Keeps the cheaper connection should a direction be listed twice.
+        private void connect(boolean fromFirst, Graph.Edge edge) {
+            if (fromFirst) {
+                forward = forward == null || edge.cost() < forward.cost() ? edge : forward;
+            } else {
+                backward = backward == null || edge.cost() < backward.cost() ? edge : backward;
+            }
+        }
+    }
+
+    private record FloorSegments(SegmentRTree tree, Segment[] segments) {
+
+        private FloorSegments(Segment[] segments) {
+            this(new SegmentRTree(rows(segments)), segments);
+        }
+
+        private static double[][] rows(Segment[] segments) {
+            List<double[]> rows = new ArrayList<>(segments.length);
+            for (Segment segment : segments) {
+                rows.add(new double[]{
+                        segment.first.getX(), segment.first.getY(), segment.second.getX(), segment.second.getY()
+                });
+            }
+            return rows.toArray(new double[0][]);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.buildmap.api.services.navigation.edge_snapping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Static R-tree over line segments, bulk-loaded with Sort-Tile-Recursive packing of the leaves.
+ * Every level is kept in flat arrays and the children of node {@code n} are the entries
+ * {@code [n * NODE_CAPACITY, (n + 1) * NODE_CAPACITY)} of the level below, so a query walks arrays
+ * only; upper levels group consecutive nodes, which the tile order already keeps close together.
+ * Nearest-segment queries descend the children in order of their box distance and skip every box
+ * farther than the best segment found so far.
+ */
+final class SegmentRTree {
+
+    static final int NODE_CAPACITY = 8;
+
+    // Segment endpoints and original ordinals in packed order.
+    private final double[] ax;
+    private final double[] ay;
+    private final double[] bx;
+    private final double[] by;
+    private final int[] ordinals;
+
+    // levels[0] groups segments, every further level groups the nodes of the one below.
+    private final Level[] levels;
+
+    /**
+     * Builds the tree over segments given as {@code {ax, ay, bx, by}} rows; query results refer
+     * to a segment by its row number.
+     */
+    SegmentRTree(double[][] segments) {
+        int size = segments.length;
+        double[] minX = new double[size];
+        double[] minY = new double[size];
+        double[] maxX = new double[size];
+        double[] maxY = new double[size];
+        for (int i = 0; i < size; i += 1) {
+            double[] segment = segments[i];
+            minX[i] = Math.min(segment[0], segment[2]);
+            minY[i] = Math.min(segment[1], segment[3]);
+            maxX[i] = Math.max(segment[0], segment[2]);
+            maxY[i] = Math.max(segment[1], segment[3]);
+        }
+
+        int[] order = packOrder(minX, minY, maxX, maxY);
+        ax = new double[size];
+        ay = new double[size];
+        bx = new double[size];
+        by = new double[size];
+        ordinals = order;
+        for (int i = 0; i < size; i += 1) {
+            double[] segment = segments[order[i]];
+            ax[i] = segment[0];
+            ay[i] = segment[1];
+            bx[i] = segment[2];
+            by[i] = segment[3];
+        }
+
+        List<Level> built = new ArrayList<>();
+        if (size > 0) {
+            Level level = Level.group(permute(minX, order), permute(minY, order),
+                    permute(maxX, order), permute(maxY, order));
+            built.add(level);
+            while (level.size() > 1) {
+                level = Level.group(level.minX, level.minY, level.maxX, level.maxY);
+                built.add(level);
+            }
+        }
+        levels = built.toArray(new Level[0]);
+    }
+
+    int size() {
+        return ordinals.length;
+    }
+
+    /**
+     * Returns the row of the segment closest to the point, or -1 for an empty tree. Equally close
+     * segments resolve to the lowest row.
+     */
+    int nearest(double x, double y) {
+        if (levels.length == 0) {
+            return -1;
+        }
+        Best best = new Best();
+        descend(levels.length - 1, 0, x, y, best);
+        return best.ordinal;
+    }
+
+    /** Position of the projection of the point on the segment, from 0 at its first end to 1 at its second. */
+    static double projection(double ax, double ay, double bx, double by, double x, double y) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        if (lengthSquared == 0) {
+            return 0;
+        }
+        double t = ((x - ax) * dx + (y - ay) * dy) / lengthSquared;
+        return Math.max(0, Math.min(1, t));
+    }
+
+    private void descend(int depth, int node, double x, double y, Best best) {
+        int from = node * NODE_CAPACITY;
+        int to = Math.min(from + NODE_CAPACITY, depth == 0 ? ordinals.length : levels[depth - 1].size());
+        if (depth == 0) {
+            for (int i = from; i < to; i += 1) {
+                double t = projection(ax[i], ay[i], bx[i], by[i], x, y);
+                double px = ax[i] + (bx[i] - ax[i]) * t - x;
+                double py = ay[i] + (by[i] - ay[i]) * t - y;
+                best.offer(ordinals[i], px * px + py * py);
+            }
+            return;
+        }
+
+        Level below = levels[depth - 1];
+        int count = to - from;
+        int[] children = new int[count];
+        double[] distances = new double[count];
+        for (int i = 0; i < count; i += 1) {
+            int child = from + i;
+            double distance = below.distanceSquared(child, x, y);
+            // Insertion sort: a node has at most NODE_CAPACITY children.
+            int slot = i;
+            while (slot > 0 && distances[slot - 1] > distance) {
+                children[slot] = children[slot - 1];
+                distances[slot] = distances[slot - 1];
+                slot -= 1;
+            }
+            children[slot] = child;
+            distances[slot] = distance;
+        }
+        for (int i = 0; i < count; i += 1) {
+            // Equal distances are still visited so a tie can settle on the lower row.
+            if (distances[i] > best.distance) {
+                return;
+            }
+            descend(depth - 1, children[i], x, y, best);
+        }
+    }
+
+    // Sort-Tile-Recursive: vertical slices by centre x, then runs of NODE_CAPACITY by centre y.
+    private static int[] packOrder(double[] minX, double[] minY, double[] maxX, double[] maxY) {
+        int size = minX.length;
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i += 1) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> minX[i] + maxX[i]).thenComparingInt(i -> i));
+
+        int leaves = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int slices = (int) Math.ceil(Math.sqrt(leaves));
+        int sliceSize = Math.max(1, slices) * NODE_CAPACITY;
+        for (int start = 0; start < size; start += sliceSize) {
+            Arrays.sort(order, start, Math.min(start + sliceSize, size),
+                    Comparator.<Integer>comparingDouble(i -> minY[i] + maxY[i]).thenComparingInt(i -> i));
+        }
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double[] permute(double[] values, int[] order) {
+        double[] permuted = new double[order.length];
+        for (int i = 0; i < order.length; i += 1) {
+            permuted[i] = values[order[i]];
+        }
+        return permuted;
+    }
+
+    private static final class Level {
+
+        private final double[] minX;
+        private final double[] minY;
+        private final double[] maxX;
+        private final double[] maxY;
+
+        private Level(double[] minX, double[] minY, double[] maxX, double[] maxY) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        // One box per run of NODE_CAPACITY consecutive entries of the level below.
+        private static Level group(double[] minX, double[] minY, double[] maxX, double[] maxY) {
+            int size = (minX.length + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            Level level = new Level(new double[size], new double[size], new double[size], new double[size]);
+            for (int node = 0; node < size; node += 1) {
+                int from = node * NODE_CAPACITY;
+                int to = Math.min(from + NODE_CAPACITY, minX.length);
+                level.minX[node] = Double.POSITIVE_INFINITY;
+                level.minY[node] = Double.POSITIVE_INFINITY;
+                level.maxX[node] = Double.NEGATIVE_INFINITY;
+                level.maxY[node] = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; i += 1) {
+                    level.minX[node] = Math.min(level.minX[node], minX[i]);
+                    level.minY[node] = Math.min(level.minY[node], minY[i]);
+                    level.maxX[node] = Math.max(level.maxX[node], maxX[i]);
+                    level.maxY[node] = Math.max(level.maxY[node], maxY[i]);
+                }
+            }
+            return level;
+        }
+
+        private int size() {
+            return minX.length;
+        }
+
+        private double distanceSquared(int node, double x, double y) {
+            double dx = Math.max(0, Math.max(minX[node] - x, x - maxX[node]));
+            double dy = Math.max(0, Math.max(minY[node] - y, y - maxY[node]));
+            return dx * dx + dy * dy;
+        }
+    }
+
+    private static final class Best {
+
+        private int ordinal = -1;
+        private double distance = Double.POSITIVE_INFINITY;
+
+        private void offer(int candidate, double candidateDistance) {
+            if (candidateDistance < distance || (candidateDistance == distance && candidate < ordinal)) {
+                ordinal = candidate;
+                distance = candidateDistance;
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.buildmap.api.services.navigation.floor_overlay;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Two-level view of a compiled graph for routes between floors. Level one is a {@link FloorTable}
+ * per floor with the distances between its portals: stairs, elevators, entrances and every other
+ * fulcrum with a connection to another floor. Level two is the overlay graph over all portals,
+ * joined by those table entries and by the connections between floors. Any route that leaves a
+ * floor does so through a portal, so searching the start floor, the overlay and the destination
+ * floor finds the same cost as a search over the whole area.
+ */
+public final class FloorOverlay implements DerivedStructure {
+
+    private static final Set<FulcrumType> PORTAL_TYPES =
+            EnumSet.of(FulcrumType.STAIRS, FulcrumType.ELEVATOR, FulcrumType.ENTRANCE);
+
+    private final GraphIndex index;
+    private final Long[] floorIds;
+    private final FloorTable[] tables;
+    // Per floor, the global index of every local node.
+    private final int[][] globals;
+    private final int[] floorOf;
+    private final int[] localOf;
+
+    // Overlay nodes are portals; per floor, the overlay number of each of its portals.
+    private final int[][] overlayOfPortal;
+    private final int[] overlayGlobal;
+    private final int[] overlayFloor;
+    private final int[] overlayOffsets;
+    private final int[] overlayTargets;
+    private final double[] overlayCosts;
+    private final int reusedTables;
+
+    /**
+     * Builds the overlay of the graph, taking the table of every unchanged floor from
+     * {@code previousTables}, which maps a floor id to its latest table or null.
+     */
+    FloorOverlay(Graph graph, Function<Long, FloorTable> previousTables) {
+        this.index = graph.getIndex();
+        int size = index.size();
+        int[] edgeOffsets = index.offsets();
+        int[] edgeTargets = index.targets();
+        double[] edgeCosts = index.costs();
+
+        Map<Long, List<Integer>> byFloor = new LinkedHashMap<>();
+        for (int v = 0; v < size; v += 1) {
+            byFloor.computeIfAbsent(floorId(graph.getNode(index.nodeId(v))), id -> new ArrayList<>()).add(v);
+        }
+        int floorCount = byFloor.size();
+        this.floorIds = byFloor.keySet().toArray(new Long[0]);
+        this.globals = new int[floorCount][];
+        this.floorOf = new int[size];
+        this.localOf = new int[size];
+        int floor = 0;
+        for (List<Integer> members : byFloor.values()) {
+            int[] nodes = members.stream()
+                    .sorted((a, b) -> Long.compare(index.nodeId(a), index.nodeId(b)))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            globals[floor] = nodes;
+            for (int local = 0; local < nodes.length; local += 1) {
+                floorOf[nodes[local]] = floor;
+                localOf[nodes[local]] = local;
+            }
+            floor += 1;
+        }
+
+        boolean[] portal = new boolean[size];
+        for (int v = 0; v < size; v += 1) {
+            if (PORTAL_TYPES.contains(graph.getNode(index.nodeId(v)).getType())) {
+                portal[v] = true;
+            }
+            for (int edge = edgeOffsets[v]; edge < edgeOffsets[v + 1]; edge += 1) {
+                if (floorOf[edgeTargets[edge]] != floorOf[v]) {
+                    portal[v] = true;
+                    portal[edgeTargets[edge]] = true;
+                }
+            }
+        }
+
+        this.tables = new FloorTable[floorCount];
+        int reused = 0;
+        for (int f = 0; f < floorCount; f += 1) {
+            FloorTable previous = previousTables.apply(floorIds[f]);
+            tables[f] = buildTable(f, portal, edgeOffsets, edgeTargets, edgeCosts, previous);
+            if (tables[f] == previous) reused += 1;
+        }
+        this.reusedTables = reused;
+
+        this.overlayOfPortal = new int[floorCount][];
+        int overlaySize = 0;
+        for (int f = 0; f < floorCount; f += 1) {
+            overlayOfPortal[f] = new int[tables[f].portalCount()];
+            for (int i = 0; i < overlayOfPortal[f].length; i += 1) {
+                overlayOfPortal[f][i] = overlaySize++;
+            }
+        }
+        this.overlayGlobal = new int[overlaySize];
+        this.overlayFloor = new int[overlaySize];
+        int[] overlayOfGlobal = new int[size];
+        Arrays.fill(overlayOfGlobal, -1);
+        for (int f = 0; f < floorCount; f += 1) {
+            for (int i = 0; i < overlayOfPortal[f].length; i += 1) {
+                int node = overlayOfPortal[f][i];
+                overlayGlobal[node] = globals[f][tables[f].portal(i)];
+                overlayFloor[node] = f;
+                overlayOfGlobal[overlayGlobal[node]] = node;
+            }
+        }
+
+        // Overlay arcs: table entries towards the other portals of the floor, then the original
+        // connections that lead to another floor.
+        List<double[]> arcs = new ArrayList<>();
+        this.overlayOffsets = new int[overlaySize + 1];
+        for (int node = 0; node < overlaySize; node += 1) {
+            int f = overlayFloor[node];
+            FloorTable table = tables[f];
+            int from = node - overlayOfPortal[f][0];
+            for (int to = 0; to < table.portalCount(); to += 1) {
+                double distance = table.portalDistance(from, to);
+                if (to != from && distance != Double.POSITIVE_INFINITY) {
+                    arcs.add(new double[]{overlayOfPortal[f][to], distance});
+                }
+            }
+            int v = overlayGlobal[node];
+            for (int edge = edgeOffsets[v]; edge < edgeOffsets[v + 1]; edge += 1) {
+                int target = edgeTargets[edge];
+                if (floorOf[target] != f) {
+                    arcs.add(new double[]{overlayOfGlobal[target], edgeCosts[edge]});
+                }
+            }
+            overlayOffsets[node + 1] = arcs.size();
+        }
+        this.overlayTargets = new int[arcs.size()];
+        this.overlayCosts = new double[arcs.size()];
+        for (int arc = 0; arc < arcs.size(); arc += 1) {
+            overlayTargets[arc] = (int) arcs.get(arc)[0];
+            overlayCosts[arc] = arcs.get(arc)[1];
+        }
+    }
+
+    private FloorTable buildTable(int floor, boolean[] portal, int[] edgeOffsets, int[] edgeTargets,
+                                  double[] edgeCosts, FloorTable previous) {
+        int[] nodes = globals[floor];
+        long[] nodeIds = new long[nodes.length];
+        int[] offsets = new int[nodes.length + 1];
+        List<Integer> portals = new ArrayList<>();
+        for (int local = 0; local < nodes.length; local += 1) {
+            int v = nodes[local];
+            nodeIds[local] = index.nodeId(v);
+            if (portal[v]) portals.add(local);
+            int kept = 0;
+            for (int edge = edgeOffsets[v]; edge < edgeOffsets[v + 1]; edge += 1) {
+                if (floorOf[edgeTargets[edge]] == floor) kept += 1;
+            }
+            offsets[local + 1] = offsets[local] + kept;
+        }
+        int[] targets = new int[offsets[nodes.length]];
+        double[] costs = new double[offsets[nodes.length]];
+        for (int local = 0; local < nodes.length; local += 1) {
+            int v = nodes[local];
+            // Sorted by target and cost, so the layout of an unchanged floor compares equal no
+            // matter in which order the database returned its connections.
+            long[][] kept = new long[offsets[local + 1] - offsets[local]][];
+            int count = 0;
+            for (int edge = edgeOffsets[v]; edge < edgeOffsets[v + 1]; edge += 1) {
+                if (floorOf[edgeTargets[edge]] != floor) continue;
+                kept[count++] = new long[]{localOf[edgeTargets[edge]], Double.doubleToLongBits(edgeCosts[edge])};
+            }
+            Arrays.sort(kept, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                    : Double.compare(Double.longBitsToDouble(a[1]), Double.longBitsToDouble(b[1])));
+            for (int i = 0; i < kept.length; i += 1) {
+                targets[offsets[local] + i] = (int) kept[i][0];
+                costs[offsets[local] + i] = Double.longBitsToDouble(kept[i][1]);
+            }
+        }
+        return FloorTable.build(nodeIds, offsets, targets, costs,
+                portals.stream().mapToInt(Integer::intValue).toArray(), previous);
+    }
+
+    private static Long floorId(Fulcrum fulcrum) {
+        return fulcrum.getFloor() != null ? fulcrum.getFloor().getId() : null;
+    }
+
+    GraphIndex index() {
+        return index;
+    }
+
+    int floorCount() {
+        return tables.length;
+    }
+
+    Long floorId(int floor) {
+        return floorIds[floor];
+    }
+
+    FloorTable table(int floor) {
+        return tables[floor];
+    }
+
+    int floorOf(int node) {
+        return floorOf[node];
+    }
+
+    int localOf(int node) {
+        return localOf[node];
+    }
+
+    int global(int floor, int local) {
+        return globals[floor][local];
+    }
+
+    int overlayNode(int floor, int portal) {
+        return overlayOfPortal[floor][portal];
+    }
+
+    int overlaySize() {
+        return overlayGlobal.length;
+    }
+
+    int overlayGlobal(int node) {
+        return overlayGlobal[node];
+    }
+
+    int overlayFloor(int node) {
+        return overlayFloor[node];
+    }
+
+    /** Position of the overlay node among the portals of its floor. */
+    int overlayPortal(int node) {
+        return node - overlayOfPortal[overlayFloor[node]][0];
+    }
+
+    int[] overlayOffsets() {
+        return overlayOffsets;
+    }
+
+    int[] overlayTargets() {
+        return overlayTargets;
+    }
+
+    double[] overlayCosts() {
+        return overlayCosts;
+    }
+
+    /** Number of floor tables carried over from the previous version of the area. */
+    public int reusedTables() {
+        return reusedTables;
+    }
+
+    public int portalCount() {
+        return overlayGlobal.length;
+    }
+
+    @Override
+    public long estimateBytes() {
+        long bytes = floorOf.length * 8L + overlayGlobal.length * 12L + overlayTargets.length * 12L;
+        for (FloorTable table : tables) {
+            bytes += table.estimateBytes();
+        }
+        return bytes;
+    }
+}
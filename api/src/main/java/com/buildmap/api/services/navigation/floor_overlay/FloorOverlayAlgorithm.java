@@ -0,0 +1,201 @@
+package com.buildmap.api.services.navigation.floor_overlay;
+
+import com.buildmap.api.dto.route.RoutingAlgorithm;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.GraphLineage;
+import com.buildmap.api.services.navigation.ShortestPathAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchResults;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hierarchical engine over a {@link FloorOverlay}. A query searches the start floor towards its
+ * portals and the destination floor backwards from the destination, then joins them through the
+ * overlay of portals; floors in between are never expanded. The path is unpacked into original
+ * fulcrums by re-walking the floor segments the overlay skipped over.
+ *
+ * <p>The latest tables of every {@link GraphLineage} are remembered, so when an area is recompiled
+ * only the floors whose fulcrums or connections changed get their portal distances computed again,
+ * and the profile variants of the area each seed their own next version. Graphs of no lineage,
+ * such as reweighted copies, neither read nor replace them. The tables of an area are forgotten
+ * when its graph leaves the cache.
+ */
+public class FloorOverlayAlgorithm implements ShortestPathAlgorithm {
+
+    // Per lineage, the tables of its latest overlay by floor id.
+    private final Map<GraphLineage, Map<Long, FloorTable>> latestTables = new ConcurrentHashMap<>();
+    private final ThreadLocal<SearchScratch> startPool = SearchScratch.perThread();
+    private final ThreadLocal<SearchScratch> endPool = SearchScratch.perThread();
+    private final ThreadLocal<SearchScratch> overlayPool = SearchScratch.perThread();
+    private final ThreadLocal<SearchScratch> unpackPool = SearchScratch.perThread();
+
+    @Override
+    public RoutingAlgorithm getAlgorithm() {
+        return RoutingAlgorithm.FLOOR_OVERLAY;
+    }
+
+    @Override
+    public DijkstraAlgorithm.DijkstraResult findShortestPath(Graph graph, Long startId, Long endId) {
+        FloorOverlay overlay = overlay(graph);
+        GraphIndex index = graph.getIndex();
+        int start = index.indexOf(startId);
+        int end = index.indexOf(endId);
+        if (start < 0 || end < 0) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+
+        int startFloor = overlay.floorOf(start);
+        int endFloor = overlay.floorOf(end);
+        FloorTable startTable = overlay.table(startFloor);
+        FloorTable endTable = overlay.table(endFloor);
+
+        SearchScratch forward = startPool.get();
+        forward.reset(startTable.size());
+        startTable.search(forward, overlay.localOf(start), false, -1);
+        SearchScratch backward = endPool.get();
+        backward.reset(endTable.size());
+        endTable.search(backward, overlay.localOf(end), true, -1);
+
+        // A route on a single floor may still be beaten by one that leaves it and comes back.
+        double best = startFloor == endFloor ? forward.distance(overlay.localOf(end)) : Double.POSITIVE_INFINITY;
+        int exit = SearchScratch.NO_NODE;
+
+        SearchScratch scratch = overlayPool.get();
+        scratch.reset(overlay.overlaySize());
+        IndexedMinHeap queue = scratch.queue();
+        for (int i = 0; i < startTable.portalCount(); i += 1) {
+            double distance = forward.distance(startTable.portal(i));
+            if (distance == Double.POSITIVE_INFINITY) continue;
+            int node = overlay.overlayNode(startFloor, i);
+            scratch.update(node, distance, SearchScratch.NO_NODE);
+            queue.offer(node, distance);
+        }
+
+        int[] offsets = overlay.overlayOffsets();
+        int[] targets = overlay.overlayTargets();
+        double[] costs = overlay.overlayCosts();
+        while (!queue.isEmpty() && queue.peekKey() < best) {
+            int current = queue.poll();
+            scratch.settle(current);
+            double base = scratch.distance(current);
+
+            if (overlay.overlayFloor(current) == endFloor) {
+                double tail = backward.distance(endTable.portal(overlay.overlayPortal(current)));
+                if (base + tail < best) {
+                    best = base + tail;
+                    exit = current;
+                }
+            }
+
+            for (int arc = offsets[current]; arc < offsets[current + 1]; arc += 1) {
+                int target = targets[arc];
+                if (scratch.isSettled(target)) continue;
+                double candidate = base + costs[arc];
+                if (candidate < scratch.distance(target)) {
+                    scratch.update(target, candidate, current);
+                    queue.offer(target, candidate);
+                }
+            }
+        }
+
+        if (best == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+        List<Integer> path = unpack(overlay, forward, backward, scratch, startFloor, endFloor, end, exit);
+        return SearchResults.toDijkstraResult(index, path.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Returns the overlay of the graph, building it on first use from the tables of the floors
+     * that did not change since the area was last compiled.
+     */
+    public FloorOverlay overlay(Graph graph) {
+        return graph.derive(FloorOverlay.class, compiled -> {
+            GraphLineage lineage = compiled.getLineage();
+            Map<Long, FloorTable> previous = lineage != null ? latestTables.getOrDefault(lineage, Map.of()) : Map.of();
+            FloorOverlay overlay = new FloorOverlay(compiled, id -> id != null ? previous.get(id) : null);
+            if (lineage != null) {
+                // Replaced as a whole, so tables of floors the area no longer has go too.
+                Map<Long, FloorTable> tables = new HashMap<>();
+                for (int floor = 0; floor < overlay.floorCount(); floor += 1) {
+                    if (overlay.floorId(floor) != null) {
+                        tables.put(overlay.floorId(floor), overlay.table(floor));
+                    }
+                }
+                latestTables.put(lineage, tables);
+            }
+            return overlay;
+        });
+    }
+
+    /**
+     * Drops the tables of every lineage of the area.
+     */
+    public void forget(Long areaId) {
+        latestTables.keySet().removeIf(lineage -> lineage.areaId().equals(areaId));
+    }
+
+    private List<Integer> unpack(FloorOverlay overlay, SearchScratch forward, SearchScratch backward,
+                                 SearchScratch scratch, int startFloor, int endFloor, int end, int exit) {
+        List<Integer> nodes = new ArrayList<>();
+        if (exit == SearchScratch.NO_NODE) {
+            appendTree(nodes, overlay, startFloor, forward, overlay.localOf(end));
+            return nodes;
+        }
+
+        List<Integer> chain = new ArrayList<>();
+        for (int node = exit; node != SearchScratch.NO_NODE; node = scratch.previous(node)) {
+            chain.add(node);
+        }
+        Collections.reverse(chain);
+
+        FloorTable startTable = overlay.table(startFloor);
+        appendTree(nodes, overlay, startFloor, forward, startTable.portal(overlay.overlayPortal(chain.get(0))));
+        for (int k = 1; k < chain.size(); k += 1) {
+            int from = chain.get(k - 1);
+            int to = chain.get(k);
+            int floor = overlay.overlayFloor(from);
+            if (floor != overlay.overlayFloor(to)) {
+                nodes.add(overlay.overlayGlobal(to));
+                continue;
+            }
+            FloorTable table = overlay.table(floor);
+            int source = table.portal(overlay.overlayPortal(from));
+            int target = table.portal(overlay.overlayPortal(to));
+            SearchScratch segment = unpackPool.get();
+            segment.reset(table.size());
+            table.search(segment, source, false, target);
+            List<Integer> walk = new ArrayList<>();
+            appendTree(walk, overlay, floor, segment, target);
+            nodes.addAll(walk.subList(1, walk.size()));
+        }
+
+        // The backward tree points from every node one step closer to the destination.
+        FloorTable endTable = overlay.table(endFloor);
+        int local = backward.previous(endTable.portal(overlay.overlayPortal(exit)));
+        while (local != SearchScratch.NO_NODE) {
+            nodes.add(overlay.global(endFloor, local));
+            local = backward.previous(local);
+        }
+        return nodes;
+    }
+
+    // Appends the path of a forward search tree from its root to the given local node.
+    private void appendTree(List<Integer> nodes, FloorOverlay overlay, int floor, SearchScratch tree, int local) {
+        List<Integer> reversed = new ArrayList<>();
+        for (int node = local; node != SearchScratch.NO_NODE; node = tree.previous(node)) {
+            reversed.add(overlay.global(floor, node));
+        }
+        Collections.reverse(reversed);
+        nodes.addAll(reversed);
+    }
+}
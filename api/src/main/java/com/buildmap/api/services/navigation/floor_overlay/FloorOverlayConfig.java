@@ -0,0 +1,16 @@
+package com.buildmap.api.services.navigation.floor_overlay;
+
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FloorOverlayConfig {
+
+    @Bean
+    public FloorOverlayAlgorithm floorOverlayAlgorithm(AreaGraphCache areaGraphCache) {
+        FloorOverlayAlgorithm algorithm = new FloorOverlayAlgorithm();
+        areaGraphCache.addRemovalListener(algorithm::forget);
+        return algorithm;
+    }
+}
@@ -0,0 +1,134 @@
+package com.buildmap.api.services.navigation.floor_overlay;
+
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+import java.util.Arrays;
+
+/**
+ * The walkable layout of one floor and the distances between its portals. Nodes are numbered
+ * locally in ascending fulcrum id order and only the connections that stay on the floor are kept,
+ * so the table depends on nothing outside the floor and can be carried over to a newly compiled
+ * graph of the area as long as the floor itself did not change.
+ */
+final class FloorTable {
+
+    private final long[] nodeIds;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] costs;
+    private final int[] portals;
+
+    private final int[] reverseOffsets;
+    private final int[] reverseTargets;
+    private final double[] reverseCosts;
+    // distances[i * portals.length + j]: cheapest walk on the floor from portal i to portal j.
+    private final double[] distances;
+
+    private FloorTable(long[] nodeIds, int[] offsets, int[] targets, double[] costs, int[] portals) {
+        this.nodeIds = nodeIds;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.costs = costs;
+        this.portals = portals;
+
+        int size = nodeIds.length;
+        this.reverseOffsets = new int[size + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1] += 1;
+        }
+        for (int v = 0; v < size; v += 1) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        this.reverseTargets = new int[targets.length];
+        this.reverseCosts = new double[targets.length];
+        int[] fill = Arrays.copyOf(reverseOffsets, size);
+        for (int v = 0; v < size; v += 1) {
+            for (int edge = offsets[v]; edge < offsets[v + 1]; edge += 1) {
+                int slot = fill[targets[edge]]++;
+                reverseTargets[slot] = v;
+                reverseCosts[slot] = costs[edge];
+            }
+        }
+
+        this.distances = new double[portals.length * portals.length];
+        SearchScratch scratch = new SearchScratch();
+        for (int i = 0; i < portals.length; i += 1) {
+            scratch.reset(size);
+            search(scratch, portals[i], false, -1);
+            for (int j = 0; j < portals.length; j += 1) {
+                distances[i * portals.length + j] = scratch.distance(portals[j]);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code previous} when it describes exactly the same floor, otherwise computes the
+     * portal distances of the given layout.
+     */
+    static FloorTable build(long[] nodeIds, int[] offsets, int[] targets, double[] costs, int[] portals,
+                            FloorTable previous) {
+        if (previous != null
+                && Arrays.equals(previous.nodeIds, nodeIds)
+                && Arrays.equals(previous.offsets, offsets)
+                && Arrays.equals(previous.targets, targets)
+                && Arrays.equals(previous.costs, costs)
+                && Arrays.equals(previous.portals, portals)) {
+            return previous;
+        }
+        return new FloorTable(nodeIds, offsets, targets, costs, portals);
+    }
+
+    int size() {
+        return nodeIds.length;
+    }
+
+    int portalCount() {
+        return portals.length;
+    }
+
+    int portal(int i) {
+        return portals[i];
+    }
+
+    double portalDistance(int from, int to) {
+        return distances[from * portals.length + to];
+    }
+
+    /**
+     * Dijkstra over the floor from {@code source}, following connections backwards when
+     * {@code reverse} is set. Stops once {@code stopAt} is settled, or exhausts the floor when it
+     * is negative. The scratch must have been reset for {@link #size()} nodes.
+     */
+    void search(SearchScratch scratch, int source, boolean reverse, int stopAt) {
+        int[] edgeOffsets = reverse ? reverseOffsets : offsets;
+        int[] edgeTargets = reverse ? reverseTargets : targets;
+        double[] edgeCosts = reverse ? reverseCosts : costs;
+        IndexedMinHeap queue = scratch.queue();
+
+        scratch.update(source, 0, SearchScratch.NO_NODE);
+        queue.offer(source, 0);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            scratch.settle(current);
+            if (current == stopAt) {
+                return;
+            }
+
+            double base = scratch.distance(current);
+            for (int edge = edgeOffsets[current]; edge < edgeOffsets[current + 1]; edge += 1) {
+                int target = edgeTargets[edge];
+                if (scratch.isSettled(target)) continue;
+                double candidate = base + edgeCosts[edge];
+                if (candidate < scratch.distance(target)) {
+                    scratch.update(target, candidate, current);
+                    queue.offer(target, candidate);
+                }
+            }
+        }
+    }
+
+    long estimateBytes() {
+        return nodeIds.length * 16L + targets.length * 24L + portals.length * 4L + distances.length * 8L;
+    }
+}
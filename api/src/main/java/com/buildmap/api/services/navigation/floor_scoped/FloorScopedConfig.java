@@ -0,0 +1,30 @@
+package com.buildmap.api.services.navigation.floor_scoped;
+
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphLoader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+@Configuration
+public class FloorScopedConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public FloorScopedRouter floorScopedRouter(
+            AreaGraphLoader areaGraphLoader,
+            AreaGraphCache areaGraphCache,
+            @Value("${navigation.graph.lazy-floors:false}") boolean enabled) {
+        return new FloorScopedRouter(
+                areaGraphLoader,
+                areaGraphCache,
+                enabled,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "area-compile");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+        );
+    }
+}
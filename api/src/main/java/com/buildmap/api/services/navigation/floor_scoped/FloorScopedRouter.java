@@ -0,0 +1,179 @@
+package com.buildmap.api.services.navigation.floor_scoped;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphLoader;
+import com.buildmap.api.services.navigation.graph_cache.FloorSlice;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Routes within an area that has no compiled graph by reading only the floors the search needs.
+ * The floors of the start and the end are read up front; any other floor is read when the search
+ * is about to settle one of its fulcrums, which happens only once a connection leading there is
+ * cheaper than everything left to explore on the floors already read. Most routes never leave
+ * their floor, so a cold query on a tall building reads two floors instead of all of them.
+ *
+ * <p>Floors read for one query are not kept for the next. Instead, the caller hands a lazily
+ * answered area to {@link #compileInBackground}, so only the queries that arrive before its full
+ * graph is cached read the database floor by floor.
+ */
+public class FloorScopedRouter {
+
+    private final AreaGraphLoader loader;
+    private final AreaGraphCache areaGraphCache;
+    private final boolean enabled;
+    private final ExecutorService compiler;
+    // Areas handed to the compiler and not finished yet.
+    private final Set<Long> compiling = ConcurrentHashMap.newKeySet();
+
+    public FloorScopedRouter(AreaGraphLoader loader, AreaGraphCache areaGraphCache, boolean enabled,
+                             ExecutorService compiler) {
+        this.loader = loader;
+        this.areaGraphCache = areaGraphCache;
+        this.enabled = enabled;
+        this.compiler = compiler;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Compiles the whole area into the graph cache on the background thread, unless it is cached
+     * or already being compiled.
+     */
+    public void compileInBackground(Long areaId) {
+        if (areaGraphCache.isCached(areaId) || !compiling.add(areaId)) {
+            return;
+        }
+        compiler.execute(() -> {
+            try {
+                areaGraphCache.getVersionedGraph(areaId);
+            } catch (RuntimeException ex) {
+                // The area may be gone; its next query reads it again anyway.
+            } finally {
+                compiling.remove(areaId);
+            }
+        });
+    }
+
+    public void shutdown() {
+        compiler.shutdownNow();
+    }
+
+    public FloorScopedRoute findShortestPath(Long areaId, Long startId, Long endId) {
+        LoadedFloors loaded = new LoadedFloors(areaId);
+        loaded.read(loader.findFloorId(startId));
+        loaded.read(loader.findFloorId(endId));
+        if (!loaded.nodes.containsKey(startId)) {
+            throw new IllegalArgumentException("Start fulcrum not found: " + startId);
+        }
+        if (!loaded.nodes.containsKey(endId)) {
+            throw new IllegalArgumentException("End fulcrum not found: " + endId);
+        }
+        if (startId.equals(endId)) {
+            throw new IllegalArgumentException("Start and end fulcrums are the same");
+        }
+
+        Map<Long, Double> distances = new HashMap<>();
+        Map<Long, Long> previous = new HashMap<>();
+        Set<Long> settled = new HashSet<>();
+        PriorityQueue<Pending> queue = new PriorityQueue<>();
+        distances.put(startId, 0.0);
+        queue.add(new Pending(startId, loaded.nodes.get(startId).getFloor().getId(), 0.0));
+
+        while (!queue.isEmpty()) {
+            Pending current = queue.poll();
+            if (settled.contains(current.nodeId()) || current.distance() > distances.get(current.nodeId())) {
+                continue;
+            }
+            // The first fulcrum of an unread floor to come off the queue pulls the floor in.
+            loaded.read(current.floorId());
+            if (!loaded.nodes.containsKey(current.nodeId())) {
+                // Deleted, or on a deleted floor or another area: the full graph drops it too.
+                continue;
+            }
+            settled.add(current.nodeId());
+            if (current.nodeId().equals(endId)) {
+                break;
+            }
+
+            for (FloorSlice.Link link : loaded.links.getOrDefault(current.nodeId(), List.of())) {
+                if (settled.contains(link.toId())) continue;
+                double candidate = current.distance() + link.distanceMeters() * link.difficultyFactor();
+                if (candidate < distances.getOrDefault(link.toId(), Double.POSITIVE_INFINITY)) {
+                    distances.put(link.toId(), candidate);
+                    previous.put(link.toId(), current.nodeId());
+                    queue.add(new Pending(link.toId(), link.toFloorId(), candidate));
+                }
+            }
+        }
+
+        if (!settled.contains(endId)) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+        return new FloorScopedRoute(loaded.toGraph(), new DijkstraAlgorithm.DijkstraResult(distances, previous),
+                loaded.floors.size());
+    }
+
+    /**
+     * A found route together with the graph of the floors that were read for it, which holds
+     * every fulcrum of the route and is enough to describe it step by step.
+     */
+    public record FloorScopedRoute(Graph graph, DijkstraAlgorithm.DijkstraResult result, int loadedFloors) {}
+
+    private record Pending(Long nodeId, Long floorId, double distance) implements Comparable<Pending> {
+        @Override
+        public int compareTo(Pending other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+
+    private final class LoadedFloors {
+        private final Long areaId;
+        private final Map<Long, FloorSlice> floors = new LinkedHashMap<>();
+        private final Map<Long, Fulcrum> nodes = new LinkedHashMap<>();
+        private final Map<Long, List<FloorSlice.Link>> links = new HashMap<>();
+
+        private LoadedFloors(Long areaId) {
+            this.areaId = areaId;
+        }
+
+        private void read(Long floorId) {
+            if (floorId == null || floors.containsKey(floorId)) {
+                return;
+            }
+            FloorSlice slice = loader.loadFloor(areaId, floorId);
+            floors.put(floorId, slice);
+            slice.fulcrums().forEach(fulcrum -> nodes.put(fulcrum.getId(), fulcrum));
+            slice.links().forEach(link -> links.computeIfAbsent(link.fromId(), id -> new ArrayList<>()).add(link));
+        }
+
+        // Connections to fulcrums that were never read are left out, like the full loader does
+        // for fulcrums outside the area.
+        private Graph toGraph() {
+            for (FloorSlice slice : floors.values()) {
+                for (FloorSlice.Link link : slice.links()) {
+                    Fulcrum from = nodes.get(link.fromId());
+                    Fulcrum to = nodes.get(link.toId());
+                    if (from != null && to != null) {
+                        from.addConnection(to, link.distanceMeters(), link.difficultyFactor());
+                    }
+                }
+            }
+            return new Graph(new ArrayList<>(nodes.values()));
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.buildmap.api.services.navigation.graph_cache;
+
+import com.buildmap.api.dto.route.AreaGraphMemoryDto;
+import com.buildmap.api.dto.route.GraphCacheStatsDto;
+import com.buildmap.api.exceptions.GraphBuildTimeoutException;
+import com.buildmap.api.services.navigation.Graph;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-memory cache of compiled routing graphs, one per mapping area.
+ *
+ * <p>Entries are kept in least-recently-used order and evicted once their estimated size, derived
+ * structures computed so far included, exceeds the configured budget. The budget is checked when
+ * an entry is stored and when {@link #enforceBudget} is called after a background build grew one.
+ * Owners of per-area state kept beside the cache register with {@link #addRemovalListener} to
+ * drop it together with the entry. Every area carries a revision that is bumped when an
+ * {@link AreaGraphChangedEvent} commits; a graph compiled against an older revision is
+ * returned to its caller but never stored, so a route query cannot resurrect stale data
+ * that was read while an edit was in flight.
+ *
+ * <p>An event naming a single {@link AreaGraphEdit} is applied to the cached graph as a patched
+ * copy instead: route queries keep reading the previous graph until the copy replaces it, and
+ * derived tables the edit cannot invalidate move over to the copy. Edits of one area are
+ * patched one at a time, each on top of the graph of the revision before it. The edited rows are
+ * read before the entry is locked; when another change of the area lands meanwhile, the chain is
+ * broken or the edit cannot be patched, the entry is dropped as for any other change.
+ *
+ * <p>Concurrent misses on one area share a single build: the first compiles the graph and the
+ * others wait for its result, up to {@code navigation.graph-cache.build-timeout-ms}, instead of
+ * each reading the area again.
+ *
+ * <p>With {@code navigation.recompile.debounce} the entry of a changed area is kept instead and
+ * only marked stale: queries go on reading it, under its old revision, until
+ * {@link #recompile} replaces it once the edits of the area have settled.
+ */
+@Component
+@RequiredArgsConstructor
+public class AreaGraphCache {
+
+    private final AreaGraphLoader loader;
+
+    @Value("${navigation.graph-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    @Value("${navigation.recompile.debounce:false}")
+    private boolean staleWhileRevalidate;
+
+    @Value("${navigation.graph-cache.build-timeout-ms:30000}")
+    private long buildTimeoutMillis;
+
+    // Access-ordered, guarded by "this".
+    private final LinkedHashMap<Long, CachedGraph> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Told the id of every area whose entry is invalidated or evicted.
+    private final List<Consumer<Long>> removalListeners = new CopyOnWriteArrayList<>();
+
+    private final Map<Long, AtomicLong> revisions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> fulcrumAreas = new ConcurrentHashMap<>();
+    private final Map<Long, Long> floorAreas = new ConcurrentHashMap<>();
+    // Order of the last read of each area, so work on areas being routed on can go first.
+    private final Map<Long, Long> lastReads = new ConcurrentHashMap<>();
+    private final AtomicLong reads = new AtomicLong();
+
+    // Builds in progress after a miss, at most one per area.
+    private final Map<Long, CompletableFuture<VersionedGraph>> builds = new ConcurrentHashMap<>();
+    private final AtomicLong buildCount = new AtomicLong();
+    private final AtomicLong coalescedWaiters = new AtomicLong();
+    private final AtomicLong buildTimeouts = new AtomicLong();
+
+    public Graph getGraph(Long areaId) {
+        return getVersionedGraph(areaId).graph();
+    }
+
+    /**
+     * Returns the graph together with the revision of the area it was compiled at. Results
+     * derived from the graph can be keyed by that revision: once the area changes its revision
+     * moves on and such keys are never looked up again.
+     */
+    public VersionedGraph getVersionedGraph(Long areaId) {
+        lastReads.put(areaId, reads.incrementAndGet());
+        CachedGraph cached = lookup(areaId);
+        if (cached != null) {
+            return new VersionedGraph(cached.graph(), cached.revision());
+        }
+
+        CompletableFuture<VersionedGraph> build = new CompletableFuture<>();
+        CompletableFuture<VersionedGraph> running = builds.putIfAbsent(areaId, build);
+        if (running != null) {
+            return awaitBuild(areaId, running);
+        }
+        try {
+            VersionedGraph result = build(areaId);
+            build.complete(result);
+            return result;
+        } catch (RuntimeException ex) {
+            build.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            builds.remove(areaId, build);
+        }
+    }
+
+    private VersionedGraph build(Long areaId) {
+        // A build that finished between the first lookup and claiming this one already stored it.
+        CachedGraph cached = lookup(areaId);
+        if (cached != null) {
+            return new VersionedGraph(cached.graph(), cached.revision());
+        }
+        buildCount.incrementAndGet();
+        long revision = revision(areaId).get();
+        Graph graph = loader.load(areaId);
+        store(new CachedGraph(areaId, revision, graph, false));
+        return new VersionedGraph(graph, revision);
+    }
+
+    private VersionedGraph awaitBuild(Long areaId, CompletableFuture<VersionedGraph> build) {
+        coalescedWaiters.incrementAndGet();
+        try {
+            return build.get(buildTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            buildTimeouts.incrementAndGet();
+            throw new GraphBuildTimeoutException(areaId);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GraphBuildTimeoutException(areaId);
+        } catch (ExecutionException ex) {
+            // The waiters fail as the build did, e.g. with the area not found.
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    public synchronized GraphCacheStatsDto stats() {
+        List<AreaGraphMemoryDto> areas = new ArrayList<>(entries.size());
+        for (CachedGraph entry : entries.values()) {
+            Graph graph = entry.graph();
+            Map<String, Long> derived = graph.derivedBytes();
+            long retained = graph.estimateBytes() + derived.values().stream().mapToLong(Long::longValue).sum();
+            areas.add(new AreaGraphMemoryDto(entry.areaId(), entry.revision(), entry.stale(),
+                    graph.estimateBytes(), retained, derived));
+        }
+        // Summed from the same readings, since derived structures may grow in the background meanwhile.
+        long usedBytes = areas.stream().mapToLong(AreaGraphMemoryDto::getRetainedBytes).sum();
+        return new GraphCacheStatsDto(entries.size(), usedBytes, maxBytes, buildCount.get(),
+                coalescedWaiters.get(), buildTimeouts.get(), areas);
+    }
+
+    /**
+     * Compiles a stale area again and replaces its entry. Returns the new graph, or {@code null}
+     * when the area is not cached any more and its next query loads it anyway.
+     */
+    public Graph recompile(Long areaId) {
+        if (lookup(areaId) == null) {
+            return null;
+        }
+        long revision = revision(areaId).get();
+        Graph graph = loader.load(areaId);
+        if (graph.estimateBytes() > maxBytes) {
+            invalidate(areaId);
+            return graph;
+        }
+        // Not stored when the area changed again meanwhile; that change schedules another run.
+        store(new CachedGraph(areaId, revision, graph, false));
+        return graph;
+    }
+
+    /**
+     * Whether the cached graph of the area predates a change it has not been recompiled for.
+     */
+    public boolean isStale(Long areaId) {
+        CachedGraph cached = lookup(areaId);
+        return cached != null && cached.stale();
+    }
+
+    /**
+     * Position of the last query of the area among the queries of all areas, or 0 if it had none.
+     */
+    public long lastRead(Long areaId) {
+        return lastReads.getOrDefault(areaId, 0L);
+    }
+
+    /**
+     * Returns the compiled graph of the area if it is cached, without loading it otherwise.
+     */
+    public VersionedGraph getCachedGraph(Long areaId) {
+        lastReads.put(areaId, reads.incrementAndGet());
+        CachedGraph cached = lookup(areaId);
+        return cached != null ? new VersionedGraph(cached.graph(), cached.revision()) : null;
+    }
+
+    /**
+     * Whether the area has a compiled graph in the cache; unlike {@link #getCachedGraph} it does
+     * not count as a query of the area.
+     */
+    public boolean isCached(Long areaId) {
+        return lookup(areaId) != null;
+    }
+
+    /**
+     * Returns the current revision of the area. Read before the area is, it can key results
+     * computed without a compiled graph in the same way as {@link #getVersionedGraph}.
+     */
+    public long currentRevision(Long areaId) {
+        return revision(areaId).get();
+    }
+
+    /**
+     * Resolves the mapping area of a fulcrum, answering from the compiled graphs when the
+     * fulcrum is part of one and falling back to the database otherwise.
+     */
+    public Long resolveAreaId(Long fulcrumId) {
+        Long areaId = fulcrumAreas.get(fulcrumId);
+        if (areaId != null) {
+            CachedGraph cached = lookup(areaId);
+            if (cached != null && cached.graph().containsNode(fulcrumId)) {
+                return areaId;
+            }
+        }
+        return loader.findAreaId(fulcrumId);
+    }
+
+    /**
+     * Resolves the mapping area of a floor, answering from the compiled graphs when the floor
+     * has fulcrums in one and falling back to the database otherwise.
+     */
+    public Long resolveAreaIdByFloor(Long floorId) {
+        Long areaId = floorAreas.get(floorId);
+        if (areaId != null && lookup(areaId) != null) {
+            return areaId;
+        }
+        return loader.findAreaIdByFloor(floorId);
+    }
+
+    // Runs before other listeners of the event, so the ones that rebuild derived structures
+    // read the new graph rather than the one being replaced.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAreaGraphChanged(AreaGraphChangedEvent event) {
+        if (event.edit() != null && patch(event.areaId(), event.edit())) {
+            return;
+        }
+        if (staleWhileRevalidate) {
+            markStale(event.areaId());
+        } else {
+            invalidate(event.areaId());
+        }
+    }
+
+    private boolean patch(Long areaId, AreaGraphEdit edit) {
+        if (areaId == null) {
+            return false;
+        }
+        AtomicLong revision = revision(areaId);
+        // Taken before the read: a change committed after the read moves the revision on before
+        // this patch is applied, so rows that could miss it are never stored.
+        long readRevision = revision.get();
+        CachedGraph cached = lookup(areaId);
+        if (cached == null || cached.revision() != readRevision) {
+            return false;
+        }
+        // The database is read and the copy built outside the monitor, so readers and builds of
+        // the area are not held up by the round trips.
+        Graph patched = loader.patch(cached.graph(), areaId, edit, loader.readEdit(areaId, edit));
+        if (patched == null || patched.estimateBytes() > maxBytes) {
+            return false;
+        }
+        synchronized (revision) {
+            if (revision.get() != readRevision || lookup(areaId) != cached) {
+                return false;
+            }
+            // Moving the revision first keeps loads already in flight from storing the old state.
+            long patchedRevision = revision.incrementAndGet();
+            // Not stored when another change moved the revision on meanwhile; that one drops the entry.
+            store(new CachedGraph(areaId, patchedRevision, patched, false));
+            return true;
+        }
+    }
+
+    private void markStale(Long areaId) {
+        if (areaId == null) {
+            return;
+        }
+        revision(areaId).incrementAndGet();
+        synchronized (this) {
+            CachedGraph cached = entries.get(areaId);
+            if (cached != null && !cached.stale()) {
+                entries.put(areaId, new CachedGraph(areaId, cached.revision(), cached.graph(), true));
+            }
+        }
+    }
+
+    public void invalidate(Long areaId) {
+        if (areaId == null) {
+            return;
+        }
+        revision(areaId).incrementAndGet();
+        CachedGraph removed;
+        synchronized (this) {
+            removed = entries.remove(areaId);
+        }
+        forgetFulcrums(removed);
+        notifyRemoved(areaId);
+    }
+
+    public void clear() {
+        Set<Long> areaIds;
+        synchronized (this) {
+            // Every known area, not only cached ones, so a load still in flight is not stored.
+            revisions.values().forEach(AtomicLong::incrementAndGet);
+            areaIds = new HashSet<>(revisions.keySet());
+            entries.clear();
+            fulcrumAreas.clear();
+            floorAreas.clear();
+            lastReads.clear();
+            buildCount.set(0);
+            coalescedWaiters.set(0);
+            buildTimeouts.set(0);
+        }
+        areaIds.forEach(this::notifyRemoved);
+    }
+
+    /**
+     * Registers a callback told the id of every area whose entry is invalidated, evicted or
+     * cleared, even one that was not cached at the time.
+     */
+    public void addRemovalListener(Consumer<Long> listener) {
+        removalListeners.add(listener);
+    }
+
+    /**
+     * Checks the budget again after derived structures of cached graphs have grown, evicting the
+     * least recently used areas that no longer fit.
+     */
+    public void enforceBudget() {
+        List<Long> evicted;
+        synchronized (this) {
+            evicted = evictOverBudget();
+        }
+        evicted.forEach(this::notifyRemoved);
+    }
+
+    private synchronized CachedGraph lookup(Long areaId) {
+        return entries.get(areaId);
+    }
+
+    private void store(CachedGraph entry) {
+        if (entry.graph().estimateBytes() > maxBytes) {
+            return;
+        }
+
+        List<Long> evicted;
+        synchronized (this) {
+            if (revision(entry.areaId()).get() != entry.revision()) {
+                return;
+            }
+            entries.put(entry.areaId(), entry);
+            entry.graph().getNodes().keySet().forEach(id -> fulcrumAreas.put(id, entry.areaId()));
+            floorIds(entry).forEach(id -> floorAreas.put(id, entry.areaId()));
+            evicted = evictOverBudget();
+        }
+        evicted.forEach(this::notifyRemoved);
+    }
+
+    // Sizes are measured afresh each time, since derived structures of a cached graph keep growing.
+    private List<Long> evictOverBudget() {
+        long usedBytes = usedBytes();
+        List<Long> evicted = new ArrayList<>();
+        Iterator<CachedGraph> iterator = entries.values().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            CachedGraph eldest = iterator.next();
+            iterator.remove();
+            usedBytes -= eldest.graph().retainedBytes();
+            forgetFulcrums(eldest);
+            evicted.add(eldest.areaId());
+        }
+        return evicted;
+    }
+
+    private long usedBytes() {
+        return entries.values().stream().mapToLong(entry -> entry.graph().retainedBytes()).sum();
+    }
+
+    private void notifyRemoved(Long areaId) {
+        removalListeners.forEach(listener -> listener.accept(areaId));
+    }
+
+    private void forgetFulcrums(CachedGraph entry) {
+        if (entry == null) {
+            return;
+        }
+        entry.graph().getNodes().keySet().forEach(id -> fulcrumAreas.remove(id, entry.areaId()));
+        floorIds(entry).forEach(id -> floorAreas.remove(id, entry.areaId()));
+    }
+
+    private Set<Long> floorIds(CachedGraph entry) {
+        Set<Long> floorIds = new HashSet<>();
+        entry.graph().getNodes().values().forEach(fulcrum -> {
+            if (fulcrum.getFloor() != null) {
+                floorIds.add(fulcrum.getFloor().getId());
+            }
+        });
+        return floorIds;
+    }
+
+    private AtomicLong revision(Long areaId) {
+        return revisions.computeIfAbsent(areaId, id -> new AtomicLong());
+    }
+
+    public record VersionedGraph(Graph graph, long revision) {}
+
+    private record CachedGraph(Long areaId, long revision, Graph graph, boolean stale) {}
+}
@@ -0,0 +1,13 @@
+package com.buildmap.api.services.navigation.graph_cache;
+
+/**
+ * Published by the editing services whenever floors, fulcrums or connections of a mapping
+ * area change. Once the change commits, the cached routing graph of that area is patched when
+ * the event names a single {@link AreaGraphEdit} and dropped otherwise.
+ */
+public record AreaGraphChangedEvent(Long areaId, AreaGraphEdit edit) {
+
+    public AreaGraphChangedEvent(Long areaId) {
+        this(areaId, null);
+    }
+}
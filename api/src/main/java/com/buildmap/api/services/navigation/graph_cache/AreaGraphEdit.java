@@ -0,0 +1,25 @@
+package com.buildmap.api.services.navigation.graph_cache;
+
+/**
+ * A single edit of one fulcrum, carried by {@link AreaGraphChangedEvent} so the cached graph of
+ * the area can be patched instead of compiled again. Connection edits name the fulcrum the
+ * connection leaves, since that is the fulcrum whose edges change.
+ */
+public record AreaGraphEdit(Kind kind, Long fulcrumId, Long connectedFulcrumId) {
+
+    public enum Kind {
+        FULCRUM_ADDED,
+        FULCRUM_UPDATED,
+        FULCRUM_DELETED,
+        CONNECTION_ADDED,
+        CONNECTION_REMOVED
+    }
+
+    public static AreaGraphEdit fulcrum(Kind kind, Long fulcrumId) {
+        return new AreaGraphEdit(kind, fulcrumId, null);
+    }
+
+    public static AreaGraphEdit connection(Kind kind, Long fulcrumId, Long connectedFulcrumId) {
+        return new AreaGraphEdit(kind, fulcrumId, connectedFulcrumId);
+    }
+}
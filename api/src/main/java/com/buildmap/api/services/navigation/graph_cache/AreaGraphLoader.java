@@ -0,0 +1,243 @@
+package com.buildmap.api.services.navigation.graph_cache;
+
+import com.buildmap.api.entities.mapping_area.Floor;
+import com.buildmap.api.entities.mapping_area.MappingArea;
+import com.buildmap.api.entities.mapping_area.VerticalShaft;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.exceptions.FulcrumNotFoundException;
+import com.buildmap.api.repos.FulcrumRepository;
+import com.buildmap.api.repos.NavigationEdgeProjection;
+import com.buildmap.api.repos.NavigationFloorEdgeProjection;
+import com.buildmap.api.repos.NavigationNodeProjection;
+import com.buildmap.api.repos.ShaftMemberProjection;
+import com.buildmap.api.services.FloorService;
+import com.buildmap.api.services.FulcrumService;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphLineage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an area from the database and compiles it into a {@link Graph}. The area is read with
+ * two flat projection queries, one for the active fulcrums with their floors and one for the
+ * connections leaving them, so a load costs two statements whatever the size of the area. The
+ * rows are assembled into detached fulcrums that carry everything the route builder needs and
+ * hold no lazy association that could reach back into a closed persistence context.
+ *
+ * <p>Members of a vertical shaft come with the shaft's parameters on their rows and are linked
+ * to their neighbours in the shaft here, so shafts need no stored connections.
+ */
+@Component
+@RequiredArgsConstructor
+public class AreaGraphLoader {
+
+    private final FloorService floorService;
+    private final FulcrumService fulcrumService;
+    private final FulcrumRepository fulcrumRepository;
+
+    @Transactional(readOnly = true)
+    public Graph load(Long areaId) {
+        MappingArea area = areaOf(areaId);
+
+        Map<Long, Floor> floors = new HashMap<>();
+        Map<Long, VerticalShaft> shafts = new HashMap<>();
+        Map<Long, Fulcrum> fulcrums = new LinkedHashMap<>();
+        List<ShaftLinks.Member> shaftMembers = new ArrayList<>();
+        for (NavigationNodeProjection row : fulcrumRepository.findNavigationNodesByAreaId(areaId)) {
+            Floor floor = floors.computeIfAbsent(row.getFloorId(), id -> toFloor(row, area));
+            fulcrums.put(row.getId(), toFulcrum(row, floor, shafts));
+            if (row.getShaftId() != null) {
+                shaftMembers.add(toShaftMember(row));
+            }
+        }
+
+        // Connections to fulcrums outside the loaded set (deleted, or on a deleted floor) are dropped.
+        for (NavigationEdgeProjection row : fulcrumRepository.findNavigationEdgesByAreaId(areaId)) {
+            Fulcrum from = fulcrums.get(row.getFromId());
+            Fulcrum to = fulcrums.get(row.getToId());
+            if (from != null && to != null) {
+                from.addConnection(to, row.getDistanceMeters(), row.getDifficultyFactor());
+            }
+        }
+        for (FloorSlice.Link link : ShaftLinks.expand(shaftMembers)) {
+            fulcrums.get(link.fromId()).addConnection(fulcrums.get(link.toId()),
+                    link.distanceMeters(), link.difficultyFactor());
+        }
+
+        return new Graph(new ArrayList<>(fulcrums.values()), GraphLineage.of(areaId));
+    }
+
+    /**
+     * Reads a single floor of an area with the same two queries, scoped to the floor. Connections
+     * are returned as rows rather than wired into the fulcrums, since their targets may lie on a
+     * floor that has not been read.
+     */
+    @Transactional(readOnly = true)
+    public FloorSlice loadFloor(Long areaId, Long floorId) {
+        MappingArea area = areaOf(areaId);
+
+        Floor floor = null;
+        Map<Long, VerticalShaft> shafts = new HashMap<>();
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (NavigationNodeProjection row : fulcrumRepository.findNavigationNodesByFloorId(areaId, floorId)) {
+            if (floor == null) {
+                floor = toFloor(row, area);
+            }
+            fulcrums.add(toFulcrum(row, floor, shafts));
+        }
+
+        List<FloorSlice.Link> links = new ArrayList<>();
+        for (NavigationFloorEdgeProjection row : fulcrumRepository.findNavigationEdgesByFloorId(areaId, floorId)) {
+            links.add(new FloorSlice.Link(row.getFromId(), row.getToId(), row.getToFloorId(),
+                    row.getDistanceMeters(), row.getDifficultyFactor()));
+        }
+        if (!shafts.isEmpty()) {
+            List<ShaftLinks.Member> shaftMembers = new ArrayList<>();
+            for (ShaftMemberProjection row : fulcrumRepository.findShaftMembersByFloorId(floorId)) {
+                shaftMembers.add(toShaftMember(row));
+            }
+            // Only the links leaving this floor; the other members' links come with their floors.
+            for (FloorSlice.Link link : ShaftLinks.expand(shaftMembers)) {
+                if (fulcrums.stream().anyMatch(fulcrum -> fulcrum.getId().equals(link.fromId()))) {
+                    links.add(link);
+                }
+            }
+        }
+        return new FloorSlice(floorId, fulcrums, links);
+    }
+
+    /**
+     * Reads what {@link #patch} needs for a single edit: the edited fulcrum and the connections
+     * leaving it. A deletion needs nothing, and a shaft member is not patched, so neither reads its
+     * connections.
+     */
+    @Transactional(readOnly = true)
+    public EditedRows readEdit(Long areaId, AreaGraphEdit edit) {
+        if (edit.kind() == AreaGraphEdit.Kind.FULCRUM_DELETED) {
+            return new EditedRows(null, List.of());
+        }
+        NavigationNodeProjection row = fulcrumRepository.findNavigationNodeById(areaId, edit.fulcrumId()).orElse(null);
+        if (row == null || row.getShaftId() != null) {
+            return new EditedRows(row, List.of());
+        }
+        return new EditedRows(row, fulcrumRepository.findNavigationEdgesByFulcrumId(areaId, edit.fulcrumId()));
+    }
+
+    /**
+     * Applies a single edit to a graph compiled from the area, from the rows {@link #readEdit} read
+     * for it; the database is not touched. Returns {@code null} when the edit cannot be applied on
+     * its own and the area has to be read again: the fulcrum belongs to a vertical shaft, whose
+     * links are derived from all its members, or it is connected to a fulcrum the graph does not
+     * know yet.
+     */
+    public Graph patch(Graph graph, Long areaId, AreaGraphEdit edit, EditedRows rows) {
+        Long fulcrumId = edit.fulcrumId();
+        Fulcrum previous = graph.getNode(fulcrumId);
+        if (previous != null && previous.getShaft() != null) {
+            return null;
+        }
+        if (edit.kind() == AreaGraphEdit.Kind.FULCRUM_DELETED) {
+            return previous != null ? graph.patched(List.of(), List.of(fulcrumId)) : graph;
+        }
+        if (previous == null && edit.kind() != AreaGraphEdit.Kind.FULCRUM_ADDED) {
+            return null;
+        }
+
+        NavigationNodeProjection row = rows.node();
+        if (row == null || row.getShaftId() != null) {
+            return null;
+        }
+        Floor floor = previous != null && previous.getFloor().getId().equals(row.getFloorId())
+                ? previous.getFloor()
+                : toFloor(row, previous != null ? previous.getMappingArea() : areaOf(areaId));
+        Fulcrum fulcrum = toFulcrum(row, floor, new HashMap<>());
+        for (NavigationEdgeProjection edge : rows.edges()) {
+            Fulcrum target = fulcrumId.equals(edge.getToId()) ? fulcrum : graph.getNode(edge.getToId());
+            if (target == null) {
+                return null;
+            }
+            fulcrum.addConnection(target, edge.getDistanceMeters(), edge.getDifficultyFactor());
+        }
+        return graph.patched(List.of(fulcrum), List.of());
+    }
+
+    @Transactional(readOnly = true)
+    public Long findFloorId(Long fulcrumId) {
+        return fulcrumRepository.findFloorIdById(fulcrumId)
+                .orElseThrow(() -> new FulcrumNotFoundException(fulcrumId));
+    }
+
+    @Transactional(readOnly = true)
+    public Long findAreaId(Long fulcrumId) {
+        return fulcrumService.getById(fulcrumId).getFloor().getMappingArea().getId();
+    }
+
+    @Transactional(readOnly = true)
+    public Long findAreaIdByFloor(Long floorId) {
+        return floorService.getById(floorId).getMappingArea().getId();
+    }
+
+    private MappingArea areaOf(Long areaId) {
+        MappingArea area = new MappingArea();
+        area.setId(areaId);
+        return area;
+    }
+
+    private Floor toFloor(NavigationNodeProjection row, MappingArea area) {
+        Floor floor = new Floor();
+        floor.setId(row.getFloorId());
+        floor.setName(row.getFloorName());
+        floor.setLevel(row.getFloorLevel());
+        floor.setMappingArea(area);
+        return floor;
+    }
+
+    private Fulcrum toFulcrum(NavigationNodeProjection row, Floor floor, Map<Long, VerticalShaft> shafts) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(row.getId());
+        fulcrum.setName(row.getName());
+        fulcrum.setDescription(row.getDescription());
+        fulcrum.setX(row.getX());
+        fulcrum.setY(row.getY());
+        fulcrum.setType(row.getType());
+        fulcrum.setFacingDirection(row.getFacingDirection());
+        fulcrum.setHasQr(row.isHasQr());
+        fulcrum.setQrCodeId(row.getQrCodeId());
+        fulcrum.setFloor(floor);
+        if (row.getShaftId() != null) {
+            fulcrum.setShaft(shafts.computeIfAbsent(row.getShaftId(), id -> {
+                VerticalShaft shaft = new VerticalShaft();
+                shaft.setId(id);
+                shaft.setType(row.getType());
+                shaft.setMetersPerLevel(row.getShaftMetersPerLevel());
+                shaft.setUpDifficultyFactor(row.getShaftUpDifficultyFactor());
+                shaft.setDownDifficultyFactor(row.getShaftDownDifficultyFactor());
+                return shaft;
+            }));
+        }
+        return fulcrum;
+    }
+
+    private ShaftLinks.Member toShaftMember(NavigationNodeProjection row) {
+        return new ShaftLinks.Member(row.getShaftId(), row.getId(), row.getFloorId(), row.getFloorLevel(),
+                row.getShaftMetersPerLevel(), row.getShaftUpDifficultyFactor(), row.getShaftDownDifficultyFactor());
+    }
+
+    private ShaftLinks.Member toShaftMember(ShaftMemberProjection row) {
+        return new ShaftLinks.Member(row.getShaftId(), row.getId(), row.getFloorId(), row.getFloorLevel(),
+                row.getShaftMetersPerLevel(), row.getShaftUpDifficultyFactor(), row.getShaftDownDifficultyFactor());
+    }
+
+    /**
+     * Rows of an edited fulcrum read for {@link #patch}; {@code node} is null when the fulcrum is
+     * gone or was not read.
+     */
+    public record EditedRows(NavigationNodeProjection node, List<NavigationEdgeProjection> edges) {}
+}
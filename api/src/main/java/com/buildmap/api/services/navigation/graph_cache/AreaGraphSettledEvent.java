@@ -0,0 +1,8 @@
+package com.buildmap.api.services.navigation.graph_cache;
+
+/**
+ * Published once the edits of a mapping area have been taken into its cached graph, right after
+ * each change or, with debounced recompilation, when a burst of changes has been recompiled.
+ * Listeners that rebuild structures ahead of queries do so here rather than on every edit.
+ */
+public record AreaGraphSettledEvent(Long areaId) {}
@@ -0,0 +1,15 @@
+package com.buildmap.api.services.navigation.graph_cache;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+
+import java.util.List;
+
+/**
+ * The active fulcrums of one floor and every connection leaving them, including the ones that
+ * lead to other floors. Each connection names the floor of its target, so a search can tell
+ * which floor it has to read before it may follow the connection.
+ */
+public record FloorSlice(Long floorId, List<Fulcrum> fulcrums, List<Link> links) {
+
+    public record Link(Long fromId, Long toId, Long toFloorId, Double distanceMeters, Double difficultyFactor) {}
+}
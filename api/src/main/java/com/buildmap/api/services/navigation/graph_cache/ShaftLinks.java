@@ -0,0 +1,59 @@
+package com.buildmap.api.services.navigation.graph_cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Expands vertical shafts into connections. Each member is linked only to the members at the
+ * nearest level above and below it, in both directions; since a ride costs the same per level
+ * crossed, riding from any member to any other through the ones in between costs exactly what a
+ * direct link would. A shaft through n floors thus adds 2(n - 1) connections instead of n(n - 1).
+ * Members whose floors share a level are not linked to each other, but each of them is linked to
+ * the levels next to it like a single member would be.
+ */
+final class ShaftLinks {
+
+    private ShaftLinks() {
+    }
+
+    record Member(Long shaftId, Long fulcrumId, Long floorId, int level,
+                  double metersPerLevel, double upDifficultyFactor, double downDifficultyFactor) {}
+
+    static List<FloorSlice.Link> expand(List<Member> members) {
+        Map<Long, TreeMap<Integer, List<Member>>> shafts = new LinkedHashMap<>();
+        for (Member member : members) {
+            shafts.computeIfAbsent(member.shaftId(), id -> new TreeMap<>())
+                    .computeIfAbsent(member.level(), level -> new ArrayList<>())
+                    .add(member);
+        }
+
+        List<FloorSlice.Link> links = new ArrayList<>();
+        for (TreeMap<Integer, List<Member>> levels : shafts.values()) {
+            List<Member> below = null;
+            for (List<Member> level : levels.values()) {
+                level.sort(Comparator.comparing(Member::fulcrumId));
+                if (below != null) {
+                    for (Member lower : below) {
+                        for (Member upper : level) {
+                            link(links, lower, upper);
+                        }
+                    }
+                }
+                below = level;
+            }
+        }
+        return links;
+    }
+
+    private static void link(List<FloorSlice.Link> links, Member lower, Member upper) {
+        double meters = lower.metersPerLevel() * (upper.level() - lower.level());
+        links.add(new FloorSlice.Link(lower.fulcrumId(), upper.fulcrumId(), upper.floorId(),
+                meters, lower.upDifficultyFactor()));
+        links.add(new FloorSlice.Link(upper.fulcrumId(), lower.fulcrumId(), lower.floorId(),
+                meters, lower.downDifficultyFactor()));
+    }
+}
@@ -0,0 +1,128 @@
+package com.buildmap.api.services.navigation.landmark_hints;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Named landmark candidates around every fulcrum of a compiled graph: the fulcrums of the same
+ * floor within the hint radius that are not waypoints, ordered by distance. Step generation
+ * only needs to pick the first candidate ahead of the walker instead of scanning the whole area.
+ *
+ * <p>Candidates are found through a per-floor grid with cells as wide as the radius, so building
+ * the table looks at the neighbouring cells of each fulcrum only. Equally distant candidates keep
+ * the order of the graph's node map, which is the order a full scan would meet them in.
+ */
+public final class LandmarkHintTable implements DerivedStructure {
+
+    private static final Candidate[] NONE = new Candidate[0];
+    // Rough heap cost of one candidate record and its array slot.
+    private static final long CANDIDATE_BYTES = 48;
+
+    private final Map<Long, Candidate[]> candidates;
+    private final long candidateCount;
+
+    public LandmarkHintTable(Graph graph, double radius) {
+        Map<Long, Map<Long, List<Landmark>>> cellsByFloor = new HashMap<>();
+        int ordinal = 0;
+        for (Fulcrum fulcrum : graph.getNodes().values()) {
+            if (isLandmark(fulcrum)) {
+                cellsByFloor.computeIfAbsent(fulcrum.getFloor().getId(), id -> new HashMap<>())
+                        .computeIfAbsent(cell(fulcrum.getX(), fulcrum.getY(), radius), key -> new ArrayList<>())
+                        .add(new Landmark(fulcrum, ordinal));
+            }
+            ordinal += 1;
+        }
+
+        Map<Long, Candidate[]> table = new HashMap<>();
+        long total = 0;
+        for (Fulcrum pivot : graph.getNodes().values()) {
+            if (!hasPosition(pivot)) continue;
+            Map<Long, List<Landmark>> cells = cellsByFloor.get(pivot.getFloor().getId());
+            if (cells == null) continue;
+
+            List<Landmark> nearby = new ArrayList<>();
+            long column = (long) Math.floor(pivot.getX() / radius);
+            long row = (long) Math.floor(pivot.getY() / radius);
+            for (long dx = -1; dx <= 1; dx += 1) {
+                for (long dy = -1; dy <= 1; dy += 1) {
+                    List<Landmark> inCell = cells.get(key(column + dx, row + dy));
+                    if (inCell == null) continue;
+                    for (Landmark landmark : inCell) {
+                        Fulcrum candidate = landmark.fulcrum();
+                        if (candidate.getId().equals(pivot.getId())) continue;
+                        if (Math.hypot(candidate.getX() - pivot.getX(), candidate.getY() - pivot.getY()) > radius) {
+                            continue;
+                        }
+                        nearby.add(landmark);
+                    }
+                }
+            }
+            if (nearby.isEmpty()) continue;
+
+            nearby.sort(Comparator
+                    .comparingDouble((Landmark landmark) -> Math.hypot(
+                            landmark.fulcrum().getX() - pivot.getX(), landmark.fulcrum().getY() - pivot.getY()))
+                    .thenComparingInt(Landmark::ordinal));
+            Candidate[] sorted = new Candidate[nearby.size()];
+            for (int i = 0; i < sorted.length; i += 1) {
+                Fulcrum candidate = nearby.get(i).fulcrum();
+                sorted[i] = new Candidate(candidate, candidate.getX() - pivot.getX(), candidate.getY() - pivot.getY());
+            }
+            table.put(pivot.getId(), sorted);
+            total += sorted.length;
+        }
+        this.candidates = table;
+        this.candidateCount = total;
+    }
+
+    /**
+     * Landmarks around the fulcrum, closest first; empty when none is within the radius.
+     */
+    public Candidate[] candidates(Long fulcrumId) {
+        return candidates.getOrDefault(fulcrumId, NONE);
+    }
+
+    @Override
+    public long estimateBytes() {
+        return candidateCount * CANDIDATE_BYTES;
+    }
+
+    private static boolean isLandmark(Fulcrum fulcrum) {
+        if (!hasPosition(fulcrum)) return false;
+        if (fulcrum.getType() == null || fulcrum.getType() == FulcrumType.WAYPOINT) return false;
+        return fulcrum.getName() != null && !fulcrum.getName().isBlank();
+    }
+
+    private static boolean hasPosition(Fulcrum fulcrum) {
+        return fulcrum != null && fulcrum.getId() != null && fulcrum.getFloor() != null
+                && fulcrum.getFloor().getId() != null && fulcrum.getX() != null && fulcrum.getY() != null;
+    }
+
+    private static long cell(double x, double y, double radius) {
+        return key((long) Math.floor(x / radius), (long) Math.floor(y / radius));
+    }
+
+    private static long key(long column, long row) {
+        return (column << 32) ^ (row & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A landmark seen from one fulcrum, with its offset from that fulcrum.
+     */
+    public record Candidate(Fulcrum landmark, double dx, double dy) {
+
+        public boolean isVertical() {
+            return landmark.getType() == FulcrumType.STAIRS || landmark.getType() == FulcrumType.ELEVATOR;
+        }
+    }
+
+    private record Landmark(Fulcrum fulcrum, int ordinal) {}
+}
@@ -0,0 +1,48 @@
+package com.buildmap.api.services.navigation.live_closures;
+
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+
+/**
+ * Reweighted copy of a compiled graph for the latest closures of its area. Only one version is
+ * kept: closures change far less often than routes are requested, and an outdated copy is of no
+ * use once its closures are gone.
+ *
+ * <p>The copy is only made once a route of the graph crosses a closure. Making it rebuilds the
+ * {@code GraphIndex} and {@code GraphComponents} of the whole area, a pass over every fulcrum and
+ * connection. The ALT landmarks and A* heuristic of the graph carry over. Contraction hierarchies,
+ * QR trees, chain contraction and floor overlays are never built on it, because searches on the copy
+ * use engines without preprocessing. Only the tables of the nearest-of-type and point routes are
+ * built on it again, once per version.
+ */
+final class ClosedGraphs implements DerivedStructure {
+
+    private final Graph graph;
+    private volatile Variant latest;
+
+    ClosedGraphs(Graph graph) {
+        this.graph = graph;
+    }
+
+    Graph forSnapshot(ClosureSnapshot snapshot) {
+        Variant current = latest;
+        if (current != null && current.version() == snapshot.version()) {
+            return current.graph();
+        }
+        Graph reweighted = graph.reweighted(
+                (sourceId, edge) -> edge.cost() * snapshot.multiplier(sourceId, edge.targetId()));
+        latest = new Variant(snapshot.version(), reweighted);
+        return reweighted;
+    }
+
+    @Override
+    public long estimateBytes() {
+        Variant current = latest;
+        if (current == null) {
+            return 0;
+        }
+        return current.graph().retainedBytes();
+    }
+
+    private record Variant(long version, Graph graph) {}
+}
@@ -0,0 +1,62 @@
+package com.buildmap.api.services.navigation.live_closures;
+
+import com.buildmap.api.services.navigation.Graph;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Closures of an area active at one moment. The version changes whenever a closure of the area
+ * is added, removed or expires, so it can key anything computed from the closures.
+ */
+public record ClosureSnapshot(long version, List<LiveClosure> closures) {
+
+    public boolean isEmpty() {
+        return closures.isEmpty();
+    }
+
+    /**
+     * Factor applied to the cost of the connection, positive infinity when it is closed.
+     */
+    public double multiplier(Long fromId, Long toId) {
+        double multiplier = 1;
+        for (LiveClosure closure : closures) {
+            if (!closure.covers(fromId, toId)) continue;
+            if (closure.isClosed()) return Double.POSITIVE_INFINITY;
+            multiplier *= closure.penalty();
+        }
+        return multiplier;
+    }
+
+    /**
+     * Whether the route ending at {@code endId}, given by its predecessor chain, uses a connection
+     * these closures cover. Closures only raise costs, so a shortest route of the graph without them
+     * that uses none keeps its cost and is still the shortest under them.
+     */
+    public boolean crosses(Map<Long, Long> previous, Long endId) {
+        if (isEmpty()) {
+            return false;
+        }
+        Long toId = endId;
+        Long fromId = previous.get(toId);
+        while (fromId != null) {
+            if (multiplier(fromId, toId) != 1) {
+                return true;
+            }
+            toId = fromId;
+            fromId = previous.get(toId);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the graph to route on under these closures: the graph itself when there are none,
+     * otherwise its reweighted copy for this version.
+     */
+    public Graph applyTo(Graph graph) {
+        if (isEmpty()) {
+            return graph;
+        }
+        return graph.derive(ClosedGraphs.class, ClosedGraphs::new).forSnapshot(this);
+    }
+}
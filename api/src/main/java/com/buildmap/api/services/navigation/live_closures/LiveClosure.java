@@ -0,0 +1,24 @@
+package com.buildmap.api.services.navigation.live_closures;
+
+import java.time.Instant;
+
+/**
+ * Temporary closure or penalty of a connection, in both directions, or of every connection of a
+ * fulcrum when {@code connectedFulcrumId} is null. A null {@code penalty} closes the connections,
+ * otherwise their cost is multiplied by it until {@code expiresAt}.
+ */
+public record LiveClosure(Long id, Long mappingAreaId, Long fulcrumId, Long connectedFulcrumId,
+                          Double penalty, String reason, Instant expiresAt) {
+
+    public boolean isClosed() {
+        return penalty == null;
+    }
+
+    boolean covers(Long fromId, Long toId) {
+        if (connectedFulcrumId == null) {
+            return fulcrumId.equals(fromId) || fulcrumId.equals(toId);
+        }
+        return fulcrumId.equals(fromId) && connectedFulcrumId.equals(toId)
+                || fulcrumId.equals(toId) && connectedFulcrumId.equals(fromId);
+    }
+}
@@ -0,0 +1,131 @@
+package com.buildmap.api.services.navigation.live_closures;
+
+import com.buildmap.api.dto.live_closure.LiveClosureSaveDto;
+import com.buildmap.api.exceptions.LiveClosureNotFoundException;
+import com.buildmap.api.exceptions.ValidationException;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the temporary closures and penalties of every area in memory. Nothing is written to the
+ * database and the compiled graph of the area stays cached. Routes are still searched on that
+ * graph with all its preprocessing. Only one that crosses a closure is searched again, on a
+ * reweighted copy made once per version of the closures. Closures are dropped when they expire
+ * and do not survive a restart.
+ */
+@Service
+@RequiredArgsConstructor
+public class LiveClosureService {
+
+    private final AreaGraphCache areaGraphCache;
+    private final Clock clock;
+    private final Map<Long, AreaClosures> areas = new ConcurrentHashMap<>();
+    // Area of every closure not yet deleted or expired, so a closure is found without a pass over all areas.
+    private final Map<Long, Long> closureAreas = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    public LiveClosure create(LiveClosureSaveDto closureDto) {
+        Long fulcrumId = closureDto.getFulcrumId();
+        Long connectedFulcrumId = closureDto.getConnectedFulcrumId();
+        if (!closureDto.getExpiresAt().isAfter(clock.instant())) {
+            throw new ValidationException("Closure must expire in the future");
+        }
+        Long areaId = areaGraphCache.resolveAreaId(fulcrumId);
+        if (connectedFulcrumId != null) {
+            if (!areaId.equals(areaGraphCache.resolveAreaId(connectedFulcrumId))) {
+                throw new ValidationException("Connected fulcrum must be in the same mapping area");
+            }
+            Graph graph = areaGraphCache.getGraph(areaId);
+            if (!connects(graph, fulcrumId, connectedFulcrumId) && !connects(graph, connectedFulcrumId, fulcrumId)) {
+                throw new ValidationException(
+                        "No connection between fulcrums " + fulcrumId + " and " + connectedFulcrumId);
+            }
+        }
+
+        LiveClosure closure = new LiveClosure(ids.incrementAndGet(), areaId, fulcrumId, connectedFulcrumId,
+                closureDto.getPenalty(), closureDto.getReason(), closureDto.getExpiresAt());
+        closureAreas.put(closure.id(), areaId);
+        areas.computeIfAbsent(areaId, id -> new AreaClosures()).add(closure);
+        return closure;
+    }
+
+    public List<LiveClosure> getActiveByMappingAreaId(Long mappingAreaId) {
+        return snapshot(mappingAreaId).closures();
+    }
+
+    public LiveClosure getById(Long id) {
+        Long areaId = closureAreas.get(id);
+        if (areaId != null) {
+            for (LiveClosure closure : snapshot(areaId).closures()) {
+                if (closure.id().equals(id)) {
+                    return closure;
+                }
+            }
+        }
+        throw new LiveClosureNotFoundException(id);
+    }
+
+    public void delete(Long id) {
+        LiveClosure closure = getById(id);
+        areas.get(closure.mappingAreaId()).remove(id);
+    }
+
+    /**
+     * The closures of the area in force now.
+     */
+    public ClosureSnapshot snapshot(Long mappingAreaId) {
+        AreaClosures closures = areas.get(mappingAreaId);
+        return closures != null ? closures.active(clock.instant()) : new ClosureSnapshot(0, List.of());
+    }
+
+    private boolean connects(Graph graph, Long fromId, Long toId) {
+        return graph.getEdges(fromId).stream().anyMatch(edge -> edge.targetId().equals(toId));
+    }
+
+    private final class AreaClosures {
+        private final List<LiveClosure> closures = new ArrayList<>();
+        private long version;
+        private ClosureSnapshot snapshot = new ClosureSnapshot(0, List.of());
+
+        synchronized void add(LiveClosure closure) {
+            closures.add(closure);
+            changed();
+        }
+
+        synchronized void remove(Long id) {
+            if (closures.removeIf(closure -> closure.id().equals(id))) {
+                closureAreas.remove(id);
+                changed();
+            }
+        }
+
+        synchronized ClosureSnapshot active(Instant now) {
+            boolean expired = closures.removeIf(closure -> {
+                if (closure.expiresAt().isAfter(now)) {
+                    return false;
+                }
+                closureAreas.remove(closure.id());
+                return true;
+            });
+            if (expired) {
+                changed();
+            }
+            return snapshot;
+        }
+
+        private void changed() {
+            version += 1;
+            snapshot = new ClosureSnapshot(version, List.copyOf(closures));
+        }
+    }
+}
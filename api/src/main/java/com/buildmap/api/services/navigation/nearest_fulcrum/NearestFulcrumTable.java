@@ -0,0 +1,90 @@
+package com.buildmap.api.services.navigation.nearest_fulcrum;
+
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+import java.util.Arrays;
+
+/**
+ * Route cost from every node to the closest of a set of target nodes, together with the next hop
+ * towards it. Built by one Dijkstra over the reverse adjacency seeded with all targets at once,
+ * so the route from any start is recovered by following next hops, in time proportional to its
+ * length.
+ */
+public final class NearestFulcrumTable {
+
+    private final int[] next;
+    private final double[] distances;
+
+    private NearestFulcrumTable(int[] next, double[] distances) {
+        this.next = next;
+        this.distances = distances;
+    }
+
+    public static NearestFulcrumTable build(GraphIndex index, boolean[] targets) {
+        int size = index.size();
+        int[] reverseOffsets = index.reverseOffsets();
+        int[] reverseSources = index.reverseTargets();
+        double[] reverseCosts = index.reverseCosts();
+        int[] next = new int[size];
+        double[] distances = new double[size];
+        Arrays.fill(next, SearchScratch.NO_NODE);
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+
+        IndexedMinHeap queue = new IndexedMinHeap();
+        queue.reset(size);
+        for (int v = 0; v < size; v += 1) {
+            if (targets[v]) {
+                distances[v] = 0;
+                queue.offer(v, 0);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            double base = distances[current];
+            for (int edge = reverseOffsets[current]; edge < reverseOffsets[current + 1]; edge += 1) {
+                int source = reverseSources[edge];
+                double candidate = base + reverseCosts[edge];
+                if (candidate < distances[source]) {
+                    distances[source] = candidate;
+                    next[source] = current;
+                    queue.offer(source, candidate);
+                }
+            }
+        }
+        return new NearestFulcrumTable(next, distances);
+    }
+
+    /**
+     * Nodes of the route from {@code start} to its closest target, start first, or {@code null}
+     * when no target is reachable.
+     */
+    public int[] route(int start) {
+        if (distances[start] == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        int length = 1;
+        for (int node = start; next[node] != SearchScratch.NO_NODE; node = next[node]) {
+            length += 1;
+        }
+        int[] nodes = new int[length];
+        int node = start;
+        for (int i = 0; i < length; i += 1) {
+            nodes[i] = node;
+            node = next[node];
+        }
+        return nodes;
+    }
+
+    /**
+     * Route cost from {@code node} to its closest target.
+     */
+    public double distance(int node) {
+        return distances[node];
+    }
+
+    public long estimateBytes() {
+        return (long) next.length * (Integer.BYTES + Double.BYTES);
+    }
+}
@@ -0,0 +1,43 @@
+package com.buildmap.api.services.navigation.nearest_fulcrum;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link NearestFulcrumTable}s of one compiled graph, one per {@link FulcrumType}, each built on
+ * first use and kept until the graph is replaced.
+ */
+public final class NearestFulcrumTables implements DerivedStructure {
+
+    private final Graph graph;
+    private final Map<FulcrumType, NearestFulcrumTable> tables = new ConcurrentHashMap<>();
+
+    public NearestFulcrumTables(Graph graph) {
+        this.graph = graph;
+    }
+
+    public NearestFulcrumTable forType(FulcrumType type) {
+        return tables.computeIfAbsent(type, this::build);
+    }
+
+    @Override
+    public long estimateBytes() {
+        return tables.values().stream().mapToLong(NearestFulcrumTable::estimateBytes).sum();
+    }
+
+    private NearestFulcrumTable build(FulcrumType type) {
+        GraphIndex index = graph.getIndex();
+        boolean[] targets = new boolean[index.size()];
+        for (int v = 0; v < targets.length; v += 1) {
+            Fulcrum fulcrum = graph.getNode(index.nodeId(v));
+            targets[v] = fulcrum != null && fulcrum.getType() == type;
+        }
+        return NearestFulcrumTable.build(index, targets);
+    }
+}
@@ -0,0 +1,96 @@
+package com.buildmap.api.services.navigation.qr_route_trees;
+
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphSettledEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Answers routes that start at a QR fulcrum from precomputed shortest path trees.
+ *
+ * <p>Trees are built on a dedicated {@link ForkJoinPool} the first time a compiled graph is
+ * routed on, and rebuilt as soon as the edits of an area whose graph stayed cached have settled. A
+ * rebuild starts from the last trees of the area and only recomputes the ones the edits invalidated.
+ * The last trees are only kept while the graph they were built for is cached: they are dropped
+ * when the area is invalidated, evicted or deleted, and count towards the cache budget through
+ * that graph.
+ */
+public class QrRouteTreeService {
+
+    private final AreaGraphCache areaGraphCache;
+    private final ForkJoinPool pool;
+    // Last trees built per area; only the starting point of the next rebuild, which verifies
+    // every tree it carries over against the new graph.
+    private final Map<Long, QrRouteTrees> latest = new ConcurrentHashMap<>();
+
+    public QrRouteTreeService(AreaGraphCache areaGraphCache, ForkJoinPool pool) {
+        this.areaGraphCache = areaGraphCache;
+        this.pool = pool;
+        areaGraphCache.addRemovalListener(latest::remove);
+    }
+
+    /**
+     * Route from the QR tree of {@code startId}, or {@code null} when the start is not a QR
+     * fulcrum or the trees of this graph are not ready yet.
+     */
+    public DijkstraAlgorithm.DijkstraResult findRoute(Long areaId, Graph graph, Long startId, Long endId) {
+        QrRouteTrees trees = readyTrees(areaId, graph);
+        return trees != null ? trees.route(startId, endId) : null;
+    }
+
+    /**
+     * The trees of the graph, or {@code null} while they are still being built.
+     */
+    public QrRouteTrees readyTrees(Long areaId, Graph graph) {
+        return task(areaId, graph).readyTrees();
+    }
+
+    /**
+     * Starts building the trees of the graph unless already done and returns the pending result.
+     */
+    public CompletableFuture<QrRouteTrees> prepare(Long areaId, Graph graph) {
+        return task(areaId, graph).result();
+    }
+
+    @EventListener
+    public void onAreaGraphSettled(AreaGraphSettledEvent event) {
+        Long areaId = event.areaId();
+        if (areaId == null || !latest.containsKey(areaId)) {
+            return;
+        }
+        pool.execute(() -> {
+            // An area that is no longer cached is not compiled again for its trees; its next route
+            // request does that.
+            AreaGraphCache.VersionedGraph cached = areaGraphCache.getCachedGraph(areaId);
+            if (cached != null) {
+                prepare(areaId, cached.graph());
+            }
+        });
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private QrRouteTreesTask task(Long areaId, Graph graph) {
+        QrRouteTreesTask task = graph.derive(QrRouteTreesTask.class, QrRouteTreesTask::new);
+        task.startOn(pool, latest.get(areaId), trees -> keep(areaId, trees));
+        return task;
+    }
+
+    private void keep(Long areaId, QrRouteTrees trees) {
+        latest.put(areaId, trees);
+        // Checked after the put, so an entry dropped meanwhile cannot leave its trees behind.
+        if (!areaGraphCache.isCached(areaId)) {
+            latest.remove(areaId, trees);
+            return;
+        }
+        areaGraphCache.enforceBudget();
+    }
+}
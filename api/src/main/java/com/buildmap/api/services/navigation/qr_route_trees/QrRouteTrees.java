@@ -0,0 +1,125 @@
+package com.buildmap.api.services.navigation.qr_route_trees;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Shortest path trees rooted at every QR fulcrum of a compiled graph. Visitors start routes by
+ * scanning a printed code, so a route from such a start is read off its tree without a search.
+ */
+public final class QrRouteTrees {
+
+    private final GraphIndex index;
+    private final Map<Integer, ShortestPathTree> trees;
+    private final int reusedCount;
+
+    private QrRouteTrees(GraphIndex index, Map<Integer, ShortestPathTree> trees, int reusedCount) {
+        this.index = index;
+        this.trees = trees;
+        this.reusedCount = reusedCount;
+    }
+
+    /**
+     * Builds a tree per QR fulcrum in parallel. When called inside a {@code ForkJoinPool} task the
+     * work runs on that pool. Trees of {@code previous}, built for an earlier version of the same
+     * area, are carried over wherever they are still optimal and recomputed otherwise.
+     */
+    static QrRouteTrees build(Graph graph, QrRouteTrees previous) {
+        GraphIndex index = graph.getIndex();
+        int[] roots = IntStream.range(0, index.size())
+                .filter(v -> isQr(graph.getNode(index.nodeId(v))))
+                .toArray();
+
+        int[] oldPositions = previous != null ? previous.positionsIn(index) : null;
+        int[] newPositions = oldPositions != null ? inverse(oldPositions) : null;
+
+        List<Reuse> built = IntStream.of(roots).parallel()
+                .mapToObj(root -> {
+                    ShortestPathTree old = oldPositions != null
+                            ? previous.trees.get(oldPositions[root]) : null;
+                    ShortestPathTree carried = old != null
+                            ? old.carryOver(index, oldPositions, newPositions) : null;
+                    return carried != null
+                            ? new Reuse(carried, true)
+                            : new Reuse(ShortestPathTree.compute(index, root), false);
+                })
+                .toList();
+
+        Map<Integer, ShortestPathTree> trees = new HashMap<>(built.size() * 2);
+        int reused = 0;
+        for (Reuse entry : built) {
+            trees.put(entry.tree().root(), entry.tree());
+            if (entry.reused()) reused += 1;
+        }
+        return new QrRouteTrees(index, trees, reused);
+    }
+
+    /**
+     * Route read off the tree of {@code startId}, or {@code null} when it is not a QR fulcrum of
+     * this graph.
+     */
+    public DijkstraAlgorithm.DijkstraResult route(Long startId, Long endId) {
+        ShortestPathTree tree = trees.get(index.indexOf(startId));
+        if (tree == null) {
+            return null;
+        }
+        int end = index.indexOf(endId);
+        if (end < 0) {
+            throw new IllegalArgumentException("No path exists from " + startId + " to " + endId);
+        }
+        return tree.route(index, end);
+    }
+
+    public boolean hasTree(Long startId) {
+        return trees.containsKey(index.indexOf(startId));
+    }
+
+    public int treeCount() {
+        return trees.size();
+    }
+
+    public int reusedCount() {
+        return reusedCount;
+    }
+
+    public long estimateBytes() {
+        return trees.values().stream().mapToLong(ShortestPathTree::estimateBytes).sum();
+    }
+
+    /**
+     * Positions of the nodes of {@code other} in this index, or {@code null} when the two
+     * indexes do not hold exactly the same fulcrums.
+     */
+    private int[] positionsIn(GraphIndex other) {
+        if (other.size() != index.size()) {
+            return null;
+        }
+        int[] positions = new int[other.size()];
+        for (int v = 0; v < other.size(); v += 1) {
+            positions[v] = index.indexOf(other.nodeId(v));
+            if (positions[v] < 0) return null;
+        }
+        return positions;
+    }
+
+    private static int[] inverse(int[] positions) {
+        int[] inverse = new int[positions.length];
+        for (int v = 0; v < positions.length; v += 1) {
+            inverse[positions[v]] = v;
+        }
+        return inverse;
+    }
+
+    private static boolean isQr(Fulcrum fulcrum) {
+        return fulcrum != null && fulcrum.isHasQr();
+    }
+
+    private record Reuse(ShortestPathTree tree, boolean reused) {}
+}
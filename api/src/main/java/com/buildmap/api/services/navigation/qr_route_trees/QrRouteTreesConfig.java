@@ -0,0 +1,20 @@
+package com.buildmap.api.services.navigation.qr_route_trees;
+
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class QrRouteTreesConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public QrRouteTreeService qrRouteTreeService(
+            AreaGraphCache areaGraphCache,
+            @Value("${navigation.qr-trees.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new QrRouteTreeService(areaGraphCache, new ForkJoinPool(threads));
+    }
+}
@@ -0,0 +1,60 @@
+package com.buildmap.api.services.navigation.qr_route_trees;
+
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Background construction of the QR route trees of one compiled graph. Stored with
+ * {@link Graph#derive}, so it is started at most once per graph and discarded together with it.
+ */
+final class QrRouteTreesTask implements DerivedStructure {
+
+    private final Graph graph;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<QrRouteTrees> result = new CompletableFuture<>();
+
+    QrRouteTreesTask(Graph graph) {
+        this.graph = graph;
+    }
+
+    void startOn(ForkJoinPool pool, QrRouteTrees previous, Consumer<QrRouteTrees> onBuilt) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        pool.execute(() -> {
+            try {
+                QrRouteTrees trees = QrRouteTrees.build(graph, previous);
+                // Completed first, so the trees count towards the size of the graph when handed on.
+                result.complete(trees);
+                onBuilt.accept(trees);
+            } catch (RuntimeException ex) {
+                result.completeExceptionally(ex);
+            }
+        });
+    }
+
+    /**
+     * The finished trees, or {@code null} while they are still being built or the build failed.
+     */
+    QrRouteTrees readyTrees() {
+        if (!result.isDone() || result.isCompletedExceptionally()) {
+            return null;
+        }
+        return result.join();
+    }
+
+    CompletableFuture<QrRouteTrees> result() {
+        return result;
+    }
+
+    @Override
+    public long estimateBytes() {
+        QrRouteTrees trees = readyTrees();
+        return trees != null ? trees.estimateBytes() : 0;
+    }
+}
@@ -0,0 +1,137 @@
+package com.buildmap.api.services.navigation.qr_route_trees;
+
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.search.IndexedMinHeap;
+import com.buildmap.api.services.navigation.search.SearchResults;
+import com.buildmap.api.services.navigation.search.SearchScratch;
+
+import java.util.Arrays;
+
+/**
+ * Complete single-source shortest path tree of one {@link GraphIndex}: the route cost from the
+ * root to every node and the node it is reached from.
+ */
+final class ShortestPathTree {
+
+    private final int root;
+    private final int[] previous;
+    private final double[] distances;
+
+    private ShortestPathTree(int root, int[] previous, double[] distances) {
+        this.root = root;
+        this.previous = previous;
+        this.distances = distances;
+    }
+
+    static ShortestPathTree compute(GraphIndex index, int root) {
+        int size = index.size();
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+        double[] costs = index.costs();
+        int[] previous = new int[size];
+        double[] distances = new double[size];
+        Arrays.fill(previous, SearchScratch.NO_NODE);
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+
+        IndexedMinHeap queue = new IndexedMinHeap();
+        queue.reset(size);
+        distances[root] = 0;
+        queue.offer(root, 0);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            double base = distances[current];
+            for (int edge = offsets[current]; edge < offsets[current + 1]; edge += 1) {
+                int target = targets[edge];
+                double candidate = base + costs[edge];
+                if (candidate < distances[target]) {
+                    distances[target] = candidate;
+                    previous[target] = current;
+                    queue.offer(target, candidate);
+                }
+            }
+        }
+        return new ShortestPathTree(root, previous, distances);
+    }
+
+    /**
+     * Re-expresses this tree over a recompiled index with the same fulcrums and returns it if it
+     * is still a shortest path tree there, or {@code null} when it has to be recomputed.
+     * {@code oldPositions[v]} is the position of new node {@code v} in the old index and
+     * {@code newPositions} is the inverse mapping.
+     *
+     * <p>The check is linear in the number of edges: every tree edge must still exist with the
+     * same cost and no edge may offer a shorter way to its target. Together these prove the
+     * carried distances are exact, so an edit far from a root keeps its tree.
+     */
+    ShortestPathTree carryOver(GraphIndex index, int[] oldPositions, int[] newPositions) {
+        int size = index.size();
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+        double[] costs = index.costs();
+        int[] movedPrevious = new int[size];
+        double[] movedDistances = new double[size];
+        for (int v = 0; v < size; v += 1) {
+            int old = oldPositions[v];
+            int before = previous[old];
+            movedPrevious[v] = before == SearchScratch.NO_NODE ? SearchScratch.NO_NODE : newPositions[before];
+            movedDistances[v] = distances[old];
+        }
+        int movedRoot = newPositions[root];
+
+        for (int v = 0; v < size; v += 1) {
+            int before = movedPrevious[v];
+            if (before == SearchScratch.NO_NODE) {
+                if (v != movedRoot && movedDistances[v] != Double.POSITIVE_INFINITY) return null;
+                continue;
+            }
+            if (!hasTightEdge(offsets, targets, costs, movedDistances, before, v)) return null;
+        }
+        for (int u = 0; u < size; u += 1) {
+            double base = movedDistances[u];
+            if (base == Double.POSITIVE_INFINITY) continue;
+            for (int edge = offsets[u]; edge < offsets[u + 1]; edge += 1) {
+                if (base + costs[edge] < movedDistances[targets[edge]]) return null;
+            }
+        }
+        return new ShortestPathTree(movedRoot, movedPrevious, movedDistances);
+    }
+
+    int root() {
+        return root;
+    }
+
+    DijkstraAlgorithm.DijkstraResult route(GraphIndex index, int end) {
+        if (distances[end] == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException(
+                    "No path exists from " + index.nodeId(root) + " to " + index.nodeId(end));
+        }
+        int length = 1;
+        for (int node = end; node != root; node = previous[node]) {
+            length += 1;
+        }
+        int[] nodes = new int[length];
+        double[] pathDistances = new double[length];
+        int node = end;
+        for (int i = length - 1; i >= 0; i -= 1) {
+            nodes[i] = node;
+            pathDistances[i] = distances[node];
+            node = previous[node];
+        }
+        return SearchResults.toDijkstraResult(index, nodes, pathDistances);
+    }
+
+    long estimateBytes() {
+        return (long) previous.length * (Integer.BYTES + Double.BYTES);
+    }
+
+    private static boolean hasTightEdge(int[] offsets, int[] targets, double[] costs, double[] distances,
+                                        int from, int to) {
+        for (int edge = offsets[from]; edge < offsets[from + 1]; edge += 1) {
+            if (targets[edge] == to && distances[from] + costs[edge] == distances[to]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
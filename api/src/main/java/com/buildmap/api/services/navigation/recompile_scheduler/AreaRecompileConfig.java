@@ -0,0 +1,47 @@
+package com.buildmap.api.services.navigation.recompile_scheduler;
+
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AreaRecompileConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public AreaRecompileScheduler areaRecompileScheduler(
+            AreaGraphCache areaGraphCache,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${navigation.recompile.debounce:false}") boolean debounce,
+            @Value("${navigation.recompile.quiet-period-ms:2000}") long quietPeriodMillis,
+            @Value("${navigation.recompile.max-delay-ms:10000}") long maxDelayMillis,
+            @Value("${navigation.recompile.workers:2}") int workers) {
+        // Waiting runs are taken in the order of the queue, which ranks them by their areas' traffic.
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "area-recompile");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        return new AreaRecompileScheduler(
+                areaGraphCache,
+                eventPublisher,
+                debounce,
+                Duration.ofMillis(quietPeriodMillis),
+                Duration.ofMillis(maxDelayMillis),
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "area-recompile-timer");
+                    thread.setDaemon(true);
+                    return thread;
+                }),
+                pool
+        );
+    }
+}
@@ -0,0 +1,157 @@
+package com.buildmap.api.services.navigation.recompile_scheduler;
+
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphChangedEvent;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphSettledEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Defers the work that follows an edit until the edits of an area have settled, so a burst of
+ * changes from the admin panel is recompiled once instead of once per request.
+ *
+ * <p>A changed area is marked dirty and becomes due once it has seen no change for the quiet
+ * period, or once the maximum delay has passed since it was first marked, whichever comes first.
+ * Due areas are handed to a bounded pool whose queue ranks them by their last query, so areas
+ * with route traffic are recompiled first. The cache keeps serving the stale graph of an area
+ * until its run replaces it; {@link AreaGraphSettledEvent} then starts the rebuilds that would
+ * otherwise have followed every edit.
+ *
+ * <p>Without {@code navigation.recompile.debounce} every change settles as soon as it commits.
+ */
+public class AreaRecompileScheduler {
+
+    private final AreaGraphCache areaGraphCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean debounce;
+    private final long quietPeriodNanos;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService pool;
+
+    // Both guarded by "this". An area changed during its run is in both.
+    private final Map<Long, DirtyArea> dirty = new HashMap<>();
+    private final Set<Long> running = new HashSet<>();
+
+    public AreaRecompileScheduler(AreaGraphCache areaGraphCache, ApplicationEventPublisher eventPublisher,
+                                  boolean debounce, Duration quietPeriod, Duration maxDelay,
+                                  ScheduledExecutorService timer, ExecutorService pool) {
+        this.areaGraphCache = areaGraphCache;
+        this.eventPublisher = eventPublisher;
+        this.debounce = debounce;
+        this.quietPeriodNanos = quietPeriod.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timer = timer;
+        this.pool = pool;
+    }
+
+    // Runs after the cache has patched the graph or marked it stale.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAreaGraphChanged(AreaGraphChangedEvent event) {
+        Long areaId = event.areaId();
+        if (areaId == null) {
+            return;
+        }
+        if (!debounce) {
+            eventPublisher.publishEvent(new AreaGraphSettledEvent(areaId));
+            return;
+        }
+        markDirty(areaId);
+    }
+
+    public void markDirty(Long areaId) {
+        long now = System.nanoTime();
+        long delay;
+        synchronized (this) {
+            DirtyArea area = dirty.merge(areaId, new DirtyArea(now, now),
+                    (previous, edit) -> new DirtyArea(previous.firstChange(), now));
+            delay = area.dueAt(quietPeriodNanos, maxDelayNanos) - now;
+        }
+        // Each change sets its own wake-up; the earlier ones find the area not due yet and pass.
+        timer.schedule(this::dispatch, delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Whether the area waits for, or is in, a recompilation run.
+     */
+    public synchronized boolean isPending(Long areaId) {
+        return dirty.containsKey(areaId) || running.contains(areaId);
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private synchronized void dispatch() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Long, DirtyArea>> iterator = dirty.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, DirtyArea> entry = iterator.next();
+            Long areaId = entry.getKey();
+            // An area changed during its run is dispatched again when the run ends.
+            if (running.contains(areaId) || entry.getValue().dueAt(quietPeriodNanos, maxDelayNanos) > now) {
+                continue;
+            }
+            iterator.remove();
+            running.add(areaId);
+            pool.execute(new Run(areaId, areaGraphCache.lastRead(areaId)));
+        }
+    }
+
+    private void recompile(Long areaId) {
+        try {
+            if (areaGraphCache.isStale(areaId)) {
+                areaGraphCache.recompile(areaId);
+            }
+            eventPublisher.publishEvent(new AreaGraphSettledEvent(areaId));
+        } catch (RuntimeException ex) {
+            // The area may be gone or unreadable; without an entry its next query reads it afresh.
+            areaGraphCache.invalidate(areaId);
+        } finally {
+            synchronized (this) {
+                running.remove(areaId);
+            }
+            dispatch();
+        }
+    }
+
+    private record DirtyArea(long firstChange, long lastChange) {
+
+        long dueAt(long quietPeriodNanos, long maxDelayNanos) {
+            return Math.min(lastChange + quietPeriodNanos, firstChange + maxDelayNanos);
+        }
+    }
+
+    private final class Run implements Runnable, Comparable<Run> {
+
+        private final Long areaId;
+        private final long lastRead;
+
+        private Run(Long areaId, long lastRead) {
+            this.areaId = areaId;
+            this.lastRead = lastRead;
+        }
+
+        @Override
+        public void run() {
+            recompile(areaId);
+        }
+
+        // The area read most recently first.
+        @Override
+        public int compareTo(Run other) {
+            return Long.compare(other.lastRead, lastRead);
+        }
+    }
+}
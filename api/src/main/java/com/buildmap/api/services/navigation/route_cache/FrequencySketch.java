@@ -0,0 +1,63 @@
+package com.buildmap.api.services.navigation.route_cache;
+
+/**
+ * Approximate access counts of recently seen keys (a count-min sketch). Every counter is halved
+ * after a sample of increments proportional to the capacity, so the estimate follows current
+ * popularity rather than all-time totals. Not thread-safe; callers synchronize.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final int[][] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int capacity) {
+        int width = Integer.highestOneBit(Math.max(16, capacity * 4 - 1)) << 1;
+        this.counters = new int[DEPTH][width];
+        this.mask = width - 1;
+        this.sampleSize = Math.max(160, capacity * 10);
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        for (int row = 0; row < DEPTH; row += 1) {
+            counters[row][slot(hash, row)] += 1;
+        }
+        additions += 1;
+        if (additions >= sampleSize) {
+            halve();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row += 1) {
+            frequency = Math.min(frequency, counters[row][slot(hash, row)]);
+        }
+        return frequency;
+    }
+
+    private int slot(int hash, int row) {
+        int mixed = (hash ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+        return (mixed ^ (mixed >>> 16)) & mask;
+    }
+
+    private void halve() {
+        for (int[] row : counters) {
+            for (int i = 0; i < row.length; i += 1) {
+                row[i] >>>= 1;
+            }
+        }
+        additions /= 2;
+    }
+
+    private static int spread(int hash) {
+        int mixed = hash * 0x45D9F3B;
+        return mixed ^ (mixed >>> 16);
+    }
+}
@@ -0,0 +1,105 @@
+package com.buildmap.api.services.navigation.route_cache;
+
+import com.buildmap.api.dto.route.RouteCacheStatsDto;
+import com.buildmap.api.dto.route.RouteDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of finished routes, including their step texts and mapped DTOs.
+ *
+ * <p>Entries are evicted in least-recently-used order, but a new route is only admitted over a
+ * full cache when it has been requested more often recently than the entry it would evict, so a
+ * stream of one-off pairs cannot push out the popular ones. Keys carry the area revision, which
+ * every committed edit of the area moves on, and the version of its live closures, so stale routes
+ * are never returned. The first route stored for a newer revision or closure version of an area
+ * drops the entries of the older ones at once: they would keep the counts they gathered while
+ * popular and hold off the new keys of the very same routes. Cached DTOs are shared between
+ * requests and must not be modified.
+ */
+@Component
+public class RouteCache {
+
+    private final int maxEntries;
+
+    // Access-ordered; it and the counters below are guarded by "this".
+    private final LinkedHashMap<RouteCacheKey, RouteDto> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Latest revision and closure version stored per area.
+    private final Map<Long, Generation> generations = new HashMap<>();
+    private FrequencySketch sketch;
+    private long hits;
+    private long misses;
+    private long rejections;
+
+    public RouteCache(@Value("${navigation.route-cache.max-entries:10000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.sketch = new FrequencySketch(Math.max(1, maxEntries));
+    }
+
+    public synchronized RouteDto get(RouteCacheKey key) {
+        sketch.increment(key);
+        RouteDto route = entries.get(key);
+        if (route != null) {
+            hits += 1;
+        } else {
+            misses += 1;
+        }
+        return route;
+    }
+
+    public synchronized void put(RouteCacheKey key, RouteDto route) {
+        if (maxEntries <= 0 || entries.containsKey(key)) {
+            return;
+        }
+        Generation generation = new Generation(key.revision(), key.closureVersion());
+        Generation latest = generations.get(key.areaId());
+        if (latest != null && generation.isOlderThan(latest)) {
+            // Computed on a graph the area has already moved past.
+            return;
+        }
+        if (latest == null || latest.isOlderThan(generation)) {
+            generations.put(key.areaId(), generation);
+            if (latest != null) {
+                entries.keySet().removeIf(entry -> entry.areaId().equals(key.areaId())
+                        && new Generation(entry.revision(), entry.closureVersion()).isOlderThan(generation));
+            }
+        }
+        if (entries.size() >= maxEntries) {
+            Iterator<Map.Entry<RouteCacheKey, RouteDto>> eldest = entries.entrySet().iterator();
+            RouteCacheKey victim = eldest.next().getKey();
+            if (sketch.frequency(key) <= sketch.frequency(victim)) {
+                rejections += 1;
+                return;
+            }
+            eldest.remove();
+        }
+        entries.put(key, route);
+    }
+
+    public synchronized RouteCacheStatsDto stats() {
+        long requests = hits + misses;
+        return new RouteCacheStatsDto(entries.size(), maxEntries, hits, misses, rejections,
+                requests > 0 ? (double) hits / requests : 0.0);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        generations.clear();
+        sketch = new FrequencySketch(Math.max(1, maxEntries));
+        hits = 0;
+        misses = 0;
+        rejections = 0;
+    }
+
+    private record Generation(long revision, long closureVersion) {
+
+        boolean isOlderThan(Generation other) {
+            return revision < other.revision || revision == other.revision && closureVersion < other.closureVersion;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.buildmap.api.services.navigation.route_cache;
+
+import com.buildmap.api.dto.route.RoutingAlgorithm;
+import com.buildmap.api.dto.route.RoutingProfile;
+
+/**
+ * Identifies a finished route. The area revision makes keys of an edited area unreachable, the
+ * closure version those computed before its live closures changed.
+ */
+public record RouteCacheKey(Long areaId, long revision, long closureVersion, Long startFulcrumId,
+                            Long endFulcrumId, RoutingAlgorithm algorithm, RoutingProfile profile) {}
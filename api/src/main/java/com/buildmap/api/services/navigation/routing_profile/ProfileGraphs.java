@@ -0,0 +1,56 @@
+package com.buildmap.api.services.navigation.routing_profile;
+
+import com.buildmap.api.dto.route.RoutingProfile;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphLineage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Graph variants of one compiled area, one per {@link RoutingProfile}, each built on first use and
+ * kept until the area graph is replaced. A variant is a full {@link Graph}, so every engine derives
+ * its own preprocessing from it and a profile route costs the same as a default one instead of
+ * filtering edges inside the search.
+ */
+public final class ProfileGraphs implements DerivedStructure {
+
+    private final Graph graph;
+    private final Map<RoutingProfile, Graph> variants = new ConcurrentHashMap<>();
+
+    public ProfileGraphs(Graph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Returns the graph to route the profile on; the default profile, or none, uses the area graph itself.
+     */
+    public Graph forProfile(RoutingProfile profile) {
+        if (profile == null || profile == RoutingProfile.DEFAULT) {
+            return graph;
+        }
+        return variants.computeIfAbsent(profile, this::build);
+    }
+
+    @Override
+    public long estimateBytes() {
+        return variants.values().stream().mapToLong(Graph::retainedBytes).sum();
+    }
+
+    private Graph build(RoutingProfile profile) {
+        List<Fulcrum> fulcrums = graph.getNodes().values().stream()
+                .filter(fulcrum -> profile != RoutingProfile.STEP_FREE || fulcrum.getType() != FulcrumType.STAIRS)
+                .toList();
+        // Squaring the difficulty factor keeps easy connections at their length and makes each
+        // step of effort cost more the harder the connection already is.
+        GraphLineage lineage = graph.getLineage() != null ? graph.getLineage().withProfile(profile) : null;
+        return profile == RoutingProfile.LOW_EFFORT
+                ? new Graph(fulcrums, difficulty -> difficulty * difficulty, lineage)
+                : new Graph(fulcrums, DoubleUnaryOperator.identity(), lineage);
+    }
+}
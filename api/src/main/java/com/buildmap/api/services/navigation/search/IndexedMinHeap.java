@@ -0,0 +1,109 @@
+package com.buildmap.api.services.navigation.search;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over dense node indices with decrease-key. Each node is present at most once,
+ * so the heap never grows past the graph size and needs no per-push allocation.
+ */
+public final class IndexedMinHeap {
+
+    private int[] heap = new int[0];
+    private double[] keys = new double[0];
+    // Position of a node inside "heap", or -1 when the node is not queued.
+    private int[] positions = new int[0];
+    private int size;
+
+    /**
+     * Empties the heap and makes room for nodes {@code 0..capacity-1}.
+     */
+    public void reset(int capacity) {
+        if (positions.length < capacity) {
+            heap = new int[capacity];
+            keys = new double[capacity];
+            positions = new int[capacity];
+            Arrays.fill(positions, -1);
+            size = 0;
+            return;
+        }
+        for (int i = 0; i < size; i += 1) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    public double peekKey() {
+        return size > 0 ? keys[heap[0]] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Inserts the node, or lowers its key when it is already queued with a larger one.
+     */
+    public void offer(int node, double key) {
+        int position = positions[node];
+        if (position < 0) {
+            keys[node] = key;
+            heap[size] = node;
+            positions[node] = size;
+            size += 1;
+            siftUp(size - 1);
+        } else if (key < keys[node]) {
+            keys[node] = key;
+            siftUp(position);
+        }
+    }
+
+    public int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        size -= 1;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int position) {
+        int node = heap[position];
+        double key = keys[node];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentNode = heap[parent];
+            if (keys[parentNode] <= key) break;
+            heap[position] = parentNode;
+            positions[parentNode] = position;
+            position = parent;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+
+    private void siftDown(int position) {
+        int node = heap[position];
+        double key = keys[node];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            if (key <= keys[heap[child]]) break;
+            heap[position] = heap[child];
+            positions[heap[child]] = position;
+            position = child;
+        }
+        heap[position] = node;
+        positions[node] = position;
+    }
+}
@@ -0,0 +1,99 @@
+package com.buildmap.api.services.navigation.search;
+
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class SearchResults {
+
+    private SearchResults() {
+    }
+
+    /**
+     * Converts the predecessor chain ending at {@code end} into the map based result consumed by
+     * {@code PathBuilder}. Only nodes on the path are copied, so the cost is proportional to the
+     * path length rather than to the number of nodes the search touched.
+     */
+    public static DijkstraAlgorithm.DijkstraResult toDijkstraResult(GraphIndex index, SearchScratch scratch, int end) {
+        Map<Long, Double> distances = new HashMap<>();
+        Map<Long, Long> previous = new HashMap<>();
+
+        int current = end;
+        while (current != SearchScratch.NO_NODE) {
+            long currentId = index.nodeId(current);
+            distances.put(currentId, scratch.distance(current));
+            int before = scratch.previous(current);
+            if (before != SearchScratch.NO_NODE) {
+                previous.put(currentId, index.nodeId(before));
+            }
+            current = before;
+        }
+
+        return new DijkstraAlgorithm.DijkstraResult(distances, previous);
+    }
+
+    /**
+     * Builds the result for an explicit node sequence, e.g. a path unpacked from shortcuts;
+     * {@code distances[i]} is the cost from the start to {@code nodes[i]}.
+     */
+    public static DijkstraAlgorithm.DijkstraResult toDijkstraResult(GraphIndex index, int[] nodes, double[] distances) {
+        Map<Long, Double> distanceById = new HashMap<>();
+        Map<Long, Long> previous = new HashMap<>();
+        for (int i = 0; i < nodes.length; i += 1) {
+            long id = index.nodeId(nodes[i]);
+            distanceById.put(id, distances[i]);
+            if (i > 0) {
+                previous.put(id, index.nodeId(nodes[i - 1]));
+            }
+        }
+        return new DijkstraAlgorithm.DijkstraResult(distanceById, previous);
+    }
+
+    /**
+     * Builds the result for an explicit node sequence, taking the cost of every step from the
+     * cheapest connection between its two fulcrums.
+     */
+    public static DijkstraAlgorithm.DijkstraResult toDijkstraResult(GraphIndex index, int[] nodes) {
+        double[] distances = new double[nodes.length];
+        int[] offsets = index.offsets();
+        int[] targets = index.targets();
+        double[] costs = index.costs();
+        for (int i = 1; i < nodes.length; i += 1) {
+            double step = Double.POSITIVE_INFINITY;
+            for (int edge = offsets[nodes[i - 1]]; edge < offsets[nodes[i - 1] + 1]; edge += 1) {
+                if (targets[edge] == nodes[i]) {
+                    step = Math.min(step, costs[edge]);
+                }
+            }
+            distances[i] = distances[i - 1] + step;
+        }
+        return toDijkstraResult(index, nodes, distances);
+    }
+
+    /**
+     * Joins a forward search from the start and a backward search from the destination that met at
+     * {@code meeting}. In the backward scratch "previous" points one step closer to the destination.
+     */
+    public static DijkstraAlgorithm.DijkstraResult toDijkstraResult(GraphIndex index, SearchScratch forward,
+                                                                    SearchScratch backward, int meeting) {
+        DijkstraAlgorithm.DijkstraResult head = toDijkstraResult(index, forward, meeting);
+        Map<Long, Double> distances = head.distances();
+        Map<Long, Long> previous = head.previous();
+
+        double meetingDistance = forward.distance(meeting);
+        double remaining = backward.distance(meeting);
+        int current = meeting;
+        int next = backward.previous(current);
+        while (next != SearchScratch.NO_NODE) {
+            long nextId = index.nodeId(next);
+            previous.put(nextId, index.nodeId(current));
+            distances.put(nextId, meetingDistance + remaining - backward.distance(next));
+            current = next;
+            next = backward.previous(current);
+        }
+
+        return new DijkstraAlgorithm.DijkstraResult(distances, previous);
+    }
+}
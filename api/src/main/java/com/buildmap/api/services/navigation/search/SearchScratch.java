@@ -0,0 +1,71 @@
+package com.buildmap.api.services.navigation.search;
+
+import java.util.Arrays;
+
+/**
+ * Reusable per-thread working memory of one graph search: tentative distances, predecessors,
+ * settled flags and the queue. Instead of clearing the arrays before every query each slot is
+ * tagged with a generation stamp, so {@link #reset(int)} costs O(1) once the arrays are sized.
+ */
+public final class SearchScratch {
+
+    public static final int NO_NODE = -1;
+
+    private double[] distances = new double[0];
+    private int[] previous = new int[0];
+    private int[] seen = new int[0];
+    private int[] settled = new int[0];
+    private int stamp;
+    private final IndexedMinHeap queue = new IndexedMinHeap();
+
+    public static ThreadLocal<SearchScratch> perThread() {
+        return ThreadLocal.withInitial(SearchScratch::new);
+    }
+
+    public void reset(int size) {
+        if (seen.length < size) {
+            distances = new double[size];
+            previous = new int[size];
+            seen = new int[size];
+            settled = new int[size];
+            stamp = 0;
+        }
+        stamp += 1;
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(seen, 0);
+            Arrays.fill(settled, 0);
+            stamp = 1;
+        }
+        queue.reset(size);
+    }
+
+    public IndexedMinHeap queue() {
+        return queue;
+    }
+
+    public boolean isSeen(int node) {
+        return seen[node] == stamp;
+    }
+
+    public double distance(int node) {
+        return seen[node] == stamp ? distances[node] : Double.POSITIVE_INFINITY;
+    }
+
+    public int previous(int node) {
+        return seen[node] == stamp ? previous[node] : NO_NODE;
+    }
+
+    public void update(int node, double distance, int previousNode) {
+        seen[node] = stamp;
+        distances[node] = distance;
+        previous[node] = previousNode;
+    }
+
+    public boolean isSettled(int node) {
+        return settled[node] == stamp;
+    }
+
+    public void settle(int node) {
+        settled[node] = stamp;
+    }
+}
@@ -0,0 +1,74 @@
+package com.buildmap.api.services.navigation.spatial_index;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.DerivedStructure;
+import com.buildmap.api.services.navigation.Graph;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-floor KD-trees over the positioned fulcrums of a compiled graph, one over every fulcrum of
+ * the floor and one per fulcrum type, so a type-filtered query does not wade through the points
+ * of other types. Memoized on the graph, it lives and dies with the cached area.
+ */
+public final class FloorSpatialIndex implements DerivedStructure {
+
+    // Coordinates, the fulcrum reference and the array slots of one point in two trees.
+    private static final long POINT_BYTES = 2 * (Double.BYTES * 2 + 8);
+
+    private final Map<Long, FloorTrees> floors = new HashMap<>();
+    private final long pointCount;
+
+    public FloorSpatialIndex(Graph graph) {
+        Map<Long, List<Fulcrum>> byFloor = new HashMap<>();
+        long points = 0;
+        for (Fulcrum fulcrum : graph.getNodes().values()) {
+            if (fulcrum.getFloor() == null || fulcrum.getX() == null || fulcrum.getY() == null) continue;
+            byFloor.computeIfAbsent(fulcrum.getFloor().getId(), id -> new ArrayList<>()).add(fulcrum);
+            points += 1;
+        }
+        byFloor.forEach((floorId, fulcrums) -> floors.put(floorId, new FloorTrees(fulcrums)));
+        this.pointCount = points;
+    }
+
+    /**
+     * Returns up to {@code k} fulcrums of the floor closest to the point, nearest first, optionally
+     * restricted to one type. An unknown floor or a floor without such fulcrums yields an empty list.
+     */
+    public List<Fulcrum> nearest(Long floorId, double x, double y, int k, FulcrumType type) {
+        FloorTrees trees = floors.get(floorId);
+        if (trees == null) {
+            return List.of();
+        }
+        KdTree tree = type == null ? trees.all() : trees.byType().get(type);
+        return tree == null ? List.of() : tree.nearest(x, y, k);
+    }
+
+    @Override
+    public long estimateBytes() {
+        return pointCount * POINT_BYTES;
+    }
+
+    private record FloorTrees(KdTree all, Map<FulcrumType, KdTree> byType) {
+
+        private FloorTrees(List<Fulcrum> fulcrums) {
+            this(new KdTree(fulcrums), byType(fulcrums));
+        }
+
+        private static Map<FulcrumType, KdTree> byType(List<Fulcrum> fulcrums) {
+            Map<FulcrumType, List<Fulcrum>> grouped = new EnumMap<>(FulcrumType.class);
+            for (Fulcrum fulcrum : fulcrums) {
+                if (fulcrum.getType() == null) continue;
+                grouped.computeIfAbsent(fulcrum.getType(), type -> new ArrayList<>()).add(fulcrum);
+            }
+            Map<FulcrumType, KdTree> trees = new EnumMap<>(FulcrumType.class);
+            grouped.forEach((type, members) -> trees.put(type, new KdTree(members)));
+            return trees;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.buildmap.api.services.navigation.spatial_index;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Static two-dimensional KD-tree over the positions of a set of fulcrums. The tree is implicit:
+ * points are reordered so that every range {@code [lo, hi)} keeps its splitting point in the
+ * middle, with the axis alternating per level, and no node objects are allocated.
+ */
+final class KdTree {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final Fulcrum[] fulcrums;
+
+    KdTree(List<Fulcrum> points) {
+        int size = points.size();
+        xs = new double[size];
+        ys = new double[size];
+        fulcrums = points.toArray(new Fulcrum[0]);
+        // Sorting by id first makes the layout, and so the tie order, independent of the input order.
+        Arrays.sort(fulcrums, Comparator.comparing(Fulcrum::getId));
+        for (int i = 0; i < size; i += 1) {
+            xs[i] = fulcrums[i].getX();
+            ys[i] = fulcrums[i].getY();
+        }
+        build(0, size, 0);
+    }
+
+    int size() {
+        return fulcrums.length;
+    }
+
+    /**
+     * Returns up to {@code k} fulcrums closest to the point, nearest first. Equally distant
+     * fulcrums are ordered by id.
+     */
+    List<Fulcrum> nearest(double x, double y, int k) {
+        Neighbours neighbours = new Neighbours(Math.min(k, fulcrums.length));
+        if (neighbours.capacity > 0) {
+            search(0, fulcrums.length, 0, x, y, neighbours);
+        }
+        return neighbours.sorted();
+    }
+
+    private void search(int lo, int hi, int depth, double x, double y, Neighbours neighbours) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = xs[mid] - x;
+        double dy = ys[mid] - y;
+        neighbours.offer(mid, dx * dx + dy * dy);
+
+        double delta = (depth & 1) == 0 ? x - xs[mid] : y - ys[mid];
+        int nearLo = delta < 0 ? lo : mid + 1;
+        int nearHi = delta < 0 ? mid : hi;
+        int farLo = delta < 0 ? mid + 1 : lo;
+        int farHi = delta < 0 ? hi : mid;
+
+        search(nearLo, nearHi, depth + 1, x, y, neighbours);
+        // The far side can only help when the splitting line is closer than the current k-th point;
+        // ties are kept so that an equally distant point with a smaller id still gets in.
+        if (!neighbours.isFull() || delta * delta <= neighbours.worstDistance()) {
+            search(farLo, farHi, depth + 1, x, y, neighbours);
+        }
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, (depth & 1) == 0 ? xs : ys);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // Quickselect: places the k-th smallest coordinate at k, smaller ones before it, larger after.
+    // Three-way partitioning keeps runs of equal coordinates, common along corridors, linear.
+    private void select(int left, int right, int k, double[] axis) {
+        while (left < right) {
+            double pivot = axis[(left + right) >>> 1];
+            int less = left;
+            int greater = right;
+            int i = left;
+            while (i <= greater) {
+                if (axis[i] < pivot) {
+                    swap(i, less);
+                    less += 1;
+                    i += 1;
+                } else if (axis[i] > pivot) {
+                    swap(i, greater);
+                    greater -= 1;
+                } else {
+                    i += 1;
+                }
+            }
+            if (k < less) {
+                right = less - 1;
+            } else if (k > greater) {
+                left = greater + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        double x = xs[a];
+        xs[a] = xs[b];
+        xs[b] = x;
+        double y = ys[a];
+        ys[a] = ys[b];
+        ys[b] = y;
+        Fulcrum fulcrum = fulcrums[a];
+        fulcrums[a] = fulcrums[b];
+        fulcrums[b] = fulcrum;
+    }
+
+    /** Bounded max-heap of the best points seen so far, worst on top. */
+    private final class Neighbours {
+
+        private final int capacity;
+        private final int[] points;
+        private final double[] distances;
+        private int size;
+
+        private Neighbours(int capacity) {
+            this.capacity = capacity;
+            this.points = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        private boolean isFull() {
+            return size == capacity;
+        }
+
+        private double worstDistance() {
+            return distances[0];
+        }
+
+        private void offer(int point, double distance) {
+            if (size < capacity) {
+                points[size] = point;
+                distances[size] = distance;
+                siftUp(size);
+                size += 1;
+            } else if (worse(points[0], distances[0], point, distance)) {
+                points[0] = point;
+                distances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        private List<Fulcrum> sorted() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i += 1) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> worse(points[a], distances[a], points[b], distances[b]) ? 1
+                    : worse(points[b], distances[b], points[a], distances[a]) ? -1 : 0);
+            List<Fulcrum> result = new ArrayList<>(size);
+            for (int slot : order) {
+                result.add(fulcrums[points[slot]]);
+            }
+            return result;
+        }
+
+        // Whether the first point ranks behind the second: farther away, or as far with a larger id.
+        private boolean worse(int a, double distanceA, int b, double distanceB) {
+            if (distanceA != distanceB) {
+                return distanceA > distanceB;
+            }
+            return fulcrums[a].getId() > fulcrums[b].getId();
+        }
+
+        private void siftUp(int slot) {
+            while (slot > 0) {
+                int parent = (slot - 1) >>> 1;
+                if (!worse(points[slot], distances[slot], points[parent], distances[parent])) {
+                    return;
+                }
+                exchange(slot, parent);
+                slot = parent;
+            }
+        }
+
+        private void siftDown(int slot) {
+            while (true) {
+                int left = 2 * slot + 1;
+                if (left >= size) {
+                    return;
+                }
+                int right = left + 1;
+                int worst = right < size && worse(points[right], distances[right], points[left], distances[left])
+                        ? right : left;
+                if (!worse(points[worst], distances[worst], points[slot], distances[slot])) {
+                    return;
+                }
+                exchange(slot, worst);
+                slot = worst;
+            }
+        }
+
+        private void exchange(int a, int b) {
+            int point = points[a];
+            points[a] = points[b];
+            points[b] = point;
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.buildmap.api.integration;
 
+import com.buildmap.api.dto.route.GraphCacheStatsDto;
+import com.buildmap.api.dto.route.RouteDto;
+import com.buildmap.api.dto.route.RouteRequestDto;
 import com.buildmap.api.entities.user.Role;
 import com.buildmap.api.entities.user.User;
 import com.buildmap.api.repos.FloorRepository;
@@ -7,8 +10,19 @@ import com.buildmap.api.repos.FulcrumRepository;
 import com.buildmap.api.repos.MappingAreaRepository;
 import com.buildmap.api.repos.UserRepository;
 import com.buildmap.api.services.JwtService;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.NavigationService;
+import com.buildmap.api.services.navigation.alt_algorithm.LandmarkTable;
+import com.buildmap.api.services.navigation.contraction_hierarchies.ContractionHierarchiesAlgorithm;
+import com.buildmap.api.services.navigation.floor_scoped.FloorScopedRouter;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphLoader;
+import com.buildmap.api.services.navigation.live_closures.LiveClosureService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,20 +31,36 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -74,12 +104,35 @@ class ApiDomainIntegrationTest {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private AreaGraphCache areaGraphCache;
+
+    @Autowired
+    private AreaGraphLoader areaGraphLoader;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FloorScopedRouter floorScopedRouter;
+
+    @Autowired
+    private NavigationService navigationService;
+
+    @Autowired
+    private ContractionHierarchiesAlgorithm contractionHierarchiesAlgorithm;
+
+    @Autowired
+    private LiveClosureService liveClosureService;
+
     @BeforeEach
     void cleanup() {
         fulcrumRepository.deleteAll();
         floorRepository.deleteAll();
         mappingAreaRepository.deleteAll();
         userRepository.deleteAll();
+        // Repositories bypass the services, so the compiled graphs are not told about the wipe.
+        areaGraphCache.clear();
     }
 
     @Test
@@ -400,6 +453,716 @@ class ApiDomainIntegrationTest {
         );
     }
 
+    @Test
+    void tc021_routeToNearestFulcrumOfType() throws Exception {
+        User user = saveUser("Case User", "tg_tc021", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC021 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long startId = createFulcrum(token, floorId, "Start", 0.5, 0.5);
+        Long nearId = createFulcrum(token, floorId, "Near WC", 0.6, 0.5, "RESTROOM");
+        Long farId = createFulcrum(token, floorId, "Far WC", 0.1, 0.5, "RESTROOM");
+        addConnection(token, startId, nearId, 3.0, 1.0);
+        addConnection(token, startId, farId, 8.0, 1.0);
+
+        mockMvc.perform(post("/api/navigation/nearest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "startFulcrumId", startId,
+                                "type", "RESTROOM"
+                        ))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.endFulcrumId").value(nearId))
+                .andExpect(jsonPath("$.totalCost").value(3.0));
+
+        mockMvc.perform(post("/api/navigation/nearest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "startFulcrumId", startId,
+                                "type", "ELEVATOR"
+                        ))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tc022_batchRoutesReportPerPairErrors() throws Exception {
+        User user = saveUser("Case User", "tg_tc022", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC022 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long hubId = createFulcrum(token, floorId, "Hub", 0.5, 0.5);
+        Long eastId = createFulcrum(token, floorId, "East", 0.9, 0.5);
+        Long westId = createFulcrum(token, floorId, "West", 0.1, 0.5);
+        Long isolatedId = createFulcrum(token, floorId, "Isolated", 0.5, 0.9);
+        addConnection(token, hubId, eastId, 4.0, 1.0);
+        addConnection(token, hubId, westId, 2.0, 1.0);
+
+        mockMvc.perform(post("/api/navigation/paths")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("pairs", List.of(
+                                Map.of("startFulcrumId", hubId, "endFulcrumId", eastId),
+                                Map.of("startFulcrumId", hubId, "endFulcrumId", isolatedId),
+                                Map.of("startFulcrumId", hubId, "endFulcrumId", westId),
+                                Map.of("startFulcrumId", eastId, "endFulcrumId", hubId)
+                        )))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].route.totalCost").value(4.0))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].route").doesNotExist())
+                .andExpect(jsonPath("$[1].error").exists())
+                .andExpect(jsonPath("$[2].route.endFulcrumId").value(westId))
+                .andExpect(jsonPath("$[2].route.totalCost").value(2.0))
+                .andExpect(jsonPath("$[3].startFulcrumId").value(eastId))
+                .andExpect(jsonPath("$[3].error").exists());
+    }
+
+    @Test
+    void tc023_cachedRouteIsReplacedAfterConnectionChange() throws Exception {
+        User user = saveUser("Case User", "tg_tc023", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC023 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long startId = createFulcrum(token, floorId, "Start", 0.1, 0.5);
+        Long middleId = createFulcrum(token, floorId, "Middle", 0.5, 0.5);
+        Long endId = createFulcrum(token, floorId, "End", 0.9, 0.5);
+        addConnection(token, startId, endId, 6.0, 1.0);
+        String body = objectMapper.writeValueAsString(Map.of(
+                "startFulcrumId", startId,
+                "endFulcrumId", endId
+        ));
+
+        for (int i = 0; i < 2; i += 1) {
+            mockMvc.perform(post("/api/navigation/path")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalCost").value(6.0));
+        }
+
+        addConnection(token, startId, middleId, 1.0, 1.0);
+        addConnection(token, middleId, endId, 1.0, 1.0);
+
+        mockMvc.perform(post("/api/navigation/path")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(2.0))
+                .andExpect(jsonPath("$.path[1].id").value(middleId));
+
+        mockMvc.perform(get("/api/navigation/debug/route-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").isNumber())
+                .andExpect(jsonPath("$.misses").isNumber());
+    }
+
+    @Test
+    void tc024_nearestFulcrumsToPointOnFloor() throws Exception {
+        User user = saveUser("Case User", "tg_tc024", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC024 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long otherFloorId = createFloor(token, areaId, "L2", 2);
+        Long hallId = createFulcrum(token, floorId, "Hall", 0.5, 0.5);
+        Long wcId = createFulcrum(token, floorId, "WC", 0.7, 0.5, "RESTROOM");
+        createFulcrum(token, floorId, "Far Room", 0.9, 0.9);
+        createFulcrum(token, otherFloorId, "Upstairs", 0.4, 0.4);
+
+        mockMvc.perform(get("/api/navigation/floor/{floorId}/nearest-fulcrums", floorId)
+                        .param("x", "0.45")
+                        .param("y", "0.5")
+                        .param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(hallId))
+                .andExpect(jsonPath("$[1].id").value(wcId));
+
+        mockMvc.perform(get("/api/navigation/floor/{floorId}/nearest-fulcrums", floorId)
+                        .param("x", "0.45")
+                        .param("y", "0.5")
+                        .param("type", "RESTROOM"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(wcId));
+
+        Long closerId = createFulcrum(token, floorId, "Kiosk", 0.46, 0.5);
+        mockMvc.perform(get("/api/navigation/floor/{floorId}/nearest-fulcrums", floorId)
+                        .param("x", "0.45")
+                        .param("y", "0.5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(closerId));
+
+        mockMvc.perform(get("/api/navigation/floor/{floorId}/nearest-fulcrums", floorId)
+                        .param("x", "0.45")
+                        .param("y", "0.5")
+                        .param("k", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tc025_routeFromArbitraryPointSnapsToNearestConnection() throws Exception {
+        User user = saveUser("Case User", "tg_tc025", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC025 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long westId = createFulcrum(token, floorId, "West", 0.1, 0.5);
+        Long eastId = createFulcrum(token, floorId, "East", 0.9, 0.5);
+        Long targetId = createFulcrum(token, floorId, "Target", 0.9, 0.9);
+        addConnection(token, westId, eastId, 8.0, 1.0);
+        addConnection(token, eastId, westId, 8.0, 1.0);
+        addConnection(token, eastId, targetId, 4.0, 1.0);
+        addConnection(token, westId, targetId, 20.0, 1.0);
+
+        mockMvc.perform(post("/api/navigation/path/from-point")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "floorId", floorId,
+                                "x", 0.8,
+                                "y", 0.52,
+                                "endFulcrumId", targetId
+                        ))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.startFulcrumId").value(eastId))
+                .andExpect(jsonPath("$.totalCost", closeTo(5.0, 1e-9)))
+                .andExpect(jsonPath("$.totalDistanceMeters").value(5.0))
+                .andExpect(jsonPath("$.steps[0].type").value("GO_FORWARD"))
+                .andExpect(jsonPath("$.steps[0].distanceMeters").value(1.0))
+                .andExpect(jsonPath("$.steps[0].toFulcrumId").value(eastId));
+
+        mockMvc.perform(post("/api/navigation/path/from-point")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "floorId", floorId + 1000,
+                                "x", 0.8,
+                                "y", 0.5,
+                                "endFulcrumId", targetId
+                        ))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void tc026_areaGraphLoadsWithConstantNumberOfStatements() throws Exception {
+        User user = saveUser("Case User", "tg_tc026", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC026 Area");
+        List<Long> fulcrumIds = new ArrayList<>();
+        for (int level = 1; level <= 3; level += 1) {
+            Long floorId = createFloor(token, areaId, "L" + level, level);
+            for (int i = 0; i < 4; i += 1) {
+                fulcrumIds.add(createFulcrum(token, floorId, "P" + level + i, 0.2 * i, 0.1 * level));
+            }
+        }
+        for (int i = 0; i + 1 < fulcrumIds.size(); i += 1) {
+            addConnection(token, fulcrumIds.get(i), fulcrumIds.get(i + 1), 2.0, 1.0);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            Graph graph = areaGraphLoader.load(areaId);
+
+            assertEquals(2, statistics.getPrepareStatementCount());
+            assertEquals(fulcrumIds.size(), graph.getNodes().size());
+            assertEquals(fulcrumIds.size() - 1, graph.getEdgeCount());
+            assertEquals(3, graph.getNode(fulcrumIds.get(fulcrumIds.size() - 1)).getFloor().getLevel());
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void tc027_floorScopedRouteReadsOnlyFloorsItReaches() throws Exception {
+        User user = saveUser("Case User", "tg_tc027", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC027 Area");
+        List<Long> fulcrumIds = new ArrayList<>();
+        for (int level = 1; level <= 3; level += 1) {
+            Long floorId = createFloor(token, areaId, "L" + level, level);
+            for (int i = 0; i < 4; i += 1) {
+                fulcrumIds.add(createFulcrum(token, floorId, "P" + level + i, 0.2 * i, 0.1 * level));
+            }
+        }
+        for (int i = 0; i + 1 < fulcrumIds.size(); i += 1) {
+            addConnection(token, fulcrumIds.get(i), fulcrumIds.get(i + 1), 2.0, 1.0);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            FloorScopedRouter.FloorScopedRoute sameFloor =
+                    floorScopedRouter.findShortestPath(areaId, fulcrumIds.get(0), fulcrumIds.get(3));
+
+            // Two floor lookups and the two queries of the single floor read.
+            assertEquals(4, statistics.getPrepareStatementCount());
+            assertEquals(1, sameFloor.loadedFloors());
+            assertEquals(6.0, sameFloor.result().distances().get(fulcrumIds.get(3)), 1e-9);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // The middle floor is read only when the search reaches its stairs.
+        Long lastId = fulcrumIds.get(fulcrumIds.size() - 1);
+        FloorScopedRouter.FloorScopedRoute acrossFloors =
+                floorScopedRouter.findShortestPath(areaId, fulcrumIds.get(0), lastId);
+        assertEquals(3, acrossFloors.loadedFloors());
+        assertEquals(22.0, acrossFloors.result().distances().get(lastId), 1e-9);
+        assertEquals(fulcrumIds.size(), acrossFloors.graph().getNodes().size());
+    }
+
+    @Test
+    void tc028_verticalShaftLinksMembersWithoutStoredConnections() throws Exception {
+        User user = saveUser("Case User", "tg_tc028", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC028 Area");
+        List<Long> elevatorIds = new ArrayList<>();
+        List<Long> floorIds = new ArrayList<>();
+        for (int level = 1; level <= 3; level += 1) {
+            floorIds.add(createFloor(token, areaId, "L" + level, level));
+            elevatorIds.add(createFulcrum(token, floorIds.get(level - 1), "Lift " + level, 0.5, 0.5, "ELEVATOR"));
+        }
+        Long startId = createFulcrum(token, floorIds.get(0), "Lobby", 0.1, 0.5);
+        Long endId = createFulcrum(token, floorIds.get(2), "Office", 0.9, 0.5);
+        addConnection(token, startId, elevatorIds.get(0), 2.0, 1.0);
+        addConnection(token, elevatorIds.get(2), endId, 2.0, 1.0);
+
+        MvcResult created = mockMvc.perform(post("/api/shaft")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "name", "Main lift",
+                                "type", "ELEVATOR",
+                                "mappingAreaId", areaId,
+                                "metersPerLevel", 4.0,
+                                "upDifficultyFactor", 1.5,
+                                "downDifficultyFactor", 1.0
+                        ))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long shaftId = readId(created);
+        for (Long elevatorId : elevatorIds) {
+            mockMvc.perform(put("/api/shaft/" + shaftId + "/fulcrum/" + elevatorId)
+                            .header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(put("/api/shaft/" + shaftId + "/fulcrum/" + startId)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+        Long secondLift = createFulcrum(token, floorIds.get(0), "Lift 1b", 0.6, 0.5, "ELEVATOR");
+        mockMvc.perform(put("/api/shaft/" + shaftId + "/fulcrum/" + secondLift)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/shaft/" + shaftId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fulcrumIds.length()").value(3));
+
+        // Two stored connections plus one link each way between neighbouring levels.
+        assertEquals(6, areaGraphCache.getGraph(areaId).getEdgeCount());
+
+        mockMvc.perform(post("/api/navigation/path")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "startFulcrumId", startId,
+                                "endFulcrumId", endId
+                        ))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(16.0))
+                .andExpect(jsonPath("$.steps[?(@.type == 'CHANGE_FLOOR_UP')]", hasSize(1)))
+                .andExpect(jsonPath("$.steps[?(@.type == 'CHANGE_FLOOR_UP')].toFulcrumId",
+                        hasItem(elevatorIds.get(2).intValue())));
+
+        FloorScopedRouter.FloorScopedRoute lazy = floorScopedRouter.findShortestPath(areaId, startId, endId);
+        assertEquals(16.0, lazy.result().distances().get(endId), 1e-9);
+        assertEquals(3, lazy.loadedFloors());
+    }
+
+    @Test
+    void tc029_stepFreeProfileRoutesAroundStairs() throws Exception {
+        User user = saveUser("Case User", "tg_tc029", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC029 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long startId = createFulcrum(token, floorId, "Entrance", 0.1, 0.5);
+        Long stairsId = createFulcrum(token, floorId, "Stairs", 0.5, 0.4, "STAIRS");
+        Long rampId = createFulcrum(token, floorId, "Ramp", 0.5, 0.6);
+        Long endId = createFulcrum(token, floorId, "Gallery", 0.9, 0.5);
+        addConnection(token, startId, stairsId, 2.0, 1.0);
+        addConnection(token, stairsId, endId, 2.0, 1.0);
+        addConnection(token, startId, rampId, 5.0, 1.0);
+        addConnection(token, rampId, endId, 5.0, 1.0);
+
+        mockMvc.perform(post("/api/navigation/path")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "startFulcrumId", startId,
+                                "endFulcrumId", endId
+                        ))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(4.0));
+
+        for (String algorithm : List.of("DIJKSTRA", "CONTRACTION_HIERARCHIES")) {
+            mockMvc.perform(post("/api/navigation/path")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of(
+                                    "startFulcrumId", startId,
+                                    "endFulcrumId", endId,
+                                    "algorithm", algorithm,
+                                    "profile", "STEP_FREE"
+                            ))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalCost").value(10.0));
+        }
+
+        mockMvc.perform(post("/api/navigation/path")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "startFulcrumId", stairsId,
+                                "endFulcrumId", endId,
+                                "profile", "STEP_FREE"
+                        ))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tc030_alternativeRoutesFollowDistinctCorridors() throws Exception {
+        User user = saveUser("Case User", "tg_tc030", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC030 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long startId = createFulcrum(token, floorId, "Security", 0.1, 0.5);
+        Long northId = createFulcrum(token, floorId, "North corridor", 0.5, 0.2);
+        Long southId = createFulcrum(token, floorId, "South corridor", 0.5, 0.8);
+        Long endId = createFulcrum(token, floorId, "Exit", 0.9, 0.5);
+        for (Long[] pair : new Long[][]{{startId, northId}, {northId, endId}}) {
+            addConnection(token, pair[0], pair[1], 3.0, 1.0);
+            addConnection(token, pair[1], pair[0], 3.0, 1.0);
+        }
+        for (Long[] pair : new Long[][]{{startId, southId}, {southId, endId}}) {
+            addConnection(token, pair[0], pair[1], 4.0, 1.0);
+            addConnection(token, pair[1], pair[0], 4.0, 1.0);
+        }
+
+        mockMvc.perform(post("/api/navigation/path/alternatives")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "startFulcrumId", startId,
+                                "endFulcrumId", endId,
+                                "k", 3
+                        ))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].totalCost").value(6.0))
+                .andExpect(jsonPath("$[1].totalCost").value(8.0))
+                .andExpect(jsonPath("$[1].path[1].id").value(southId.intValue()));
+
+        mockMvc.perform(post("/api/navigation/path/alternatives")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "startFulcrumId", startId,
+                                "endFulcrumId", endId,
+                                "k", 0
+                        ))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tc031_liveClosureReroutesWithoutRecompilingArea() throws Exception {
+        User user = saveUser("Case User", "tg_tc031", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC031 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long startId = createFulcrum(token, floorId, "Lobby", 0.1, 0.5);
+        Long elevatorId = createFulcrum(token, floorId, "Elevator hall", 0.5, 0.4, "ELEVATOR");
+        Long rampId = createFulcrum(token, floorId, "Ramp", 0.5, 0.6);
+        Long endId = createFulcrum(token, floorId, "Ward", 0.9, 0.5);
+        addConnection(token, startId, elevatorId, 2.0, 1.0);
+        addConnection(token, elevatorId, endId, 2.0, 1.0);
+        addConnection(token, startId, rampId, 5.0, 1.0);
+        addConnection(token, rampId, endId, 5.0, 1.0);
+        String route = objectMapper.writeValueAsString(Map.of(
+                "startFulcrumId", startId,
+                "endFulcrumId", endId,
+                "algorithm", "ALT"
+        ));
+
+        mockMvc.perform(post("/api/navigation/path").contentType(MediaType.APPLICATION_JSON).content(route))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(4.0));
+        Graph compiled = areaGraphCache.getGraph(areaId);
+
+        MvcResult created = mockMvc.perform(post("/api/closure")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "fulcrumId", elevatorId,
+                                "reason", "Elevator out of service",
+                                "expiresAt", Instant.now().plus(Duration.ofHours(2)).toString()
+                        ))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.closed").value(true))
+                .andReturn();
+        Long closureId = readId(created);
+
+        mockMvc.perform(post("/api/navigation/path").contentType(MediaType.APPLICATION_JSON).content(route))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(10.0));
+        mockMvc.perform(get("/api/closure/area/" + areaId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+        assertSame(compiled, areaGraphCache.getGraph(areaId));
+
+        mockMvc.perform(delete("/api/closure/" + closureId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/navigation/path").contentType(MediaType.APPLICATION_JSON).content(route))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(4.0));
+        mockMvc.perform(delete("/api/closure/" + closureId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void tc032_singleEditsPatchCachedAreaGraph() throws Exception {
+        User user = saveUser("Case User", "tg_tc032", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC032 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long startId = createFulcrum(token, floorId, "Lobby", 0.1, 0.5);
+        Long hallId = createFulcrum(token, floorId, "Hall", 0.5, 0.4);
+        Long rampId = createFulcrum(token, floorId, "Ramp", 0.5, 0.6);
+        Long endId = createFulcrum(token, floorId, "Ward", 0.9, 0.5);
+        addConnection(token, startId, hallId, 2.0, 1.0);
+        addConnection(token, hallId, endId, 2.0, 1.0);
+        addConnection(token, startId, rampId, 5.0, 1.0);
+        addConnection(token, rampId, endId, 5.0, 1.0);
+        String route = objectMapper.writeValueAsString(Map.of(
+                "startFulcrumId", startId,
+                "endFulcrumId", endId,
+                "algorithm", "ALT"
+        ));
+
+        mockMvc.perform(post("/api/navigation/path").contentType(MediaType.APPLICATION_JSON).content(route))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(4.0));
+        AreaGraphCache.VersionedGraph compiled = areaGraphCache.getCachedGraph(areaId);
+        LandmarkTable landmarks = compiled.graph().derive(LandmarkTable.class, graph -> null);
+
+        mockMvc.perform(delete("/api/fulcrum/" + hallId + "/connection/" + endId)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+        AreaGraphCache.VersionedGraph removed = areaGraphCache.getCachedGraph(areaId);
+        assertNotNull(removed);
+        assertTrue(removed.revision() > compiled.revision());
+        assertSame(landmarks, removed.graph().derive(LandmarkTable.class, graph -> null));
+        mockMvc.perform(post("/api/navigation/path").contentType(MediaType.APPLICATION_JSON).content(route))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(10.0));
+
+        mockMvc.perform(put("/api/fulcrum/" + hallId)
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "name", "Hall",
+                                "description", "Integration fulcrum",
+                                "x", 0.45,
+                                "y", 0.35,
+                                "type", "ROOM",
+                                "hasQr", false,
+                                "floorId", floorId
+                        ))))
+                .andExpect(status().isOk());
+        assertEquals(0.45, areaGraphCache.getCachedGraph(areaId).graph().getNode(hallId).getX(), 1e-9);
+
+        Long annexId = createFulcrum(token, floorId, "Annex", 0.7, 0.4);
+        addConnection(token, hallId, annexId, 1.0, 1.0);
+        addConnection(token, annexId, endId, 1.0, 1.0);
+        Graph patched = areaGraphCache.getCachedGraph(areaId).graph();
+        assertTrue(patched.containsNode(annexId));
+        mockMvc.perform(post("/api/navigation/path").contentType(MediaType.APPLICATION_JSON).content(route))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(4.0));
+
+        mockMvc.perform(delete("/api/fulcrum/" + annexId).header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+        assertFalse(areaGraphCache.getCachedGraph(areaId).graph().containsNode(annexId));
+        mockMvc.perform(post("/api/navigation/path").contentType(MediaType.APPLICATION_JSON).content(route))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(10.0));
+        assertEquals(areaGraphLoader.load(areaId).getEdgeCount(), areaGraphCache.getGraph(areaId).getEdgeCount());
+    }
+
+    @Test
+    void tc033_concurrentColdRoutesShareOneGraphBuild() throws Exception {
+        User user = saveUser("Case User", "tg_tc033", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC033 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        List<Long> fulcrumIds = new ArrayList<>();
+        for (int i = 0; i < 6; i += 1) {
+            fulcrumIds.add(createFulcrum(token, floorId, "P" + i, 0.15 * i, 0.5));
+        }
+        for (int i = 0; i + 1 < fulcrumIds.size(); i += 1) {
+            addConnection(token, fulcrumIds.get(i), fulcrumIds.get(i + 1), 2.0, 1.0);
+        }
+        RouteRequestDto request = new RouteRequestDto();
+        request.setStartFulcrumId(fulcrumIds.get(0));
+        request.setEndFulcrumId(fulcrumIds.get(fulcrumIds.size() - 1));
+        areaGraphCache.clear();
+
+        int callers = 24;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            CyclicBarrier start = new CyclicBarrier(callers);
+            List<Future<RouteDto>> routes = new ArrayList<>();
+            for (int i = 0; i < callers; i += 1) {
+                routes.add(pool.submit(() -> {
+                    start.await();
+                    return navigationService.findShortestPath(request);
+                }));
+            }
+            for (Future<RouteDto> route : routes) {
+                assertEquals(10.0, route.get(30, TimeUnit.SECONDS).getTotalCost(), 1e-9);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        GraphCacheStatsDto stats = areaGraphCache.stats();
+        assertEquals(1, stats.getBuilds());
+        assertEquals(0, stats.getBuildTimeouts());
+        mockMvc.perform(get("/api/navigation/debug/graph-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.builds").value(1))
+                .andExpect(jsonPath("$.coalescedWaiters").value((int) stats.getCoalescedWaiters()));
+    }
+
+    @Test
+    void tc034_batchWithDeletedStartFailsOnlyItsPairs() throws Exception {
+        User user = saveUser("Case User", "tg_tc034", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC034 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long hubId = createFulcrum(token, floorId, "Hub", 0.5, 0.5);
+        Long eastId = createFulcrum(token, floorId, "East", 0.9, 0.5);
+        Long goneId = createFulcrum(token, floorId, "Gone", 0.1, 0.5);
+        addConnection(token, hubId, eastId, 4.0, 1.0);
+        addConnection(token, goneId, hubId, 2.0, 1.0);
+        mockMvc.perform(delete("/api/fulcrum/" + goneId).header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(post("/api/navigation/paths")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("pairs", List.of(
+                                Map.of("startFulcrumId", goneId, "endFulcrumId", hubId),
+                                Map.of("startFulcrumId", hubId, "endFulcrumId", eastId),
+                                Map.of("startFulcrumId", goneId, "endFulcrumId", eastId)
+                        )))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].route").doesNotExist())
+                .andExpect(jsonPath("$[0].error").exists())
+                .andExpect(jsonPath("$[1].route.totalCost").value(4.0))
+                .andExpect(jsonPath("$[1].error").doesNotExist())
+                .andExpect(jsonPath("$[2].route").doesNotExist())
+                .andExpect(jsonPath("$[2].error").exists());
+    }
+
+    @Test
+    void tc035_closureReroutesOnlyRoutesCrossingIt() throws Exception {
+        User user = saveUser("Case User", "tg_tc035", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC035 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long startId = createFulcrum(token, floorId, "Lobby", 0.1, 0.5);
+        Long hallId = createFulcrum(token, floorId, "Hall", 0.5, 0.4);
+        Long rampId = createFulcrum(token, floorId, "Ramp", 0.5, 0.6);
+        Long endId = createFulcrum(token, floorId, "Ward", 0.9, 0.5);
+        Long sideId = createFulcrum(token, floorId, "Side room", 0.1, 0.9);
+        for (Long[] link : new Long[][]{{startId, hallId}, {hallId, endId}, {startId, sideId}}) {
+            addConnection(token, link[0], link[1], 2.0, 1.0);
+            addConnection(token, link[1], link[0], 2.0, 1.0);
+        }
+        addConnection(token, startId, rampId, 5.0, 1.0);
+        addConnection(token, rampId, endId, 5.0, 1.0);
+        Graph compiled = areaGraphCache.getGraph(areaId);
+        contractionHierarchiesAlgorithm.prepare(compiled).get(30, TimeUnit.SECONDS);
+        String route = objectMapper.writeValueAsString(Map.of(
+                "startFulcrumId", startId,
+                "endFulcrumId", endId,
+                "algorithm", "CONTRACTION_HIERARCHIES"
+        ));
+
+        // A closure off the route leaves it as it is, without a copy of the graph.
+        closeFulcrum(token, sideId);
+        mockMvc.perform(post("/api/navigation/path").contentType(MediaType.APPLICATION_JSON).content(route))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(4.0));
+        assertFalse(compiled.derivedBytes().containsKey("ClosedGraphs"));
+
+        closeFulcrum(token, hallId);
+        mockMvc.perform(post("/api/navigation/path").contentType(MediaType.APPLICATION_JSON).content(route))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(10.0))
+                .andExpect(jsonPath("$.path[1].id").value(rampId));
+        mockMvc.perform(post("/api/navigation/paths")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("pairs", List.of(
+                                Map.of("startFulcrumId", startId, "endFulcrumId", endId),
+                                Map.of("startFulcrumId", startId, "endFulcrumId", sideId)
+                        )))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].route.totalCost").value(10.0))
+                .andExpect(jsonPath("$[1].route").doesNotExist());
+
+        Graph closed = liveClosureService.snapshot(areaId).applyTo(compiled);
+        assertFalse(closed.derivedBytes().containsKey("ContractionHierarchyTask"));
+        assertSame(compiled, areaGraphCache.getGraph(areaId));
+        // Closures are kept in memory, so the wipe before the next test does not drop them.
+        liveClosureService.getActiveByMappingAreaId(areaId).forEach(closure -> liveClosureService.delete(closure.id()));
+    }
+
+    @Test
+    void tc036_lazyRouteLeavesAreaCompiledForNextQueries() throws Exception {
+        User user = saveUser("Case User", "tg_tc036", Role.USER, false, false);
+        String token = jwtService.generateToken(user.getId());
+        Long areaId = createArea(token, "TC036 Area");
+        Long floorId = createFloor(token, areaId, "L1", 1);
+        Long startId = createFulcrum(token, floorId, "Lobby", 0.1, 0.5);
+        Long endId = createFulcrum(token, floorId, "Ward", 0.9, 0.5);
+        addConnection(token, startId, endId, 3.0, 1.0);
+
+        ReflectionTestUtils.setField(floorScopedRouter, "enabled", true);
+        try {
+            mockMvc.perform(post("/api/navigation/path")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of(
+                                    "startFulcrumId", startId,
+                                    "endFulcrumId", endId
+                            ))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalCost").value(3.0));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                while (!areaGraphCache.isCached(areaId)) {
+                    Thread.sleep(10);
+                }
+            });
+        } finally {
+            ReflectionTestUtils.setField(floorScopedRouter, "enabled", false);
+        }
+    }
+
+    private void closeFulcrum(String token, Long fulcrumId) throws Exception {
+        mockMvc.perform(post("/api/closure")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "fulcrumId", fulcrumId,
+                                "reason", "Closed for cleaning",
+                                "expiresAt", Instant.now().plus(Duration.ofHours(2)).toString()
+                        ))))
+                .andExpect(status().isCreated());
+    }
+
     private Long createArea(String token, String name) throws Exception {
         MvcResult result = mockMvc.perform(post("/api/mapping-area")
                         .header("Authorization", "Bearer " + token)
@@ -443,6 +1206,11 @@ class ApiDomainIntegrationTest {
     }
 
     private Long createFulcrum(String token, Long floorId, String name, double x, double y) throws Exception {
+        return createFulcrum(token, floorId, name, x, y, "ROOM");
+    }
+
+    private Long createFulcrum(String token, Long floorId, String name, double x, double y, String type)
+            throws Exception {
         MvcResult result = mockMvc.perform(post("/api/fulcrum")
                         .header("Authorization", "Bearer " + token)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -451,7 +1219,7 @@ class ApiDomainIntegrationTest {
                                 "description", "Integration fulcrum",
                                 "x", x,
                                 "y", y,
-                                "type", "ROOM",
+                                "type", type,
                                 "hasQr", false,
                                 "floorId", floorId
                         ))))
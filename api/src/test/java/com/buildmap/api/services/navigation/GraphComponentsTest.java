@@ -0,0 +1,91 @@
+package com.buildmap.api.services.navigation;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphComponentsTest {
+
+    @Test
+    void shouldNeverRejectReachablePair() {
+        Random random = new Random(41);
+        List<Fulcrum> fulcrums = fulcrums(120);
+        for (int i = 0; i < 150; i += 1) {
+            Fulcrum from = fulcrums.get(random.nextInt(fulcrums.size()));
+            Fulcrum to = fulcrums.get(random.nextInt(fulcrums.size()));
+            if (from != to) {
+                from.addConnection(to, 1.0, 1.0);
+            }
+        }
+        Graph graph = new Graph(fulcrums);
+        GraphIndex index = graph.getIndex();
+        GraphComponents components = graph.getComponents();
+
+        int rejected = 0;
+        for (int from = 0; from < index.size(); from += 1) {
+            BitSet reachable = reachableFrom(index, from);
+            for (int to = 0; to < index.size(); to += 1) {
+                if (reachable.get(to)) {
+                    assertTrue(components.mayReach(from, to));
+                } else if (!components.mayReach(from, to)) {
+                    rejected += 1;
+                }
+                if (components.sameStrongComponent(from, to)) {
+                    assertTrue(reachable.get(to));
+                }
+            }
+        }
+        assertTrue(rejected > 0);
+    }
+
+    @Test
+    void shouldSplitOneWayCorridorIntoComponents() {
+        List<Fulcrum> fulcrums = fulcrums(100_000);
+        for (int i = 0; i + 1 < fulcrums.size(); i += 1) {
+            fulcrums.get(i).addConnection(fulcrums.get(i + 1), 1.0, 1.0);
+        }
+        Graph graph = new Graph(fulcrums);
+
+        assertEquals(100_000, graph.getComponents().strongCount());
+        assertEquals(1, graph.getComponents().weakCount());
+        assertTrue(graph.mayReach(1L, 100_000L));
+        assertFalse(graph.mayReach(100_000L, 1L));
+    }
+
+    private static BitSet reachableFrom(GraphIndex index, int start) {
+        BitSet seen = new BitSet(index.size());
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        seen.set(start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int edge = index.offsets()[node]; edge < index.offsets()[node + 1]; edge += 1) {
+                int target = index.targets()[edge];
+                if (!seen.get(target)) {
+                    seen.set(target);
+                    queue.add(target);
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static List<Fulcrum> fulcrums(int count) {
+        List<Fulcrum> fulcrums = new ArrayList<>(count);
+        for (long id = 1; id <= count; id += 1) {
+            Fulcrum fulcrum = new Fulcrum();
+            fulcrum.setId(id);
+            fulcrums.add(fulcrum);
+        }
+        return fulcrums;
+    }
+}
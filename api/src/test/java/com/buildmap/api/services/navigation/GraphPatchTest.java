@@ -0,0 +1,141 @@
+package com.buildmap.api.services.navigation;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumConnection;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.a_star_algorithm.GeometricHeuristic;
+import com.buildmap.api.services.navigation.alt_algorithm.LandmarkTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphPatchTest {
+
+    @Test
+    void shouldMatchRebuiltGraphAfterEveryEdit() {
+        Random random = new Random(73);
+        // The fulcrums play the database: they are edited in place and the graph is patched.
+        Map<Long, Fulcrum> stored = new HashMap<>();
+        for (long id = 1; id <= 60; id += 1) {
+            stored.put(id, fulcrum(id, random.nextDouble(), random.nextDouble()));
+        }
+        for (int i = 0; i < 150; i += 1) {
+            connect(stored.get(1L + random.nextInt(60)), stored.get(1L + random.nextInt(60)), random);
+        }
+        Graph graph = new Graph(new ArrayList<>(stored.values()));
+        long nextId = 61;
+
+        for (int edit = 0; edit < 300; edit += 1) {
+            List<Long> ids = new ArrayList<>(graph.getNodes().keySet());
+            Fulcrum edited = stored.get(ids.get(random.nextInt(ids.size())));
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    Fulcrum added = fulcrum(nextId++, random.nextDouble(), random.nextDouble());
+                    stored.put(added.getId(), added);
+                    graph = graph.patched(List.of(copy(added)), List.of());
+                }
+                case 1 -> {
+                    edited.setX(random.nextDouble());
+                    graph = graph.patched(List.of(copy(edited)), List.of());
+                }
+                case 2 -> {
+                    stored.remove(edited.getId());
+                    stored.values().forEach(fulcrum -> fulcrum.removeConnection(edited));
+                    graph = graph.patched(List.of(), List.of(edited.getId()));
+                }
+                case 3 -> {
+                    connect(edited, stored.get(ids.get(random.nextInt(ids.size()))), random);
+                    graph = graph.patched(List.of(copy(edited)), List.of());
+                }
+                default -> {
+                    if (!edited.getConnections().isEmpty()) {
+                        edited.getConnections().remove(random.nextInt(edited.getConnections().size()));
+                    }
+                    graph = graph.patched(List.of(copy(edited)), List.of());
+                }
+            }
+
+            Graph rebuilt = new Graph(new ArrayList<>(stored.values()));
+            assertEquals(rebuilt.getNodes().keySet(), graph.getNodes().keySet());
+            assertEquals(rebuilt.getEdgeCount(), graph.getEdgeCount());
+            for (Long id : rebuilt.getNodes().keySet()) {
+                assertEquals(edgeSet(rebuilt, id), edgeSet(graph, id));
+            }
+        }
+    }
+
+    @Test
+    void shouldCarryOverOnlyTablesTheEditKeepsValid() {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (long id = 1; id <= 4; id += 1) {
+            fulcrums.add(fulcrum(id, 0.2 * id, 0.5));
+        }
+        Random random = new Random(79);
+        for (int i = 0; i + 1 < fulcrums.size(); i += 1) {
+            connect(fulcrums.get(i), fulcrums.get(i + 1), random);
+            connect(fulcrums.get(i + 1), fulcrums.get(i), random);
+        }
+        Graph graph = new Graph(fulcrums);
+        LandmarkTable landmarks = graph.derive(LandmarkTable.class, compiled -> LandmarkTable.build(compiled, 2));
+        GeometricHeuristic heuristic = graph.derive(GeometricHeuristic.class, GeometricHeuristic::new);
+
+        Fulcrum second = fulcrums.get(1);
+        second.getConnections().remove(0);
+        Graph removed = graph.patched(List.of(copy(second)), List.of());
+        assertEquals(graph.getIndex().indexOf(3L), removed.getIndex().indexOf(3L));
+        assertSame(landmarks, removed.derive(LandmarkTable.class, compiled -> LandmarkTable.build(compiled, 2)));
+        assertSame(heuristic, removed.derive(GeometricHeuristic.class, GeometricHeuristic::new));
+
+        second.setY(0.9);
+        Graph moved = removed.patched(List.of(copy(second)), List.of());
+        assertEquals(0.9, moved.getNode(2L).getY(), 1e-9);
+        assertSame(landmarks, moved.derive(LandmarkTable.class, compiled -> LandmarkTable.build(compiled, 2)));
+        assertFalse(heuristic == moved.derive(GeometricHeuristic.class, GeometricHeuristic::new));
+
+        second.addConnection(fulcrums.get(3), 0.5, 1.0);
+        Graph shortcut = moved.patched(List.of(copy(second)), List.of());
+        assertTrue(shortcut.derivedBytes().isEmpty());
+    }
+
+    private static Set<String> edgeSet(Graph graph, Long id) {
+        Set<String> edges = new HashSet<>();
+        graph.getEdges(id).forEach(edge -> edges.add(edge.targetId() + ":" + edge.cost()));
+        return edges;
+    }
+
+    private static void connect(Fulcrum from, Fulcrum to, Random random) {
+        if (from != to && from.getConnections().stream().noneMatch(c -> c.getConnectedFulcrum() == to)) {
+            from.addConnection(to, 0.5 + random.nextDouble() * 3, 1.0);
+        }
+    }
+
+    // What the loader reads back for one fulcrum: a fresh entity with the same connections.
+    private static Fulcrum copy(Fulcrum source) {
+        Fulcrum fulcrum = fulcrum(source.getId(), source.getX(), source.getY());
+        for (FulcrumConnection connection : source.getConnections()) {
+            fulcrum.addConnection(connection.getConnectedFulcrum(), connection.getDistanceMeters(),
+                    connection.getDifficultyFactor());
+        }
+        return fulcrum;
+    }
+
+    private static Fulcrum fulcrum(long id, double x, double y) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        fulcrum.setType(FulcrumType.WAYPOINT);
+        fulcrum.setX(x);
+        fulcrum.setY(y);
+        return fulcrum;
+    }
+}
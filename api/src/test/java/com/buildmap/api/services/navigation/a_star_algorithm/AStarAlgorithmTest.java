@@ -0,0 +1,124 @@
+package com.buildmap.api.services.navigation.a_star_algorithm;
+
+import com.buildmap.api.entities.mapping_area.Floor;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AStarAlgorithmTest {
+
+    private final AStarAlgorithm algorithm = new AStarAlgorithm();
+    private final IndexedDijkstraAlgorithm reference = new IndexedDijkstraAlgorithm();
+
+    @Test
+    void shouldPreferCheaperDetourOverStraightExpensiveEdge() {
+        Floor floor = floor(1L, 1);
+        Fulcrum a = fulcrum(1L, floor, 0.0, 0.0);
+        Fulcrum b = fulcrum(2L, floor, 1.0, 0.0);
+        Fulcrum c = fulcrum(3L, floor, 0.5, 0.1);
+        a.addConnection(b, 10.0, 3.0);
+        a.addConnection(c, 6.0, 1.0);
+        c.addConnection(b, 6.0, 1.0);
+
+        DijkstraAlgorithm.DijkstraResult result = algorithm.findShortestPath(new Graph(List.of(a, b, c)), 1L, 2L);
+
+        assertEquals(12.0, result.distances().get(2L));
+        assertEquals(3L, result.previous().get(2L));
+    }
+
+    @Test
+    void shouldRejectUnreachableTarget() {
+        Floor floor = floor(1L, 1);
+        Graph graph = new Graph(List.of(fulcrum(1L, floor, 0.1, 0.1), fulcrum(2L, floor, 0.9, 0.9)));
+
+        assertThrows(IllegalArgumentException.class, () -> algorithm.findShortestPath(graph, 1L, 2L));
+    }
+
+    @Test
+    void shouldMatchDijkstraCostsAcrossFloors() {
+        Random random = new Random(7);
+        for (int round = 0; round < 10; round += 1) {
+            List<Fulcrum> fulcrums = randomBuilding(random, 4, 80);
+            Graph graph = new Graph(fulcrums);
+            for (int query = 0; query < 30; query += 1) {
+                Long start = fulcrums.get(random.nextInt(fulcrums.size())).getId();
+                Long end = fulcrums.get(random.nextInt(fulcrums.size())).getId();
+                if (start.equals(end)) continue;
+
+                Double expected = expectedCost(graph, start, end);
+                if (expected == null) {
+                    assertThrows(IllegalArgumentException.class,
+                            () -> algorithm.findShortestPath(graph, start, end));
+                    continue;
+                }
+                assertEquals(expected, algorithm.findShortestPath(graph, start, end).distances().get(end), 1e-9);
+            }
+        }
+    }
+
+    private Double expectedCost(Graph graph, Long start, Long end) {
+        try {
+            return reference.findShortestPath(graph, start, end).distances().get(end);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    static List<Fulcrum> randomBuilding(Random random, int floorCount, int fulcrumsPerFloor) {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        List<List<Fulcrum>> byFloor = new ArrayList<>();
+        long id = 1;
+        for (int level = 0; level < floorCount; level += 1) {
+            Floor floor = floor((long) level + 1, level);
+            List<Fulcrum> onFloor = new ArrayList<>();
+            for (int i = 0; i < fulcrumsPerFloor; i += 1) {
+                onFloor.add(fulcrum(id++, floor, random.nextDouble(), random.nextDouble()));
+            }
+            for (Fulcrum from : onFloor) {
+                for (Fulcrum to : onFloor) {
+                    double length = Math.hypot(to.getX() - from.getX(), to.getY() - from.getY());
+                    if (from != to && length < 0.2 && random.nextDouble() < 0.7) {
+                        from.addConnection(to, Math.max(0.1, length * 40), 1.0 + random.nextDouble());
+                    }
+                }
+            }
+            byFloor.add(onFloor);
+            fulcrums.addAll(onFloor);
+        }
+        for (int level = 0; level + 1 < floorCount; level += 1) {
+            for (int shaft = 0; shaft < 2; shaft += 1) {
+                Fulcrum lower = byFloor.get(level).get(random.nextInt(fulcrumsPerFloor));
+                Fulcrum upper = byFloor.get(level + 1).get(random.nextInt(fulcrumsPerFloor));
+                double cost = 3 + random.nextDouble() * 10;
+                lower.addConnection(upper, cost, 1.0);
+                upper.addConnection(lower, cost, 1.0);
+            }
+        }
+        return fulcrums;
+    }
+
+    static Floor floor(Long id, int level) {
+        Floor floor = new Floor();
+        floor.setId(id);
+        floor.setLevel(level);
+        return floor;
+    }
+
+    static Fulcrum fulcrum(Long id, Floor floor, double x, double y) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        fulcrum.setFloor(floor);
+        fulcrum.setX(x);
+        fulcrum.setY(y);
+        return fulcrum;
+    }
+}
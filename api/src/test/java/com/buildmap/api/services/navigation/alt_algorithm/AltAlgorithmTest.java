@@ -0,0 +1,137 @@
+package com.buildmap.api.services.navigation.alt_algorithm;
+
+import com.buildmap.api.entities.mapping_area.Floor;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AltAlgorithmTest {
+
+    private final AltAlgorithm algorithm = new AltAlgorithm(4);
+    private final IndexedDijkstraAlgorithm reference = new IndexedDijkstraAlgorithm();
+
+    @Test
+    void shouldPreferStairsWhenNearlyAsFarAsTheFarthestFulcrum() {
+        Floor floor = floor(1L);
+        List<Fulcrum> line = new ArrayList<>();
+        for (long id = 1; id <= 10; id += 1) {
+            line.add(fulcrum(id, floor, FulcrumType.WAYPOINT));
+        }
+        line.get(0).setType(FulcrumType.ENTRANCE);
+        line.get(8).setType(FulcrumType.STAIRS);
+        for (int i = 0; i + 1 < line.size(); i += 1) {
+            line.get(i).addConnection(line.get(i + 1), 1.0, 1.0);
+            line.get(i + 1).addConnection(line.get(i), 1.0, 1.0);
+        }
+        Graph graph = new Graph(line);
+
+        LandmarkTable table = LandmarkTable.build(graph, 2);
+
+        assertEquals(2, table.landmarkCount());
+        assertEquals(1L, graph.getIndex().nodeId(table.landmark(0)));
+        assertEquals(9L, graph.getIndex().nodeId(table.landmark(1)));
+        assertEquals(2L * 2 * 10 * Double.BYTES + 2L * Integer.BYTES, table.estimateBytes());
+    }
+
+    @Test
+    void shouldRejectTargetBehindOneWayConnection() {
+        Floor floor = floor(1L);
+        Fulcrum a = fulcrum(1L, floor, FulcrumType.ENTRANCE);
+        Fulcrum b = fulcrum(2L, floor, FulcrumType.ROOM);
+        b.addConnection(a, 1.0, 1.0);
+        Graph graph = new Graph(List.of(a, b));
+
+        assertThrows(IllegalArgumentException.class, () -> algorithm.findShortestPath(graph, 1L, 2L));
+        assertEquals(1.0, algorithm.findShortestPath(graph, 2L, 1L).distances().get(1L));
+    }
+
+    @Test
+    void shouldMatchDijkstraCostsAcrossFloors() {
+        Random random = new Random(11);
+        for (int round = 0; round < 10; round += 1) {
+            List<Fulcrum> fulcrums = randomBuilding(random, 4, 60);
+            Graph graph = new Graph(fulcrums);
+            for (int query = 0; query < 30; query += 1) {
+                Long start = fulcrums.get(random.nextInt(fulcrums.size())).getId();
+                Long end = fulcrums.get(random.nextInt(fulcrums.size())).getId();
+                if (start.equals(end)) continue;
+
+                Double expected = expectedCost(graph, start, end);
+                if (expected == null) {
+                    assertThrows(IllegalArgumentException.class,
+                            () -> algorithm.findShortestPath(graph, start, end));
+                    continue;
+                }
+                assertEquals(expected, algorithm.findShortestPath(graph, start, end).distances().get(end), 1e-9);
+            }
+        }
+    }
+
+    private Double expectedCost(Graph graph, Long start, Long end) {
+        try {
+            return reference.findShortestPath(graph, start, end).distances().get(end);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static List<Fulcrum> randomBuilding(Random random, int floorCount, int fulcrumsPerFloor) {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        List<List<Fulcrum>> byFloor = new ArrayList<>();
+        long id = 1;
+        for (int level = 0; level < floorCount; level += 1) {
+            Floor floor = floor((long) level + 1);
+            List<Fulcrum> onFloor = new ArrayList<>();
+            for (int i = 0; i < fulcrumsPerFloor; i += 1) {
+                Fulcrum fulcrum = fulcrum(id++, floor, FulcrumType.WAYPOINT);
+                fulcrum.setX(random.nextDouble());
+                fulcrum.setY(random.nextDouble());
+                onFloor.add(fulcrum);
+            }
+            for (Fulcrum from : onFloor) {
+                for (Fulcrum to : onFloor) {
+                    double length = Math.hypot(to.getX() - from.getX(), to.getY() - from.getY());
+                    // Some connections are one-way to exercise the unreachable bounds.
+                    if (from != to && length < 0.25 && random.nextDouble() < 0.6) {
+                        from.addConnection(to, Math.max(0.1, length * 40), 1.0 + random.nextDouble());
+                    }
+                }
+            }
+            byFloor.add(onFloor);
+            fulcrums.addAll(onFloor);
+        }
+        for (int level = 0; level + 1 < floorCount; level += 1) {
+            Fulcrum lower = byFloor.get(level).get(random.nextInt(fulcrumsPerFloor));
+            Fulcrum upper = byFloor.get(level + 1).get(random.nextInt(fulcrumsPerFloor));
+            lower.setType(FulcrumType.STAIRS);
+            upper.setType(FulcrumType.STAIRS);
+            double cost = 3 + random.nextDouble() * 10;
+            lower.addConnection(upper, cost, 1.0);
+            upper.addConnection(lower, cost, 1.0);
+        }
+        return fulcrums;
+    }
+
+    private static Floor floor(Long id) {
+        Floor floor = new Floor();
+        floor.setId(id);
+        return floor;
+    }
+
+    private static Fulcrum fulcrum(Long id, Floor floor, FulcrumType type) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        fulcrum.setFloor(floor);
+        fulcrum.setType(type);
+        return fulcrum;
+    }
+}
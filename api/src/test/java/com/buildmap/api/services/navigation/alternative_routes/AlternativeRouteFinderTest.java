@@ -0,0 +1,145 @@
+package com.buildmap.api.services.navigation.alternative_routes;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlternativeRouteFinderTest {
+
+    private static final int SIDE = 12;
+
+    private final DijkstraAlgorithm reference = new DijkstraAlgorithm();
+    private final AlternativeRouteFinder finder = new AlternativeRouteFinder();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(finder, "maxStretch", 1.5);
+    }
+
+    @Test
+    void shouldReturnDistinctLooplessRoutesWithinStretch() {
+        Graph graph = new Graph(grid(new Random(67)));
+        GraphIndex index = graph.getIndex();
+
+        Random random = new Random(71);
+        for (int query = 0; query < 100; query += 1) {
+            int start = random.nextInt(index.size());
+            int end = random.nextInt(index.size());
+            if (start == end) continue;
+            Long endId = index.nodeId(end);
+            double best = reference.findShortestPath(graph, index.nodeId(start), endId).distances().get(endId);
+
+            List<int[]> routes = finder.findRoutes(graph, start, end, 3, 0.6);
+
+            assertEquals(best, cost(index, routes.get(0)), 1e-9);
+            double previous = 0;
+            for (int[] route : routes) {
+                assertEquals(start, route[0]);
+                assertEquals(end, route[route.length - 1]);
+                Set<Integer> seen = new HashSet<>();
+                for (int node : route) assertTrue(seen.add(node));
+                double cost = cost(index, route);
+                assertTrue(cost <= best * 1.5 + 1e-9);
+                assertTrue(cost >= previous - 1e-9);
+                previous = cost;
+            }
+        }
+    }
+
+    @Test
+    void shouldOfferParallelCorridorAsAlternative() {
+        // Two corridors between rooms 1 and 6: 1-2-3-6 of cost 6 and 1-4-5-6 of cost 7.
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (long id = 1; id <= 6; id += 1) {
+            fulcrums.add(fulcrum(id, 0, 0));
+        }
+        link(fulcrums, 1, 2, 2.0);
+        link(fulcrums, 2, 3, 2.0);
+        link(fulcrums, 3, 6, 2.0);
+        link(fulcrums, 1, 4, 2.0);
+        link(fulcrums, 4, 5, 3.0);
+        link(fulcrums, 5, 6, 2.0);
+        Graph graph = new Graph(fulcrums);
+        GraphIndex index = graph.getIndex();
+
+        List<int[]> routes = finder.findRoutes(graph, index.indexOf(1L), index.indexOf(6L), 3, 0.5);
+
+        assertEquals(2, routes.size());
+        assertArrayEquals(new long[]{1, 2, 3, 6}, ids(index, routes.get(0)));
+        assertArrayEquals(new long[]{1, 4, 5, 6}, ids(index, routes.get(1)));
+    }
+
+    private static double cost(GraphIndex index, int[] route) {
+        double total = 0;
+        for (int i = 0; i + 1 < route.length; i += 1) {
+            double step = Double.POSITIVE_INFINITY;
+            for (int edge = index.offsets()[route[i]]; edge < index.offsets()[route[i] + 1]; edge += 1) {
+                if (index.targets()[edge] == route[i + 1]) step = Math.min(step, index.costs()[edge]);
+            }
+            assertTrue(step < Double.POSITIVE_INFINITY);
+            total += step;
+        }
+        return total;
+    }
+
+    private static long[] ids(GraphIndex index, int[] route) {
+        long[] ids = new long[route.length];
+        for (int i = 0; i < route.length; i += 1) {
+            ids[i] = index.nodeId(route[i]);
+        }
+        return ids;
+    }
+
+    // A square grid of corridors, both ways, with random lengths and a few missing links.
+    private static List<Fulcrum> grid(Random random) {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (int i = 0; i < SIDE * SIDE; i += 1) {
+            fulcrums.add(fulcrum(i + 1, i % SIDE, i / SIDE));
+        }
+        for (int i = 0; i < SIDE * SIDE; i += 1) {
+            if (i % SIDE + 1 < SIDE && random.nextInt(10) > 0) {
+                link(fulcrums, i + 1, i + 2, 1.0 + random.nextDouble());
+            }
+            if (i + SIDE < SIDE * SIDE && random.nextInt(10) > 0) {
+                link(fulcrums, i + 1, i + SIDE + 1, 1.0 + random.nextDouble());
+            }
+        }
+        // Keep the grid connected through its first column and row.
+        for (int i = 0; i + 1 < SIDE; i += 1) {
+            link(fulcrums, i * SIDE + 1, (i + 1) * SIDE + 1, 1.0);
+            link(fulcrums, i + 1, i + 2, 1.0);
+        }
+        return fulcrums;
+    }
+
+    private static void link(List<Fulcrum> fulcrums, long fromId, long toId, double distance) {
+        Fulcrum from = fulcrums.get((int) fromId - 1);
+        Fulcrum to = fulcrums.get((int) toId - 1);
+        from.addConnection(to, distance, 1.0);
+        to.addConnection(from, distance, 1.0);
+    }
+
+    private static Fulcrum fulcrum(long id, double x, double y) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        fulcrum.setType(FulcrumType.WAYPOINT);
+        fulcrum.setX(x);
+        fulcrum.setY(y);
+        return fulcrum;
+    }
+}
@@ -0,0 +1,65 @@
+package com.buildmap.api.services.navigation.batch_routes;
+
+import com.buildmap.api.exceptions.BatchRoutesBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchRouteExecutorTest {
+
+    private final BatchRouteExecutor executor = new BatchRouteExecutor(Executors.newFixedThreadPool(2), 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldTurnAwayBatchesBeyondTheCap() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> executor.runAll(List.of(() -> {
+            started.countDown();
+            awaitQuietly(release);
+        })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BatchRoutesBusyException.class, () -> executor.runAll(List.of(() -> { })));
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        AtomicInteger ran = new AtomicInteger();
+        executor.runAll(List.of(ran::incrementAndGet, ran::incrementAndGet, ran::incrementAndGet));
+        assertEquals(3, ran.get());
+    }
+
+    @Test
+    void shouldRethrowFailureOfAGroup() {
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> executor.runAll(List.of(() -> { }, () -> {
+                    throw new IllegalStateException("graph build failed");
+                })));
+        assertEquals("graph build failed", failure.getMessage());
+
+        // The failed batch gave its slot back.
+        executor.runAll(List.of(() -> { }));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.buildmap.api.services.navigation.bidirectional_algorithm;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.PathBuilder;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BidirectionalDijkstraAlgorithmTest {
+
+    private final BidirectionalDijkstraAlgorithm algorithm = new BidirectionalDijkstraAlgorithm();
+    private final IndexedDijkstraAlgorithm reference = new IndexedDijkstraAlgorithm();
+
+    @Test
+    void shouldRebuildFullPathThroughMeetingNode() {
+        List<Fulcrum> chain = new ArrayList<>();
+        for (long id = 1; id <= 6; id += 1) {
+            chain.add(fulcrum(id));
+        }
+        for (int i = 0; i + 1 < chain.size(); i += 1) {
+            chain.get(i).addConnection(chain.get(i + 1), 2.0, 1.0);
+        }
+        Graph graph = new Graph(chain);
+
+        DijkstraAlgorithm.DijkstraResult result = algorithm.findShortestPath(graph, 1L, 6L);
+        List<Fulcrum> path = PathBuilder.buildPath(result.previous(), graph, 6L);
+
+        assertEquals(10.0, result.distances().get(6L), 1e-9);
+        assertEquals(6, path.size());
+        assertTrue(PathBuilder.isPathFound(path, 1L, 6L));
+    }
+
+    @Test
+    void shouldFollowConnectionDirection() {
+        Fulcrum a = fulcrum(1L);
+        Fulcrum b = fulcrum(2L);
+        b.addConnection(a, 1.0, 1.0);
+
+        Graph graph = new Graph(List.of(a, b));
+
+        assertThrows(IllegalArgumentException.class, () -> algorithm.findShortestPath(graph, 1L, 2L));
+    }
+
+    @Test
+    void shouldMatchDijkstraOnRandomDirectedGraphs() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round += 1) {
+            List<Fulcrum> fulcrums = new ArrayList<>();
+            for (long id = 1; id <= 150; id += 1) {
+                fulcrums.add(fulcrum(id));
+            }
+            for (int i = 0; i < 500; i += 1) {
+                Fulcrum from = fulcrums.get(random.nextInt(fulcrums.size()));
+                Fulcrum to = fulcrums.get(random.nextInt(fulcrums.size()));
+                if (from != to) {
+                    from.addConnection(to, 0.1 + random.nextDouble() * 5, 1.0 + random.nextDouble());
+                }
+            }
+            Graph graph = new Graph(fulcrums);
+
+            for (int query = 0; query < 25; query += 1) {
+                long start = 1 + random.nextInt(150);
+                long end = 1 + random.nextInt(150);
+                if (start == end) continue;
+
+                Double expected = expectedCost(graph, start, end);
+                if (expected == null) {
+                    assertThrows(IllegalArgumentException.class,
+                            () -> algorithm.findShortestPath(graph, start, end));
+                    continue;
+                }
+                DijkstraAlgorithm.DijkstraResult result = algorithm.findShortestPath(graph, start, end);
+                List<Fulcrum> path = PathBuilder.buildPath(result.previous(), graph, end);
+                assertEquals(expected, result.distances().get(end), 1e-9);
+                assertTrue(PathBuilder.isPathFound(path, start, end));
+            }
+        }
+    }
+
+    private Double expectedCost(Graph graph, long start, long end) {
+        try {
+            return reference.findShortestPath(graph, start, end).distances().get(end);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static Fulcrum fulcrum(Long id) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        return fulcrum;
+    }
+}
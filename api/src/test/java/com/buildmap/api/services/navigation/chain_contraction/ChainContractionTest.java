@@ -0,0 +1,125 @@
+package com.buildmap.api.services.navigation.chain_contraction;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.PathBuilder;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChainContractionTest {
+
+    private final DijkstraAlgorithm reference = new DijkstraAlgorithm();
+    private final IndexedDijkstraAlgorithm algorithm = new IndexedDijkstraAlgorithm();
+
+    @Test
+    void shouldMatchPlainDijkstraOnCorridors() {
+        List<Fulcrum> fulcrums = office(new Random(59));
+        Graph graph = new Graph(fulcrums);
+
+        Random random = new Random(61);
+        for (int query = 0; query < 600; query += 1) {
+            Long startId = fulcrums.get(random.nextInt(fulcrums.size())).getId();
+            Long endId = fulcrums.get(random.nextInt(fulcrums.size())).getId();
+            if (startId.equals(endId)) continue;
+
+            DijkstraAlgorithm.DijkstraResult expected;
+            try {
+                expected = reference.findShortestPath(graph, startId, endId);
+            } catch (IllegalArgumentException ex) {
+                assertThrows(IllegalArgumentException.class, () -> algorithm.findShortestPath(graph, startId, endId));
+                continue;
+            }
+            DijkstraAlgorithm.DijkstraResult actual = algorithm.findShortestPath(graph, startId, endId);
+
+            assertEquals(expected.distances().get(endId), actual.distances().get(endId), 1e-9);
+            List<Fulcrum> path = PathBuilder.buildPath(actual.previous(), graph, endId);
+            assertTrue(PathBuilder.isPathFound(path, startId, endId));
+            for (int i = 0; i + 1 < path.size(); i += 1) {
+                Long next = path.get(i + 1).getId();
+                assertTrue(graph.getEdges(path.get(i).getId()).stream().anyMatch(edge -> edge.targetId().equals(next)));
+            }
+        }
+    }
+
+    @Test
+    void shouldCollapseCorridorToItsEnds() {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (long id = 1; id <= 1_000; id += 1) {
+            fulcrums.add(fulcrum(id, id == 1 || id == 1_000 ? FulcrumType.ROOM : FulcrumType.WAYPOINT));
+        }
+        for (int i = 0; i + 1 < fulcrums.size(); i += 1) {
+            fulcrums.get(i).addConnection(fulcrums.get(i + 1), 1.0, 1.0);
+            fulcrums.get(i + 1).addConnection(fulcrums.get(i), 1.0, 1.0);
+        }
+        Graph graph = new Graph(fulcrums);
+
+        assertEquals(2, graph.derive(ChainContraction.class, ChainContraction::new).keptCount());
+        DijkstraAlgorithm.DijkstraResult result = algorithm.findShortestPath(graph, 300L, 700L);
+        assertEquals(400.0, result.distances().get(700L), 1e-9);
+        assertEquals(401, PathBuilder.buildPath(result.previous(), graph, 700L).size());
+    }
+
+    // Rooms joined by corridors of waypoints, some one-way, a few waypoint rings and stray links.
+    private static List<Fulcrum> office(Random random) {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        List<Fulcrum> rooms = new ArrayList<>();
+        long id = 1;
+        for (int i = 0; i < 40; i += 1) {
+            Fulcrum room = fulcrum(id++, i % 5 == 0 ? FulcrumType.HALL : FulcrumType.ROOM);
+            rooms.add(room);
+            fulcrums.add(room);
+        }
+        for (int corridor = 0; corridor < 60; corridor += 1) {
+            Fulcrum from = rooms.get(random.nextInt(rooms.size()));
+            Fulcrum to = rooms.get(random.nextInt(rooms.size()));
+            boolean oneWay = random.nextInt(4) == 0;
+            Fulcrum previous = from;
+            int length = random.nextInt(8);
+            for (int i = 0; i <= length; i += 1) {
+                Fulcrum next = i == length ? to : fulcrum(id++, FulcrumType.WAYPOINT);
+                if (next != to) fulcrums.add(next);
+                if (previous == next) continue;
+                double distance = 0.5 + random.nextDouble() * 3;
+                previous.addConnection(next, distance, 1.0);
+                if (!oneWay) next.addConnection(previous, distance, 1.0 + random.nextDouble());
+                previous = next;
+            }
+        }
+        for (int ring = 0; ring < 3; ring += 1) {
+            List<Fulcrum> members = new ArrayList<>();
+            for (int i = 0; i < 5; i += 1) {
+                Fulcrum waypoint = fulcrum(id++, FulcrumType.WAYPOINT);
+                members.add(waypoint);
+                fulcrums.add(waypoint);
+            }
+            for (int i = 0; i < members.size(); i += 1) {
+                members.get(i).addConnection(members.get((i + 1) % members.size()), 1.0, 1.0);
+            }
+        }
+        for (int i = 0; i < 20; i += 1) {
+            Fulcrum from = fulcrums.get(random.nextInt(fulcrums.size()));
+            Fulcrum to = fulcrums.get(random.nextInt(fulcrums.size()));
+            if (from != to) from.addConnection(to, 1.0 + random.nextDouble() * 4, 1.0);
+        }
+        return fulcrums;
+    }
+
+    private static Fulcrum fulcrum(long id, FulcrumType type) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        fulcrum.setType(type);
+        fulcrum.setX(0.0);
+        fulcrum.setY(0.0);
+        return fulcrum;
+    }
+}
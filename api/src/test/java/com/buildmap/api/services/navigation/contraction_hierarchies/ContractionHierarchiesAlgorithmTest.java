@@ -0,0 +1,120 @@
+package com.buildmap.api.services.navigation.contraction_hierarchies;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.PathBuilder;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContractionHierarchiesAlgorithmTest {
+
+    private final IndexedDijkstraAlgorithm reference = new IndexedDijkstraAlgorithm();
+    private final ContractionHierarchiesAlgorithm algorithm =
+            new ContractionHierarchiesAlgorithm(reference, Executors.newSingleThreadExecutor());
+
+    @AfterEach
+    void shutdown() {
+        algorithm.shutdown();
+    }
+
+    @Test
+    void shouldUnpackShortcutsIntoOriginalFulcrums() {
+        Random random = new Random(3);
+        Graph graph = grid(random, 12);
+        algorithm.prepare(graph).join();
+
+        DijkstraAlgorithm.DijkstraResult result = algorithm.findShortestPath(graph, 1L, 144L);
+        DijkstraAlgorithm.DijkstraResult expected = reference.findShortestPath(graph, 1L, 144L);
+        List<Fulcrum> path = PathBuilder.buildPath(result.previous(), graph, 144L);
+
+        assertEquals(expected.distances().get(144L), result.distances().get(144L), 1e-9);
+        assertTrue(PathBuilder.isPathFound(path, 1L, 144L));
+        for (int i = 0; i + 1 < path.size(); i += 1) {
+            Long next = path.get(i + 1).getId();
+            assertTrue(graph.getEdges(path.get(i).getId()).stream().anyMatch(edge -> edge.targetId().equals(next)));
+        }
+    }
+
+    @Test
+    void shouldMatchDijkstraOnRandomDirectedGraphs() {
+        Random random = new Random(5);
+        for (int round = 0; round < 10; round += 1) {
+            List<Fulcrum> fulcrums = new ArrayList<>();
+            for (long id = 1; id <= 200; id += 1) {
+                fulcrums.add(fulcrum(id));
+            }
+            for (int i = 0; i < 700; i += 1) {
+                Fulcrum from = fulcrums.get(random.nextInt(fulcrums.size()));
+                Fulcrum to = fulcrums.get(random.nextInt(fulcrums.size()));
+                if (from != to) {
+                    from.addConnection(to, 0.1 + random.nextDouble() * 5, 1.0 + random.nextDouble());
+                }
+            }
+            Graph graph = new Graph(fulcrums);
+            algorithm.prepare(graph).join();
+
+            for (int query = 0; query < 30; query += 1) {
+                long start = 1 + random.nextInt(200);
+                long end = 1 + random.nextInt(200);
+                if (start == end) continue;
+
+                Double expected = expectedCost(graph, start, end);
+                if (expected == null) {
+                    assertThrows(IllegalArgumentException.class,
+                            () -> algorithm.findShortestPath(graph, start, end));
+                    continue;
+                }
+                assertEquals(expected, algorithm.findShortestPath(graph, start, end).distances().get(end), 1e-9);
+            }
+        }
+    }
+
+    private Double expectedCost(Graph graph, long start, long end) {
+        try {
+            return reference.findShortestPath(graph, start, end).distances().get(end);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static Graph grid(Random random, int side) {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (long id = 1; id <= (long) side * side; id += 1) {
+            fulcrums.add(fulcrum(id));
+        }
+        for (int row = 0; row < side; row += 1) {
+            for (int column = 0; column < side; column += 1) {
+                Fulcrum current = fulcrums.get(row * side + column);
+                if (column + 1 < side) {
+                    connect(current, fulcrums.get(row * side + column + 1), 1 + random.nextDouble());
+                }
+                if (row + 1 < side) {
+                    connect(current, fulcrums.get((row + 1) * side + column), 1 + random.nextDouble());
+                }
+            }
+        }
+        return new Graph(fulcrums);
+    }
+
+    private static void connect(Fulcrum a, Fulcrum b, double distance) {
+        a.addConnection(b, distance, 1.0);
+        b.addConnection(a, distance, 1.0);
+    }
+
+    private static Fulcrum fulcrum(Long id) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        return fulcrum;
+    }
+}
@@ -0,0 +1,120 @@
+package com.buildmap.api.services.navigation.dijkstra_algorithm;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.PathBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IndexedDijkstraAlgorithmTest {
+
+    private final IndexedDijkstraAlgorithm algorithm = new IndexedDijkstraAlgorithm();
+    private final DijkstraAlgorithm reference = new DijkstraAlgorithm();
+
+    @Test
+    void shouldFindLowestCostPathThroughIntermediateNode() {
+        Fulcrum a = fulcrum(1L);
+        Fulcrum b = fulcrum(2L);
+        Fulcrum c = fulcrum(3L);
+        a.addConnection(b, 10.0, 1.0);
+        a.addConnection(c, 2.0, 1.0);
+        c.addConnection(b, 1.5, 2.0);
+
+        DijkstraAlgorithm.DijkstraResult result = algorithm.findShortestPath(new Graph(List.of(a, b, c)), 1L, 2L);
+
+        assertEquals(5.0, result.distances().get(2L));
+        assertEquals(3L, result.previous().get(2L));
+        assertEquals(1L, result.previous().get(3L));
+    }
+
+    @Test
+    void shouldRejectUnreachableTarget() {
+        Fulcrum a = fulcrum(1L);
+        Fulcrum b = fulcrum(2L);
+        b.addConnection(a, 1.0, 1.0);
+
+        Graph graph = new Graph(List.of(a, b));
+
+        assertThrows(IllegalArgumentException.class, () -> algorithm.findShortestPath(graph, 1L, 2L));
+    }
+
+    @Test
+    void shouldMatchReferenceDijkstraOnRandomGraphs() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round += 1) {
+            Graph graph = randomGraph(random, 200, 800);
+            for (int query = 0; query < 20; query += 1) {
+                long start = 1 + random.nextInt(200);
+                long end = 1 + random.nextInt(200);
+                if (start == end) continue;
+
+                Double expected = expectedCost(graph, start, end);
+                if (expected == null) {
+                    assertThrows(IllegalArgumentException.class,
+                            () -> algorithm.findShortestPath(graph, start, end));
+                    continue;
+                }
+                DijkstraAlgorithm.DijkstraResult result = algorithm.findShortestPath(graph, start, end);
+                assertEquals(expected, result.distances().get(end), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void shouldAnswerManyDestinationsFromOneSearch() {
+        Random random = new Random(23);
+        Graph graph = randomGraph(random, 200, 600);
+        List<Long> ends = new ArrayList<>();
+        for (int i = 0; i < 30; i += 1) {
+            ends.add(2L + random.nextInt(199));
+        }
+
+        Map<Long, DijkstraAlgorithm.DijkstraResult> results = algorithm.findShortestPaths(graph, 1L, ends);
+
+        for (Long end : ends) {
+            Double expected = expectedCost(graph, 1L, end);
+            if (expected == null) {
+                assertFalse(results.containsKey(end));
+                continue;
+            }
+            assertEquals(expected, results.get(end).distances().get(end), 1e-9);
+            assertEquals(1L, PathBuilder.buildPath(results.get(end).previous(), graph, end).get(0).getId());
+        }
+    }
+
+    private Double expectedCost(Graph graph, long start, long end) {
+        try {
+            return reference.findShortestPath(graph, start, end).distances().get(end);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    static Graph randomGraph(Random random, int nodeCount, int edgeCount) {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (long id = 1; id <= nodeCount; id += 1) {
+            fulcrums.add(fulcrum(id));
+        }
+        for (int i = 0; i < edgeCount; i += 1) {
+            Fulcrum from = fulcrums.get(random.nextInt(nodeCount));
+            Fulcrum to = fulcrums.get(random.nextInt(nodeCount));
+            if (from == to) continue;
+            from.addConnection(to, 0.1 + random.nextDouble() * 10, 1.0 + random.nextDouble());
+        }
+        return new Graph(fulcrums);
+    }
+
+    static Fulcrum fulcrum(Long id) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        return fulcrum;
+    }
+}
@@ -0,0 +1,101 @@
+package com.buildmap.api.services.navigation.edge_snapping;
+
+import com.buildmap.api.entities.mapping_area.Floor;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EdgeSnapIndexTest {
+
+    @Test
+    void shouldSnapToClosestConnectionOfTheFloor() {
+        Random random = new Random(37);
+        Floor[] floors = {floor(1L), floor(2L)};
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (long id = 1; id <= 600; id += 1) {
+            fulcrums.add(fulcrum(id, floors[random.nextInt(floors.length)], random.nextDouble(), random.nextDouble()));
+        }
+        for (int i = 0; i < 1500; i += 1) {
+            Fulcrum from = fulcrums.get(random.nextInt(fulcrums.size()));
+            Fulcrum to = fulcrums.get(random.nextInt(fulcrums.size()));
+            if (from != to) {
+                from.addConnection(to, 1.0 + random.nextDouble() * 5, 1.0);
+            }
+        }
+        Graph graph = new Graph(fulcrums);
+        EdgeSnapIndex index = new EdgeSnapIndex(graph);
+
+        for (int query = 0; query < 300; query += 1) {
+            Floor floor = floors[random.nextInt(floors.length)];
+            double x = random.nextDouble();
+            double y = random.nextDouble();
+
+            EdgeSnapIndex.Snap snap = index.snap(floor.getId(), x, y);
+            Fulcrum first = graph.getNode(snap.firstId());
+            Fulcrum second = graph.getNode(snap.secondId());
+            double snappedX = first.getX() + (second.getX() - first.getX()) * snap.fraction();
+            double snappedY = first.getY() + (second.getY() - first.getY()) * snap.fraction();
+
+            assertEquals(closestSegmentDistance(graph, floor.getId(), x, y),
+                    Math.hypot(snappedX - x, snappedY - y), 1e-12);
+        }
+    }
+
+    @Test
+    void shouldEnterOnlyTowardsConnectedEnds() {
+        Floor floor = floor(1L);
+        Fulcrum west = fulcrum(1L, floor, 0.0, 0.0);
+        Fulcrum east = fulcrum(2L, floor, 1.0, 0.0);
+        west.addConnection(east, 10.0, 2.0);
+        EdgeSnapIndex index = new EdgeSnapIndex(new Graph(List.of(west, east)));
+
+        EdgeSnapIndex.Snap snap = index.snap(1L, 0.3, 0.1);
+
+        assertEquals(0.3, snap.fraction(), 1e-12);
+        Map<Long, Double> entryCosts = snap.entryCosts();
+        // The connection is one-way, so the point cannot walk back to the west end.
+        assertEquals(List.of(2L), List.copyOf(entryCosts.keySet()));
+        assertEquals(14.0, entryCosts.get(2L), 1e-12);
+        assertEquals(7.0, snap.metersTo(2L), 1e-12);
+        assertNull(index.snap(2L, 0.3, 0.1));
+    }
+
+    private static double closestSegmentDistance(Graph graph, Long floorId, double x, double y) {
+        double best = Double.POSITIVE_INFINITY;
+        for (Fulcrum from : graph.getNodes().values()) {
+            if (!from.getFloor().getId().equals(floorId)) continue;
+            for (Graph.Edge edge : graph.getEdges(from.getId())) {
+                Fulcrum to = graph.getNode(edge.targetId());
+                if (!to.getFloor().getId().equals(floorId)) continue;
+                double t = SegmentRTree.projection(from.getX(), from.getY(), to.getX(), to.getY(), x, y);
+                best = Math.min(best, Math.hypot(
+                        from.getX() + (to.getX() - from.getX()) * t - x,
+                        from.getY() + (to.getY() - from.getY()) * t - y));
+            }
+        }
+        return best;
+    }
+
+    private static Fulcrum fulcrum(Long id, Floor floor, double x, double y) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        fulcrum.setFloor(floor);
+        fulcrum.setX(x);
+        fulcrum.setY(y);
+        return fulcrum;
+    }
+
+    private static Floor floor(Long id) {
+        Floor floor = new Floor();
+        floor.setId(id);
+        return floor;
+    }
+}
@@ -0,0 +1,132 @@
+package com.buildmap.api.services.navigation.floor_overlay;
+
+import com.buildmap.api.dto.route.RoutingProfile;
+import com.buildmap.api.entities.mapping_area.Floor;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphLineage;
+import com.buildmap.api.services.navigation.PathBuilder;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import com.buildmap.api.services.navigation.routing_profile.ProfileGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloorOverlayAlgorithmTest {
+
+    private static final int FLOORS = 4;
+    private static final int PER_FLOOR = 60;
+
+    private final IndexedDijkstraAlgorithm reference = new IndexedDijkstraAlgorithm();
+
+    @Test
+    void shouldMatchPlainDijkstraAcrossFloors() {
+        List<Fulcrum> fulcrums = building(new Random(43));
+        Graph graph = new Graph(fulcrums);
+        FloorOverlayAlgorithm algorithm = new FloorOverlayAlgorithm();
+
+        Random random = new Random(47);
+        for (int query = 0; query < 400; query += 1) {
+            Long startId = fulcrums.get(random.nextInt(fulcrums.size())).getId();
+            Long endId = fulcrums.get(random.nextInt(fulcrums.size())).getId();
+            if (startId.equals(endId)) continue;
+
+            DijkstraAlgorithm.DijkstraResult expected;
+            try {
+                expected = reference.findShortestPath(graph, startId, endId);
+            } catch (IllegalArgumentException ex) {
+                assertThrows(IllegalArgumentException.class, () -> algorithm.findShortestPath(graph, startId, endId));
+                continue;
+            }
+            DijkstraAlgorithm.DijkstraResult actual = algorithm.findShortestPath(graph, startId, endId);
+
+            assertEquals(expected.distances().get(endId), actual.distances().get(endId), 1e-9);
+            List<Fulcrum> path = PathBuilder.buildPath(actual.previous(), graph, endId);
+            assertTrue(PathBuilder.isPathFound(path, startId, endId));
+            for (int i = 0; i + 1 < path.size(); i += 1) {
+                Long next = path.get(i + 1).getId();
+                assertTrue(graph.getEdges(path.get(i).getId()).stream().anyMatch(edge -> edge.targetId().equals(next)));
+            }
+        }
+    }
+
+    @Test
+    void shouldRecomputeOnlyChangedFloor() {
+        List<Fulcrum> fulcrums = building(new Random(53));
+        FloorOverlayAlgorithm algorithm = new FloorOverlayAlgorithm();
+        algorithm.overlay(new Graph(fulcrums, GraphLineage.of(7L)));
+
+        // A new corridor on the second floor only.
+        fulcrums.get(PER_FLOOR + 1).addConnection(fulcrums.get(PER_FLOOR + 2), 0.5, 1.0);
+        FloorOverlay overlay = algorithm.overlay(new Graph(fulcrums, GraphLineage.of(7L)));
+
+        assertEquals(FLOORS - 1, overlay.reusedTables());
+    }
+
+    @Test
+    void shouldKeepTablesOfEachLineageApart() {
+        List<Fulcrum> fulcrums = building(new Random(59));
+        FloorOverlayAlgorithm algorithm = new FloorOverlayAlgorithm();
+        Graph graph = new Graph(fulcrums, GraphLineage.of(7L));
+        algorithm.overlay(graph);
+
+        // Neither a profile variant nor a reweighted copy replaces the tables of the area graph.
+        Graph lowEffort = new ProfileGraphs(graph).forProfile(RoutingProfile.LOW_EFFORT);
+        assertEquals(0, algorithm.overlay(lowEffort).reusedTables());
+        algorithm.overlay(graph.reweighted((sourceId, edge) -> edge.cost() * 2));
+        assertEquals(FLOORS, algorithm.overlay(new Graph(fulcrums, GraphLineage.of(7L))).reusedTables());
+        assertEquals(FLOORS, algorithm.overlay(new ProfileGraphs(graph).forProfile(RoutingProfile.LOW_EFFORT))
+                .reusedTables());
+
+        algorithm.forget(7L);
+        assertEquals(0, algorithm.overlay(new Graph(fulcrums, GraphLineage.of(7L))).reusedTables());
+    }
+
+    // Floors of random corridors joined by a stairwell and a few stray one-way links between rooms.
+    private static List<Fulcrum> building(Random random) {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (int level = 0; level < FLOORS; level += 1) {
+            Floor floor = new Floor();
+            floor.setId((long) level + 1);
+            floor.setLevel(level + 1);
+            for (int i = 0; i < PER_FLOOR; i += 1) {
+                Fulcrum fulcrum = new Fulcrum();
+                fulcrum.setId((long) level * PER_FLOOR + i + 1);
+                fulcrum.setFloor(floor);
+                fulcrum.setX(random.nextDouble());
+                fulcrum.setY(random.nextDouble());
+                fulcrum.setType(i == 0 ? FulcrumType.STAIRS : FulcrumType.ROOM);
+                fulcrums.add(fulcrum);
+            }
+            for (int i = 0; i < PER_FLOOR * 3; i += 1) {
+                Fulcrum from = fulcrums.get(level * PER_FLOOR + random.nextInt(PER_FLOOR));
+                Fulcrum to = fulcrums.get(level * PER_FLOOR + random.nextInt(PER_FLOOR));
+                if (from != to) {
+                    from.addConnection(to, 0.5 + random.nextDouble() * 5, 1.0 + random.nextDouble());
+                }
+            }
+        }
+        for (int level = 0; level + 1 < FLOORS; level += 1) {
+            Fulcrum lower = fulcrums.get(level * PER_FLOOR);
+            Fulcrum upper = fulcrums.get((level + 1) * PER_FLOOR);
+            lower.addConnection(upper, 4.0, 2.0);
+            upper.addConnection(lower, 4.0, 1.5);
+        }
+        for (int i = 0; i < 6; i += 1) {
+            Fulcrum from = fulcrums.get(random.nextInt(fulcrums.size()));
+            Fulcrum to = fulcrums.get(random.nextInt(fulcrums.size()));
+            if (from.getFloor() != to.getFloor()) {
+                from.addConnection(to, 1.0 + random.nextDouble() * 3, 1.0);
+            }
+        }
+        return fulcrums;
+    }
+}
@@ -0,0 +1,174 @@
+package com.buildmap.api.services.navigation.graph_cache;
+
+import com.buildmap.api.dto.route.AreaGraphMemoryDto;
+import com.buildmap.api.dto.route.GraphCacheStatsDto;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.exceptions.GraphBuildTimeoutException;
+import com.buildmap.api.exceptions.MappingAreaNotFoundException;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.alt_algorithm.LandmarkTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AreaGraphCacheTest {
+
+    private static final int CALLERS = 16;
+
+    private final AreaGraphLoader loader = Mockito.mock(AreaGraphLoader.class);
+    private final AreaGraphCache cache = new AreaGraphCache(loader);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maxBytes", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(cache, "buildTimeoutMillis", 5_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void shouldBuildColdAreaOnceForConcurrentMisses() throws Exception {
+        Graph graph = graph();
+        when(loader.load(7L)).thenAnswer(invocation -> {
+            release.await();
+            return graph;
+        });
+
+        List<Future<Graph>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i += 1) {
+            results.add(callers.submit(() -> cache.getGraph(7L)));
+        }
+        awaitWaiters(CALLERS - 1);
+        release.countDown();
+
+        for (Future<Graph> result : results) {
+            assertSame(graph, result.get(5, TimeUnit.SECONDS));
+        }
+        verify(loader, times(1)).load(7L);
+        GraphCacheStatsDto stats = cache.stats();
+        assertEquals(1, stats.getBuilds());
+        assertEquals(CALLERS - 1, stats.getCoalescedWaiters());
+        assertEquals(1, stats.getCachedAreas());
+    }
+
+    @Test
+    void shouldReportMemoryOfEachAreaWithItsDerivedStructures() {
+        Graph graph = graph();
+        when(loader.load(7L)).thenReturn(graph);
+        cache.getGraph(7L);
+        LandmarkTable landmarks = graph.derive(LandmarkTable.class, compiled -> LandmarkTable.build(compiled, 2));
+
+        GraphCacheStatsDto stats = cache.stats();
+        AreaGraphMemoryDto area = stats.getAreas().get(0);
+        assertEquals(7L, area.getAreaId());
+        assertEquals(graph.estimateBytes(), area.getGraphBytes());
+        assertEquals(landmarks.estimateBytes(), area.getDerivedBytes().get("LandmarkTable"));
+        assertEquals(graph.estimateBytes() + landmarks.estimateBytes(), area.getRetainedBytes());
+        assertEquals(area.getRetainedBytes(), stats.getUsedBytes());
+    }
+
+    @Test
+    void shouldFailWaitersAsTheBuildFailed() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        when(loader.load(7L)).thenAnswer(invocation -> {
+            building.countDown();
+            release.await();
+            throw new MappingAreaNotFoundException(7L);
+        });
+
+        Future<Graph> builder = callers.submit(() -> cache.getGraph(7L));
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+        Future<Graph> waiter = callers.submit(() -> cache.getGraph(7L));
+        awaitWaiters(1);
+        release.countDown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(MappingAreaNotFoundException.class, failure.getCause());
+        assertThrows(ExecutionException.class, () -> builder.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldTimeOutWaitersOfSlowBuild() throws Exception {
+        ReflectionTestUtils.setField(cache, "buildTimeoutMillis", 50L);
+        Graph graph = graph();
+        CountDownLatch building = new CountDownLatch(1);
+        when(loader.load(7L)).thenAnswer(invocation -> {
+            building.countDown();
+            release.await();
+            return graph;
+        });
+
+        Future<Graph> builder = callers.submit(() -> cache.getGraph(7L));
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+        assertThrows(GraphBuildTimeoutException.class, () -> cache.getGraph(7L));
+        assertEquals(1, cache.stats().getBuildTimeouts());
+
+        release.countDown();
+        assertSame(graph, builder.get(5, TimeUnit.SECONDS));
+        assertSame(graph, cache.getGraph(7L));
+    }
+
+    @Test
+    void shouldDropEntryWhenAreaChangesWhileEditIsRead() {
+        ReflectionTestUtils.setField(cache, "staleWhileRevalidate", false);
+        Graph graph = graph();
+        when(loader.load(7L)).thenReturn(graph);
+        cache.getGraph(7L);
+        AreaGraphEdit edit = AreaGraphEdit.fulcrum(AreaGraphEdit.Kind.FULCRUM_UPDATED, 1L);
+        when(loader.readEdit(7L, edit)).thenAnswer(invocation -> {
+            cache.onAreaGraphChanged(new AreaGraphChangedEvent(7L));
+            return new AreaGraphLoader.EditedRows(null, List.of());
+        });
+        when(loader.patch(Mockito.eq(graph), Mockito.eq(7L), Mockito.eq(edit), Mockito.any())).thenReturn(graph());
+
+        cache.onAreaGraphChanged(new AreaGraphChangedEvent(7L, edit));
+
+        assertEquals(0, cache.stats().getCachedAreas());
+        cache.getGraph(7L);
+        verify(loader, times(2)).load(7L);
+    }
+
+    private void awaitWaiters(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.stats().getCoalescedWaiters() < count) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static Graph graph() {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(1L);
+        fulcrum.setType(FulcrumType.ROOM);
+        fulcrum.setX(0.0);
+        fulcrum.setY(0.0);
+        return new Graph(List.of(fulcrum));
+    }
+}
@@ -0,0 +1,43 @@
+package com.buildmap.api.services.navigation.graph_cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShaftLinksTest {
+
+    @Test
+    void shouldLinkNeighbouringLevelsOnly() {
+        List<FloorSlice.Link> links = ShaftLinks.expand(List.of(member(3L, 3), member(1L, 1), member(2L, 2)));
+
+        assertEquals(Set.of("1>2", "2>1", "2>3", "3>2"), pairs(links));
+        FloorSlice.Link up = links.stream().filter(link -> link.fromId() == 1L).findFirst().orElseThrow();
+        assertEquals(4.0, up.distanceMeters(), 1e-9);
+        assertEquals(1.5, up.difficultyFactor(), 1e-9);
+    }
+
+    @Test
+    void shouldLinkEveryMemberOfSharedLevelToNextLevel() {
+        // Floors 10 and 11 share a level, so neither may be left without a ride.
+        List<FloorSlice.Link> links = ShaftLinks.expand(List.of(
+                member(1L, 10L, 1), member(2L, 11L, 1), member(3L, 12L, 2)));
+
+        assertEquals(Set.of("1>3", "3>1", "2>3", "3>2"), pairs(links));
+    }
+
+    private static Set<String> pairs(List<FloorSlice.Link> links) {
+        return links.stream().map(link -> link.fromId() + ">" + link.toId()).collect(Collectors.toSet());
+    }
+
+    private static ShaftLinks.Member member(Long fulcrumId, int level) {
+        return member(fulcrumId, fulcrumId, level);
+    }
+
+    private static ShaftLinks.Member member(Long fulcrumId, Long floorId, int level) {
+        return new ShaftLinks.Member(5L, fulcrumId, floorId, level, 4.0, 1.5, 1.0);
+    }
+}
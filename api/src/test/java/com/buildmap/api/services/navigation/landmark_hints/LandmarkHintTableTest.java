@@ -0,0 +1,86 @@
+package com.buildmap.api.services.navigation.landmark_hints;
+
+import com.buildmap.api.entities.mapping_area.Floor;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LandmarkHintTableTest {
+
+    private static final double RADIUS = 0.1;
+
+    @Test
+    void shouldFindSameLandmarkAsFullScan() {
+        Random random = new Random(29);
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        Floor[] floors = {floor(1L), floor(2L)};
+        FulcrumType[] types = FulcrumType.values();
+        for (long id = 1; id <= 400; id += 1) {
+            Fulcrum fulcrum = new Fulcrum();
+            fulcrum.setId(id);
+            fulcrum.setFloor(floors[random.nextInt(floors.length)]);
+            fulcrum.setX(random.nextDouble());
+            fulcrum.setY(random.nextDouble());
+            fulcrum.setType(types[random.nextInt(types.length)]);
+            fulcrum.setName(random.nextInt(5) == 0 ? " " : "P" + id);
+            fulcrums.add(fulcrum);
+        }
+        Graph graph = new Graph(fulcrums);
+        LandmarkHintTable table = new LandmarkHintTable(graph, RADIUS);
+
+        for (Fulcrum pivot : fulcrums) {
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double fx = Math.cos(angle);
+            double fy = Math.sin(angle);
+            boolean excludeVerticals = random.nextBoolean();
+
+            Fulcrum expected = scan(graph, pivot, fx, fy, excludeVerticals);
+            Fulcrum actual = null;
+            for (LandmarkHintTable.Candidate candidate : table.candidates(pivot.getId())) {
+                if (excludeVerticals && candidate.isVertical()) continue;
+                if (fx * candidate.dx() + fy * candidate.dy() <= 0) continue;
+                actual = candidate.landmark();
+                break;
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    // The scan step generation used before the table existed.
+    private static Fulcrum scan(Graph graph, Fulcrum pivot, double fx, double fy, boolean excludeVerticals) {
+        Fulcrum best = null;
+        double bestDist = Double.MAX_VALUE;
+        for (Fulcrum candidate : graph.getNodes().values()) {
+            if (candidate.getId().equals(pivot.getId())) continue;
+            if (!candidate.getFloor().getId().equals(pivot.getFloor().getId())) continue;
+            if (candidate.getType() == FulcrumType.WAYPOINT) continue;
+            if (excludeVerticals
+                    && (candidate.getType() == FulcrumType.STAIRS || candidate.getType() == FulcrumType.ELEVATOR)) {
+                continue;
+            }
+            if (candidate.getName().isBlank()) continue;
+            double dx = candidate.getX() - pivot.getX();
+            double dy = candidate.getY() - pivot.getY();
+            double dist = Math.hypot(dx, dy);
+            if (dist > RADIUS || fx * dx + fy * dy <= 0) continue;
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static Floor floor(Long id) {
+        Floor floor = new Floor();
+        floor.setId(id);
+        return floor;
+    }
+}
@@ -0,0 +1,170 @@
+package com.buildmap.api.services.navigation.live_closures;
+
+import com.buildmap.api.dto.live_closure.LiveClosureSaveDto;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.exceptions.LiveClosureNotFoundException;
+import com.buildmap.api.exceptions.ValidationException;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.alt_algorithm.LandmarkTable;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+class LiveClosureServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-02T10:00:00Z");
+
+    private final IndexedDijkstraAlgorithm algorithm = new IndexedDijkstraAlgorithm();
+    private final AreaGraphCache areaGraphCache = Mockito.mock(AreaGraphCache.class);
+    private final MutableClock clock = new MutableClock();
+    private final LiveClosureService service = new LiveClosureService(areaGraphCache, clock);
+    private Graph graph;
+
+    @BeforeEach
+    void setUp() {
+        // Corridor 1-2-4 of cost 4 and detour 1-3-4 of cost 10, both ways.
+        List<Fulcrum> fulcrums = List.of(fulcrum(1), fulcrum(2), fulcrum(3), fulcrum(4));
+        link(fulcrums, 1, 2, 2.0);
+        link(fulcrums, 2, 4, 2.0);
+        link(fulcrums, 1, 3, 5.0);
+        link(fulcrums, 3, 4, 5.0);
+        graph = new Graph(fulcrums);
+        when(areaGraphCache.resolveAreaId(anyLong())).thenReturn(7L);
+        when(areaGraphCache.getGraph(7L)).thenReturn(graph);
+        setTime(NOW);
+    }
+
+    @Test
+    void shouldRouteAroundClosedConnectionUntilItExpires() {
+        LandmarkTable landmarks = graph.derive(LandmarkTable.class, compiled -> LandmarkTable.build(compiled, 2));
+        service.create(closure(2L, 4L, null, NOW.plus(Duration.ofHours(1))));
+
+        ClosureSnapshot snapshot = service.snapshot(7L);
+        Graph closed = snapshot.applyTo(graph);
+        assertEquals(10.0, cost(closed), 1e-9);
+        assertEquals(4.0, cost(graph), 1e-9);
+        assertSame(closed, service.snapshot(7L).applyTo(graph));
+        assertSame(landmarks, closed.derive(LandmarkTable.class, compiled -> LandmarkTable.build(compiled, 2)));
+
+        setTime(NOW.plus(Duration.ofHours(2)));
+        ClosureSnapshot expired = service.snapshot(7L);
+        assertTrue(expired.isEmpty());
+        assertTrue(expired.version() > snapshot.version());
+        assertSame(graph, expired.applyTo(graph));
+    }
+
+    @Test
+    void shouldMultiplyCostsOfPenalisedFulcrum() {
+        LiveClosure closure = service.create(closure(2L, null, 3.0, NOW.plus(Duration.ofMinutes(30))));
+
+        assertEquals(10.0, cost(service.snapshot(7L).applyTo(graph)), 1e-9);
+        assertEquals(3.0, service.snapshot(7L).multiplier(1L, 2L), 1e-9);
+
+        service.delete(closure.id());
+        assertTrue(service.getActiveByMappingAreaId(7L).isEmpty());
+    }
+
+    @Test
+    void shouldFindClosureByIdUntilItExpiresOrIsDeleted() {
+        LiveClosure shortOne = service.create(closure(2L, null, 2.0, NOW.plus(Duration.ofMinutes(10))));
+        LiveClosure longOne = service.create(closure(3L, null, 2.0, NOW.plus(Duration.ofHours(1))));
+        assertSame(shortOne, service.getById(shortOne.id()));
+
+        setTime(NOW.plus(Duration.ofMinutes(20)));
+        assertThrows(LiveClosureNotFoundException.class, () -> service.getById(shortOne.id()));
+        assertSame(longOne, service.getById(longOne.id()));
+
+        service.delete(longOne.id());
+        assertThrows(LiveClosureNotFoundException.class, () -> service.delete(longOne.id()));
+    }
+
+    @Test
+    void shouldTellWhetherRouteCrossesClosure() {
+        Map<Long, Long> corridor = algorithm.findShortestPath(graph, 1L, 4L).previous();
+        service.create(closure(3L, null, 2.0, NOW.plus(Duration.ofHours(1))));
+        assertFalse(service.snapshot(7L).crosses(corridor, 4L));
+
+        service.create(closure(4L, 2L, null, NOW.plus(Duration.ofHours(1))));
+        assertTrue(service.snapshot(7L).crosses(corridor, 4L));
+        assertFalse(new ClosureSnapshot(0, List.of()).crosses(corridor, 4L));
+    }
+
+    @Test
+    void shouldRejectClosureOfMissingConnection() {
+        assertThrows(ValidationException.class,
+                () -> service.create(closure(1L, 4L, null, NOW.plus(Duration.ofHours(1)))));
+        assertThrows(ValidationException.class,
+                () -> service.create(closure(1L, 2L, null, NOW.minus(Duration.ofHours(1)))));
+    }
+
+    private double cost(Graph routed) {
+        return algorithm.findShortestPath(routed, 1L, 4L).distances().get(4L);
+    }
+
+    private void setTime(Instant instant) {
+        clock.instant = instant;
+    }
+
+    private static LiveClosureSaveDto closure(Long fulcrumId, Long connectedFulcrumId, Double penalty, Instant expiresAt) {
+        LiveClosureSaveDto dto = new LiveClosureSaveDto();
+        dto.setFulcrumId(fulcrumId);
+        dto.setConnectedFulcrumId(connectedFulcrumId);
+        dto.setPenalty(penalty);
+        dto.setExpiresAt(expiresAt);
+        return dto;
+    }
+
+    private static void link(List<Fulcrum> fulcrums, long fromId, long toId, double distance) {
+        Fulcrum from = fulcrums.get((int) fromId - 1);
+        Fulcrum to = fulcrums.get((int) toId - 1);
+        from.addConnection(to, distance, 1.0);
+        to.addConnection(from, distance, 1.0);
+    }
+
+    private static Fulcrum fulcrum(long id) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        fulcrum.setType(FulcrumType.ROOM);
+        fulcrum.setX(0.0);
+        fulcrum.setY(0.0);
+        return fulcrum;
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return Clock.fixed(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.buildmap.api.services.navigation.nearest_fulcrum;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.GraphIndex;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearestFulcrumTableTest {
+
+    private final IndexedDijkstraAlgorithm reference = new IndexedDijkstraAlgorithm();
+
+    @Test
+    void shouldRouteToClosestFulcrumOfType() {
+        Random random = new Random(19);
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (long id = 1; id <= 150; id += 1) {
+            Fulcrum fulcrum = new Fulcrum();
+            fulcrum.setId(id);
+            fulcrum.setType(random.nextInt(10) == 0 ? FulcrumType.RESTROOM : FulcrumType.WAYPOINT);
+            fulcrums.add(fulcrum);
+        }
+        for (int i = 0; i < 500; i += 1) {
+            Fulcrum from = fulcrums.get(random.nextInt(fulcrums.size()));
+            Fulcrum to = fulcrums.get(random.nextInt(fulcrums.size()));
+            if (from != to) {
+                from.addConnection(to, 0.1 + random.nextDouble() * 5, 1.0 + random.nextDouble());
+            }
+        }
+        Graph graph = new Graph(fulcrums);
+        GraphIndex index = graph.getIndex();
+        NearestFulcrumTable table = new NearestFulcrumTables(graph).forType(FulcrumType.RESTROOM);
+
+        for (Fulcrum start : fulcrums) {
+            double expected = closestRestroomCost(graph, fulcrums, start);
+            int[] route = table.route(index.indexOf(start.getId()));
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertNull(route);
+                continue;
+            }
+            assertEquals(expected, table.distance(index.indexOf(start.getId())), 1e-9);
+            assertEquals(start.getId(), index.nodeId(route[0]));
+            assertEquals(FulcrumType.RESTROOM, graph.getNode(index.nodeId(route[route.length - 1])).getType());
+            for (int i = 0; i + 1 < route.length; i += 1) {
+                Long next = index.nodeId(route[i + 1]);
+                assertTrue(graph.getEdges(index.nodeId(route[i])).stream().anyMatch(edge -> edge.targetId().equals(next)));
+            }
+        }
+    }
+
+    private double closestRestroomCost(Graph graph, List<Fulcrum> fulcrums, Fulcrum start) {
+        double best = Double.POSITIVE_INFINITY;
+        for (Fulcrum candidate : fulcrums) {
+            if (candidate.getType() != FulcrumType.RESTROOM) continue;
+            if (candidate == start) return 0;
+            try {
+                best = Math.min(best, reference.findShortestPath(graph, start.getId(), candidate.getId())
+                        .distances().get(candidate.getId()));
+            } catch (IllegalArgumentException ignored) {
+                // Unreachable candidate.
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,92 @@
+package com.buildmap.api.services.navigation.qr_route_trees;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphLoader;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphSettledEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QrRouteTreeServiceTest {
+
+    private final AreaGraphLoader loader = Mockito.mock(AreaGraphLoader.class);
+    private final AreaGraphCache cache = new AreaGraphCache(loader);
+    private final ForkJoinPool pool = new ForkJoinPool(1);
+    private final QrRouteTreeService service = new QrRouteTreeService(cache, pool);
+    private final Graph graph = new Graph(qrChain(20));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maxBytes", Long.MAX_VALUE);
+        when(loader.load(7L)).thenReturn(graph);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void shouldNotRecompileInvalidatedAreaForItsTrees() {
+        service.prepare(7L, cache.getGraph(7L)).join();
+        awaitPool();
+
+        cache.invalidate(7L);
+        service.onAreaGraphSettled(new AreaGraphSettledEvent(7L));
+        awaitPool();
+
+        assertFalse(cache.isCached(7L));
+        verify(loader, times(1)).load(7L);
+    }
+
+    @Test
+    void shouldEvictAreaOnceItsTreesOutgrowTheBudget() {
+        ReflectionTestUtils.setField(cache, "maxBytes", graph.estimateBytes() + 1_000);
+        service.prepare(7L, cache.getGraph(7L)).join();
+        awaitPool();
+
+        assertTrue(graph.retainedBytes() > graph.estimateBytes() + 1_000);
+        assertFalse(cache.isCached(7L));
+        assertEquals(0, cache.stats().getCachedAreas());
+
+        // The trees went with the entry, so settling the area does not compile it again.
+        service.onAreaGraphSettled(new AreaGraphSettledEvent(7L));
+        awaitPool();
+        verify(loader, times(1)).load(7L);
+    }
+
+    private void awaitPool() {
+        assertTrue(pool.awaitQuiescence(5, TimeUnit.SECONDS));
+    }
+
+    private static List<Fulcrum> qrChain(int size) {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (long id = 1; id <= size; id += 1) {
+            Fulcrum fulcrum = new Fulcrum();
+            fulcrum.setId(id);
+            fulcrum.setHasQr(true);
+            fulcrums.add(fulcrum);
+        }
+        for (int i = 0; i + 1 < size; i += 1) {
+            fulcrums.get(i).addConnection(fulcrums.get(i + 1), 1.0, 1.0);
+            fulcrums.get(i + 1).addConnection(fulcrums.get(i), 1.0, 1.0);
+        }
+        return fulcrums;
+    }
+}
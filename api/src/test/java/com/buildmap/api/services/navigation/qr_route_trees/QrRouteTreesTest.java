@@ -0,0 +1,99 @@
+package com.buildmap.api.services.navigation.qr_route_trees;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.PathBuilder;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.DijkstraAlgorithm;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QrRouteTreesTest {
+
+    private final IndexedDijkstraAlgorithm reference = new IndexedDijkstraAlgorithm();
+
+    @Test
+    void shouldMatchDijkstraFromEveryQrFulcrum() {
+        Random random = new Random(13);
+        List<Fulcrum> fulcrums = randomGraph(random, 120, 400);
+        Graph graph = new Graph(fulcrums);
+        QrRouteTrees trees = QrRouteTrees.build(graph, null);
+
+        assertEquals(fulcrums.stream().filter(Fulcrum::isHasQr).count(), trees.treeCount());
+        for (Fulcrum start : fulcrums) {
+            for (int query = 0; query < 10; query += 1) {
+                Long end = fulcrums.get(random.nextInt(fulcrums.size())).getId();
+                if (!start.isHasQr()) {
+                    assertNull(trees.route(start.getId(), end));
+                    continue;
+                }
+                assertSameRoute(graph, trees, start.getId(), end);
+            }
+        }
+    }
+
+    @Test
+    void shouldCarryOverOnlyTreesTheEditKeepsOptimal() {
+        Random random = new Random(17);
+        List<Fulcrum> fulcrums = randomGraph(random, 120, 400);
+        QrRouteTrees first = QrRouteTrees.build(new Graph(fulcrums), null);
+
+        QrRouteTrees unchanged = QrRouteTrees.build(new Graph(fulcrums), first);
+        assertEquals(first.treeCount(), unchanged.reusedCount());
+
+        // A free connection from a QR fulcrum to every other one shortens routes from it.
+        Fulcrum hub = fulcrums.stream().filter(Fulcrum::isHasQr).findFirst().orElseThrow();
+        for (Fulcrum other : fulcrums) {
+            if (other != hub) hub.addConnection(other, 0.01, 1.0);
+        }
+        Graph edited = new Graph(fulcrums);
+        QrRouteTrees rebuilt = QrRouteTrees.build(edited, unchanged);
+
+        assertTrue(rebuilt.reusedCount() < rebuilt.treeCount());
+        for (Fulcrum start : fulcrums) {
+            if (!start.isHasQr()) continue;
+            for (int query = 0; query < 10; query += 1) {
+                assertSameRoute(edited, rebuilt, start.getId(), fulcrums.get(random.nextInt(fulcrums.size())).getId());
+            }
+        }
+    }
+
+    private void assertSameRoute(Graph graph, QrRouteTrees trees, Long start, Long end) {
+        DijkstraAlgorithm.DijkstraResult expected;
+        try {
+            expected = reference.findShortestPath(graph, start, end);
+        } catch (IllegalArgumentException ex) {
+            assertThrows(IllegalArgumentException.class, () -> trees.route(start, end));
+            return;
+        }
+        DijkstraAlgorithm.DijkstraResult result = trees.route(start, end);
+        assertEquals(expected.distances().get(end), result.distances().get(end), 1e-9);
+        assertTrue(PathBuilder.isPathFound(PathBuilder.buildPath(result.previous(), graph, end), start, end));
+    }
+
+    private static List<Fulcrum> randomGraph(Random random, int size, int edges) {
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        for (long id = 1; id <= size; id += 1) {
+            Fulcrum fulcrum = new Fulcrum();
+            fulcrum.setId(id);
+            fulcrum.setHasQr(random.nextInt(4) == 0);
+            fulcrums.add(fulcrum);
+        }
+        for (int i = 0; i < edges; i += 1) {
+            Fulcrum from = fulcrums.get(random.nextInt(size));
+            Fulcrum to = fulcrums.get(random.nextInt(size));
+            if (from != to) {
+                from.addConnection(to, 0.1 + random.nextDouble() * 5, 1.0 + random.nextDouble());
+            }
+        }
+        return fulcrums;
+    }
+}
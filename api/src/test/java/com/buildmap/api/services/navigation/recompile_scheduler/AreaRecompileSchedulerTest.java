@@ -0,0 +1,152 @@
+package com.buildmap.api.services.navigation.recompile_scheduler;
+
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphCache;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphChangedEvent;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphLoader;
+import com.buildmap.api.services.navigation.graph_cache.AreaGraphSettledEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AreaRecompileSchedulerTest {
+
+    private final AreaGraphLoader loader = Mockito.mock(AreaGraphLoader.class);
+    private final ApplicationEventPublisher eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+    private final AreaGraphCache cache = new AreaGraphCache(loader);
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>());
+    private AreaRecompileScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "maxBytes", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(cache, "staleWhileRevalidate", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void shouldRecompileBurstOnceAndServeStaleGraphMeanwhile() throws Exception {
+        scheduler = scheduler(Duration.ofMillis(100), Duration.ofSeconds(10));
+        Graph compiled = graph();
+        Graph recompiled = graph();
+        when(loader.load(7L)).thenReturn(compiled, recompiled);
+        assertSame(compiled, cache.getGraph(7L));
+
+        for (int edit = 0; edit < 20; edit += 1) {
+            change(7L);
+        }
+        assertSame(compiled, cache.getGraph(7L));
+        assertTrue(cache.isStale(7L));
+
+        await(() -> !scheduler.isPending(7L) && !cache.isStale(7L));
+        assertSame(recompiled, cache.getGraph(7L));
+        verify(loader, times(2)).load(7L);
+        verify(eventPublisher, times(1)).publishEvent(new AreaGraphSettledEvent(7L));
+    }
+
+    @Test
+    void shouldRecompileAreaWithRecentTrafficFirst() throws Exception {
+        scheduler = scheduler(Duration.ofMillis(20), Duration.ofSeconds(10));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> recompiled = Collections.synchronizedList(new ArrayList<>());
+        when(loader.load(anyLong())).thenAnswer(invocation -> {
+            Long areaId = invocation.getArgument(0);
+            if (cache.getCachedGraph(areaId) != null) {
+                recompiled.add(areaId);
+                if (areaId == 1L) {
+                    started.countDown();
+                    release.await();
+                }
+            }
+            return graph();
+        });
+        cache.getGraph(1L);
+        cache.getGraph(2L);
+        cache.getGraph(3L);
+
+        change(1L);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        cache.getGraph(2L);
+        cache.getGraph(3L);
+        change(2L);
+        change(3L);
+        await(() -> pool.getQueue().size() == 2);
+        release.countDown();
+
+        await(() -> recompiled.size() == 3);
+        assertEquals(List.of(1L, 3L, 2L), recompiled);
+    }
+
+    @Test
+    void shouldRecompileWithinMaximumDelayDuringSteadyEdits() throws Exception {
+        scheduler = scheduler(Duration.ofMillis(200), Duration.ofMillis(300));
+        when(loader.load(7L)).thenAnswer(invocation -> graph());
+        cache.getGraph(7L);
+
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1_500);
+        while (System.nanoTime() < end) {
+            change(7L);
+            Thread.sleep(50);
+        }
+
+        verify(eventPublisher, Mockito.atLeast(2)).publishEvent(new AreaGraphSettledEvent(7L));
+    }
+
+    private AreaRecompileScheduler scheduler(Duration quietPeriod, Duration maxDelay) {
+        return new AreaRecompileScheduler(cache, eventPublisher, true, quietPeriod, maxDelay,
+                Executors.newSingleThreadScheduledExecutor(), pool);
+    }
+
+    private void change(Long areaId) {
+        AreaGraphChangedEvent event = new AreaGraphChangedEvent(areaId);
+        cache.onAreaGraphChanged(event);
+        scheduler.onAreaGraphChanged(event);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static Graph graph() {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(1L);
+        fulcrum.setType(FulcrumType.ROOM);
+        fulcrum.setX(0.0);
+        fulcrum.setY(0.0);
+        return new Graph(List.of(fulcrum));
+    }
+}
@@ -0,0 +1,74 @@
+package com.buildmap.api.services.navigation.route_cache;
+
+import com.buildmap.api.dto.route.RouteCacheStatsDto;
+import com.buildmap.api.dto.route.RouteDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteCacheTest {
+
+    @Test
+    void shouldKeepHotRoutesWhenOneOffPairsArrive() {
+        RouteCache cache = new RouteCache(10);
+        for (long end = 1; end <= 10; end += 1) {
+            RouteCacheKey key = key(1, end);
+            for (int i = 0; i < 3; i += 1) {
+                if (cache.get(key) == null) cache.put(key, new RouteDto());
+            }
+        }
+
+        for (long end = 100; end < 200; end += 1) {
+            RouteCacheKey key = key(1, end);
+            if (cache.get(key) == null) cache.put(key, new RouteDto());
+        }
+
+        for (long end = 1; end <= 10; end += 1) {
+            assertNotNull(cache.get(key(1, end)));
+        }
+        RouteCacheStatsDto stats = cache.stats();
+        assertEquals(10, stats.getSize());
+        assertEquals(100, stats.getRejections());
+        assertEquals(30, stats.getHits());
+    }
+
+    @Test
+    void shouldMissOnceTheAreaRevisionMovesOn() {
+        RouteCache cache = new RouteCache(10);
+        cache.put(key(1, 2), new RouteDto());
+
+        assertNotNull(cache.get(key(1, 2)));
+        assertNull(cache.get(key(2, 2)));
+        assertEquals(1, cache.stats().getMisses());
+    }
+
+    @Test
+    void shouldAdmitHotRoutesOfNewRevisionOverTheirOldEntries() {
+        RouteCache cache = new RouteCache(10);
+        for (long end = 1; end <= 10; end += 1) {
+            for (int i = 0; i < 5; i += 1) {
+                if (cache.get(key(1, end)) == null) cache.put(key(1, end), new RouteDto());
+            }
+        }
+
+        for (long end = 1; end <= 10; end += 1) {
+            if (cache.get(key(2, end)) == null) cache.put(key(2, end), new RouteDto());
+        }
+
+        for (long end = 1; end <= 10; end += 1) {
+            assertNotNull(cache.get(key(2, end)));
+        }
+        assertEquals(10, cache.stats().getSize());
+        assertEquals(0, cache.stats().getRejections());
+
+        // A route computed on the previous graph after the edit is not stored.
+        cache.put(key(1, 11), new RouteDto());
+        assertNull(cache.get(key(1, 11)));
+    }
+
+    private static RouteCacheKey key(long revision, long end) {
+        return new RouteCacheKey(7L, revision, 0, 1L, end, null, null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.buildmap.api.services.navigation.routing_profile;
+
+import com.buildmap.api.dto.route.RoutingProfile;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.Graph;
+import com.buildmap.api.services.navigation.dijkstra_algorithm.IndexedDijkstraAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ProfileGraphsTest {
+
+    private final IndexedDijkstraAlgorithm algorithm = new IndexedDijkstraAlgorithm();
+
+    @Test
+    void shouldRouteEachProfileOnItsOwnVariant() {
+        // Hall 1 reaches room 5 over short stairs, a long ramp or an elevator.
+        Fulcrum hall = fulcrum(1, FulcrumType.HALL);
+        Fulcrum stairs = fulcrum(2, FulcrumType.STAIRS);
+        Fulcrum ramp = fulcrum(3, FulcrumType.WAYPOINT);
+        Fulcrum elevator = fulcrum(4, FulcrumType.ELEVATOR);
+        Fulcrum room = fulcrum(5, FulcrumType.ROOM);
+        hall.addConnection(stairs, 2.0, 1.0);
+        stairs.addConnection(room, 4.0, 2.0);
+        hall.addConnection(ramp, 6.0, 1.5);
+        ramp.addConnection(room, 6.0, 1.5);
+        hall.addConnection(elevator, 10.0, 1.0);
+        elevator.addConnection(room, 10.0, 1.0);
+        Graph graph = new Graph(List.of(hall, stairs, ramp, elevator, room));
+        ProfileGraphs profiles = graph.derive(ProfileGraphs.class, ProfileGraphs::new);
+
+        assertSame(graph, profiles.forProfile(null));
+        assertSame(graph, profiles.forProfile(RoutingProfile.DEFAULT));
+        assertEquals(10.0, cost(graph, 5L), 1e-9);
+
+        Graph stepFree = profiles.forProfile(RoutingProfile.STEP_FREE);
+        assertSame(stepFree, profiles.forProfile(RoutingProfile.STEP_FREE));
+        assertFalse(stepFree.containsNode(2L));
+        assertEquals(18.0, cost(stepFree, 5L), 1e-9);
+
+        // Squared factors: stairs 2 + 16, ramp 13.5 + 13.5, elevator 20.
+        Graph lowEffort = profiles.forProfile(RoutingProfile.LOW_EFFORT);
+        assertEquals(18.0, cost(lowEffort, 5L), 1e-9);
+        lowEffort.getEdges(2L).forEach(edge -> assertEquals(2.0, edge.difficultyFactor(), 1e-9));
+    }
+
+    private double cost(Graph graph, Long endId) {
+        return algorithm.findShortestPath(graph, 1L, endId).distances().get(endId);
+    }
+
+    private static Fulcrum fulcrum(long id, FulcrumType type) {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(id);
+        fulcrum.setType(type);
+        fulcrum.setX(0.0);
+        fulcrum.setY(0.0);
+        return fulcrum;
+    }
+}
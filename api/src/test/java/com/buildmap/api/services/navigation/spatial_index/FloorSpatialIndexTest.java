@@ -0,0 +1,86 @@
+package com.buildmap.api.services.navigation.spatial_index;
+
+import com.buildmap.api.entities.mapping_area.Floor;
+import com.buildmap.api.entities.mapping_area.fulcrum.Fulcrum;
+import com.buildmap.api.entities.mapping_area.fulcrum.FulcrumType;
+import com.buildmap.api.services.navigation.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloorSpatialIndexTest {
+
+    @Test
+    void shouldMatchFullScanOfTheFloor() {
+        Random random = new Random(31);
+        List<Fulcrum> fulcrums = new ArrayList<>();
+        Floor[] floors = {floor(1L), floor(2L)};
+        FulcrumType[] types = FulcrumType.values();
+        for (long id = 1; id <= 2000; id += 1) {
+            Fulcrum fulcrum = new Fulcrum();
+            fulcrum.setId(id);
+            fulcrum.setFloor(floors[random.nextInt(floors.length)]);
+            // A coarse grid, so many points share a coordinate or a distance.
+            fulcrum.setX(random.nextInt(40) / 40.0);
+            fulcrum.setY(random.nextInt(40) / 40.0);
+            fulcrum.setType(types[random.nextInt(types.length)]);
+            fulcrums.add(fulcrum);
+        }
+        FloorSpatialIndex index = new FloorSpatialIndex(new Graph(fulcrums));
+
+        for (int query = 0; query < 300; query += 1) {
+            Long floorId = floors[random.nextInt(floors.length)].getId();
+            double x = random.nextInt(80) / 80.0;
+            double y = random.nextInt(80) / 80.0;
+            int k = 1 + random.nextInt(20);
+            FulcrumType type = random.nextBoolean() ? null : types[random.nextInt(types.length)];
+
+            assertEquals(scan(fulcrums, floorId, x, y, k, type), index.nearest(floorId, x, y, k, type));
+        }
+    }
+
+    @Test
+    void shouldReturnNothingForUnknownFloor() {
+        Fulcrum fulcrum = new Fulcrum();
+        fulcrum.setId(1L);
+        fulcrum.setFloor(floor(1L));
+        fulcrum.setX(0.5);
+        fulcrum.setY(0.5);
+        fulcrum.setType(FulcrumType.ROOM);
+        FloorSpatialIndex index = new FloorSpatialIndex(new Graph(List.of(fulcrum)));
+
+        assertTrue(index.nearest(2L, 0.5, 0.5, 3, null).isEmpty());
+        assertTrue(index.nearest(1L, 0.5, 0.5, 3, FulcrumType.ELEVATOR).isEmpty());
+        assertEquals(List.of(fulcrum), index.nearest(1L, 0, 0, 3, null));
+    }
+
+    private static List<Fulcrum> scan(List<Fulcrum> fulcrums, Long floorId, double x, double y, int k,
+                                      FulcrumType type) {
+        return fulcrums.stream()
+                .filter(fulcrum -> fulcrum.getFloor().getId().equals(floorId))
+                .filter(fulcrum -> type == null || fulcrum.getType() == type)
+                .sorted(Comparator
+                        .comparingDouble((Fulcrum fulcrum) -> squaredDistance(fulcrum, x, y))
+                        .thenComparing(Fulcrum::getId))
+                .limit(k)
+                .toList();
+    }
+
+    private static double squaredDistance(Fulcrum fulcrum, double x, double y) {
+        double dx = fulcrum.getX() - x;
+        double dy = fulcrum.getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static Floor floor(Long id) {
+        Floor floor = new Floor();
+        floor.setId(id);
+        return floor;
+    }
+}